@@ -0,0 +1,27 @@
+package com.orgforge.core.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Which database the app is connected to, for the few JDBC paths that use Postgres-only
+ * SQL (such as ON CONFLICT upserts) and fall back to portable statements
+ * on H2. Detected from the connection metadata on first use.
+ */
+@Component
+@RequiredArgsConstructor
+public class DatabaseDialect {
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Boolean postgres;
+
+    public boolean isPostgres() {
+        if (postgres == null) {
+            postgres = jdbcTemplate.execute((ConnectionCallback<Boolean>) con ->
+                    con.getMetaData().getDatabaseProductName().toLowerCase().contains("postgres"));
+        }
+        return postgres;
+    }
+}
@@ -0,0 +1,37 @@
+package com.orgforge.core.config;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Fixed pools of daemon threads for services that bound their own fan-out (collectors,
+ * ingestion, bulk calls), as opposed to the shared {@code taskExecutor} that runs
+ * {@code @Async} jobs. Every pool is shut down with the context; services that use one
+ * are destroyed first, since they depend on this bean.
+ */
+@Component
+public class WorkerPools {
+
+    private final List<ExecutorService> pools = new CopyOnWriteArrayList<>();
+
+    /** A pool of {@code threads} daemon threads, each named {@code threadName}. */
+    public ExecutorService fixed(String threadName, int threads) {
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, threadName);
+            t.setDaemon(true);
+            return t;
+        });
+        pools.add(pool);
+        return pool;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pools.forEach(ExecutorService::shutdownNow);
+    }
+}
@@ -21,9 +21,13 @@ public class NotificationService {
     }
 
     public void notifyAlert(UUID orgId, String module, String alertType, String message) {
+        notifyAlert(orgId, module, alertType, "WARNING", message);
+    }
+
+    public void notifyAlert(UUID orgId, String module, String alertType, String severity, String message) {
         broker.broadcast("alerts." + orgId, Map.of(
             "module", module, "alertType", alertType,
-            "message", message, "severity", "WARNING",
+            "message", message, "severity", severity,
             "timestamp", LocalDateTime.now().toString()
         ));
     }
@@ -0,0 +1,120 @@
+package com.orgforge.core.salesforce;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Live per-org API usage taken from the {@code Sforce-Limit-Info: api-usage=used/max}
+ * header that Salesforce puts on every REST and Tooling API response, so the daily
+ * allowance can be read without spending a {@code /limits} call.
+ *
+ * <p>{@link RestApiClient} and {@link ToolingApiClient} run each call inside
+ * {@link #attribute} and install {@link #interceptor()}, which records the header of
+ * every response, errors included. Each org's latest reading is also published as the
+ * {@code salesforce.api.usage} gauge, tagged with the org id.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ApiUsageTracker {
+
+    public static final String HEADER = "Sforce-Limit-Info";
+
+    private static final Pattern API_USAGE = Pattern.compile("(?:^|[,;\\s])api-usage=(\\d+)/(\\d+)");
+    private static final ThreadLocal<String> CURRENT_ORG = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, ApiUsage> byOrg = new ConcurrentHashMap<>();
+
+    /** Age after which a reading no longer stands in for a {@code /limits} call. */
+    @Value("${salesforce.api-usage.max-age-seconds:300}")
+    private long maxAgeSeconds;
+
+    /** One header reading; {@code used} counts the rolling 24-hour window. */
+    public record ApiUsage(long used, long max, LocalDateTime observedAt) {
+
+        public double percentage() {
+            return max > 0 ? Math.round((double) used / max * 10000.0) / 100.0 : 0;
+        }
+    }
+
+    /** Runs one Salesforce call with its responses attributed to {@code orgId}. */
+    public <T> T attribute(String orgId, Supplier<T> call) {
+        String previous = CURRENT_ORG.get();
+        CURRENT_ORG.set(orgId);
+        try {
+            return call.get();
+        } finally {
+            if (previous != null) CURRENT_ORG.set(previous); else CURRENT_ORG.remove();
+        }
+    }
+
+    /** Records the limit header of every response made inside {@link #attribute}. */
+    public ClientHttpRequestInterceptor interceptor() {
+        return (request, body, execution) -> {
+            var response = execution.execute(request, body);
+            String orgId = CURRENT_ORG.get();
+            if (orgId != null) record(orgId, response.getHeaders().getFirst(HEADER));
+            return response;
+        };
+    }
+
+    /** The org's latest reading, however old. */
+    public Optional<ApiUsage> get(String orgId) {
+        return Optional.ofNullable(byOrg.get(orgId));
+    }
+
+    /** The org's latest reading if it was taken within {@code max-age-seconds}. */
+    public Optional<ApiUsage> fresh(String orgId) {
+        LocalDateTime cutoff = LocalDateTime.now().minusSeconds(maxAgeSeconds);
+        return get(orgId).filter(u -> u.observedAt().isAfter(cutoff));
+    }
+
+    void record(String orgId, String header) {
+        if (header == null) return;
+        Matcher m = API_USAGE.matcher(header);
+        if (!m.find()) return;
+        ApiUsage usage;
+        try {
+            usage = new ApiUsage(Long.parseLong(m.group(1)), Long.parseLong(m.group(2)), LocalDateTime.now());
+        } catch (NumberFormatException e) {
+            log.debug("Unreadable {} header for org {}: {}", HEADER, orgId, header);
+            return;
+        }
+        if (byOrg.putIfAbsent(orgId, usage) != null) {
+            byOrg.merge(orgId, usage, ApiUsageTracker::newer);
+        } else {
+            Gauge.builder("salesforce.api.usage", byOrg, map -> {
+                        ApiUsage u = map.get(orgId);
+                        return u != null ? u.percentage() : Double.NaN;
+                    })
+                    .description("Share of the org's daily API requests used, from the last response header")
+                    .baseUnit("percent")
+                    .tag("org", orgId)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Responses finish on many threads, so an older reading can be recorded after a newer
+     * one; keep the later, or the higher count when both were taken at the same instant.
+     */
+    private static ApiUsage newer(ApiUsage current, ApiUsage candidate) {
+        int order = candidate.observedAt().compareTo(current.observedAt());
+        if (order != 0) return order > 0 ? candidate : current;
+        return candidate.used() >= current.used() ? candidate : current;
+    }
+}
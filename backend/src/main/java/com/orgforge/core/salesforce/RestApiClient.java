@@ -1,14 +1,17 @@
 package com.orgforge.core.salesforce;
 
 import com.orgforge.core.org.OrgConnection;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.*;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Supplier;
@@ -17,6 +20,7 @@ import java.util.function.Supplier;
 public class RestApiClient {
 
     private final SalesforceAuthService salesforceAuthService;
+    private final ApiUsageTracker apiUsageTracker;
     private final RestTemplate restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory());
 
     public Map<?, ?> query(OrgConnection org, String soql) {
@@ -26,6 +30,19 @@ public class RestApiClient {
         return get(org, url);
     }
 
+    /** Runs a SOSL search; the URI is pre-encoded because SOSL braces would read as URI template variables. */
+    public Map<?, ?> search(OrgConnection org, String sosl) {
+        URI uri = UriComponentsBuilder
+            .fromHttpUrl(org.getInstanceUrl() + "/services/data/v" + org.getApiVersion() + "/search")
+            .queryParam("q", sosl).build().encode().toUri();
+        return execute(org, () -> restTemplate.exchange(uri, HttpMethod.GET, headers(org), Map.class).getBody());
+    }
+
+    /** Next page of a query result, from its {@code nextRecordsUrl}. */
+    public Map<?, ?> queryMore(OrgConnection org, String nextRecordsUrl) {
+        return get(org, org.getInstanceUrl() + nextRecordsUrl);
+    }
+
     public Map<?, ?> get(OrgConnection org, String fullUrl) {
         return execute(org, () -> restTemplate.exchange(fullUrl, HttpMethod.GET, headers(org), Map.class).getBody());
     }
@@ -74,23 +91,47 @@ public class RestApiClient {
         });
     }
 
+    @SuppressWarnings("rawtypes")
+    public List<?> deleteCollection(OrgConnection org, String path) {
+        return execute(org, () -> restTemplate.exchange(
+            org.getInstanceUrl() + "/services/data/v" + org.getApiVersion() + path,
+            HttpMethod.DELETE, headers(org), List.class).getBody());
+    }
+
+    /**
+     * Streams a response body, e.g. an EventLogFile's {@code LogFile} blob, into {@code reader}
+     * without buffering it; the body is closed once {@code reader} returns.
+     */
+    public <T> T download(OrgConnection org, String path, ResponseExtractor<T> reader) {
+        return execute(org, () -> restTemplate.execute(
+            org.getInstanceUrl() + "/services/data/v" + org.getApiVersion() + path, HttpMethod.GET,
+            request -> request.getHeaders().setBearerAuth(org.getAccessToken()), reader));
+    }
+
     public Map<?, ?> describe(OrgConnection org, String object) {
         return get(org, org.getInstanceUrl() + "/services/data/v" + org.getApiVersion()
             + "/sobjects/" + object + "/describe");
     }
 
-    // Retry once after refreshing the token on 401
+    @PostConstruct
+    void captureApiUsage() {
+        restTemplate.getInterceptors().add(apiUsageTracker.interceptor());
+    }
+
+    // Retry once after refreshing the token on 401; response headers feed the org's API usage
     private <T> T execute(OrgConnection org, Supplier<T> action) {
-        try {
-            return action.get();
-        } catch (HttpClientErrorException e) {
-            if (e.getStatusCode() == HttpStatus.UNAUTHORIZED) {
-                log.info("SF access token expired for org {}, refreshing...", org.getOrgId());
-                salesforceAuthService.refreshAccessToken(org);
+        return apiUsageTracker.attribute(org.getOrgId(), () -> {
+            try {
                 return action.get();
+            } catch (HttpClientErrorException e) {
+                if (e.getStatusCode() == HttpStatus.UNAUTHORIZED) {
+                    log.info("SF access token expired for org {}, refreshing...", org.getOrgId());
+                    salesforceAuthService.refreshAccessToken(org);
+                    return action.get();
+                }
+                throw e;
             }
-            throw e;
-        }
+        });
     }
 
     private HttpEntity<Void> headers(OrgConnection org) {
@@ -0,0 +1,47 @@
+package com.orgforge.core.salesforce;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/** Conversions between Salesforce datetime strings, SOQL literals and local time. */
+public final class SalesforceDates {
+
+    /** Format of datetime fields in REST API responses, e.g. 2024-05-01T12:00:00.000+0000. */
+    private static final DateTimeFormatter API_DATETIME = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSZ");
+    private static final DateTimeFormatter SOQL_DATETIME = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss'Z'");
+
+    private SalesforceDates() {}
+
+    /** Parses a datetime field value; null when absent or unparseable. */
+    public static OffsetDateTime parse(Object value) {
+        if (value == null) return null;
+        String s = value.toString();
+        try {
+            return OffsetDateTime.parse(s, API_DATETIME);
+        } catch (Exception e) {
+            try {
+                return OffsetDateTime.parse(s);
+            } catch (Exception ignored) {
+                return null;
+            }
+        }
+    }
+
+    /** A datetime field value in the server's zone, as the app's timestamps are stored. */
+    public static LocalDateTime toLocal(Object value) {
+        OffsetDateTime parsed = parse(value);
+        return parsed != null ? parsed.atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime() : null;
+    }
+
+    /** SOQL datetime literal (UTC, second precision), e.g. 2024-05-01T12:00:00Z. */
+    public static String soqlLiteral(OffsetDateTime value) {
+        return value.withOffsetSameInstant(ZoneOffset.UTC).format(SOQL_DATETIME);
+    }
+
+    public static String soqlLiteral(LocalDateTime local) {
+        return soqlLiteral(local.atZone(ZoneId.systemDefault()).toOffsetDateTime());
+    }
+}
@@ -1,6 +1,7 @@
 package com.orgforge.core.salesforce;
 
 import com.orgforge.core.org.OrgConnection;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.*;
@@ -18,6 +19,7 @@ import java.util.function.Supplier;
 public class ToolingApiClient {
 
     private final SalesforceAuthService salesforceAuthService;
+    private final ApiUsageTracker apiUsageTracker;
     private final RestTemplate restTemplate = new RestTemplate();
 
     public Map<?, ?> query(OrgConnection org, String soql) {
@@ -44,18 +46,25 @@ public class ToolingApiClient {
         });
     }
 
-    // Retry once after refreshing the token on 401
+    @PostConstruct
+    void captureApiUsage() {
+        restTemplate.getInterceptors().add(apiUsageTracker.interceptor());
+    }
+
+    // Retry once after refreshing the token on 401; response headers feed the org's API usage
     private <T> T execute(OrgConnection org, Supplier<T> action) {
-        try {
-            return action.get();
-        } catch (HttpClientErrorException e) {
-            if (e.getStatusCode() == HttpStatus.UNAUTHORIZED) {
-                log.info("SF access token expired for org {}, refreshing...", org.getOrgId());
-                salesforceAuthService.refreshAccessToken(org);
+        return apiUsageTracker.attribute(org.getOrgId(), () -> {
+            try {
                 return action.get();
+            } catch (HttpClientErrorException e) {
+                if (e.getStatusCode() == HttpStatus.UNAUTHORIZED) {
+                    log.info("SF access token expired for org {}, refreshing...", org.getOrgId());
+                    salesforceAuthService.refreshAccessToken(org);
+                    return action.get();
+                }
+                throw e;
             }
-            throw e;
-        }
+        });
     }
 
     private HttpEntity<Void> headers(OrgConnection org) {
@@ -0,0 +1,97 @@
+package com.orgforge.core.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal streaming RFC 4180 reader: quoted fields, doubled quotes and line breaks
+ * inside quotes are supported. Reads one row at a time so arbitrarily large files
+ * can be processed in constant memory.
+ */
+public class CsvReader implements Closeable {
+
+    private final Reader reader;
+    private boolean first = true;
+    private int pushback = -2;
+
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /** Returns the next row, or {@code null} at end of input. Blank lines are skipped. */
+    public List<String> next() throws IOException {
+        while (true) {
+            List<String> row = readRow();
+            if (row == null) return null;
+            if (row.size() == 1 && row.get(0).isEmpty()) continue;
+            return row;
+        }
+    }
+
+    private List<String> readRow() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean any = false;
+
+        int c;
+        while ((c = read()) != -1) {
+            any = true;
+            if (quoted) {
+                if (c == '"') {
+                    int n = read();
+                    if (n == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        unread(n);
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r') {
+                int n = read();
+                if (n != '\n') unread(n);
+                break;
+            } else if (c == '\n') {
+                break;
+            } else {
+                field.append((char) c);
+            }
+        }
+        if (!any) return null;
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private int read() throws IOException {
+        if (pushback != -2) {
+            int c = pushback;
+            pushback = -2;
+            return c;
+        }
+        int c = reader.read();
+        if (first) {
+            first = false;
+            if (c == '\uFEFF') c = reader.read(); // UTF-8 BOM from Excel exports
+        }
+        return c;
+    }
+
+    private void unread(int c) {
+        pushback = c;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
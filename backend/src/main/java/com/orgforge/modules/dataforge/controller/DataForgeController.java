@@ -2,14 +2,23 @@ package com.orgforge.modules.dataforge.controller;
 
 import com.orgforge.core.org.OrgConnection;
 import com.orgforge.core.org.OrgConnectionRepository;
+import com.orgforge.modules.dataforge.dto.ImportEstimateDTO;
 import com.orgforge.modules.dataforge.model.FieldMapping;
 import com.orgforge.modules.dataforge.model.ImportJob;
 import com.orgforge.modules.dataforge.service.DataForgeService;
+import com.orgforge.modules.dataforge.service.ImportEstimator;
+import com.orgforge.modules.dataforge.service.ImportRollbackService;
+import com.orgforge.modules.dataforge.service.ImportSpooler;
+import com.orgforge.modules.dataforge.service.SpoolFile;
+import com.orgforge.modules.dataforge.service.TreeImportService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -21,6 +30,10 @@ import java.util.Map;
 public class DataForgeController {
 
     private final DataForgeService dataForgeService;
+    private final ImportEstimator importEstimator;
+    private final ImportRollbackService importRollbackService;
+    private final ImportSpooler importSpooler;
+    private final TreeImportService treeImportService;
     private final OrgConnectionRepository orgConnectionRepository;
 
     // -------------------------------------------------------------------------
@@ -76,32 +89,106 @@ public class DataForgeController {
     /**
      * POST /api/data-forge/jobs
      * Body: { orgId, objectName, operation, fileName, records: [...], createdBy }
+     * The records are streamed into a spool file as the body is read, not held in memory.
      */
     @PostMapping("/jobs")
-    public ResponseEntity<Map<String, Object>> createJob(
+    public ResponseEntity<Map<String, Object>> createJob(HttpServletRequest httpRequest) throws IOException {
+        ImportSpooler.StagedRequest staged = importSpooler.stage(httpRequest.getInputStream());
+        try {
+            Map<String, Object> request = staged.fields();
+            String orgId = (String) request.get("orgId");
+            String objectName = (String) request.get("objectName");
+            String operation = (String) request.getOrDefault("operation", "INSERT");
+            String externalIdField = (String) request.get("externalIdField");
+            String fileName = (String) request.getOrDefault("fileName", "upload.csv");
+            String createdBy = (String) request.getOrDefault("createdBy", "user");
+
+            OrgConnection org = resolveOrg(orgId);
+            ImportJob job = dataForgeService.createImportJob(orgId, objectName, fileName, operation,
+                    externalIdField, createdBy);
+
+            // Kick off async processing, which deletes the spool when done
+            dataForgeService.processImport(job.getId(), staged.spool(), org);
+
+            Map<String, Object> response = mapJob(job);
+            response.put("message", "Import job started");
+            return ResponseEntity.ok(response);
+        } catch (RuntimeException e) {
+            Files.deleteIfExists(staged.spool());
+            throw e;
+        }
+    }
+
+    /**
+     * POST /api/data-forge/jobs/tree
+     * Body: { orgId, objectName, fileName, createdBy, records: [...] } with children nested
+     * under their relationship name, or flat rows plus
+     * { keyField, children: [{ objectName, relationshipName, parentKeyField, keyField?, records, children? }] }.
+     * Inserts parent/child graphs through the sObject Tree API as a TREE job.
+     */
+    @PostMapping("/jobs/tree")
+    public ResponseEntity<Map<String, Object>> createTreeJob(
             @RequestBody Map<String, Object> request) {
         String orgId = (String) request.get("orgId");
         String objectName = (String) request.get("objectName");
-        String operation = (String) request.getOrDefault("operation", "INSERT");
-        String externalIdField = (String) request.get("externalIdField");
-        String fileName = (String) request.getOrDefault("fileName", "upload.csv");
+        String fileName = (String) request.getOrDefault("fileName", "upload.json");
         String createdBy = (String) request.getOrDefault("createdBy", "user");
 
-        @SuppressWarnings("unchecked")
-        List<Map<String, Object>> records = (List<Map<String, Object>>) request.get("records");
-        if (records == null) records = List.of();
-
         OrgConnection org = resolveOrg(orgId);
-        ImportJob job = dataForgeService.createImportJob(orgId, objectName, fileName, operation, externalIdField, createdBy);
+        ImportJob job = dataForgeService.createImportJob(orgId, objectName, fileName, "TREE", null, createdBy);
+
+        treeImportService.processTreeImport(job.getId(), request, org);
+
+        Map<String, Object> response = mapJob(job);
+        response.put("message", "Tree import job started");
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * POST /api/data-forge/jobs/{id}/rollback
+     * Body: { createdBy }
+     * Starts a ROLLBACK job that deletes the records the import created and restores
+     * the previous values of the records it updated.
+     */
+    @PostMapping("/jobs/{id}/rollback")
+    public ResponseEntity<Map<String, Object>> rollbackJob(
+            @PathVariable Long id,
+            @RequestBody(required = false) Map<String, Object> request) {
+        String createdBy = request != null ? (String) request.getOrDefault("createdBy", "user") : "user";
+
+        ImportJob source = dataForgeService.getJob(id);
+        OrgConnection org = resolveOrg(source.getOrgId());
+        ImportJob job = importRollbackService.createRollbackJob(id, createdBy);
 
-        // Kick off async processing
-        dataForgeService.processImport(job.getId(), records, org);
+        importRollbackService.processRollback(job.getId(), org);
 
         Map<String, Object> response = mapJob(job);
-        response.put("message", "Import job started");
+        response.put("message", "Rollback job started");
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * POST /api/data-forge/jobs/estimate
+     * Body: same as POST /jobs. Validates the records and projects API calls,
+     * share of the daily API allowance and duration without touching Salesforce data.
+     */
+    @PostMapping("/jobs/estimate")
+    public ResponseEntity<ImportEstimateDTO> estimateJob(HttpServletRequest httpRequest) throws IOException {
+        ImportSpooler.StagedRequest staged = importSpooler.stage(httpRequest.getInputStream());
+        try (SpoolFile spool = SpoolFile.open(staged.spool())) {
+            Map<String, Object> request = staged.fields();
+            String orgId = (String) request.get("orgId");
+            String objectName = (String) request.get("objectName");
+            String operation = (String) request.getOrDefault("operation", "INSERT");
+            String externalIdField = (String) request.get("externalIdField");
+
+            OrgConnection org = resolveOrg(orgId);
+            return ResponseEntity.ok(importEstimator.estimate(org, objectName, operation, externalIdField, spool));
+        } finally {
+            Files.deleteIfExists(staged.spool());
+        }
+    }
+
     // -------------------------------------------------------------------------
     // Field Mappings
     // -------------------------------------------------------------------------
@@ -119,7 +206,8 @@ public class DataForgeController {
 
     /**
      * POST /api/data-forge/mappings
-     * Body: { orgId, objectName, mappingName, mappingJson, createdBy }
+     * Body: { orgId, objectName, mappingName, mappingJson, filePattern?, operation?, externalIdField?, createdBy }
+     * A filePattern makes the mapping eligible for directory ingestion of matching files.
      */
     @PostMapping("/mappings")
     public ResponseEntity<Map<String, Object>> saveMapping(
@@ -128,9 +216,13 @@ public class DataForgeController {
         String objectName = (String) request.get("objectName");
         String mappingName = (String) request.get("mappingName");
         String mappingJson = (String) request.get("mappingJson");
+        String filePattern = (String) request.get("filePattern");
+        String operation = (String) request.get("operation");
+        String externalIdField = (String) request.get("externalIdField");
         String createdBy = (String) request.getOrDefault("createdBy", "user");
 
-        FieldMapping saved = dataForgeService.saveMapping(orgId, objectName, mappingName, mappingJson, createdBy);
+        FieldMapping saved = dataForgeService.saveMapping(orgId, objectName, mappingName, mappingJson,
+                filePattern, operation, externalIdField, createdBy);
         return ResponseEntity.ok(mapFieldMapping(saved));
     }
 
@@ -156,6 +248,8 @@ public class DataForgeController {
         map.put("errorCount", job.getErrorCount());
         map.put("fileName", job.getFileName());
         map.put("operation", job.getOperation());
+        map.put("rollbackOfJobId", job.getRollbackOfJobId());
+        map.put("sourceChecksum", job.getSourceChecksum());
         map.put("createdBy", job.getCreatedBy());
         map.put("createdAt", job.getCreatedAt() != null ? job.getCreatedAt().toString() : null);
         map.put("completedAt", job.getCompletedAt() != null ? job.getCompletedAt().toString() : null);
@@ -169,6 +263,9 @@ public class DataForgeController {
         map.put("objectName", fm.getObjectName());
         map.put("mappingName", fm.getMappingName());
         map.put("mappingJson", fm.getMappingJson());
+        map.put("filePattern", fm.getFilePattern());
+        map.put("operation", fm.getOperation());
+        map.put("externalIdField", fm.getExternalIdField());
         map.put("createdBy", fm.getCreatedBy());
         map.put("createdAt", fm.getCreatedAt() != null ? fm.getCreatedAt().toString() : null);
         return map;
@@ -0,0 +1,24 @@
+package com.orgforge.modules.dataforge.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public record ImportEstimateDTO(
+        String objectName,
+        String operation,
+        String strategy,
+        int totalRecords,
+        int validRecords,
+        int invalidRecords,
+        List<Map<String, Object>> sampleErrors,
+        int warningRecords,
+        List<Map<String, Object>> sampleWarnings,
+        int batchSize,
+        int batches,
+        int apiCalls,
+        Long dailyApiRemaining,
+        Long dailyApiMax,
+        Double dailyApiSharePct,
+        Double recordsPerSecond,
+        Long estimatedSeconds
+) {}
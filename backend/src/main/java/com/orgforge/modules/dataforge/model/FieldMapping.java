@@ -24,6 +24,13 @@ public class FieldMapping {
     @Column(columnDefinition = "TEXT")
     private String mappingJson;
 
+    /** Glob matched against file names dropped in a watched directory, e.g. "accounts_*.csv". */
+    private String filePattern;
+
+    /** Operation and external ID used when this mapping drives a file import. */
+    private String operation;
+    private String externalIdField;
+
     private String createdBy;
     private LocalDateTime createdAt;
 }
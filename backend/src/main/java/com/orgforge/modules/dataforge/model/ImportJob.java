@@ -28,6 +28,9 @@ public class ImportJob {
     private int successCount;
     private int errorCount;
 
+    /** Updated records whose previous values could not be read, so a rollback cannot restore them. */
+    private int unrevertibleRecords;
+
     private String fileName;
 
     @Builder.Default
@@ -35,6 +38,12 @@ public class ImportJob {
 
     private String externalIdField;
 
+    /** SHA-256 of the source file for directory-ingested jobs; makes re-drops idempotent. */
+    private String sourceChecksum;
+
+    /** Set on ROLLBACK jobs: the import job being reverted. */
+    private Long rollbackOfJobId;
+
     private String createdBy;
     private LocalDateTime createdAt;
     private LocalDateTime completedAt;
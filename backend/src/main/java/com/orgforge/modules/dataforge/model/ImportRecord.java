@@ -0,0 +1,42 @@
+package com.orgforge.modules.dataforge.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * One Salesforce record written by an import job: the Id it created, or the Id it
+ * updated together with the field values it overwrote. Used to roll the job back.
+ */
+@Entity
+@Table(name = "import_job_records")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportRecord {
+
+    public static final String CREATED = "CREATED";
+    public static final String UPDATED = "UPDATED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long importJobId;
+
+    private int rowNumber;
+
+    @Column(length = 18, nullable = false)
+    private String recordId;
+
+    @Column(length = 10, nullable = false)
+    private String action;
+
+    /**
+     * JSON object of field → value before the update; null for created records, and for
+     * updated ones whose values could not be read before the write (not revertible).
+     */
+    @Column(columnDefinition = "TEXT")
+    private String previousValues;
+}
@@ -12,4 +12,6 @@ public interface FieldMappingRepository extends JpaRepository<FieldMapping, Long
 
     Optional<FieldMapping> findByOrgIdAndObjectNameAndMappingName(
             String orgId, String objectName, String mappingName);
+
+    List<FieldMapping> findByOrgIdAndFilePatternIsNotNullOrderByIdAsc(String orgId);
 }
@@ -5,11 +5,20 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ImportJobRepository extends JpaRepository<ImportJob, Long> {
 
     Page<ImportJob> findByOrgIdOrderByCreatedAtDesc(String orgId, Pageable pageable);
 
     List<ImportJob> findTop5ByOrgIdOrderByCreatedAtDesc(String orgId);
+
+    Optional<ImportJob> findFirstByOrgIdAndSourceChecksum(String orgId, String sourceChecksum);
+
+    boolean existsByRollbackOfJobIdAndStatusIn(Long rollbackOfJobId, Collection<String> statuses);
+
+    List<ImportJob> findTop20ByOrgIdAndObjectNameAndCompletedAtIsNotNullOrderByCreatedAtDesc(
+            String orgId, String objectName);
 }
@@ -0,0 +1,15 @@
+package com.orgforge.modules.dataforge.repository;
+
+import com.orgforge.modules.dataforge.model.ImportRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface ImportRecordRepository extends JpaRepository<ImportRecord, Long>, ImportRecordRepositoryCustom {
+
+    /** Keyset page over one job's records of the given action, in write order. */
+    List<ImportRecord> findTop200ByImportJobIdAndActionAndIdGreaterThanOrderByIdAsc(
+            Long importJobId, String action, Long afterId);
+
+    long countByImportJobId(Long importJobId);
+}
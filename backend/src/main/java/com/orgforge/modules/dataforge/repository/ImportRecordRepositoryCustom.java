@@ -0,0 +1,11 @@
+package com.orgforge.modules.dataforge.repository;
+
+import com.orgforge.modules.dataforge.model.ImportRecord;
+
+import java.util.List;
+
+public interface ImportRecordRepositoryCustom {
+
+    /** Inserts all records in a single JDBC batch (IDENTITY ids disable Hibernate batching). */
+    void batchInsert(List<ImportRecord> records);
+}
@@ -0,0 +1,28 @@
+package com.orgforge.modules.dataforge.repository;
+
+import com.orgforge.modules.dataforge.model.ImportRecord;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+public class ImportRecordRepositoryImpl implements ImportRecordRepositoryCustom {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void batchInsert(List<ImportRecord> records) {
+        if (records.isEmpty()) return;
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO import_job_records (import_job_id, row_number, record_id, action, previous_values) "
+                        + "VALUES (?, ?, ?, ?, ?)",
+                records, records.size(), (ps, r) -> {
+                    ps.setLong(1, r.getImportJobId());
+                    ps.setInt(2, r.getRowNumber());
+                    ps.setString(3, r.getRecordId());
+                    ps.setString(4, r.getAction());
+                    ps.setString(5, r.getPreviousValues());
+                });
+    }
+}
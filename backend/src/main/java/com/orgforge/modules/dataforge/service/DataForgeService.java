@@ -1,12 +1,14 @@
 package com.orgforge.modules.dataforge.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.orgforge.core.org.OrgConnection;
 import com.orgforge.core.salesforce.RestApiClient;
 import com.orgforge.modules.dataforge.model.FieldMapping;
-import com.orgforge.modules.dataforge.model.ImportError;
 import com.orgforge.modules.dataforge.model.ImportJob;
+import com.orgforge.modules.dataforge.model.ImportRecord;
 import com.orgforge.modules.dataforge.repository.FieldMappingRepository;
 import com.orgforge.modules.dataforge.repository.ImportJobRepository;
+import com.orgforge.modules.dataforge.repository.ImportRecordRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
@@ -16,6 +18,11 @@ import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.*;
 
@@ -24,11 +31,16 @@ import java.util.*;
 @RequiredArgsConstructor
 public class DataForgeService {
 
-    private static final int BATCH_SIZE = 200;
+    static final int BATCH_SIZE = 200;
+
+    /** Length budget for one URL-encoded snapshot query, under Salesforce's 16 KB request-URI limit. */
+    private static final int MAX_SNAPSHOT_QUERY_CHARS = 12_000;
 
     private final ImportJobRepository importJobRepository;
     private final FieldMappingRepository fieldMappingRepository;
+    private final ImportRecordRepository importRecordRepository;
     private final RestApiClient restApiClient;
+    private final ObjectMapper objectMapper;
 
     // -------------------------------------------------------------------------
     // SF Object Fields
@@ -55,6 +67,9 @@ public class DataForgeService {
             Object defaultedOnCreate = f.get("defaultedOnCreate");
             boolean required = Boolean.FALSE.equals(nillable) && Boolean.FALSE.equals(defaultedOnCreate);
             field.put("required", required);
+            field.put("length", f.get("length"));
+            field.put("createable", f.get("createable"));
+            field.put("updateable", f.get("updateable"));
             result.add(field);
         }
         return result;
@@ -67,12 +82,20 @@ public class DataForgeService {
     @Transactional
     public ImportJob createImportJob(String orgId, String objectName, String fileName,
                                      String operation, String externalIdField, String createdBy) {
+        return createImportJob(orgId, objectName, fileName, operation, externalIdField, createdBy, null);
+    }
+
+    @Transactional
+    public ImportJob createImportJob(String orgId, String objectName, String fileName,
+                                     String operation, String externalIdField, String createdBy,
+                                     String sourceChecksum) {
         ImportJob job = ImportJob.builder()
                 .orgId(orgId)
                 .objectName(objectName)
                 .fileName(fileName)
                 .operation(operation != null ? operation : "INSERT")
                 .externalIdField(externalIdField)
+                .sourceChecksum(sourceChecksum)
                 .status("PENDING")
                 .createdBy(createdBy)
                 .createdAt(LocalDateTime.now())
@@ -80,194 +103,313 @@ public class DataForgeService {
         return importJobRepository.save(job);
     }
 
+    /**
+     * Imports the rows staged in {@code spoolPath} (see {@link ImportSpooler#stage}),
+     * reading one batch at a time from the mapping. Takes over the spool file and
+     * deletes it when done.
+     */
     @Async("taskExecutor")
     @Transactional
-    public void processImport(Long jobId, List<Map<String, Object>> records, OrgConnection org) {
+    public void processImport(Long jobId, Path spoolPath, OrgConnection org) {
+        try (SpoolFile spool = SpoolFile.open(spoolPath)) {
+            runImport(jobId, spool.iterator(), spool.rowCount(), org);
+        } catch (IOException e) {
+            log.error("Could not read spool {} for import job {}: {}", spoolPath, jobId, e.getMessage(), e);
+            importJobRepository.findById(jobId).ifPresent(job -> {
+                job.setStatus("FAILED");
+                job.setCompletedAt(LocalDateTime.now());
+                importJobRepository.save(job);
+            });
+        } finally {
+            try {
+                Files.deleteIfExists(spoolPath);
+            } catch (IOException e) {
+                log.warn("Could not delete spool {}: {}", spoolPath, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Synchronous variant of {@link #processImport} for callers that stream records
+     * from a source too large to hold in memory; only one batch is materialised at a time.
+     */
+    @Transactional
+    public void processImportStream(Long jobId, Iterator<Map<String, Object>> records,
+                                    int totalRecords, OrgConnection org) {
+        runImport(jobId, records, totalRecords, org);
+    }
+
+    private void runImport(Long jobId, Iterator<Map<String, Object>> records, int totalRecords,
+                           OrgConnection org) {
         ImportJob job = importJobRepository.findById(jobId)
                 .orElseThrow(() -> new IllegalArgumentException("ImportJob not found: " + jobId));
 
         job.setStatus("PROCESSING");
-        job.setTotalRecords(records.size());
+        job.setTotalRecords(totalRecords);
         importJobRepository.save(job);
 
-        int successCount = 0;
-        int errorCount = 0;
-        int processed = 0;
-
-        List<ImportError> errors = new ArrayList<>();
+        ImportTally tally = new ImportTally();
 
         // Batch in groups of BATCH_SIZE
-        for (int start = 0; start < records.size(); start += BATCH_SIZE) {
-            int end = Math.min(start + BATCH_SIZE, records.size());
-            List<Map<String, Object>> batch = records.subList(start, end);
+        List<Map<String, Object>> batch = new ArrayList<>(BATCH_SIZE);
+        int start = 0;
+        while (records.hasNext()) {
+            batch.add(records.next());
+            if (batch.size() == BATCH_SIZE || !records.hasNext()) {
+                importBatch(job, org, batch, start, tally);
+                tally.applyProgress(job);
+                importJobRepository.save(job);
+                start += batch.size();
+                batch = new ArrayList<>(BATCH_SIZE);
+            }
+        }
 
-            try {
-                String op = job.getOperation();
-                String extIdField = (job.getExternalIdField() != null && !job.getExternalIdField().isBlank())
-                        ? job.getExternalIdField() : "Id";
-
-                @SuppressWarnings("unchecked")
-                List<Map<?, ?>> results;
-
-                if ("UPSERT".equalsIgnoreCase(op) && "Id".equalsIgnoreCase(extIdField)) {
-                    // Standard Id cannot be used as external ID in the PATCH URL.
-                    // Split: records with a non-empty Id → UPDATE (PATCH),
-                    //        records without Id          → INSERT (POST).
-                    // Results are reassembled in original batch order.
-                    List<Map<String, Object>> updateRecs = new ArrayList<>();
-                    List<Map<String, Object>> insertRecs = new ArrayList<>();
-                    List<Integer> updateIdx = new ArrayList<>();
-                    List<Integer> insertIdx = new ArrayList<>();
-
-                    for (int i = 0; i < batch.size(); i++) {
-                        Map<String, Object> record = batch.get(i);
-                        Object idVal = record.get("Id");
-                        boolean hasId = idVal != null && !idVal.toString().isBlank();
-
-                        Map<String, Object> typed = new LinkedHashMap<>();
-                        typed.put("attributes", Map.of("type", job.getObjectName()));
-                        if (hasId) {
-                            typed.put("id", idVal.toString());
-                            record.entrySet().stream()
-                                    .filter(e -> !"Id".equals(e.getKey()))
-                                    .forEach(e -> typed.put(e.getKey(), e.getValue()));
-                            updateRecs.add(typed);
-                            updateIdx.add(i);
-                        } else {
-                            record.entrySet().stream()
-                                    .filter(e -> !"Id".equals(e.getKey()) && !"id".equals(e.getKey()))
-                                    .forEach(e -> typed.put(e.getKey(), e.getValue()));
-                            insertRecs.add(typed);
-                            insertIdx.add(i);
-                        }
+        // Reload job and attach errors
+        job = importJobRepository.findById(jobId).orElseThrow();
+        tally.complete(job);
+        importJobRepository.save(job);
+
+        log.info("Import job {} completed. Success: {}, Errors: {}", jobId, tally.successCount, tally.errorCount);
+        if (tally.unrevertible > 0) {
+            log.warn("Import job {}: {} updated records cannot be rolled back, their previous values could not be read",
+                    jobId, tally.unrevertible);
+        }
+    }
+
+    /**
+     * Sends one batch (at most {@link #BATCH_SIZE} records) through sObject Collections,
+     * tallies the per-row outcome and records the created/updated Ids so the job can be
+     * rolled back. {@code start} is the zero-based offset of the batch within the job.
+     */
+    @SuppressWarnings("unchecked")
+    private void importBatch(ImportJob job, OrgConnection org, List<Map<String, Object>> batch,
+                             int start, ImportTally tally) {
+        String op = job.getOperation();
+        String extIdField = (job.getExternalIdField() != null && !job.getExternalIdField().isBlank())
+                ? job.getExternalIdField() : "Id";
+
+        // Which rows were sent as updates, and the field values they held before the load
+        boolean[] sentAsUpdate = new boolean[batch.size()];
+        Map<String, Map<String, Object>> previousValues = Collections.emptyMap();
+
+        try {
+            List<Map<?, ?>> results;
+
+            if ("UPSERT".equalsIgnoreCase(op) && "Id".equalsIgnoreCase(extIdField)) {
+                // Standard Id cannot be used as external ID in the PATCH URL.
+                // Split: records with a non-empty Id → UPDATE (PATCH),
+                //        records without Id          → INSERT (POST).
+                // Results are reassembled in original batch order.
+                List<Map<String, Object>> updateRecs = new ArrayList<>();
+                List<Map<String, Object>> insertRecs = new ArrayList<>();
+                List<Integer> updateIdx = new ArrayList<>();
+                List<Integer> insertIdx = new ArrayList<>();
+
+                for (int i = 0; i < batch.size(); i++) {
+                    Map<String, Object> record = batch.get(i);
+                    Object idVal = record.get("Id");
+                    boolean hasId = idVal != null && !idVal.toString().isBlank();
+
+                    Map<String, Object> typed = new LinkedHashMap<>();
+                    typed.put("attributes", Map.of("type", job.getObjectName()));
+                    if (hasId) {
+                        typed.put("id", idVal.toString());
+                        record.entrySet().stream()
+                                .filter(e -> !"Id".equals(e.getKey()))
+                                .forEach(e -> typed.put(e.getKey(), e.getValue()));
+                        updateRecs.add(typed);
+                        updateIdx.add(i);
+                        sentAsUpdate[i] = true;
+                    } else {
+                        record.entrySet().stream()
+                                .filter(e -> !"Id".equals(e.getKey()) && !"id".equals(e.getKey()))
+                                .forEach(e -> typed.put(e.getKey(), e.getValue()));
+                        insertRecs.add(typed);
+                        insertIdx.add(i);
                     }
+                }
 
-                    // Pre-fill with a neutral "skipped" result so every index is set
-                    List<Map<?, ?>> ordered = new ArrayList<>(Collections.nCopies(batch.size(), null));
-
-                    if (!updateRecs.isEmpty()) {
-                        Map<String, Object> body = new HashMap<>();
-                        body.put("allOrNone", false);
-                        body.put("records", updateRecs);
-                        List<Map<?, ?>> upd = (List<Map<?, ?>>) (List<?>)
-                                restApiClient.patchCollection(org, "/composite/sobjects", body);
-                        if (upd != null) {
-                            for (int i = 0; i < upd.size(); i++) ordered.set(updateIdx.get(i), upd.get(i));
-                        }
+                // Pre-fill with a neutral "skipped" result so every index is set
+                List<Map<?, ?>> ordered = new ArrayList<>(Collections.nCopies(batch.size(), null));
+
+                if (!updateRecs.isEmpty()) {
+                    previousValues = snapshotCurrentValues(org, job.getObjectName(), "Id", updateRecs);
+                    Map<String, Object> body = new HashMap<>();
+                    body.put("allOrNone", false);
+                    body.put("records", updateRecs);
+                    List<Map<?, ?>> upd = (List<Map<?, ?>>) (List<?>)
+                            restApiClient.patchCollection(org, "/composite/sobjects", body);
+                    if (upd != null) {
+                        for (int i = 0; i < upd.size(); i++) ordered.set(updateIdx.get(i), upd.get(i));
                     }
-                    if (!insertRecs.isEmpty()) {
-                        Map<String, Object> body = new HashMap<>();
-                        body.put("allOrNone", false);
-                        body.put("records", insertRecs);
-                        List<Map<?, ?>> ins = (List<Map<?, ?>>) (List<?>)
-                                restApiClient.postCollection(org, "/composite/sobjects", body);
-                        if (ins != null) {
-                            for (int i = 0; i < ins.size(); i++) ordered.set(insertIdx.get(i), ins.get(i));
-                        }
+                }
+                if (!insertRecs.isEmpty()) {
+                    Map<String, Object> body = new HashMap<>();
+                    body.put("allOrNone", false);
+                    body.put("records", insertRecs);
+                    List<Map<?, ?>> ins = (List<Map<?, ?>>) (List<?>)
+                            restApiClient.postCollection(org, "/composite/sobjects", body);
+                    if (ins != null) {
+                        for (int i = 0; i < ins.size(); i++) ordered.set(insertIdx.get(i), ins.get(i));
                     }
-                    results = ordered;
-
-                } else {
-                    // INSERT, UPDATE, or UPSERT by custom external ID field
-                    List<Map<String, Object>> typedBatch = new ArrayList<>();
-                    for (Map<String, Object> record : batch) {
-                        Map<String, Object> typed = new LinkedHashMap<>();
-                        typed.put("attributes", Map.of("type", job.getObjectName()));
-                        if ("INSERT".equalsIgnoreCase(op)) {
+                }
+                results = ordered;
+
+            } else {
+                // INSERT, UPDATE, or UPSERT by custom external ID field
+                List<Map<String, Object>> typedBatch = new ArrayList<>();
+                for (Map<String, Object> record : batch) {
+                    Map<String, Object> typed = new LinkedHashMap<>();
+                    typed.put("attributes", Map.of("type", job.getObjectName()));
+                    if ("INSERT".equalsIgnoreCase(op)) {
+                        record.entrySet().stream()
+                                .filter(e -> !"Id".equals(e.getKey()) && !"id".equals(e.getKey()))
+                                .forEach(e -> typed.put(e.getKey(), e.getValue()));
+                    } else if ("UPDATE".equalsIgnoreCase(op)) {
+                        if (record.containsKey("Id") && !record.containsKey("id")) {
+                            typed.put("id", record.get("Id"));
                             record.entrySet().stream()
-                                    .filter(e -> !"Id".equals(e.getKey()) && !"id".equals(e.getKey()))
+                                    .filter(e -> !"Id".equals(e.getKey()))
                                     .forEach(e -> typed.put(e.getKey(), e.getValue()));
-                        } else if ("UPDATE".equalsIgnoreCase(op)) {
-                            if (record.containsKey("Id") && !record.containsKey("id")) {
-                                typed.put("id", record.get("Id"));
-                                record.entrySet().stream()
-                                        .filter(e -> !"Id".equals(e.getKey()))
-                                        .forEach(e -> typed.put(e.getKey(), e.getValue()));
-                            } else {
-                                typed.putAll(record);
-                            }
                         } else {
-                            // UPSERT by custom external ID — keep all fields
                             typed.putAll(record);
                         }
-                        typedBatch.add(typed);
-                    }
-
-                    Map<String, Object> requestBody = new HashMap<>();
-                    requestBody.put("allOrNone", false);
-                    requestBody.put("records", typedBatch);
-
-                    if ("UPDATE".equalsIgnoreCase(op)) {
-                        results = (List<Map<?, ?>>) (List<?>)
-                                restApiClient.patchCollection(org, "/composite/sobjects", requestBody);
-                    } else if ("UPSERT".equalsIgnoreCase(op)) {
-                        // Custom external ID field — valid PATCH URL
-                        results = (List<Map<?, ?>>) (List<?>)
-                                restApiClient.patchCollection(org, "/composite/sobjects/" + extIdField, requestBody);
                     } else {
-                        results = (List<Map<?, ?>>) (List<?>)
-                                restApiClient.postCollection(org, "/composite/sobjects", requestBody);
+                        // UPSERT by custom external ID — keep all fields
+                        typed.putAll(record);
                     }
+                    typedBatch.add(typed);
                 }
 
-                if (results != null) {
-                    for (int i = 0; i < results.size(); i++) {
-                        Map<?, ?> r = results.get(i);
-                        if (r == null) continue; // shouldn't happen, safety guard
-                        boolean success = Boolean.TRUE.equals(r.get("success"));
-                        if (success) {
-                            successCount++;
-                        } else {
-                            errorCount++;
-                            int rowNumber = start + i + 1;
-                            String errorMessage = extractErrorMessage(r);
-                            String rawData = serializeRecord(batch.get(i));
-
-                            ImportError err = ImportError.builder()
-                                    .rowNumber(rowNumber)
-                                    .errorMessage(errorMessage)
-                                    .rawData(rawData)
-                                    .importJob(job)
-                                    .build();
-                            errors.add(err);
-                        }
-                    }
+                Map<String, Object> requestBody = new HashMap<>();
+                requestBody.put("allOrNone", false);
+                requestBody.put("records", typedBatch);
+
+                if ("UPDATE".equalsIgnoreCase(op)) {
+                    Arrays.fill(sentAsUpdate, true);
+                    previousValues = snapshotCurrentValues(org, job.getObjectName(), "id", typedBatch);
+                    results = (List<Map<?, ?>>) (List<?>)
+                            restApiClient.patchCollection(org, "/composite/sobjects", requestBody);
+                } else if ("UPSERT".equalsIgnoreCase(op)) {
+                    // Custom external ID field — valid PATCH URL.
+                    // Whether a row was an update is only known from the "created" flag in the result.
+                    previousValues = snapshotCurrentValues(org, job.getObjectName(), extIdField, typedBatch);
+                    results = (List<Map<?, ?>>) (List<?>)
+                            restApiClient.patchCollection(org, "/composite/sobjects/" + extIdField, requestBody);
+                } else {
+                    results = (List<Map<?, ?>>) (List<?>)
+                            restApiClient.postCollection(org, "/composite/sobjects", requestBody);
                 }
-            } catch (Exception e) {
-                log.error("Batch processing error for job {}, batch starting at {}: {}",
-                        jobId, start, e.getMessage(), e);
-                // Mark entire batch as errors
-                for (int i = 0; i < batch.size(); i++) {
-                    errorCount++;
+            }
+
+            if (results != null) {
+                List<ImportRecord> changes = new ArrayList<>();
+                for (int i = 0; i < results.size(); i++) {
+                    Map<?, ?> r = results.get(i);
+                    if (r == null) continue; // shouldn't happen, safety guard
+                    boolean success = Boolean.TRUE.equals(r.get("success"));
                     int rowNumber = start + i + 1;
-                    ImportError err = ImportError.builder()
-                            .rowNumber(rowNumber)
-                            .errorMessage(e.getMessage())
-                            .rawData(serializeRecord(batch.get(i)))
-                            .importJob(job)
-                            .build();
-                    errors.add(err);
+                    if (success) {
+                        tally.successCount++;
+                        Object id = r.get("id");
+                        if (id == null) continue;
+                        boolean updated = r.get("created") instanceof Boolean created ? !created : sentAsUpdate[i];
+                        String previous = updated ? toJson(previousValues.get(id.toString())) : null;
+                        if (updated && previous == null) tally.unrevertible++;
+                        changes.add(ImportRecord.builder()
+                                .importJobId(job.getId())
+                                .rowNumber(rowNumber)
+                                .recordId(id.toString())
+                                .action(updated ? ImportRecord.UPDATED : ImportRecord.CREATED)
+                                .previousValues(previous)
+                                .build());
+                    } else {
+                        tally.addError(job, rowNumber, extractErrorMessage(r), serializeRecord(batch.get(i)));
+                    }
                 }
+                importRecordRepository.batchInsert(changes);
+            }
+        } catch (Exception e) {
+            log.error("Batch processing error for job {}, batch starting at {}: {}",
+                    job.getId(), start, e.getMessage(), e);
+            // Mark entire batch as errors
+            for (int i = 0; i < batch.size(); i++) {
+                tally.addError(job, start + i + 1, e.getMessage(), serializeRecord(batch.get(i)));
             }
+        }
 
-            processed += batch.size();
-            job.setProcessedRecords(processed);
-            job.setSuccessCount(successCount);
-            job.setErrorCount(errorCount);
-            importJobRepository.save(job);
+        tally.processed += batch.size();
+    }
+
+    /**
+     * Reads the current values of every field about to be written, keyed by Salesforce Id,
+     * so an update can be reverted later. {@code keyField} is the field the batch is matched
+     * on ("id"/"Id" for updates, the external ID field for upserts).
+     *
+     * <p>The keys are split across as many queries as it takes to keep each request URI
+     * within {@link #MAX_SNAPSHOT_QUERY_CHARS}, since external ID values can be long. A
+     * failed query never fails the batch: its records are simply missing from the result,
+     * so they are logged without previous values and counted as not revertible.
+     */
+    private Map<String, Map<String, Object>> snapshotCurrentValues(OrgConnection org, String objectName,
+                                                                   String keyField,
+                                                                   List<Map<String, Object>> typedRecords) {
+        Set<String> fields = new LinkedHashSet<>();
+        List<String> keys = new ArrayList<>();
+        for (Map<String, Object> rec : typedRecords) {
+            Object key = rec.get(keyField);
+            if (key != null && !key.toString().isBlank()) keys.add(key.toString());
+            for (String name : rec.keySet()) {
+                if ("attributes".equals(name) || "id".equalsIgnoreCase(name)) continue;
+                if (name.matches("[A-Za-z][A-Za-z0-9_]*")) fields.add(name);
+            }
         }
+        if (keys.isEmpty() || fields.isEmpty()) return Collections.emptyMap();
+
+        String matchField = "id".equalsIgnoreCase(keyField) ? "Id" : keyField;
+        String select = "SELECT Id, " + String.join(", ", fields) + " FROM " + objectName
+                + " WHERE " + matchField + " IN (";
+        int selectLength = encodedLength(select + ")");
+
+        Map<String, Map<String, Object>> byId = new HashMap<>();
+        StringBuilder in = new StringBuilder();
+        int length = selectLength;
+        for (String key : keys) {
+            String literal = "'" + key.replace("\\", "\\\\").replace("'", "\\'") + "'";
+            int added = encodedLength(literal) + (in.length() > 0 ? encodedLength(",") : 0);
+            if (in.length() > 0 && length + added > MAX_SNAPSHOT_QUERY_CHARS) {
+                snapshotChunk(org, objectName, select + in + ")", fields, byId);
+                in.setLength(0);
+                length = selectLength;
+                added = encodedLength(literal);
+            }
+            if (in.length() > 0) in.append(',');
+            in.append(literal);
+            length += added;
+        }
+        snapshotChunk(org, objectName, select + in + ")", fields, byId);
+        return byId;
+    }
 
-        // Reload job and attach errors
-        job = importJobRepository.findById(jobId).orElseThrow();
-        job.getErrors().addAll(errors);
-        job.setSuccessCount(successCount);
-        job.setErrorCount(errorCount);
-        job.setProcessedRecords(processed);
-        job.setCompletedAt(LocalDateTime.now());
-        job.setStatus(errorCount > 0 ? "COMPLETED_WITH_ERRORS" : "COMPLETED");
-        importJobRepository.save(job);
+    private void snapshotChunk(OrgConnection org, String objectName, String soql, Set<String> fields,
+                               Map<String, Map<String, Object>> byId) {
+        try {
+            Map<?, ?> result = restApiClient.query(org, soql);
+            List<?> rows = result != null ? (List<?>) result.get("records") : null;
+            if (rows == null) return;
+            for (Object row : rows) {
+                if (!(row instanceof Map<?, ?> m) || m.get("Id") == null) continue;
+                Map<String, Object> values = new LinkedHashMap<>();
+                for (String f : fields) values.put(f, m.get(f));
+                byId.put(m.get("Id").toString(), values);
+            }
+        } catch (Exception e) {
+            log.warn("Could not snapshot current values of {} for rollback: {}", objectName, e.getMessage());
+        }
+    }
 
-        log.info("Import job {} completed. Success: {}, Errors: {}", jobId, successCount, errorCount);
+    private static int encodedLength(String s) {
+        return URLEncoder.encode(s, StandardCharsets.UTF_8).length();
     }
 
     // -------------------------------------------------------------------------
@@ -292,6 +434,13 @@ public class DataForgeService {
     @Transactional
     public FieldMapping saveMapping(String orgId, String objectName, String mappingName,
                                     String mappingJson, String createdBy) {
+        return saveMapping(orgId, objectName, mappingName, mappingJson, null, null, null, createdBy);
+    }
+
+    @Transactional
+    public FieldMapping saveMapping(String orgId, String objectName, String mappingName,
+                                    String mappingJson, String filePattern, String operation,
+                                    String externalIdField, String createdBy) {
         Optional<FieldMapping> existing = fieldMappingRepository
                 .findByOrgIdAndObjectNameAndMappingName(orgId, objectName, mappingName);
 
@@ -304,6 +453,9 @@ public class DataForgeService {
                 .build());
 
         mapping.setMappingJson(mappingJson);
+        mapping.setFilePattern(filePattern != null && !filePattern.isBlank() ? filePattern : null);
+        mapping.setOperation(operation);
+        mapping.setExternalIdField(externalIdField);
         if (existing.isEmpty()) {
             mapping.setCreatedAt(LocalDateTime.now());
         }
@@ -319,7 +471,7 @@ public class DataForgeService {
     // -------------------------------------------------------------------------
 
     @SuppressWarnings("unchecked")
-    private String extractErrorMessage(Map<?, ?> result) {
+    static String extractErrorMessage(Map<?, ?> result) {
         Object errors = result.get("errors");
         if (errors instanceof List) {
             List<Map<?, ?>> errorList = (List<Map<?, ?>>) errors;
@@ -332,6 +484,15 @@ public class DataForgeService {
         return "Unknown error";
     }
 
+    private String toJson(Map<String, Object> values) {
+        if (values == null) return null;
+        try {
+            return objectMapper.writeValueAsString(values);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
     private String serializeRecord(Map<String, Object> record) {
         try {
             StringBuilder sb = new StringBuilder("{");
@@ -0,0 +1,309 @@
+package com.orgforge.modules.dataforge.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orgforge.core.org.OrgConnection;
+import com.orgforge.core.org.OrgConnectionRepository;
+import com.orgforge.core.util.CsvReader;
+import com.orgforge.modules.dataforge.dto.ImportEstimateDTO;
+import com.orgforge.modules.dataforge.model.FieldMapping;
+import com.orgforge.modules.dataforge.model.ImportJob;
+import com.orgforge.modules.dataforge.repository.FieldMappingRepository;
+import com.orgforge.modules.dataforge.repository.ImportJobRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Watches drop directories for CSV extracts and feeds them through the import pipeline.
+ *
+ * <p>Each configured directory belongs to one org ({@code app.data-forge.watch.directories},
+ * comma-separated {@code orgId=/path} pairs). A dropped file is imported with the first
+ * {@link FieldMapping} of that org whose {@code filePattern} glob matches the file name:
+ * the mapped rows are staged in a {@link SpoolFile} in one pass and imported from it, then
+ * the file is moved to the directory's archive folder (or error folder if
+ * it could not be imported). Files are keyed by SHA-256, so re-dropping a file that was
+ * already imported only archives it again. A previous job that never completed (left
+ * PENDING/PROCESSING by a crash, FAILED, or since ROLLED_BACK) does not count: it is
+ * superseded and the file imported again under a new job. An interrupted INSERT may have
+ * created some records before the crash; UPSERT mappings re-run without duplicates.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FileIngestionAgent {
+
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final Set<String> IMPORTED = Set.of("COMPLETED", "COMPLETED_WITH_ERRORS");
+    private static final Set<String> UNFINISHED = Set.of("PENDING", "PROCESSING");
+
+    private final DataForgeService dataForgeService;
+    private final FieldMappingRepository fieldMappingRepository;
+    private final ImportJobRepository importJobRepository;
+    private final OrgConnectionRepository orgConnectionRepository;
+    private final ImportEstimator importEstimator;
+    private final ImportSpooler importSpooler;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.data-forge.watch.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.data-forge.watch.directories:}")
+    private String directories;
+
+    @Value("${app.data-forge.watch.archive-dir:archive}")
+    private String archiveDirName;
+
+    @Value("${app.data-forge.watch.error-dir:error}")
+    private String errorDirName;
+
+    /** A file is picked up once its size and mtime have not changed for this long. */
+    @Value("${app.data-forge.watch.settle-seconds:5}")
+    private long settleSeconds;
+
+    private final Map<Path, String> orgByDir = new LinkedHashMap<>();
+    private final Map<Path, long[]> pending = new HashMap<>();
+    private volatile boolean running;
+    private WatchService watchService;
+    private Thread worker;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled || directories == null || directories.isBlank()) return;
+
+        for (String entry : directories.split(",")) {
+            int eq = entry.indexOf('=');
+            if (eq <= 0) {
+                log.warn("Ignoring malformed watch directory entry '{}', expected orgId=/path", entry.trim());
+                continue;
+            }
+            orgByDir.put(Paths.get(entry.substring(eq + 1).trim()).toAbsolutePath(), entry.substring(0, eq).trim());
+        }
+
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            for (Path dir : orgByDir.keySet()) {
+                Files.createDirectories(dir.resolve(archiveDirName));
+                Files.createDirectories(dir.resolve(errorDirName));
+                dir.register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+                scan(dir); // files dropped while we were down
+                log.info("Watching {} for org {}", dir, orgByDir.get(dir));
+            }
+        } catch (IOException e) {
+            log.error("Could not start file ingestion agent: {}", e.getMessage(), e);
+            return;
+        }
+
+        running = true;
+        worker = new Thread(this::loop, "OrgForge-FileIngest");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (worker != null) worker.interrupt();
+        try {
+            if (watchService != null) watchService.close();
+        } catch (IOException ignored) {}
+    }
+
+    private void loop() {
+        while (running) {
+            try {
+                WatchKey key = watchService.poll(1, TimeUnit.SECONDS);
+                if (key != null) {
+                    Path dir = (Path) key.watchable();
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == OVERFLOW) {
+                            scan(dir);
+                        } else {
+                            track(dir.resolve((Path) event.context()));
+                        }
+                    }
+                    key.reset();
+                }
+                for (Path file : settledFiles()) {
+                    ingest(file);
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("File ingestion loop error: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private void scan(Path dir) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+            for (Path file : files) track(file);
+        }
+    }
+
+    private void track(Path file) {
+        if (Files.isRegularFile(file)) pending.putIfAbsent(file, new long[]{-1, -1, System.currentTimeMillis()});
+    }
+
+    /** Pending files whose size and mtime have been stable for settle-seconds. */
+    private List<Path> settledFiles() {
+        List<Path> ready = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<Path, long[]>> it = pending.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Path, long[]> e = it.next();
+            Path file = e.getKey();
+            long[] seen = e.getValue(); // size, mtime, stable-since
+            try {
+                if (!Files.exists(file)) {
+                    it.remove();
+                    continue;
+                }
+                long size = Files.size(file);
+                long mtime = Files.getLastModifiedTime(file).toMillis();
+                if (size != seen[0] || mtime != seen[1]) {
+                    seen[0] = size;
+                    seen[1] = mtime;
+                    seen[2] = now;
+                } else if (now - seen[2] >= settleSeconds * 1000) {
+                    ready.add(file);
+                    it.remove();
+                }
+            } catch (IOException ex) {
+                it.remove();
+            }
+        }
+        return ready;
+    }
+
+    private void ingest(Path file) {
+        Path dir = file.getParent();
+        String orgId = orgByDir.get(dir);
+        String fileName = file.getFileName().toString();
+
+        try {
+            OrgConnection org = orgConnectionRepository.findByOrgId(orgId)
+                    .filter(OrgConnection::isActive)
+                    .orElseThrow(() -> new IllegalStateException("No active OrgConnection for orgId " + orgId));
+
+            FieldMapping mapping = fieldMappingRepository.findByOrgIdAndFilePatternIsNotNullOrderByIdAsc(orgId)
+                    .stream()
+                    .filter(m -> FileSystems.getDefault().getPathMatcher("glob:" + m.getFilePattern())
+                            .matches(file.getFileName()))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No field mapping pattern matches " + fileName));
+
+            Map<String, String> columns = objectMapper.readValue(mapping.getMappingJson(),
+                    new TypeReference<LinkedHashMap<String, String>>() {});
+
+            // Single pass over the CSV: checksum it and stage the mapped rows in a spool
+            Path spoolPath = importSpooler.newSpool("ingest-");
+            try {
+                MessageDigest sha = MessageDigest.getInstance("SHA-256");
+                try (CsvReader csv = new CsvReader(new BufferedReader(new InputStreamReader(
+                        new DigestInputStream(Files.newInputStream(file), sha), StandardCharsets.UTF_8)));
+                     SpoolWriter spool = new SpoolWriter(spoolPath)) {
+                    List<String> header = csv.next();
+                    List<String> row;
+                    while ((row = csv.next()) != null) spool.write(mapRow(header, row, columns));
+                }
+                String checksum = HexFormat.of().formatHex(sha.digest());
+
+                Optional<ImportJob> previous = importJobRepository.findFirstByOrgIdAndSourceChecksum(orgId, checksum);
+                if (previous.isPresent()) {
+                    if (IMPORTED.contains(previous.get().getStatus())) {
+                        log.info("Skipping {}: identical file already imported as job {}",
+                                fileName, previous.get().getId());
+                        moveTo(file, archiveDirName);
+                        return;
+                    }
+                    supersede(previous.get(), fileName);
+                }
+
+                try (SpoolFile spool = SpoolFile.open(spoolPath)) {
+                    logEstimate(org, mapping, fileName, spool);
+                    ImportJob job = dataForgeService.createImportJob(orgId, mapping.getObjectName(), fileName,
+                            mapping.getOperation(), mapping.getExternalIdField(), "file-ingest", checksum);
+                    log.info("Importing {} ({} rows) into {} as job {} using mapping '{}'",
+                            fileName, spool.rowCount(), mapping.getObjectName(), job.getId(), mapping.getMappingName());
+                    dataForgeService.processImportStream(job.getId(), spool.iterator(), spool.rowCount(), org);
+                }
+            } finally {
+                Files.deleteIfExists(spoolPath);
+            }
+            moveTo(file, archiveDirName);
+
+        } catch (Exception e) {
+            log.error("Could not ingest {} for org {}: {}", fileName, orgId, e.getMessage(), e);
+            try {
+                moveTo(file, errorDirName);
+            } catch (IOException moveEx) {
+                log.error("Could not move {} to {}: {}", fileName, errorDirName, moveEx.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Releases the checksum of a job that never completed so the file can be imported
+     * again; the agent imports synchronously, so an unfinished job was cut off by a crash.
+     */
+    private void supersede(ImportJob previous, String fileName) {
+        log.warn("Re-importing {}: previous job {} ended {}", fileName, previous.getId(), previous.getStatus());
+        if (UNFINISHED.contains(previous.getStatus())) {
+            previous.setStatus("FAILED");
+            previous.setCompletedAt(LocalDateTime.now());
+        }
+        previous.setSourceChecksum(null);
+        importJobRepository.saveAndFlush(previous);
+    }
+
+    private void moveTo(Path file, String folder) throws IOException {
+        Path target = file.resolveSibling(folder)
+                .resolve(LocalDateTime.now().format(STAMP) + "_" + file.getFileName());
+        Files.move(file, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /** Validation and API cost of the staged file, for the log; never blocks the import. */
+    private void logEstimate(OrgConnection org, FieldMapping mapping, String fileName, SpoolFile spool) {
+        try {
+            ImportEstimateDTO estimate = importEstimator.estimate(org, mapping.getObjectName(),
+                    mapping.getOperation(), mapping.getExternalIdField(), spool);
+            log.info("{}: {} of {} rows fail validation, ~{} API calls ({}% of remaining daily allowance)",
+                    fileName, estimate.invalidRecords(), estimate.totalRecords(), estimate.apiCalls(),
+                    estimate.dailyApiSharePct());
+        } catch (Exception e) {
+            log.warn("Could not estimate {}: {}", fileName, e.getMessage());
+        }
+    }
+
+    /**
+     * Applies a saved mapping ({ csvColumn: sfField }) to one CSV row,
+     * the same way the DataForge UI builds records before POST /jobs.
+     */
+    private static Map<String, Object> mapRow(List<String> header, List<String> row, Map<String, String> columns) {
+        Map<String, Object> record = new LinkedHashMap<>();
+        if (header == null) return record;
+        for (int i = 0; i < header.size() && i < row.size(); i++) {
+            String sfField = columns.get(header.get(i));
+            if (sfField != null && !sfField.isBlank()) record.put(sfField, row.get(i));
+        }
+        return record;
+    }
+}
@@ -0,0 +1,158 @@
+package com.orgforge.modules.dataforge.service;
+
+import com.orgforge.core.org.OrgConnection;
+import com.orgforge.core.salesforce.ApiUsageTracker;
+import com.orgforge.core.salesforce.RestApiClient;
+import com.orgforge.modules.dataforge.dto.ImportEstimateDTO;
+import com.orgforge.modules.dataforge.model.ImportJob;
+import com.orgforge.modules.dataforge.repository.ImportJobRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Dry-run for {@link DataForgeService#processImport}: validates the records and
+ * projects the API cost and duration of the real run without performing any DML.
+ * Only read calls are made (describe, which is cached, and /limits unless a recent
+ * response header already gave the org's API usage).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ImportEstimator {
+
+    private static final int MAX_SAMPLE_ERRORS = 50;
+
+    private final DataForgeService dataForgeService;
+    private final ImportValidator importValidator;
+    private final ImportJobRepository importJobRepository;
+    private final RestApiClient restApiClient;
+    private final ApiUsageTracker apiUsageTracker;
+
+    /** Estimate over a staged spool, scanned sequentially from its mapping. */
+    public ImportEstimateDTO estimate(OrgConnection org, String objectName, String operation,
+                                      String externalIdField, SpoolFile spool) {
+        return estimate(org, objectName, operation, externalIdField, spool.iterator());
+    }
+
+    private ImportEstimateDTO estimate(OrgConnection org, String objectName, String operation,
+                                       String externalIdField, Iterator<Map<String, Object>> records) {
+        String op = operation != null ? operation.toUpperCase() : "INSERT";
+        String extIdField = externalIdField != null && !externalIdField.isBlank() ? externalIdField : "Id";
+
+        Map<String, Map<String, Object>> fieldsByName =
+                ImportValidator.indexFields(dataForgeService.getObjectFields(org, objectName));
+
+        // Mirror processImport's batching: one sObject Collections call per batch,
+        // except UPSERT on Id, which splits each batch into a PATCH and a POST.
+        // Every batch that may update rows also costs a query to snapshot the
+        // previous values for rollback (more than one only for very long key values).
+        boolean splitById = "UPSERT".equals(op) && "Id".equalsIgnoreCase(extIdField);
+        int total = 0;
+        int valid = 0;
+        int invalid = 0;
+        int warned = 0;
+        int batches = 0;
+        int apiCalls = 0;
+        int inBatch = 0;
+        boolean hasUpdates = false;
+        boolean hasInserts = false;
+        List<Map<String, Object>> sampleErrors = new ArrayList<>();
+        List<Map<String, Object>> sampleWarnings = new ArrayList<>();
+        while (records.hasNext()) {
+            Map<String, Object> record = records.next();
+            total++;
+            ImportValidator.Result result = importValidator.validate(record, fieldsByName, op, extIdField);
+            if (result.isValid()) {
+                valid++;
+                if (result.warning() != null) {
+                    warned++;
+                    addSample(sampleWarnings, total, result.warning());
+                }
+            } else {
+                invalid++;
+                addSample(sampleErrors, total, result.error());
+            }
+            if (splitById) {
+                Object id = record.get("Id");
+                if (id != null && !id.toString().isBlank()) hasUpdates = true; else hasInserts = true;
+            }
+            if (++inBatch == DataForgeService.BATCH_SIZE || !records.hasNext()) {
+                batches++;
+                apiCalls += !splitById
+                        ? ("INSERT".equals(op) ? 1 : 2)
+                        : (hasUpdates ? 2 : 0) + (hasInserts ? 1 : 0);
+                inBatch = 0;
+                hasUpdates = false;
+                hasInserts = false;
+            }
+        }
+
+        Long remaining = null;
+        Long max = null;
+        Double sharePct = null;
+        Optional<ApiUsageTracker.ApiUsage> live = apiUsageTracker.fresh(org.getOrgId());
+        if (live.isPresent()) {
+            max = live.get().max();
+            remaining = Math.max(0, live.get().max() - live.get().used());
+        } else {
+            try {
+                Map<?, ?> limits = restApiClient.getLimits(org);
+                if (limits != null && limits.get("DailyApiRequests") instanceof Map<?, ?> daily) {
+                    if (daily.get("Remaining") instanceof Number r) remaining = r.longValue();
+                    if (daily.get("Max") instanceof Number m) max = m.longValue();
+                }
+            } catch (Exception e) {
+                log.warn("Could not read DailyApiRequests for org {}: {}", org.getOrgId(), e.getMessage());
+            }
+        }
+        if (remaining != null) {
+            sharePct = remaining > 0
+                    ? Math.round(apiCalls * 10000.0 / remaining) / 100.0
+                    : (apiCalls > 0 ? 100.0 : 0.0);
+        }
+
+        Double recordsPerSecond = recordedThroughput(org.getOrgId(), objectName);
+        Long estimatedSeconds = recordsPerSecond != null
+                ? (long) Math.ceil(total / recordsPerSecond)
+                : null;
+
+        return new ImportEstimateDTO(
+                objectName, op, "SOBJECT_COLLECTIONS",
+                total, valid, invalid, sampleErrors, warned, sampleWarnings,
+                DataForgeService.BATCH_SIZE, batches, apiCalls,
+                remaining, max, sharePct,
+                recordsPerSecond, estimatedSeconds);
+    }
+
+    private static void addSample(List<Map<String, Object>> samples, int rowNumber, String message) {
+        if (samples.size() >= MAX_SAMPLE_ERRORS) return;
+        Map<String, Object> sample = new LinkedHashMap<>();
+        sample.put("rowNumber", rowNumber);
+        sample.put("errorMessage", message);
+        samples.add(sample);
+    }
+
+    /**
+     * Records/second over the most recent completed jobs for this org and object,
+     * or {@code null} when there is no history to base an estimate on.
+     */
+    private Double recordedThroughput(String orgId, String objectName) {
+        long records = 0;
+        long millis = 0;
+        for (ImportJob job : importJobRepository
+                .findTop20ByOrgIdAndObjectNameAndCompletedAtIsNotNullOrderByCreatedAtDesc(orgId, objectName)) {
+            if (job.getCreatedAt() == null || job.getProcessedRecords() <= 0) continue;
+            if ("ROLLBACK".equalsIgnoreCase(job.getOperation()) || "TREE".equalsIgnoreCase(job.getOperation())) continue;
+            long elapsed = Duration.between(job.getCreatedAt(), job.getCompletedAt()).toMillis();
+            if (elapsed <= 0) continue;
+            records += job.getProcessedRecords();
+            millis += elapsed;
+        }
+        if (records == 0 || millis == 0) return null;
+        return Math.round(records * 100000.0 / millis) / 100.0;
+    }
+}
@@ -0,0 +1,204 @@
+package com.orgforge.modules.dataforge.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orgforge.core.org.OrgConnection;
+import com.orgforge.core.salesforce.RestApiClient;
+import com.orgforge.modules.dataforge.model.ImportJob;
+import com.orgforge.modules.dataforge.model.ImportRecord;
+import com.orgforge.modules.dataforge.repository.ImportJobRepository;
+import com.orgforge.modules.dataforge.repository.ImportRecordRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Reverts an import job from its {@link ImportRecord} log: updated records get their
+ * previous field values back, created records are deleted. Runs as its own ImportJob
+ * (operation ROLLBACK) using the same 200-record sObject Collections batches as the import.
+ *
+ * <p>An import is rolled back at most once: a second rollback is refused while one is
+ * unfinished or once the import is ROLLED_BACK, since re-running it would restore stale
+ * snapshot values over newer ones. A partial unique index on unfinished rollback jobs
+ * (V10) keeps two concurrent requests from both passing the check.
+ *
+ * <p>Updates the import could not snapshot ({@code unrevertibleRecords} on the import job)
+ * are reported as rollback errors, so the import is not marked ROLLED_BACK.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ImportRollbackService {
+
+    private static final List<String> UNFINISHED = List.of("PENDING", "PROCESSING");
+
+    private final ImportJobRepository importJobRepository;
+    private final ImportRecordRepository importRecordRepository;
+    private final RestApiClient restApiClient;
+    private final ObjectMapper objectMapper;
+
+    @Transactional
+    public ImportJob createRollbackJob(Long sourceJobId, String createdBy) {
+        ImportJob source = importJobRepository.findById(sourceJobId)
+                .orElseThrow(() -> new IllegalArgumentException("ImportJob not found: " + sourceJobId));
+        if ("ROLLBACK".equalsIgnoreCase(source.getOperation())) {
+            throw new IllegalArgumentException("A rollback job cannot itself be rolled back");
+        }
+        if (source.getCompletedAt() == null) {
+            throw new IllegalArgumentException("ImportJob " + sourceJobId + " has not completed yet");
+        }
+        if ("ROLLED_BACK".equals(source.getStatus())) {
+            throw new IllegalArgumentException("ImportJob " + sourceJobId + " has already been rolled back");
+        }
+        if (importJobRepository.existsByRollbackOfJobIdAndStatusIn(sourceJobId, UNFINISHED)) {
+            throw new IllegalArgumentException("A rollback of ImportJob " + sourceJobId + " is already in progress");
+        }
+        long recorded = importRecordRepository.countByImportJobId(sourceJobId);
+        if (recorded == 0) {
+            throw new IllegalArgumentException("ImportJob " + sourceJobId + " has no recorded changes to roll back");
+        }
+
+        ImportJob job = ImportJob.builder()
+                .orgId(source.getOrgId())
+                .objectName(source.getObjectName())
+                .fileName("Rollback of job #" + sourceJobId)
+                .operation("ROLLBACK")
+                .rollbackOfJobId(sourceJobId)
+                .totalRecords((int) recorded)
+                .status("PENDING")
+                .createdBy(createdBy)
+                .createdAt(LocalDateTime.now())
+                .build();
+        try {
+            return importJobRepository.saveAndFlush(job);
+        } catch (DataIntegrityViolationException e) {
+            // Lost the race to a concurrent request for the same import
+            throw new IllegalArgumentException("A rollback of ImportJob " + sourceJobId + " is already in progress");
+        }
+    }
+
+    @Async("taskExecutor")
+    @Transactional
+    public void processRollback(Long jobId, OrgConnection org) {
+        ImportJob job = importJobRepository.findById(jobId)
+                .orElseThrow(() -> new IllegalArgumentException("ImportJob not found: " + jobId));
+        Long sourceJobId = job.getRollbackOfJobId();
+
+        job.setStatus("PROCESSING");
+        importJobRepository.save(job);
+
+        ImportTally tally = new ImportTally();
+
+        // Restore updates first so a failed delete never leaves an update half-reverted
+        long afterId = 0;
+        List<ImportRecord> page;
+        while (!(page = importRecordRepository.findTop200ByImportJobIdAndActionAndIdGreaterThanOrderByIdAsc(
+                sourceJobId, ImportRecord.UPDATED, afterId)).isEmpty()) {
+            restoreBatch(job, org, page, tally);
+            afterId = page.get(page.size() - 1).getId();
+            tally.applyProgress(job);
+            importJobRepository.save(job);
+        }
+
+        afterId = 0;
+        while (!(page = importRecordRepository.findTop200ByImportJobIdAndActionAndIdGreaterThanOrderByIdAsc(
+                sourceJobId, ImportRecord.CREATED, afterId)).isEmpty()) {
+            deleteBatch(job, org, page, tally);
+            afterId = page.get(page.size() - 1).getId();
+            tally.applyProgress(job);
+            importJobRepository.save(job);
+        }
+
+        job = importJobRepository.findById(jobId).orElseThrow();
+        tally.complete(job);
+        importJobRepository.save(job);
+
+        if (tally.errorCount == 0) {
+            importJobRepository.findById(sourceJobId).ifPresent(source -> {
+                source.setStatus("ROLLED_BACK");
+                importJobRepository.save(source);
+            });
+        }
+        log.info("Rollback job {} of import {} completed. Success: {}, Errors: {}",
+                jobId, sourceJobId, tally.successCount, tally.errorCount);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void restoreBatch(ImportJob job, OrgConnection org, List<ImportRecord> page, ImportTally tally) {
+        List<ImportRecord> sent = new ArrayList<>();
+        List<Map<String, Object>> records = new ArrayList<>();
+        for (ImportRecord rec : page) {
+            Map<String, Object> previous = parse(rec.getPreviousValues());
+            if (previous == null) {
+                tally.addError(job, rec.getRowNumber(), "Not revertible: the values import job "
+                        + rec.getImportJobId() + " overwrote on " + rec.getRecordId() + " could not be read",
+                        rec.getRecordId());
+                continue;
+            }
+            Map<String, Object> typed = new LinkedHashMap<>();
+            typed.put("attributes", Map.of("type", job.getObjectName()));
+            typed.put("id", rec.getRecordId());
+            typed.putAll(previous);
+            records.add(typed);
+            sent.add(rec);
+        }
+        tally.processed += page.size() - sent.size();
+        if (sent.isEmpty()) return;
+
+        try {
+            Map<String, Object> body = new HashMap<>();
+            body.put("allOrNone", false);
+            body.put("records", records);
+            List<Map<?, ?>> results = (List<Map<?, ?>>) (List<?>)
+                    restApiClient.patchCollection(org, "/composite/sobjects", body);
+            applyResults(job, sent, results, tally);
+        } catch (Exception e) {
+            log.error("Rollback restore batch failed for job {}: {}", job.getId(), e.getMessage(), e);
+            sent.forEach(rec -> tally.addError(job, rec.getRowNumber(), e.getMessage(), rec.getRecordId()));
+        }
+        tally.processed += sent.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void deleteBatch(ImportJob job, OrgConnection org, List<ImportRecord> page, ImportTally tally) {
+        try {
+            String ids = page.stream().map(ImportRecord::getRecordId).collect(Collectors.joining(","));
+            List<Map<?, ?>> results = (List<Map<?, ?>>) (List<?>)
+                    restApiClient.deleteCollection(org, "/composite/sobjects?ids=" + ids + "&allOrNone=false");
+            applyResults(job, page, results, tally);
+        } catch (Exception e) {
+            log.error("Rollback delete batch failed for job {}: {}", job.getId(), e.getMessage(), e);
+            page.forEach(rec -> tally.addError(job, rec.getRowNumber(), e.getMessage(), rec.getRecordId()));
+        }
+        tally.processed += page.size();
+    }
+
+    private void applyResults(ImportJob job, List<ImportRecord> sent, List<Map<?, ?>> results, ImportTally tally) {
+        for (int i = 0; i < sent.size(); i++) {
+            ImportRecord rec = sent.get(i);
+            Map<?, ?> r = results != null && i < results.size() ? results.get(i) : null;
+            if (r != null && Boolean.TRUE.equals(r.get("success"))) {
+                tally.successCount++;
+            } else {
+                String message = r != null ? DataForgeService.extractErrorMessage(r) : "No result returned";
+                tally.addError(job, rec.getRowNumber(), message, rec.getRecordId());
+            }
+        }
+    }
+
+    private Map<String, Object> parse(String json) {
+        if (json == null) return null;
+        try {
+            return objectMapper.readValue(json, new TypeReference<LinkedHashMap<String, Object>>() {});
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
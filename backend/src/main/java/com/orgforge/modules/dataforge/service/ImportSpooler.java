@@ -0,0 +1,83 @@
+package com.orgforge.modules.dataforge.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Creates spool files under {@code app.data-forge.spool-dir} and stages API upload
+ * bodies into them. {@link #stage} parses the JSON body as a stream and writes each
+ * element of its {@code records} array to a {@link SpoolWriter} as soon as it is read,
+ * so an upload never holds more than one record on the heap.
+ */
+@Component
+@RequiredArgsConstructor
+public class ImportSpooler {
+
+    private static final TypeReference<LinkedHashMap<String, Object>> RECORD = new TypeReference<>() {};
+
+    private final ObjectMapper objectMapper;
+
+    /** Where staged rows are spooled; defaults to the temp dir. */
+    @Value("${app.data-forge.spool-dir:}")
+    private String spoolDirectory;
+
+    /**
+     * An upload body with its {@code records} spooled to {@code spool}; every other
+     * top-level field is kept as parsed. The caller owns the spool file and deletes it.
+     */
+    public record StagedRequest(Map<String, Object> fields, Path spool) {}
+
+    /** A new, empty spool file. */
+    public Path newSpool(String prefix) throws IOException {
+        Path dir = spoolDirectory == null || spoolDirectory.isBlank()
+                ? Paths.get(System.getProperty("java.io.tmpdir"), "orgforge-spool")
+                : Paths.get(spoolDirectory);
+        return Files.createTempFile(Files.createDirectories(dir), prefix, ".spool");
+    }
+
+    public StagedRequest stage(InputStream body) throws IOException {
+        Path path = newSpool("upload-");
+        Map<String, Object> fields = new LinkedHashMap<>();
+        try (JsonParser parser = objectMapper.getFactory().createParser(body);
+             SpoolWriter spool = new SpoolWriter(path)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Request body must be a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("records".equals(name) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        spool.write(objectMapper.readValue(parser, RECORD));
+                    }
+                    if (parser.currentToken() != JsonToken.END_ARRAY) {
+                        throw new IllegalArgumentException("records must be an array of objects");
+                    }
+                } else {
+                    fields.put(name, objectMapper.readValue(parser, Object.class));
+                }
+            }
+        } catch (JsonProcessingException e) {
+            Files.deleteIfExists(path);
+            throw new IllegalArgumentException("Malformed request body: " + e.getOriginalMessage());
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(path);
+            throw e;
+        }
+        return new StagedRequest(fields, path);
+    }
+}
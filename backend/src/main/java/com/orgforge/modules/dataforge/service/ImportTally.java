@@ -0,0 +1,47 @@
+package com.orgforge.modules.dataforge.service;
+
+import com.orgforge.modules.dataforge.model.ImportError;
+import com.orgforge.modules.dataforge.model.ImportJob;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Running counters and row errors for one import-style job (import or rollback).
+ * Errors are attached to the job only on completion, as processImport always did.
+ */
+class ImportTally {
+
+    int successCount;
+    int errorCount;
+    int processed;
+    /** Updated records stored without previous values, which a rollback cannot restore. */
+    int unrevertible;
+
+    final List<ImportError> errors = new ArrayList<>();
+
+    void addError(ImportJob job, int rowNumber, String errorMessage, String rawData) {
+        errorCount++;
+        errors.add(ImportError.builder()
+                .rowNumber(rowNumber)
+                .errorMessage(errorMessage)
+                .rawData(rawData)
+                .importJob(job)
+                .build());
+    }
+
+    void applyProgress(ImportJob job) {
+        job.setProcessedRecords(processed);
+        job.setSuccessCount(successCount);
+        job.setErrorCount(errorCount);
+        job.setUnrevertibleRecords(unrevertible);
+    }
+
+    void complete(ImportJob job) {
+        job.getErrors().addAll(errors);
+        applyProgress(job);
+        job.setCompletedAt(LocalDateTime.now());
+        job.setStatus(errorCount > 0 ? "COMPLETED_WITH_ERRORS" : "COMPLETED");
+    }
+}
@@ -0,0 +1,155 @@
+package com.orgforge.modules.dataforge.service;
+
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Client-side validation of mapped import records against the object describe
+ * returned by {@link DataForgeService#getObjectFields}. Catches the failures
+ * Salesforce would otherwise reject row-by-row (missing required fields, bad
+ * numbers/dates, over-length text) without spending an API call. Field names are
+ * compared case-insensitively, like Salesforce API names.
+ */
+@Component
+public class ImportValidator {
+
+    private static final Set<String> NUMERIC_TYPES = Set.of("int", "double", "currency", "percent", "long");
+    private static final Set<String> TEXT_TYPES = Set.of(
+            "string", "textarea", "email", "phone", "url", "picklist", "multipicklist", "encryptedstring");
+
+    /**
+     * Outcome for one record: {@code error} rejects it, {@code warning} flags a problem
+     * that only applies to some rows, e.g. a required field missing from an upsert row
+     * that may match an existing record. Both are {@code null} for a clean record.
+     */
+    public record Result(String error, String warning) {
+
+        public static final Result VALID = new Result(null, null);
+
+        static Result error(String message) {
+            return new Result(message, null);
+        }
+
+        static Result warning(String message) {
+            return new Result(null, message);
+        }
+
+        public boolean isValid() {
+            return error == null;
+        }
+    }
+
+    /** Describe fields keyed by API name, case-insensitively, as Salesforce matches them. */
+    public static Map<String, Map<String, Object>> indexFields(List<Map<String, Object>> fields) {
+        Map<String, Map<String, Object>> byName = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (Map<String, Object> f : fields) {
+            byName.put(String.valueOf(f.get("name")), f);
+        }
+        return byName;
+    }
+
+    /**
+     * Validates one record. Field names in the record are matched case-insensitively.
+     *
+     * @param fieldsByName describe fields from {@link #indexFields}
+     */
+    public Result validate(Map<String, Object> record, Map<String, Map<String, Object>> fieldsByName,
+                           String operation, String externalIdField) {
+        String op = operation != null ? operation.toUpperCase() : "INSERT";
+        String extId = externalIdField != null && !externalIdField.isBlank() ? externalIdField : "Id";
+        Map<String, Object> values = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        values.putAll(record);
+
+        if ("UPDATE".equals(op) && isBlank(values.get("Id"))) {
+            return Result.error("Missing Id for UPDATE");
+        }
+        boolean byExternalId = "UPSERT".equals(op) && !"Id".equalsIgnoreCase(extId);
+        if (byExternalId && isBlank(values.get(extId))) {
+            return Result.error("Missing external ID value for " + extId);
+        }
+        Object id = values.get("Id");
+        if (!isBlank(id) && !id.toString().matches("[a-zA-Z0-9]{15}|[a-zA-Z0-9]{18}")) {
+            return Result.error("Invalid Salesforce Id: " + id);
+        }
+
+        for (Map.Entry<String, Object> e : record.entrySet()) {
+            String name = e.getKey();
+            if ("Id".equalsIgnoreCase(name) || "attributes".equals(name)) continue;
+
+            Map<String, Object> field = fieldsByName.get(name);
+            if (field == null) {
+                return Result.error("Unknown field: " + name);
+            }
+            if ("INSERT".equals(op) && Boolean.FALSE.equals(field.get("createable"))) {
+                return Result.error("Field is not createable: " + name);
+            }
+            if ("UPDATE".equals(op) && Boolean.FALSE.equals(field.get("updateable"))) {
+                return Result.error("Field is not updateable: " + name);
+            }
+            String error = checkValue(name, field, e.getValue());
+            if (error != null) return Result.error(error);
+        }
+
+        // An external-id upsert row may update an existing record, so a missing
+        // required field only fails the rows that turn out to be inserts
+        if ("INSERT".equals(op) || ("UPSERT".equals(op) && isBlank(id))) {
+            for (Map<String, Object> field : fieldsByName.values()) {
+                if (!Boolean.TRUE.equals(field.get("required"))) continue;
+                if (Boolean.FALSE.equals(field.get("createable"))) continue;
+                String name = String.valueOf(field.get("name"));
+                if (isBlank(values.get(name))) {
+                    return byExternalId
+                            ? Result.warning("Required field missing: " + name + " (fails if no record matches "
+                                    + extId + ")")
+                            : Result.error("Required field missing: " + name);
+                }
+            }
+        }
+        return Result.VALID;
+    }
+
+    private String checkValue(String name, Map<String, Object> field, Object value) {
+        if (isBlank(value)) return null;
+        String type = field.get("type") != null ? field.get("type").toString().toLowerCase() : "string";
+        String s = value.toString().trim();
+
+        try {
+            if (NUMERIC_TYPES.contains(type)) {
+                if (!(value instanceof Number)) new BigDecimal(s);
+            } else if ("boolean".equals(type)) {
+                if (!(value instanceof Boolean) && !List.of("true", "false", "1", "0").contains(s.toLowerCase())) {
+                    return "Invalid boolean for " + name + ": " + s;
+                }
+            } else if ("date".equals(type)) {
+                LocalDate.parse(s);
+            } else if ("datetime".equals(type)) {
+                if (s.length() == 10) LocalDate.parse(s); else OffsetDateTime.parse(s);
+            } else if (TEXT_TYPES.contains(type)) {
+                int length = field.get("length") instanceof Number n ? n.intValue() : 0;
+                if (length > 0 && s.length() > length) {
+                    return "Value too long for " + name + " (" + s.length() + " > " + length + ")";
+                }
+                if ("email".equals(type) && !s.matches("[^@\\s]+@[^@\\s]+\\.[^@\\s]+")) {
+                    return "Invalid email for " + name + ": " + s;
+                }
+            }
+        } catch (NumberFormatException e) {
+            return "Invalid number for " + name + ": " + s;
+        } catch (DateTimeParseException e) {
+            return "Invalid " + type + " for " + name + ": " + s;
+        }
+        return null;
+    }
+
+    private boolean isBlank(Object value) {
+        return value == null || value.toString().isBlank();
+    }
+}
@@ -0,0 +1,214 @@
+package com.orgforge.modules.dataforge.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Read side of the spool format written by {@link SpoolWriter}. The file is mapped
+ * read-only, so rows are decoded straight from the page cache and {@link #iterator()}
+ * yields one row map at a time, in the order they were written.
+ *
+ * <p>Data is mapped in segments of whole rows (at most {@value #SEGMENT_BYTES} bytes
+ * each), since a single mapping is limited to 2 GB.
+ *
+ * <p>The JDK has no supported unmap call, so mappings are released by the garbage
+ * collector once the SpoolFile is unreachable; until then a deleted spool keeps its
+ * disk blocks allocated. {@link #close} closes the channel and fails any further reads.
+ */
+public class SpoolFile implements Closeable, Iterable<Map<String, Object>> {
+
+    static final int SEGMENT_BYTES = 1 << 30;
+
+    private final FileChannel channel;
+    private final int rowCount;
+    private final long indexOffset;
+    private final LongBuffer index;
+    private final String[] columns;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private final List<Long> segmentStarts = new ArrayList<>();
+    private final int[] segmentFirstRow;
+    private volatile boolean closed;
+
+    public static SpoolFile open(Path path) throws IOException {
+        return new SpoolFile(FileChannel.open(path, StandardOpenOption.READ));
+    }
+
+    private SpoolFile(FileChannel channel) throws IOException {
+        this.channel = channel;
+        try {
+            MappedByteBuffer header = map(0, SpoolWriter.HEADER_BYTES);
+            if (header.getInt(0) != SpoolWriter.MAGIC || header.getShort(4) != SpoolWriter.VERSION) {
+                throw new IOException("Not a spool file or unsupported version");
+            }
+            rowCount = header.getInt(8);
+            int columnCount = header.getInt(12);
+            indexOffset = header.getLong(16);
+            long dictOffset = header.getLong(24);
+
+            index = map(indexOffset, (long) rowCount * 8).asLongBuffer();
+
+            MappedByteBuffer dict = map(dictOffset, channel.size() - dictOffset);
+            int[] pos = {0};
+            int count = readVarint(dict, pos);
+            if (count != columnCount) throw new IOException("Spool column dictionary is corrupt");
+            columns = new String[count];
+            for (int i = 0; i < count; i++) {
+                int len = readVarint(dict, pos);
+                byte[] bytes = new byte[len];
+                dict.get(pos[0], bytes);
+                pos[0] += len;
+                columns[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+
+            // Segments of whole rows, so a row never straddles two mappings
+            List<Integer> firstRows = new ArrayList<>();
+            int row = 0;
+            while (row < rowCount) {
+                long start = index.get(row);
+                int end = row + 1;
+                while (end < rowCount && rowEnd(end) - start <= SEGMENT_BYTES) end++;
+                segments.add(map(start, rowEnd(end - 1) - start));
+                segmentStarts.add(start);
+                firstRows.add(row);
+                row = end;
+            }
+            segmentFirstRow = firstRows.stream().mapToInt(Integer::intValue).toArray();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private long rowEnd(int rowIndex) {
+        return rowIndex + 1 < rowCount ? index.get(rowIndex + 1) : indexOffset;
+    }
+
+    private MappedByteBuffer map(long offset, long size) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, size);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+    public int rowCount() {
+        return rowCount;
+    }
+
+    /** Sequential iteration, materialising one row map per {@code next()}. */
+    @Override
+    public Iterator<Map<String, Object>> iterator() {
+        Cursor cursor = new Cursor();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return cursor.row + 1 < rowCount;
+            }
+
+            @Override
+            public Map<String, Object> next() {
+                if (!cursor.next()) throw new NoSuchElementException();
+                return cursor.toMap();
+            }
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        channel.close();
+    }
+
+    private static int readVarint(MappedByteBuffer buf, int[] pos) {
+        int result = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buf.get(pos[0]++);
+            result |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return result;
+    }
+
+    /**
+     * Flyweight over the current row. Field positions are decoded once per row into
+     * reused arrays; values are decoded only when read.
+     */
+    private final class Cursor {
+
+        private int row = -1;
+        private MappedByteBuffer segment;
+        private int fieldCount;
+        private int[] fieldColumns = new int[16];
+        private int[] fieldPositions = new int[16];
+        private byte[] scratch = new byte[256];
+        private final int[] pos = {0};
+
+        /** Advances to the next row; returns false past the last row. */
+        boolean next() {
+            if (closed) throw new IllegalStateException("Spool file is closed");
+            if (row + 1 >= rowCount) return false;
+            int rowIndex = row + 1;
+            int s = Arrays.binarySearch(segmentFirstRow, rowIndex);
+            if (s < 0) s = -s - 2;
+            segment = segments.get(s);
+            pos[0] = (int) (index.get(rowIndex) - segmentStarts.get(s));
+            row = rowIndex;
+
+            fieldCount = readVarint(segment, pos);
+            if (fieldColumns.length < fieldCount) {
+                fieldColumns = new int[fieldCount];
+                fieldPositions = new int[fieldCount];
+            }
+            for (int k = 0; k < fieldCount; k++) {
+                fieldColumns[k] = readVarint(segment, pos);
+                fieldPositions[k] = pos[0];
+                skipValue();
+            }
+            return true;
+        }
+
+        private Object value(int field) {
+            pos[0] = fieldPositions[field];
+            byte tag = segment.get(pos[0]++);
+            return switch (tag) {
+                case SpoolWriter.NULL -> null;
+                case SpoolWriter.TRUE -> Boolean.TRUE;
+                case SpoolWriter.FALSE -> Boolean.FALSE;
+                case SpoolWriter.LONG -> segment.getLong(pos[0]);
+                case SpoolWriter.DOUBLE -> segment.getDouble(pos[0]);
+                default -> readString();
+            };
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>(fieldCount * 2);
+            for (int k = 0; k < fieldCount; k++) map.put(columns[fieldColumns[k]], value(k));
+            return map;
+        }
+
+        private String readString() {
+            int len = readVarint(segment, pos);
+            if (scratch.length < len) scratch = new byte[Math.max(len, scratch.length * 2)];
+            segment.get(pos[0], scratch, 0, len);
+            return new String(scratch, 0, len, StandardCharsets.UTF_8);
+        }
+
+        private void skipValue() {
+            byte tag = segment.get(pos[0]++);
+            if (tag == SpoolWriter.LONG || tag == SpoolWriter.DOUBLE) {
+                pos[0] += 8;
+            } else if (tag == SpoolWriter.STRING) {
+                int len = readVarint(segment, pos);
+                pos[0] += len;
+            }
+        }
+    }
+}
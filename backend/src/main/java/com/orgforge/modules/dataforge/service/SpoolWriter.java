@@ -0,0 +1,182 @@
+package com.orgforge.modules.dataforge.service;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Writes staged import rows to a spool file that {@link SpoolFile} reads back through
+ * memory-mapped buffers. Rows are appended one at a time, so staging a large extract
+ * never holds more than the current row on the heap.
+ *
+ * <pre>
+ * header  (40 bytes)  magic "OFSP", version, rowCount, columnCount, indexOffset, dictOffset
+ * data                per row: varint fieldCount, then per field varint columnId, type tag, value
+ * index               rowCount x int64 row start offsets
+ * dict                varint columnCount, then column names (varint length + UTF-8)
+ * </pre>
+ *
+ * Column names are dictionary-encoded: each row stores small column ids, not names.
+ * Values keep their JSON type (string, integral, decimal, boolean or null); anything
+ * else is stored as its string form. Multi-byte numbers are little-endian.
+ */
+public class SpoolWriter implements Closeable {
+
+    static final int MAGIC = 0x5053464F; // "OFSP" little-endian
+    static final short VERSION = 1;
+    static final int HEADER_BYTES = 40;
+
+    static final byte NULL = 0;
+    static final byte STRING = 1;
+    static final byte LONG = 2;
+    static final byte DOUBLE = 3;
+    static final byte TRUE = 4;
+    static final byte FALSE = 5;
+
+    private final Path path;
+    private final Path indexPath;
+    private final FileChannel channel;
+    private final DataOutputStream index;
+    private final Map<String, Integer> columnIds = new LinkedHashMap<>();
+    private final ByteBuffer buffer = ByteBuffer.allocate(64 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+    private long position = HEADER_BYTES;
+    private int rowCount;
+    private boolean closed;
+
+    public SpoolWriter(Path path) throws IOException {
+        this.path = path;
+        this.indexPath = path.resolveSibling(path.getFileName() + ".idx");
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE, StandardOpenOption.READ);
+        this.index = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(indexPath)));
+        channel.position(HEADER_BYTES);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /** Appends one row. The {@code attributes} entry Salesforce payloads carry is not spooled. */
+    public void write(Map<String, Object> row) throws IOException {
+        index.writeLong(Long.reverseBytes(position));
+        int fields = 0;
+        for (String key : row.keySet()) {
+            if (!"attributes".equals(key)) fields++;
+        }
+        putVarint(fields);
+        for (Map.Entry<String, Object> e : row.entrySet()) {
+            if ("attributes".equals(e.getKey())) continue;
+            Integer id = columnIds.get(e.getKey());
+            if (id == null) {
+                id = columnIds.size();
+                columnIds.put(e.getKey(), id);
+            }
+            putVarint(id);
+            putValue(e.getValue());
+        }
+        rowCount++;
+    }
+
+    private void putValue(Object value) throws IOException {
+        if (value == null) {
+            put(NULL);
+        } else if (value instanceof Boolean b) {
+            put(b ? TRUE : FALSE);
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            put(LONG);
+            ensure(8);
+            buffer.putLong(((Number) value).longValue());
+            position += 8;
+        } else if (value instanceof Double || value instanceof Float) {
+            put(DOUBLE);
+            ensure(8);
+            buffer.putDouble(((Number) value).doubleValue());
+            position += 8;
+        } else {
+            put(STRING);
+            putString(value.toString());
+        }
+    }
+
+    private void putString(String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        putVarint(bytes.length);
+        int offset = 0;
+        while (offset < bytes.length) {
+            if (!buffer.hasRemaining()) flush();
+            int n = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.put(bytes, offset, n);
+            offset += n;
+        }
+        position += bytes.length;
+    }
+
+    private void putVarint(int v) throws IOException {
+        while ((v & ~0x7F) != 0) {
+            put((byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        put((byte) v);
+    }
+
+    private void put(byte b) throws IOException {
+        ensure(1);
+        buffer.put(b);
+        position++;
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) flush();
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) channel.write(buffer);
+        buffer.clear();
+    }
+
+    /** Appends the row index and column dictionary, then writes the header. */
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        try {
+            long indexOffset = position;
+            index.close();
+            flush();
+            try (FileChannel idx = FileChannel.open(indexPath, StandardOpenOption.READ)) {
+                long size = idx.size();
+                long copied = 0;
+                while (copied < size) copied += idx.transferTo(copied, size - copied, channel);
+                position += size;
+            }
+            channel.position(position);
+
+            long dictOffset = position;
+            putVarint(columnIds.size());
+            for (String column : columnIds.keySet()) putString(column);
+            flush();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putShort(VERSION).putShort((short) 0)
+                    .putInt(rowCount).putInt(columnIds.size())
+                    .putLong(indexOffset).putLong(dictOffset)
+                    .putLong(0L);
+            header.flip();
+            channel.write(header, 0);
+        } finally {
+            channel.close();
+            Files.deleteIfExists(indexPath);
+        }
+    }
+}
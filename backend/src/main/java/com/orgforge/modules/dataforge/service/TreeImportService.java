@@ -0,0 +1,413 @@
+package com.orgforge.modules.dataforge.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orgforge.core.config.WorkerPools;
+import com.orgforge.core.org.OrgConnection;
+import com.orgforge.core.salesforce.RestApiClient;
+import com.orgforge.modules.dataforge.model.ImportJob;
+import com.orgforge.modules.dataforge.model.ImportRecord;
+import com.orgforge.modules.dataforge.repository.ImportJobRepository;
+import com.orgforge.modules.dataforge.repository.ImportRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.client.HttpStatusCodeException;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Loads parent/child record graphs in one call per tree through the sObject Tree
+ * endpoint ({@code /composite/tree/{rootType}}), so Account → Contacts → Opportunities
+ * no longer need separate jobs and manual Id stitching.
+ *
+ * <p>Input is either nested (children under their relationship name, each child
+ * carrying {@code attributes.type}, exactly as Salesforce accepts them) or flat
+ * "multi-file" rows: root records plus child specs that link rows through a key
+ * column. Root trees are packed into requests of at most {@value #MAX_NODES} records
+ * and sent in parallel. Every node gets a referenceId that maps back to its object
+ * and source row, so errors land on the right row.
+ */
+@Slf4j
+@Service
+public class TreeImportService {
+
+    /** Salesforce limit: total records across all trees in one request. */
+    static final int MAX_NODES = 200;
+
+    private final ImportJobRepository importJobRepository;
+    private final ImportRecordRepository importRecordRepository;
+    private final RestApiClient restApiClient;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService requestPool;
+
+    public TreeImportService(ImportJobRepository importJobRepository,
+                             ImportRecordRepository importRecordRepository,
+                             RestApiClient restApiClient,
+                             ObjectMapper objectMapper,
+                             WorkerPools workerPools,
+                             @Value("${app.data-forge.tree.parallelism:4}") int parallelism) {
+        this.importJobRepository = importJobRepository;
+        this.importRecordRepository = importRecordRepository;
+        this.restApiClient = restApiClient;
+        this.objectMapper = objectMapper;
+        this.requestPool = workerPools.fixed("OrgForge-TreeImport", parallelism);
+    }
+
+    // -------------------------------------------------------------------------
+    // Input → forest
+    // -------------------------------------------------------------------------
+
+    /** One record in a tree, with the row it came from for error reporting. */
+    static final class TreeNode {
+        final String objectName;
+        final int rowNumber;
+        final Map<String, Object> fields = new LinkedHashMap<>();
+        final Map<String, List<TreeNode>> children = new LinkedHashMap<>();
+
+        TreeNode(String objectName, int rowNumber) {
+            this.objectName = objectName;
+            this.rowNumber = rowNumber;
+        }
+
+        int size() {
+            int n = 1;
+            for (List<TreeNode> list : children.values()) {
+                for (TreeNode c : list) n += c.size();
+            }
+            return n;
+        }
+
+        void collect(List<TreeNode> out) {
+            out.add(this);
+            children.values().forEach(list -> list.forEach(c -> c.collect(out)));
+        }
+    }
+
+    /**
+     * Builds root trees from nested records. Row numbers are the 1-based position of the
+     * root record; descendants report the row of the root they were nested under.
+     */
+    @SuppressWarnings("unchecked")
+    List<TreeNode> fromNested(String objectName, List<Map<String, Object>> records) {
+        List<TreeNode> roots = new ArrayList<>();
+        for (int i = 0; i < records.size(); i++) {
+            roots.add(nestedNode(objectName, records.get(i), i + 1));
+        }
+        return roots;
+    }
+
+    @SuppressWarnings("unchecked")
+    private TreeNode nestedNode(String objectName, Map<String, Object> record, int rowNumber) {
+        TreeNode node = new TreeNode(objectName, rowNumber);
+        for (Map.Entry<String, Object> e : record.entrySet()) {
+            if ("attributes".equals(e.getKey())) continue;
+            Object value = e.getValue();
+            List<?> childRecords = value instanceof Map<?, ?> m && m.get("records") instanceof List<?> l ? l
+                    : value instanceof List<?> l2 ? l2 : null;
+            if (childRecords == null) {
+                node.fields.put(e.getKey(), value);
+                continue;
+            }
+            List<TreeNode> kids = new ArrayList<>();
+            for (Object child : childRecords) {
+                if (!(child instanceof Map<?, ?> cm)) continue;
+                Object attrs = cm.get("attributes");
+                Object type = attrs instanceof Map<?, ?> am ? am.get("type") : null;
+                if (type == null) {
+                    throw new IllegalArgumentException("Child records under '" + e.getKey()
+                            + "' (row " + rowNumber + ") need attributes.type");
+                }
+                kids.add(nestedNode(type.toString(), (Map<String, Object>) cm, rowNumber));
+            }
+            node.children.put(e.getKey(), kids);
+        }
+        return node;
+    }
+
+    /**
+     * Builds root trees from flat rows. Each child spec is
+     * {@code { objectName, relationshipName, parentKeyField, keyField?, records, children? }}:
+     * a child row is attached to the parent whose {@code keyField} value equals the child's
+     * {@code parentKeyField} value. Both link columns are stripped before sending.
+     * Row numbers are 1-based within each spec's own records. Child rows whose parent
+     * key matches nothing are returned in {@code orphans}.
+     */
+    @SuppressWarnings("unchecked")
+    List<TreeNode> fromFlat(String objectName, String keyField, List<Map<String, Object>> records,
+                            List<Map<String, Object>> childSpecs, List<TreeNode> orphans) {
+        List<TreeNode> roots = new ArrayList<>();
+        Map<String, TreeNode> byKey = new HashMap<>();
+        for (int i = 0; i < records.size(); i++) {
+            Map<String, Object> row = records.get(i);
+            TreeNode node = new TreeNode(objectName, i + 1);
+            row.forEach((k, v) -> {
+                if (!"attributes".equals(k) && !k.equals(keyField)) node.fields.put(k, v);
+            });
+            Object key = keyField != null ? row.get(keyField) : null;
+            if (key != null) byKey.put(key.toString(), node);
+            roots.add(node);
+        }
+        attachChildren(byKey, childSpecs, orphans);
+        return roots;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void attachChildren(Map<String, TreeNode> parents, List<Map<String, Object>> specs,
+                                List<TreeNode> orphans) {
+        if (specs == null) return;
+        for (Map<String, Object> spec : specs) {
+            String childObject = (String) spec.get("objectName");
+            String relationship = (String) spec.get("relationshipName");
+            String parentKeyField = (String) spec.get("parentKeyField");
+            String keyField = (String) spec.get("keyField");
+            if (childObject == null || relationship == null || parentKeyField == null) {
+                throw new IllegalArgumentException("Child specs need objectName, relationshipName and parentKeyField");
+            }
+            List<Map<String, Object>> rows = spec.get("records") instanceof List<?> l
+                    ? (List<Map<String, Object>>) l : List.of();
+
+            Map<String, TreeNode> byKey = new HashMap<>();
+            for (int i = 0; i < rows.size(); i++) {
+                Map<String, Object> row = rows.get(i);
+                TreeNode node = new TreeNode(childObject, i + 1);
+                row.forEach((k, v) -> {
+                    if (!"attributes".equals(k) && !k.equals(parentKeyField) && !k.equals(keyField)) {
+                        node.fields.put(k, v);
+                    }
+                });
+                Object parentKey = row.get(parentKeyField);
+                TreeNode parent = parentKey != null ? parents.get(parentKey.toString()) : null;
+                if (parent == null) {
+                    orphans.add(node);
+                } else {
+                    parent.children.computeIfAbsent(relationship, k -> new ArrayList<>()).add(node);
+                }
+                Object key = keyField != null ? row.get(keyField) : null;
+                if (key != null) byKey.put(key.toString(), node);
+            }
+            attachChildren(byKey, spec.get("children") instanceof List<?> c
+                    ? (List<Map<String, Object>>) c : null, orphans);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Job
+    // -------------------------------------------------------------------------
+
+    @Async("taskExecutor")
+    @Transactional
+    @SuppressWarnings("unchecked")
+    public void processTreeImport(Long jobId, Map<String, Object> request, OrgConnection org) {
+        ImportJob job = importJobRepository.findById(jobId)
+                .orElseThrow(() -> new IllegalArgumentException("ImportJob not found: " + jobId));
+        String objectName = job.getObjectName();
+        ImportTally tally = new ImportTally();
+
+        List<Map<String, Object>> records = request.get("records") instanceof List<?> l
+                ? (List<Map<String, Object>>) l : List.of();
+        List<TreeNode> orphans = new ArrayList<>();
+        List<TreeNode> roots;
+        try {
+            roots = request.get("children") instanceof List<?> specs
+                    ? fromFlat(objectName, (String) request.get("keyField"), records,
+                               (List<Map<String, Object>>) specs, orphans)
+                    : fromNested(objectName, records);
+        } catch (IllegalArgumentException e) {
+            tally.addError(job, 0, e.getMessage(), null);
+            tally.complete(job);
+            job.setStatus("FAILED");
+            importJobRepository.save(job);
+            log.warn("Tree import job {} rejected: {}", jobId, e.getMessage());
+            return;
+        }
+
+        int total = orphans.size();
+        for (TreeNode root : roots) total += root.size();
+        job.setStatus("PROCESSING");
+        job.setTotalRecords(total);
+        importJobRepository.save(job);
+
+        for (TreeNode orphan : orphans) {
+            tally.addError(job, orphan.rowNumber, "[" + orphan.objectName + "] No parent row matches this record",
+                    serialize(orphan.fields));
+            tally.processed++;
+        }
+
+        // Pack whole root trees into requests of at most MAX_NODES records
+        List<List<TreeNode>> requests = new ArrayList<>();
+        List<TreeNode> current = new ArrayList<>();
+        int currentSize = 0;
+        for (TreeNode root : roots) {
+            int size = root.size();
+            if (size > MAX_NODES) {
+                List<TreeNode> nodes = new ArrayList<>();
+                root.collect(nodes);
+                for (TreeNode n : nodes) {
+                    tally.addError(job, n.rowNumber, "[" + n.objectName + "] Tree has " + size
+                            + " records; the limit per tree is " + MAX_NODES, serialize(n.fields));
+                }
+                tally.processed += size;
+                continue;
+            }
+            if (currentSize + size > MAX_NODES) {
+                requests.add(current);
+                current = new ArrayList<>();
+                currentSize = 0;
+            }
+            current.add(root);
+            currentSize += size;
+        }
+        if (!current.isEmpty()) requests.add(current);
+
+        // Send in parallel; apply outcomes on this thread, which owns the transaction
+        CompletionService<List<TreeOutcome>> completion = new ExecutorCompletionService<>(requestPool);
+        Map<Future<List<TreeOutcome>>, List<TreeNode>> treesByRequest = new HashMap<>();
+        for (List<TreeNode> trees : requests) {
+            treesByRequest.put(completion.submit(() -> send(org, objectName, trees)), trees);
+        }
+        for (int i = 0; i < requests.size(); i++) {
+            List<TreeOutcome> outcomes;
+            Future<List<TreeOutcome>> done = null;
+            try {
+                done = completion.take();
+                outcomes = done.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                // Count every record of the request as failed so the totals still add up
+                log.error("Tree request failed for job {}: {}", jobId, e.getCause().getMessage(), e.getCause());
+                outcomes = List.of(failed(treesByRequest.get(done), String.valueOf(e.getCause().getMessage())));
+            }
+            for (TreeOutcome outcome : outcomes) apply(job, outcome, tally);
+            tally.applyProgress(job);
+            importJobRepository.save(job);
+        }
+
+        job = importJobRepository.findById(jobId).orElseThrow();
+        tally.complete(job);
+        importJobRepository.save(job);
+        log.info("Tree import job {} completed. Success: {}, Errors: {}", jobId, tally.successCount, tally.errorCount);
+    }
+
+    /** Outcome of one tree request: referenceId → node, created Ids and per-reference errors. */
+    private record TreeOutcome(Map<String, TreeNode> refs, Map<String, String> ids, Map<String, String> errors,
+                               String requestError) {
+
+        boolean failed() {
+            return requestError != null || !errors.isEmpty();
+        }
+    }
+
+    /**
+     * Posts one packed request. The endpoint is all-or-nothing, so when a request holding
+     * several trees fails, each tree is resent on its own and only the bad trees fail.
+     */
+    private List<TreeOutcome> send(OrgConnection org, String objectName, List<TreeNode> trees) {
+        TreeOutcome outcome = post(org, objectName, trees);
+        if (!outcome.failed() || trees.size() == 1) return List.of(outcome);
+
+        List<TreeOutcome> outcomes = new ArrayList<>();
+        for (TreeNode tree : trees) outcomes.add(post(org, objectName, List.of(tree)));
+        return outcomes;
+    }
+
+    private TreeOutcome post(OrgConnection org, String objectName, List<TreeNode> trees) {
+        Map<String, TreeNode> refs = new LinkedHashMap<>();
+        List<Map<String, Object>> payload = new ArrayList<>();
+        for (TreeNode tree : trees) payload.add(toPayload(tree, refs));
+
+        Map<?, ?> response;
+        try {
+            response = restApiClient.post(org, "/composite/tree/" + objectName, Map.of("records", payload));
+        } catch (HttpStatusCodeException e) {
+            try {
+                // Failed trees come back as 400 with per-reference errors in the body
+                response = objectMapper.readValue(e.getResponseBodyAsString(), Map.class);
+            } catch (Exception parseEx) {
+                return new TreeOutcome(refs, Map.of(), Map.of(), e.getStatusCode() + ": " + e.getResponseBodyAsString());
+            }
+        } catch (Exception e) {
+            return new TreeOutcome(refs, Map.of(), Map.of(), e.getMessage());
+        }
+
+        Map<String, String> ids = new HashMap<>();
+        Map<String, String> errors = new HashMap<>();
+        if (response != null && response.get("results") instanceof List<?> results) {
+            for (Object item : results) {
+                if (!(item instanceof Map<?, ?> r) || r.get("referenceId") == null) continue;
+                String ref = r.get("referenceId").toString();
+                if (r.get("errors") != null) {
+                    errors.put(ref, DataForgeService.extractErrorMessage(r));
+                } else if (r.get("id") != null) {
+                    ids.put(ref, r.get("id").toString());
+                }
+            }
+        }
+        boolean hasErrors = response != null && Boolean.TRUE.equals(response.get("hasErrors"));
+        String requestError = hasErrors && errors.isEmpty() ? "Salesforce rejected the tree request" : null;
+        return new TreeOutcome(refs, ids, errors, requestError);
+    }
+
+    /** Outcome failing every record of {@code trees} with {@code message}. */
+    private TreeOutcome failed(List<TreeNode> trees, String message) {
+        Map<String, TreeNode> refs = new LinkedHashMap<>();
+        for (TreeNode tree : trees) {
+            List<TreeNode> nodes = new ArrayList<>();
+            tree.collect(nodes);
+            for (TreeNode n : nodes) refs.put("ref" + (refs.size() + 1), n);
+        }
+        return new TreeOutcome(refs, Map.of(), Map.of(), message);
+    }
+
+    private Map<String, Object> toPayload(TreeNode node, Map<String, TreeNode> refs) {
+        String ref = "ref" + (refs.size() + 1);
+        refs.put(ref, node);
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("attributes", Map.of("type", node.objectName, "referenceId", ref));
+        json.putAll(node.fields);
+        node.children.forEach((relationship, kids) -> {
+            List<Map<String, Object>> childJson = new ArrayList<>();
+            for (TreeNode kid : kids) childJson.add(toPayload(kid, refs));
+            json.put(relationship, Map.of("records", childJson));
+        });
+        return json;
+    }
+
+    private void apply(ImportJob job, TreeOutcome outcome, ImportTally tally) {
+        List<ImportRecord> created = new ArrayList<>();
+        for (Map.Entry<String, TreeNode> e : outcome.refs().entrySet()) {
+            TreeNode node = e.getValue();
+            String id = outcome.ids().get(e.getKey());
+            if (!outcome.failed() && id != null) {
+                tally.successCount++;
+                created.add(ImportRecord.builder()
+                        .importJobId(job.getId())
+                        .rowNumber(node.rowNumber)
+                        .recordId(id)
+                        .action(ImportRecord.CREATED)
+                        .build());
+            } else {
+                String message = outcome.errors().getOrDefault(e.getKey(),
+                        outcome.requestError() != null ? outcome.requestError()
+                                : "Not created: another record in the same tree failed");
+                tally.addError(job, node.rowNumber, "[" + node.objectName + "] " + message, serialize(node.fields));
+            }
+            tally.processed++;
+        }
+        // Children first, so a rollback deletes them before their parents
+        Collections.reverse(created);
+        if (!created.isEmpty()) importRecordRepository.batchInsert(created);
+    }
+
+    private String serialize(Map<String, Object> fields) {
+        try {
+            return objectMapper.writeValueAsString(fields);
+        } catch (Exception e) {
+            return fields.toString();
+        }
+    }
+}
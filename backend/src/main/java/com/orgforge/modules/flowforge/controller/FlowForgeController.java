@@ -1,12 +1,21 @@
 package com.orgforge.modules.flowforge.controller;
 
+import com.orgforge.modules.flowforge.model.FlowBulkJob;
+import com.orgforge.modules.flowforge.model.FlowIngestCursor;
+import com.orgforge.modules.flowforge.model.FlowLoadTest;
 import com.orgforge.modules.flowforge.model.FlowOverlap;
 import com.orgforge.modules.flowforge.model.FlowRun;
+import com.orgforge.modules.flowforge.service.FlowBulkInvokeService;
+import com.orgforge.modules.flowforge.service.FlowFaultIngestionService;
 import com.orgforge.modules.flowforge.service.FlowForgeService;
+import com.orgforge.modules.flowforge.service.FlowLoadTestService;
+import com.orgforge.modules.flowforge.service.RecordLookupService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -17,6 +26,10 @@ import java.util.Map;
 public class FlowForgeController {
 
     private final FlowForgeService flowForgeService;
+    private final FlowBulkInvokeService flowBulkInvokeService;
+    private final FlowFaultIngestionService flowFaultIngestionService;
+    private final FlowLoadTestService flowLoadTestService;
+    private final RecordLookupService recordLookupService;
 
     /** GET /api/flow-forge?orgId=... */
     @GetMapping
@@ -65,6 +78,14 @@ public class FlowForgeController {
         return ResponseEntity.ok(flowForgeService.getFlows(orgId));
     }
 
+    /** POST /api/flow-forge/flows/refresh?orgId=... — reload the cached flow catalogue */
+    @PostMapping("/flows/refresh")
+    public ResponseEntity<List<Map<String, Object>>> refreshFlows(
+            @RequestParam String orgId) {
+        flowForgeService.refreshCatalog(orgId);
+        return ResponseEntity.ok(flowForgeService.getFlows(orgId));
+    }
+
     /** GET /api/flow-forge/flows/inputs?orgId=...&apiName=... */
     @GetMapping("/flows/inputs")
     public ResponseEntity<List<Map<String, Object>>> getFlowInputs(
@@ -89,14 +110,68 @@ public class FlowForgeController {
         return ResponseEntity.ok(flowForgeService.invokeFlow(orgId, apiName, label, inputs));
     }
 
-    /** GET /api/flow-forge/flows/lookup?orgId=...&sobjectType=Account&q=Acme */
+    /**
+     * POST /api/flow-forge/flows/bulk-invoke?orgId=...
+     * Body: { apiName, label, inputs: [{...}, ...] | csv: "var1,var2\n...", sourceName, createdBy }
+     * Progress is broadcast on /topic/flow-bulk.{orgId}.
+     */
+    @PostMapping("/flows/bulk-invoke")
+    public ResponseEntity<?> bulkInvokeFlow(
+            @RequestParam String orgId,
+            @RequestBody Map<String, Object> body) {
+        String apiName = (String) body.get("apiName");
+        if (apiName == null || apiName.isBlank()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "apiName is required"));
+        }
+        List<Map<String, Object>> inputs;
+        try {
+            inputs = flowBulkInvokeService.parseInputs(body);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        FlowBulkJob job = flowBulkInvokeService.createJob(orgId, apiName, (String) body.get("label"),
+                (String) body.getOrDefault("sourceName", body.containsKey("csv") ? "upload.csv" : "upload.json"),
+                inputs.size(), (String) body.getOrDefault("createdBy", "user"));
+        flowBulkInvokeService.processJob(job.getId(), inputs);
+        return ResponseEntity.ok(job);
+    }
+
+    /** GET /api/flow-forge/bulk-jobs?orgId=...&page=0 */
+    @GetMapping("/bulk-jobs")
+    public ResponseEntity<List<FlowBulkJob>> getBulkJobs(
+            @RequestParam String orgId,
+            @RequestParam(defaultValue = "0") int page) {
+        return ResponseEntity.ok(flowBulkInvokeService.getJobs(orgId, page));
+    }
+
+    /** GET /api/flow-forge/bulk-jobs/{id}?page=0 — job plus its failed inputs */
+    @GetMapping("/bulk-jobs/{id}")
+    public ResponseEntity<Map<String, Object>> getBulkJob(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "0") int page) {
+        try {
+            Map<String, Object> response = new HashMap<>();
+            response.put("job", flowBulkInvokeService.getJob(id));
+            response.put("failures", flowBulkInvokeService.getFailedRuns(id, page));
+            return ResponseEntity.ok(response);
+        } catch (java.util.NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * GET /api/flow-forge/flows/lookup?orgId=...&sobjectType=Account&q=Acme&client=...
+     * 204 when a newer request from the same client superseded this one.
+     */
     @GetMapping("/flows/lookup")
     public ResponseEntity<?> lookupRecords(
             @RequestParam String orgId,
             @RequestParam String sobjectType,
-            @RequestParam String q) {
+            @RequestParam String q,
+            @RequestParam(required = false) String client) {
         try {
-            return ResponseEntity.ok(flowForgeService.lookupRecords(orgId, sobjectType, q));
+            List<Map<String, Object>> results = recordLookupService.lookup(orgId, sobjectType, q, client);
+            return results != null ? ResponseEntity.ok(results) : ResponseEntity.noContent().build();
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (RuntimeException e) {
@@ -104,11 +179,95 @@ public class FlowForgeController {
         }
     }
 
-    /** GET /api/flow-forge/analytics?orgId=...&days=30 */
+    /**
+     * GET /api/flow-forge/analytics?orgId=...&days=30
+     * or  ?orgId=...&from=2024-01-01T00:00&to=2024-01-08T00:00&granularity=HOUR|DAY|WEEK|MONTH&flowName=...
+     */
     @GetMapping("/analytics")
     public ResponseEntity<List<Map<String, Object>>> getAnalytics(
             @RequestParam String orgId,
-            @RequestParam(defaultValue = "30") int days) {
-        return ResponseEntity.ok(flowForgeService.getFlowAnalytics(orgId, days));
+            @RequestParam(defaultValue = "30") int days,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String granularity,
+            @RequestParam(required = false) String flowName) {
+        if (from == null && granularity == null && flowName == null) {
+            return ResponseEntity.ok(flowForgeService.getFlowAnalytics(orgId, days));
+        }
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusDays(days);
+        return ResponseEntity.ok(flowForgeService.getFlowAnalytics(orgId, start, end, granularity, flowName));
+    }
+
+    /**
+     * GET /api/flow-forge/analytics/durations?orgId=...&days=7
+     * or  ?orgId=...&from=...&to=...&flowName=...
+     * p50/p95/p99/max duration per flow, slowest first.
+     */
+    @GetMapping("/analytics/durations")
+    public ResponseEntity<List<Map<String, Object>>> getDurationPercentiles(
+            @RequestParam String orgId,
+            @RequestParam(defaultValue = "7") int days,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String flowName) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusDays(days);
+        return ResponseEntity.ok(flowForgeService.getDurationPercentiles(orgId, start, end, flowName));
+    }
+
+    /**
+     * POST /api/flow-forge/flows/load-test?orgId=...
+     * Body: { apiName, label, mode: RATE|CONCURRENCY, rate, concurrency, durationSeconds, inputs: {...}, createdBy }
+     * Progress is broadcast on /topic/flow-load.{orgId}.
+     */
+    @PostMapping("/flows/load-test")
+    public ResponseEntity<?> startLoadTest(
+            @RequestParam String orgId,
+            @RequestBody Map<String, Object> body) {
+        FlowLoadTest test;
+        try {
+            test = flowLoadTestService.createTest(orgId, body);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        flowLoadTestService.runTest(test.getId());
+        return ResponseEntity.ok(test);
+    }
+
+    /** GET /api/flow-forge/load-tests?orgId=...&page=0 */
+    @GetMapping("/load-tests")
+    public ResponseEntity<List<FlowLoadTest>> getLoadTests(
+            @RequestParam String orgId,
+            @RequestParam(defaultValue = "0") int page) {
+        return ResponseEntity.ok(flowLoadTestService.getTests(orgId, page));
+    }
+
+    /** GET /api/flow-forge/load-tests/{id} */
+    @GetMapping("/load-tests/{id}")
+    public ResponseEntity<FlowLoadTest> getLoadTest(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(flowLoadTestService.getTest(id));
+        } catch (java.util.NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /** POST /api/flow-forge/load-tests/{id}/stop */
+    @PostMapping("/load-tests/{id}/stop")
+    public ResponseEntity<Map<String, Object>> stopLoadTest(@PathVariable Long id) {
+        return ResponseEntity.ok(Map.of("stopped", flowLoadTestService.stop(id)));
+    }
+
+    /** POST /api/flow-forge/ingest?orgId=... — poll the org's flow interviews now */
+    @PostMapping("/ingest")
+    public ResponseEntity<Map<String, Object>> ingestNow(@RequestParam String orgId) {
+        return ResponseEntity.accepted().body(Map.of("queued", flowFaultIngestionService.submit(orgId)));
+    }
+
+    /** GET /api/flow-forge/ingest/cursors?orgId=... — ingestion watermarks and last errors */
+    @GetMapping("/ingest/cursors")
+    public ResponseEntity<List<FlowIngestCursor>> getIngestCursors(@RequestParam String orgId) {
+        return ResponseEntity.ok(flowFaultIngestionService.getCursors(orgId));
     }
 }
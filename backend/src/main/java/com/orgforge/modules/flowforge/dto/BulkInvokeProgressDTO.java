@@ -0,0 +1,13 @@
+package com.orgforge.modules.flowforge.dto;
+
+public record BulkInvokeProgressDTO(
+        Long jobId,
+        String flowApiName,
+        String status,
+        int totalInputs,
+        int processedInputs,
+        int successCount,
+        int errorCount,
+        double percentComplete
+) {
+}
@@ -0,0 +1,14 @@
+package com.orgforge.modules.flowforge.dto;
+
+public record LoadTestProgressDTO(
+        Long testId,
+        String flowApiName,
+        String status,
+        long elapsedSeconds,
+        int durationSeconds,
+        long totalCalls,
+        long errorCount,
+        double throughputPerSec,
+        long p95Ms
+) {
+}
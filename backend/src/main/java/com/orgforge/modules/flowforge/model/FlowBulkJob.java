@@ -0,0 +1,47 @@
+package com.orgforge.modules.flowforge.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One bulk invocation of an autolaunched flow over a dataset of inputs.
+ * Each input's outcome is stored as a {@link FlowRun} carrying this job's id.
+ */
+@Entity
+@Table(name = "flow_bulk_jobs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FlowBulkJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String orgId;
+
+    @Column(nullable = false)
+    private String flowApiName;
+
+    @Column(length = 500)
+    private String flowName;
+
+    private String sourceName;
+
+    /** PENDING, PROCESSING, COMPLETED, COMPLETED_WITH_ERRORS or FAILED. */
+    private String status;
+
+    private int totalInputs;
+    private int processedInputs;
+    private int successCount;
+    private int errorCount;
+    private int apiCalls;
+
+    private String createdBy;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,43 @@
+package com.orgforge.modules.flowforge.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One non-empty bin of a flow's duration histogram for a time bucket
+ * (see {@code DurationHistogram} for the bin layout). Counts are added in place
+ * as runs are recorded; summing bins across buckets merges the histograms.
+ */
+@Entity
+@Table(name = "flow_duration_bins", uniqueConstraints = @UniqueConstraint(
+        name = "uq_flow_duration_bins", columnNames = {"org_id", "granularity", "bucket_start", "flow_name", "bin"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FlowDurationBin {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String orgId;
+
+    @Column(nullable = false, length = 500)
+    private String flowName;
+
+    /** {@link FlowRunRollup#HOUR} or {@link FlowRunRollup#DAY}. */
+    @Column(nullable = false, length = 10)
+    private String granularity;
+
+    @Column(nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(nullable = false)
+    private int bin;
+
+    private long runCount;
+}
@@ -3,6 +3,8 @@ package com.orgforge.modules.flowforge.model;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.time.LocalDateTime;
+
 @Entity
 @Table(name = "flow_errors")
 @Data
@@ -26,9 +28,25 @@ public class FlowError {
     private String elementLabel;
     private String elementApiName;
 
+    /** Its run's createdAt; flow_errors is partitioned by month like flow_runs. */
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * No database foreign key since V19: flow_runs' key is (id, created_at), so id alone
+     * cannot be referenced. Errors are removed with their month's partition (see
+     * FlowRunRetentionService), not by a cascade.
+     */
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "flow_run_id")
+    @JoinColumn(name = "flow_run_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
     private FlowRun flowRun;
+
+    @PrePersist
+    void prePersist() {
+        if (createdAt == null) {
+            createdAt = flowRun != null && flowRun.getCreatedAt() != null ? flowRun.getCreatedAt() : LocalDateTime.now();
+        }
+    }
 }
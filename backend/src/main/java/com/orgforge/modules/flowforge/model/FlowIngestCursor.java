@@ -0,0 +1,43 @@
+package com.orgforge.modules.flowforge.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * High-water mark of one Salesforce source (FlowInterview or FlowInterviewLog) polled
+ * for an org: the next poll asks only for records modified at or after {@link #watermark}.
+ */
+@Entity
+@Table(name = "flow_ingest_cursors", uniqueConstraints = @UniqueConstraint(columnNames = {"org_id", "source"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FlowIngestCursor {
+
+    public static final String INTERVIEW = "FLOW_INTERVIEW";
+    public static final String INTERVIEW_LOG = "FLOW_INTERVIEW_LOG";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String orgId;
+
+    @Column(nullable = false, length = 50)
+    private String source;
+
+    /** SOQL datetime literal (UTC), e.g. 2024-05-01T12:00:00Z. */
+    @Column(length = 30)
+    private String watermark;
+
+    private long ingestedRuns;
+
+    private LocalDateTime lastPolledAt;
+
+    @Column(columnDefinition = "TEXT")
+    private String lastError;
+}
@@ -0,0 +1,81 @@
+package com.orgforge.modules.flowforge.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One load test of an autolaunched flow: calls at a target rate or concurrency for a
+ * fixed duration, capped at {@link #callBudget} API calls. Each call is also stored as a
+ * {@link FlowRun} carrying this test's id; the summary and latency histogram live here.
+ */
+@Entity
+@Table(name = "flow_load_tests")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FlowLoadTest {
+
+    public static final String RATE = "RATE";
+    public static final String CONCURRENCY = "CONCURRENCY";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String orgId;
+
+    @Column(nullable = false)
+    private String flowApiName;
+
+    @Column(length = 500)
+    private String flowName;
+
+    /** RATE (open model, calls per second) or CONCURRENCY (closed model, parallel callers). */
+    @Column(length = 20)
+    private String mode;
+
+    private Double targetRate;
+    private Integer concurrency;
+    private int durationSeconds;
+
+    /** Input variables sent with every call; "{{n}}" in string values becomes the call number. */
+    @Column(columnDefinition = "TEXT")
+    private String inputTemplateJson;
+
+    /** PENDING, RUNNING, COMPLETED, STOPPED or FAILED. */
+    private String status;
+
+    /** Why the test ended early: budget reached, stopped by user, ... */
+    private String stopReason;
+
+    /** Most API calls the test may make, from the configured share of the daily allowance. */
+    private long callBudget;
+
+    private long totalCalls;
+    private long successCount;
+    private long errorCount;
+    /** Calls a RATE test could not start because every caller was busy. */
+    private long skippedCalls;
+
+    private Double throughputPerSec;
+    private Double errorRate;
+    private Long avgMs;
+    private Long p50Ms;
+    private Long p90Ms;
+    private Long p95Ms;
+    private Long p99Ms;
+    private Long maxMs;
+
+    /** JSON array of {fromMs, toMs, count}, one entry per non-empty histogram bin. */
+    @Column(columnDefinition = "TEXT")
+    private String latencyHistogramJson;
+
+    private String createdBy;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+}
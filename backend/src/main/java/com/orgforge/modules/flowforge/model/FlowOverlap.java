@@ -21,9 +21,16 @@ public class FlowOverlap {
     private String objectName;
     private String triggerEvent;
 
+    /** Before Save, After Save, Before Delete or After Publish. */
+    private String triggerTiming;
+
     @Column(columnDefinition = "TEXT")
     private String flowNames;
 
+    /** Each flow's entry conditions, "(none)" when it runs on every record. */
+    @Column(columnDefinition = "TEXT")
+    private String entryConditions;
+
     private String riskLevel;
     private LocalDateTime detectedAt;
 }
@@ -33,8 +33,25 @@ public class FlowRun {
     private String recordId;
     private String triggeredBy;
 
+    /** Set when the run came from a {@link FlowBulkJob}. */
+    private Long bulkJobId;
+
+    /** Set when the run was one call of a {@link FlowLoadTest}. */
+    private Long loadTestId;
+
+    /** Salesforce record Id of an ingested run (FlowInterview or FlowInterviewLog); null for runs started here. */
+    @Column(length = 18)
+    private String sfId;
+
+    /** Partition key of flow_runs (monthly ranges, see V19). */
+    @Column(nullable = false)
     private LocalDateTime createdAt;
 
+    @PrePersist
+    void prePersist() {
+        if (createdAt == null) createdAt = LocalDateTime.now();
+    }
+
     @OneToMany(mappedBy = "flowRun", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
     private List<FlowError> errors = new ArrayList<>();
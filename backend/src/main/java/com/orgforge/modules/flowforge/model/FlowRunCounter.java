@@ -0,0 +1,30 @@
+package com.orgforge.modules.flowforge.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Running per-org totals of {@link FlowRun} rows by status, kept in step with every
+ * recorded run so the dashboard never has to count the run table.
+ */
+@Entity
+@Table(name = "flow_run_counters")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FlowRunCounter {
+
+    @Id
+    @Column(length = 255)
+    private String orgId;
+
+    private long totalRuns;
+    private long successRuns;
+    private long errorRuns;
+    private long faultRuns;
+
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,49 @@
+package com.orgforge.modules.flowforge.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pre-aggregated {@link FlowRun} counts and durations for one org, flow and time bucket.
+ * Rows exist for {@link #HOUR} and {@link #DAY} buckets and are bumped in place as runs
+ * are recorded, so analytics never scan the run table.
+ */
+@Entity
+@Table(name = "flow_run_rollups", uniqueConstraints = @UniqueConstraint(
+        name = "uq_flow_run_rollups", columnNames = {"org_id", "granularity", "bucket_start", "flow_name"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FlowRunRollup {
+
+    public static final String HOUR = "HOUR";
+    public static final String DAY = "DAY";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String orgId;
+
+    @Column(nullable = false, length = 500)
+    private String flowName;
+
+    @Column(nullable = false, length = 10)
+    private String granularity;
+
+    @Column(nullable = false)
+    private LocalDateTime bucketStart;
+
+    private long successCount;
+    private long errorCount;
+
+    /** Runs that reported a duration; the denominator for the average. */
+    private long durationCount;
+    private long durationSumMs;
+    private Long durationMinMs;
+    private Long durationMaxMs;
+}
@@ -0,0 +1,14 @@
+package com.orgforge.modules.flowforge.repository;
+
+import com.orgforge.modules.flowforge.model.FlowBulkJob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface FlowBulkJobRepository extends JpaRepository<FlowBulkJob, Long> {
+
+    List<FlowBulkJob> findByOrgIdOrderByCreatedAtDesc(String orgId, Pageable pageable);
+}
@@ -0,0 +1,30 @@
+package com.orgforge.modules.flowforge.repository;
+
+import com.orgforge.modules.flowforge.model.FlowDurationBin;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface FlowDurationBinRepository extends JpaRepository<FlowDurationBin, Long>, FlowDurationBinRepositoryCustom {
+
+    /** Histograms per flow over [from, to), merged across buckets. */
+    @Query("SELECT b.flowName AS flowName, b.bin AS bin, SUM(b.runCount) AS count FROM FlowDurationBin b "
+            + "WHERE b.orgId = :orgId AND b.granularity = :granularity "
+            + "AND b.bucketStart >= :from AND b.bucketStart < :to "
+            + "AND (:flowName IS NULL OR b.flowName = :flowName) "
+            + "GROUP BY b.flowName, b.bin")
+    List<BinCount> sumByFlowAndBin(@Param("orgId") String orgId, @Param("granularity") String granularity,
+                                   @Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                   @Param("flowName") String flowName);
+
+    interface BinCount {
+        String getFlowName();
+        Integer getBin();
+        Long getCount();
+    }
+}
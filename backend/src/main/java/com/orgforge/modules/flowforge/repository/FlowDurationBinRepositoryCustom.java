@@ -0,0 +1,11 @@
+package com.orgforge.modules.flowforge.repository;
+
+import com.orgforge.modules.flowforge.model.FlowDurationBin;
+
+import java.util.Collection;
+
+public interface FlowDurationBinRepositoryCustom {
+
+    /** Adds each delta's count to its (org, granularity, bucket, flow, bin) row, creating missing rows. */
+    void addAll(Collection<FlowDurationBin> deltas);
+}
@@ -0,0 +1,76 @@
+package com.orgforge.modules.flowforge.repository;
+
+import com.orgforge.core.config.DatabaseDialect;
+import com.orgforge.modules.flowforge.model.FlowDurationBin;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.*;
+
+@RequiredArgsConstructor
+public class FlowDurationBinRepositoryImpl implements FlowDurationBinRepositoryCustom {
+
+    private static final String INSERT =
+            "INSERT INTO flow_duration_bins (org_id, granularity, bucket_start, flow_name, bin, run_count) "
+            + "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String UPSERT_POSTGRES = INSERT
+            + " ON CONFLICT (org_id, granularity, bucket_start, flow_name, bin) DO UPDATE SET "
+            + "run_count = flow_duration_bins.run_count + EXCLUDED.run_count";
+
+    private static final String UPDATE =
+            "UPDATE flow_duration_bins SET run_count = run_count + ? "
+            + "WHERE org_id = ? AND granularity = ? AND bucket_start = ? AND flow_name = ? AND bin = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabaseDialect databaseDialect;
+
+    @Override
+    public void addAll(Collection<FlowDurationBin> deltas) {
+        if (deltas.isEmpty()) return;
+        // Fixed key order so concurrent writers lock rows in the same sequence
+        List<FlowDurationBin> sorted = new ArrayList<>(deltas);
+        sorted.sort(Comparator.comparing(FlowDurationBin::getOrgId)
+                .thenComparing(FlowDurationBin::getGranularity)
+                .thenComparing(FlowDurationBin::getBucketStart)
+                .thenComparing(FlowDurationBin::getFlowName)
+                .thenComparingInt(FlowDurationBin::getBin));
+
+        if (databaseDialect.isPostgres()) {
+            jdbcTemplate.batchUpdate(UPSERT_POSTGRES, sorted, sorted.size(), this::bindInsert);
+            return;
+        }
+
+        int[][] updated = jdbcTemplate.batchUpdate(UPDATE, sorted, sorted.size(), (ps, d) -> {
+            ps.setLong(1, d.getRunCount());
+            ps.setString(2, d.getOrgId());
+            ps.setString(3, d.getGranularity());
+            ps.setTimestamp(4, Timestamp.valueOf(d.getBucketStart()));
+            ps.setString(5, d.getFlowName());
+            ps.setInt(6, d.getBin());
+        });
+        List<FlowDurationBin> missing = new ArrayList<>();
+        int i = 0;
+        for (int[] batch : updated) {
+            for (int count : batch) {
+                if (count == 0) missing.add(sorted.get(i));
+                i++;
+            }
+        }
+        if (!missing.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT, missing, missing.size(), this::bindInsert);
+        }
+    }
+
+    private void bindInsert(PreparedStatement ps, FlowDurationBin d) throws SQLException {
+        ps.setString(1, d.getOrgId());
+        ps.setString(2, d.getGranularity());
+        ps.setTimestamp(3, Timestamp.valueOf(d.getBucketStart()));
+        ps.setString(4, d.getFlowName());
+        ps.setInt(5, d.getBin());
+        ps.setLong(6, d.getRunCount());
+    }
+}
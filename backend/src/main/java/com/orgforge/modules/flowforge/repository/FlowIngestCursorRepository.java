@@ -0,0 +1,16 @@
+package com.orgforge.modules.flowforge.repository;
+
+import com.orgforge.modules.flowforge.model.FlowIngestCursor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface FlowIngestCursorRepository extends JpaRepository<FlowIngestCursor, Long> {
+
+    Optional<FlowIngestCursor> findByOrgIdAndSource(String orgId, String source);
+
+    List<FlowIngestCursor> findByOrgId(String orgId);
+}
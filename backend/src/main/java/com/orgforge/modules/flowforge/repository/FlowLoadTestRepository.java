@@ -0,0 +1,22 @@
+package com.orgforge.modules.flowforge.repository;
+
+import com.orgforge.modules.flowforge.model.FlowLoadTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface FlowLoadTestRepository extends JpaRepository<FlowLoadTest, Long> {
+
+    List<FlowLoadTest> findByOrgIdOrderByCreatedAtDesc(String orgId, Pageable pageable);
+
+    /** Calls the org's pending and running tests created after {@code since} may still make. */
+    @Query("SELECT COALESCE(SUM(t.callBudget - t.totalCalls), 0) FROM FlowLoadTest t "
+            + "WHERE t.orgId = :orgId AND t.status IN ('PENDING', 'RUNNING') AND t.createdAt >= :since")
+    long reservedCalls(@Param("orgId") String orgId, @Param("since") LocalDateTime since);
+}
@@ -2,12 +2,21 @@ package com.orgforge.modules.flowforge.repository;
 
 import com.orgforge.modules.flowforge.model.FlowOverlap;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
-public interface FlowOverlapRepository extends JpaRepository<FlowOverlap, Long> {
+public interface FlowOverlapRepository extends JpaRepository<FlowOverlap, Long>, FlowOverlapRepositoryCustom {
 
-    List<FlowOverlap> findByOrgIdOrderByDetectedAtDesc(String orgId);
+    List<FlowOverlap> findByOrgIdOrderByDetectedAtDescIdAsc(String orgId);
+
+    long countByOrgId(String orgId);
+
+    @Modifying
+    @Query("DELETE FROM FlowOverlap o WHERE o.orgId = :orgId")
+    int deleteByOrgId(@Param("orgId") String orgId);
 }
@@ -0,0 +1,11 @@
+package com.orgforge.modules.flowforge.repository;
+
+import com.orgforge.modules.flowforge.model.FlowOverlap;
+
+import java.util.List;
+
+public interface FlowOverlapRepositoryCustom {
+
+    /** Inserts all overlaps in a single JDBC batch. */
+    void batchInsert(List<FlowOverlap> overlaps);
+}
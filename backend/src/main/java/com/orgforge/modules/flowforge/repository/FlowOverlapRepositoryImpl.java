@@ -0,0 +1,33 @@
+package com.orgforge.modules.flowforge.repository;
+
+import com.orgforge.modules.flowforge.model.FlowOverlap;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class FlowOverlapRepositoryImpl implements FlowOverlapRepositoryCustom {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void batchInsert(List<FlowOverlap> overlaps) {
+        if (overlaps.isEmpty()) return;
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO flow_overlaps (org_id, object_name, trigger_event, trigger_timing, flow_names, "
+                        + "entry_conditions, risk_level, detected_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                overlaps, overlaps.size(), (ps, o) -> {
+                    ps.setString(1, o.getOrgId());
+                    ps.setString(2, o.getObjectName());
+                    ps.setString(3, o.getTriggerEvent());
+                    ps.setString(4, o.getTriggerTiming());
+                    ps.setString(5, o.getFlowNames());
+                    ps.setString(6, o.getEntryConditions());
+                    ps.setString(7, o.getRiskLevel());
+                    ps.setTimestamp(8, Timestamp.valueOf(o.getDetectedAt() != null ? o.getDetectedAt() : LocalDateTime.now()));
+                });
+    }
+}
@@ -0,0 +1,31 @@
+package com.orgforge.modules.flowforge.repository;
+
+import com.orgforge.modules.flowforge.model.FlowRunCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface FlowRunCounterRepository extends JpaRepository<FlowRunCounter, String> {
+
+    /** Atomic in-place increment; returns 0 when the org has no counter row yet. */
+    @Modifying
+    @Query("UPDATE FlowRunCounter c SET c.totalRuns = c.totalRuns + :total, c.successRuns = c.successRuns + :success, "
+            + "c.errorRuns = c.errorRuns + :error, c.faultRuns = c.faultRuns + :fault, c.updatedAt = :now "
+            + "WHERE c.orgId = :orgId")
+    int increment(@Param("orgId") String orgId, @Param("total") long total, @Param("success") long success,
+                  @Param("error") long error, @Param("fault") long fault, @Param("now") LocalDateTime now);
+
+    /**
+     * Locks the org's connection row until the transaction ends. Seeding a counter and the
+     * first increments after it take this lock, so no run can fall between the seeding
+     * COUNT and the counter row.
+     */
+    @Query(value = "SELECT org_id FROM org_connections WHERE org_id = :orgId FOR UPDATE", nativeQuery = true)
+    List<String> lockOrg(@Param("orgId") String orgId);
+}
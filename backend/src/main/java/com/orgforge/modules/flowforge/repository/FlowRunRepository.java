@@ -4,16 +4,41 @@ import com.orgforge.modules.flowforge.model.FlowRun;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface FlowRunRepository extends JpaRepository<FlowRun, Long> {
+public interface FlowRunRepository extends JpaRepository<FlowRun, Long>, FlowRunRepositoryCustom {
 
     Page<FlowRun> findByOrgIdOrderByCreatedAtDesc(String orgId, Pageable pageable);
 
     List<FlowRun> findByOrgIdAndStatusOrderByCreatedAtDesc(String orgId, String status, Pageable pageable);
 
     long countByOrgIdAndStatus(String orgId, String status);
+
+    List<FlowRun> findByBulkJobIdAndStatusInOrderByIdAsc(Long bulkJobId, List<String> statuses, Pageable pageable);
+
+    /** Run count per status for one org, in a single grouped query. */
+    @Query("SELECT r.status AS status, COUNT(r) AS count FROM FlowRun r WHERE r.orgId = :orgId GROUP BY r.status")
+    List<StatusCount> countByStatus(@Param("orgId") String orgId);
+
+    @Query("SELECT r.sfId FROM FlowRun r WHERE r.orgId = :orgId AND r.sfId IN :sfIds")
+    List<String> findSfIds(@Param("orgId") String orgId, @Param("sfIds") Collection<String> sfIds);
+
+    @Query("SELECT r.id AS id, r.sfId AS sfId FROM FlowRun r WHERE r.orgId = :orgId AND r.sfId IN :sfIds")
+    List<SfIdRef> findIdsBySfId(@Param("orgId") String orgId, @Param("sfIds") Collection<String> sfIds);
+
+    interface SfIdRef {
+        Long getId();
+        String getSfId();
+    }
+
+    interface StatusCount {
+        String getStatus();
+        long getCount();
+    }
 }
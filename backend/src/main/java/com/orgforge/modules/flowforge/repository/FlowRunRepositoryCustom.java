@@ -0,0 +1,15 @@
+package com.orgforge.modules.flowforge.repository;
+
+import com.orgforge.modules.flowforge.model.FlowError;
+import com.orgforge.modules.flowforge.model.FlowRun;
+
+import java.util.List;
+
+public interface FlowRunRepositoryCustom {
+
+    /** Inserts all runs in a single JDBC batch (IDENTITY ids disable Hibernate batching). */
+    void batchInsert(List<FlowRun> runs);
+
+    /** Inserts errors in a single JDBC batch; each must reference a persisted run. */
+    void batchInsertErrors(List<FlowError> errors);
+}
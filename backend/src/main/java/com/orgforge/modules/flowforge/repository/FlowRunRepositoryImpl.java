@@ -0,0 +1,60 @@
+package com.orgforge.modules.flowforge.repository;
+
+import com.orgforge.modules.flowforge.model.FlowError;
+import com.orgforge.modules.flowforge.model.FlowRun;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class FlowRunRepositoryImpl implements FlowRunRepositoryCustom {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void batchInsert(List<FlowRun> runs) {
+        if (runs.isEmpty()) return;
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO flow_runs (org_id, flow_name, flow_type, flow_id, status, error_message, started_at, "
+                        + "duration_ms, record_id, triggered_by, bulk_job_id, load_test_id, sf_id, "
+                        + "created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                runs, runs.size(), (ps, r) -> {
+                    ps.setString(1, r.getOrgId());
+                    ps.setString(2, r.getFlowName());
+                    ps.setString(3, r.getFlowType());
+                    ps.setString(4, r.getFlowId());
+                    ps.setString(5, r.getStatus());
+                    ps.setString(6, r.getErrorMessage());
+                    ps.setTimestamp(7, r.getStartedAt() != null ? Timestamp.valueOf(r.getStartedAt()) : null);
+                    if (r.getDurationMs() != null) ps.setLong(8, r.getDurationMs()); else ps.setNull(8, Types.BIGINT);
+                    ps.setString(9, r.getRecordId());
+                    ps.setString(10, r.getTriggeredBy());
+                    if (r.getBulkJobId() != null) ps.setLong(11, r.getBulkJobId()); else ps.setNull(11, Types.BIGINT);
+                    if (r.getLoadTestId() != null) ps.setLong(12, r.getLoadTestId()); else ps.setNull(12, Types.BIGINT);
+                    ps.setString(13, r.getSfId());
+                    ps.setTimestamp(14, Timestamp.valueOf(r.getCreatedAt() != null ? r.getCreatedAt() : LocalDateTime.now()));
+                });
+    }
+
+    @Override
+    public void batchInsertErrors(List<FlowError> errors) {
+        if (errors.isEmpty()) return;
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO flow_errors (flow_run_id, error_type, error_message, stack_trace, element_label, "
+                        + "element_api_name, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                errors, errors.size(), (ps, e) -> {
+                    ps.setLong(1, e.getFlowRun().getId());
+                    ps.setString(2, e.getErrorType());
+                    ps.setString(3, e.getErrorMessage());
+                    ps.setString(4, e.getStackTrace());
+                    ps.setString(5, e.getElementLabel());
+                    ps.setString(6, e.getElementApiName());
+                    LocalDateTime createdAt = e.getCreatedAt() != null ? e.getCreatedAt() : e.getFlowRun().getCreatedAt();
+                    ps.setTimestamp(7, Timestamp.valueOf(createdAt != null ? createdAt : LocalDateTime.now()));
+                });
+    }
+}
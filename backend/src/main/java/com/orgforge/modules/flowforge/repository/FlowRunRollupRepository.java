@@ -0,0 +1,51 @@
+package com.orgforge.modules.flowforge.repository;
+
+import com.orgforge.modules.flowforge.model.FlowRunRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface FlowRunRollupRepository extends JpaRepository<FlowRunRollup, Long>, FlowRunRollupRepositoryCustom {
+
+    /** Per-bucket totals over [from, to), across all flows or for one flow. */
+    @Query("SELECT r.bucketStart AS bucketStart, SUM(r.successCount) AS successCount, SUM(r.errorCount) AS errorCount, "
+            + "SUM(r.durationCount) AS durationCount, SUM(r.durationSumMs) AS durationSumMs, "
+            + "MIN(r.durationMinMs) AS durationMinMs, MAX(r.durationMaxMs) AS durationMaxMs "
+            + "FROM FlowRunRollup r WHERE r.orgId = :orgId AND r.granularity = :granularity "
+            + "AND r.bucketStart >= :from AND r.bucketStart < :to "
+            + "AND (:flowName IS NULL OR r.flowName = :flowName) "
+            + "GROUP BY r.bucketStart ORDER BY r.bucketStart")
+    List<BucketTotals> sumByBucket(@Param("orgId") String orgId, @Param("granularity") String granularity,
+                                   @Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                   @Param("flowName") String flowName);
+
+    /** Exact maximum duration per flow over [from, to). */
+    @Query("SELECT r.flowName AS flowName, MAX(r.durationMaxMs) AS maxMs FROM FlowRunRollup r "
+            + "WHERE r.orgId = :orgId AND r.granularity = :granularity "
+            + "AND r.bucketStart >= :from AND r.bucketStart < :to "
+            + "AND (:flowName IS NULL OR r.flowName = :flowName) "
+            + "GROUP BY r.flowName")
+    List<FlowMax> maxDurationByFlow(@Param("orgId") String orgId, @Param("granularity") String granularity,
+                                    @Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                    @Param("flowName") String flowName);
+
+    interface FlowMax {
+        String getFlowName();
+        Long getMaxMs();
+    }
+
+    interface BucketTotals {
+        LocalDateTime getBucketStart();
+        Long getSuccessCount();
+        Long getErrorCount();
+        Long getDurationCount();
+        Long getDurationSumMs();
+        Long getDurationMinMs();
+        Long getDurationMaxMs();
+    }
+}
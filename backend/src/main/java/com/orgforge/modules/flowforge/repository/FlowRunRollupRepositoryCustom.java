@@ -0,0 +1,14 @@
+package com.orgforge.modules.flowforge.repository;
+
+import com.orgforge.modules.flowforge.model.FlowRunRollup;
+
+import java.util.Collection;
+
+public interface FlowRunRollupRepositoryCustom {
+
+    /**
+     * Adds each delta to its (org, granularity, bucket, flow) row, creating missing rows.
+     * Counts and sums are added; min/max are merged.
+     */
+    void addAll(Collection<FlowRunRollup> deltas);
+}
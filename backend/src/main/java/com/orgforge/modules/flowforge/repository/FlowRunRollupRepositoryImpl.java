@@ -0,0 +1,101 @@
+package com.orgforge.modules.flowforge.repository;
+
+import com.orgforge.core.config.DatabaseDialect;
+import com.orgforge.modules.flowforge.model.FlowRunRollup;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.*;
+
+@RequiredArgsConstructor
+public class FlowRunRollupRepositoryImpl implements FlowRunRollupRepositoryCustom {
+
+    private static final String INSERT =
+            "INSERT INTO flow_run_rollups (org_id, granularity, bucket_start, flow_name, success_count, error_count, "
+            + "duration_count, duration_sum_ms, duration_min_ms, duration_max_ms) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPSERT_POSTGRES = INSERT
+            + " ON CONFLICT (org_id, granularity, bucket_start, flow_name) DO UPDATE SET "
+            + "success_count = flow_run_rollups.success_count + EXCLUDED.success_count, "
+            + "error_count = flow_run_rollups.error_count + EXCLUDED.error_count, "
+            + "duration_count = flow_run_rollups.duration_count + EXCLUDED.duration_count, "
+            + "duration_sum_ms = flow_run_rollups.duration_sum_ms + EXCLUDED.duration_sum_ms, "
+            + "duration_min_ms = LEAST(flow_run_rollups.duration_min_ms, EXCLUDED.duration_min_ms), "
+            + "duration_max_ms = GREATEST(flow_run_rollups.duration_max_ms, EXCLUDED.duration_max_ms)";
+
+    private static final String UPDATE =
+            "UPDATE flow_run_rollups SET success_count = success_count + ?, error_count = error_count + ?, "
+            + "duration_count = duration_count + ?, duration_sum_ms = duration_sum_ms + ?, "
+            + "duration_min_ms = LEAST(COALESCE(duration_min_ms, ?), COALESCE(?, duration_min_ms)), "
+            + "duration_max_ms = GREATEST(COALESCE(duration_max_ms, ?), COALESCE(?, duration_max_ms)) "
+            + "WHERE org_id = ? AND granularity = ? AND bucket_start = ? AND flow_name = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabaseDialect databaseDialect;
+
+    @Override
+    public void addAll(Collection<FlowRunRollup> deltas) {
+        if (deltas.isEmpty()) return;
+        // Fixed key order so concurrent writers lock rows in the same sequence
+        List<FlowRunRollup> sorted = new ArrayList<>(deltas);
+        sorted.sort(Comparator.comparing(FlowRunRollup::getOrgId)
+                .thenComparing(FlowRunRollup::getGranularity)
+                .thenComparing(FlowRunRollup::getBucketStart)
+                .thenComparing(FlowRunRollup::getFlowName));
+
+        if (databaseDialect.isPostgres()) {
+            // One race-free statement per bucket
+            jdbcTemplate.batchUpdate(UPSERT_POSTGRES, sorted, sorted.size(), this::bindInsert);
+            return;
+        }
+
+        // Portable path: update in place, insert the buckets that did not exist yet
+        int[][] updated = jdbcTemplate.batchUpdate(UPDATE,
+                sorted, sorted.size(), (ps, d) -> {
+                    ps.setLong(1, d.getSuccessCount());
+                    ps.setLong(2, d.getErrorCount());
+                    ps.setLong(3, d.getDurationCount());
+                    ps.setLong(4, d.getDurationSumMs());
+                    setLong(ps, 5, d.getDurationMinMs());
+                    setLong(ps, 6, d.getDurationMinMs());
+                    setLong(ps, 7, d.getDurationMaxMs());
+                    setLong(ps, 8, d.getDurationMaxMs());
+                    ps.setString(9, d.getOrgId());
+                    ps.setString(10, d.getGranularity());
+                    ps.setTimestamp(11, Timestamp.valueOf(d.getBucketStart()));
+                    ps.setString(12, d.getFlowName());
+                });
+        List<FlowRunRollup> missing = new ArrayList<>();
+        int i = 0;
+        for (int[] batch : updated) {
+            for (int count : batch) {
+                if (count == 0) missing.add(sorted.get(i));
+                i++;
+            }
+        }
+        if (!missing.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT, missing, missing.size(), this::bindInsert);
+        }
+    }
+
+    private void bindInsert(PreparedStatement ps, FlowRunRollup d) throws SQLException {
+        ps.setString(1, d.getOrgId());
+        ps.setString(2, d.getGranularity());
+        ps.setTimestamp(3, Timestamp.valueOf(d.getBucketStart()));
+        ps.setString(4, d.getFlowName());
+        ps.setLong(5, d.getSuccessCount());
+        ps.setLong(6, d.getErrorCount());
+        ps.setLong(7, d.getDurationCount());
+        ps.setLong(8, d.getDurationSumMs());
+        setLong(ps, 9, d.getDurationMinMs());
+        setLong(ps, 10, d.getDurationMaxMs());
+    }
+
+    private static void setLong(PreparedStatement ps, int index, Long value) throws SQLException {
+        if (value == null) ps.setNull(index, Types.BIGINT); else ps.setLong(index, value);
+    }
+}
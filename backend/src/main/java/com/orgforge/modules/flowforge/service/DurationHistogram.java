@@ -0,0 +1,83 @@
+package com.orgforge.modules.flowforge.service;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Log-linear latency histogram in the style of HdrHistogram: durations below
+ * {@value #SUB_BUCKETS} ms get one bin each, above that every power of two is split
+ * into {@value #HALF} equal bins. A bin is at most 1/{@value #HALF} of its lower bound
+ * wide, so a percentile, reported as its bin's upper bound, is within ~3% of the
+ * recorded value. Histograms merge by adding counts per bin, which is what lets daily buckets be
+ * combined into arbitrarily long windows.
+ */
+public class DurationHistogram {
+
+    static final int SUB_BUCKETS = 64;
+    static final int HALF = SUB_BUCKETS / 2;
+    private static final int SUB_BITS = Integer.numberOfTrailingZeros(SUB_BUCKETS);
+
+    private final TreeMap<Integer, Long> counts = new TreeMap<>();
+    private long total;
+
+    public static int binOf(long durationMs) {
+        long v = Math.max(0, durationMs);
+        if (v < SUB_BUCKETS) return (int) v;
+        int shift = 63 - Long.numberOfLeadingZeros(v) - (SUB_BITS - 1);
+        return shift * HALF + (int) (v >>> shift);
+    }
+
+    public static long lowerBound(int bin) {
+        if (bin < SUB_BUCKETS) return bin;
+        int shift = bin / HALF - 1;
+        return (long) (bin - shift * HALF) << shift;
+    }
+
+    /** Highest value that falls into {@code bin}. */
+    public static long upperBound(int bin) {
+        if (bin < SUB_BUCKETS) return bin;
+        int shift = bin / HALF - 1;
+        return ((long) (bin - shift * HALF + 1) << shift) - 1;
+    }
+
+    public void record(long durationMs) {
+        add(binOf(durationMs), 1);
+    }
+
+    public void add(int bin, long count) {
+        if (count <= 0) return;
+        counts.merge(bin, count, Long::sum);
+        total += count;
+    }
+
+    public void merge(DurationHistogram other) {
+        other.counts.forEach(this::add);
+    }
+
+    public long getTotalCount() {
+        return total;
+    }
+
+    public Map<Integer, Long> getCounts() {
+        return counts;
+    }
+
+    /**
+     * Value at the given percentile (0-100), reported as the upper bound of the bin
+     * holding it, or 0 when the histogram is empty.
+     */
+    public long percentile(double pct) {
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(pct / 100.0 * total));
+        long seen = 0;
+        for (Map.Entry<Integer, Long> e : counts.entrySet()) {
+            seen += e.getValue();
+            if (seen >= rank) return upperBound(e.getKey());
+        }
+        return upperBound(counts.lastKey());
+    }
+
+    public long max() {
+        return total == 0 ? 0 : upperBound(counts.lastKey());
+    }
+}
@@ -0,0 +1,252 @@
+package com.orgforge.modules.flowforge.service;
+
+import com.orgforge.core.config.WorkerPools;
+import com.orgforge.core.org.OrgConnection;
+import com.orgforge.core.org.OrgConnectionRepository;
+import com.orgforge.core.salesforce.RestApiClient;
+import com.orgforge.core.util.CsvReader;
+import com.orgforge.core.websocket.WebSocketBroker;
+import com.orgforge.modules.flowforge.dto.BulkInvokeProgressDTO;
+import com.orgforge.modules.flowforge.model.FlowBulkJob;
+import com.orgforge.modules.flowforge.model.FlowRun;
+import com.orgforge.modules.flowforge.repository.FlowBulkJobRepository;
+import com.orgforge.modules.flowforge.repository.FlowRunRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpStatusCodeException;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Invokes an autolaunched flow once per input of a dataset (a JSON array or CSV whose
+ * header row names the flow's input variables). Inputs go out in Actions API calls of
+ * up to {@value #CHUNK_SIZE}, a bounded number in flight at once; each input's outcome
+ * is stored as a {@link FlowRun} through {@link FlowRunRecorder#recordBatch}, and
+ * progress is broadcast on {@code flow-bulk.<orgId>}.
+ */
+@Slf4j
+@Service
+public class FlowBulkInvokeService {
+
+    /** Maximum inputs per /actions/custom/flow call. */
+    static final int CHUNK_SIZE = 200;
+
+    private final FlowBulkJobRepository flowBulkJobRepository;
+    private final FlowRunRepository flowRunRepository;
+    private final FlowRunRecorder flowRunRecorder;
+    private final OrgConnectionRepository orgConnectionRepository;
+    private final RestApiClient restApiClient;
+    private final WebSocketBroker webSocketBroker;
+    private final CacheManager cacheManager;
+    private final ExecutorService chunkPool;
+
+    public FlowBulkInvokeService(FlowBulkJobRepository flowBulkJobRepository,
+                                 FlowRunRepository flowRunRepository,
+                                 FlowRunRecorder flowRunRecorder,
+                                 OrgConnectionRepository orgConnectionRepository,
+                                 RestApiClient restApiClient,
+                                 WebSocketBroker webSocketBroker,
+                                 CacheManager cacheManager,
+                                 WorkerPools workerPools,
+                                 @Value("${app.flow-forge.bulk.parallelism:4}") int parallelism) {
+        this.flowBulkJobRepository = flowBulkJobRepository;
+        this.flowRunRepository = flowRunRepository;
+        this.flowRunRecorder = flowRunRecorder;
+        this.orgConnectionRepository = orgConnectionRepository;
+        this.restApiClient = restApiClient;
+        this.webSocketBroker = webSocketBroker;
+        this.cacheManager = cacheManager;
+        this.chunkPool = workerPools.fixed("OrgForge-FlowBulk", parallelism);
+    }
+
+    /**
+     * Parses the dataset: {@code inputs} as a JSON array of objects, or {@code csv} as
+     * text with a header row of input variable names. Blank CSV cells are omitted.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Map<String, Object>> parseInputs(Map<String, Object> body) {
+        if (body.get("inputs") instanceof List<?> list) {
+            List<Map<String, Object>> inputs = new ArrayList<>();
+            for (Object item : list) {
+                if (!(item instanceof Map<?, ?>)) {
+                    throw new IllegalArgumentException("inputs must be an array of objects");
+                }
+                inputs.add((Map<String, Object>) item);
+            }
+            return inputs;
+        }
+        if (body.get("csv") instanceof String csv) {
+            List<Map<String, Object>> inputs = new ArrayList<>();
+            try (CsvReader reader = new CsvReader(new StringReader(csv))) {
+                List<String> header = reader.next();
+                if (header == null) return inputs;
+                List<String> row;
+                while ((row = reader.next()) != null) {
+                    Map<String, Object> input = new LinkedHashMap<>();
+                    for (int i = 0; i < header.size() && i < row.size(); i++) {
+                        if (!row.get(i).isEmpty()) input.put(header.get(i).trim(), row.get(i));
+                    }
+                    inputs.add(input);
+                }
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Could not read CSV: " + e.getMessage(), e);
+            }
+            return inputs;
+        }
+        throw new IllegalArgumentException("Provide inputs (JSON array) or csv (text with a header row)");
+    }
+
+    public FlowBulkJob createJob(String orgId, String flowApiName, String flowLabel, String sourceName,
+                                 int totalInputs, String createdBy) {
+        FlowBulkJob job = FlowBulkJob.builder()
+                .orgId(orgId)
+                .flowApiName(flowApiName)
+                .flowName(flowLabel != null && !flowLabel.isBlank() ? flowLabel : flowApiName)
+                .sourceName(sourceName)
+                .status("PENDING")
+                .totalInputs(totalInputs)
+                .createdBy(createdBy)
+                .createdAt(LocalDateTime.now())
+                .build();
+        return flowBulkJobRepository.save(job);
+    }
+
+    @Async("taskExecutor")
+    public void processJob(Long jobId, List<Map<String, Object>> inputs) {
+        FlowBulkJob job = flowBulkJobRepository.findById(jobId)
+                .orElseThrow(() -> new IllegalArgumentException("FlowBulkJob not found: " + jobId));
+        try {
+            OrgConnection org = orgConnectionRepository.findByOrgId(job.getOrgId())
+                    .orElseThrow(() -> new IllegalArgumentException(
+                            "No active OrgConnection found for orgId: " + job.getOrgId()));
+            job.setStatus("PROCESSING");
+            flowBulkJobRepository.save(job);
+            publish(job);
+
+            CompletionService<List<FlowRun>> completion = new ExecutorCompletionService<>(chunkPool);
+            int chunks = 0;
+            for (int start = 0; start < inputs.size(); start += CHUNK_SIZE) {
+                List<Map<String, Object>> chunk = inputs.subList(start, Math.min(start + CHUNK_SIZE, inputs.size()));
+                completion.submit(() -> invokeChunk(org, job, chunk));
+                chunks++;
+            }
+
+            // Outcomes are written from this thread as chunks finish, one batch insert each
+            for (int i = 0; i < chunks; i++) {
+                List<FlowRun> runs = completion.take().get();
+                flowRunRecorder.recordBatch(runs);
+                for (FlowRun run : runs) {
+                    if ("Success".equals(run.getStatus())) job.setSuccessCount(job.getSuccessCount() + 1);
+                    else job.setErrorCount(job.getErrorCount() + 1);
+                }
+                job.setProcessedInputs(job.getProcessedInputs() + runs.size());
+                job.setApiCalls(job.getApiCalls() + 1);
+                flowBulkJobRepository.save(job);
+                publish(job);
+            }
+            job.setStatus(job.getErrorCount() > 0 ? "COMPLETED_WITH_ERRORS" : "COMPLETED");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.setStatus("FAILED");
+        } catch (Exception e) {
+            log.error("Bulk flow job {} failed: {}", jobId, e.getMessage(), e);
+            job.setStatus("FAILED");
+        }
+        job.setCompletedAt(LocalDateTime.now());
+        flowBulkJobRepository.save(job);
+        publish(job);
+        var stats = cacheManager.getCache("flowStats");
+        if (stats != null) stats.evict(job.getOrgId());
+        log.info("Bulk flow job {} for {} finished: {} succeeded, {} failed",
+                jobId, job.getFlowApiName(), job.getSuccessCount(), job.getErrorCount());
+    }
+
+    /** One Actions API call; results come back in input order. */
+    @SuppressWarnings("unchecked")
+    private List<FlowRun> invokeChunk(OrgConnection org, FlowBulkJob job, List<Map<String, Object>> chunk) {
+        LocalDateTime startedAt = LocalDateTime.now();
+        List<Map<?, ?>> results = null;
+        String chunkError = null;
+        try {
+            results = (List<Map<?, ?>>) (List<?>) restApiClient.postCollection(org,
+                    "/actions/custom/flow/" + job.getFlowApiName(), Map.of("inputs", chunk));
+        } catch (HttpStatusCodeException e) {
+            chunkError = e.getStatusCode() + ": " + e.getResponseBodyAsString();
+            log.warn("Salesforce rejected bulk chunk for flow {} in org {}: {}",
+                    job.getFlowApiName(), job.getOrgId(), e.getResponseBodyAsString());
+        } catch (Exception e) {
+            chunkError = e.getMessage();
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<FlowRun> runs = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            Map<?, ?> r = results != null && i < results.size() ? results.get(i) : null;
+            String status;
+            String errorMessage = null;
+            if (chunkError != null) {
+                status = "Error";
+                errorMessage = chunkError;
+            } else if (r != null && Boolean.TRUE.equals(r.get("isSuccess"))) {
+                status = "Success";
+            } else {
+                status = "Error";
+                errorMessage = r != null ? firstErrorMessage(r.get("errors")) : "No result returned";
+            }
+            Object recordId = chunk.get(i).get("recordId");
+            runs.add(FlowRun.builder()
+                    .orgId(job.getOrgId())
+                    .flowName(job.getFlowName())
+                    .flowType("AutoLaunchedFlow")
+                    .flowId(job.getFlowApiName())
+                    .status(status)
+                    .errorMessage(errorMessage)
+                    .startedAt(startedAt)
+                    .recordId(recordId != null ? recordId.toString() : null)
+                    .triggeredBy("OrgForge bulk job #" + job.getId())
+                    .bulkJobId(job.getId())
+                    .createdAt(now)
+                    .build());
+        }
+        return runs;
+    }
+
+    private static String firstErrorMessage(Object errors) {
+        if (errors instanceof List<?> list && !list.isEmpty() && list.get(0) instanceof Map<?, ?> err) {
+            return String.valueOf(err.get("message"));
+        }
+        return "Flow invocation failed";
+    }
+
+    private void publish(FlowBulkJob job) {
+        double pct = job.getTotalInputs() > 0
+                ? Math.round(job.getProcessedInputs() * 1000.0 / job.getTotalInputs()) / 10.0
+                : 100.0;
+        webSocketBroker.broadcast("flow-bulk." + job.getOrgId(), new BulkInvokeProgressDTO(
+                job.getId(), job.getFlowApiName(), job.getStatus(), job.getTotalInputs(),
+                job.getProcessedInputs(), job.getSuccessCount(), job.getErrorCount(), pct));
+    }
+
+    public List<FlowBulkJob> getJobs(String orgId, int page) {
+        return flowBulkJobRepository.findByOrgIdOrderByCreatedAtDesc(orgId, PageRequest.of(page, 20));
+    }
+
+    public FlowBulkJob getJob(Long id) {
+        return flowBulkJobRepository.findById(id)
+                .orElseThrow(() -> new NoSuchElementException("FlowBulkJob not found: " + id));
+    }
+
+    /** Failed inputs of a job, oldest first. */
+    public List<FlowRun> getFailedRuns(Long jobId, int page) {
+        return flowRunRepository.findByBulkJobIdAndStatusInOrderByIdAsc(jobId, List.of("Error", "Fault"),
+                PageRequest.of(page, 50));
+    }
+}
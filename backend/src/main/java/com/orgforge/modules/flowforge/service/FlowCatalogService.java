@@ -0,0 +1,264 @@
+package com.orgforge.modules.flowforge.service;
+
+import com.orgforge.core.org.OrgConnection;
+import com.orgforge.core.salesforce.RestApiClient;
+import com.orgforge.core.salesforce.SalesforceDates;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Per-org, in-memory catalogue of flows: FlowDefinitionView rows, the invocable
+ * short name → full name map and input-variable signatures. Serves getFlows,
+ * detectOverlaps and the dashboard's flow count without a Salesforce round trip
+ * per request.
+ *
+ * <p>At most every {@code refresh-seconds} the catalogue asks Salesforce only for
+ * definitions whose {@code LastModifiedDate} is at or after the newest one it holds,
+ * and drops the cached signatures of the flows that changed. A full reload every
+ * {@code full-refresh-minutes} picks up deleted flows.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FlowCatalogService {
+
+    private static final String SELECT =
+            "SELECT Id, Label, ApiName, ProcessType, TriggerType, ActiveVersionId, IsActive, LastModifiedDate "
+                    + "FROM FlowDefinitionView";
+
+    private final RestApiClient restApiClient;
+
+    @Value("${app.flow-forge.catalog.refresh-seconds:60}")
+    private long refreshSeconds;
+
+    @Value("${app.flow-forge.catalog.full-refresh-minutes:60}")
+    private long fullRefreshMinutes;
+
+    private final Map<String, Catalog> catalogs = new ConcurrentHashMap<>();
+
+    private static final class Catalog {
+        /** All definitions by Id, active or not. */
+        final Map<String, Map<String, Object>> definitions = new LinkedHashMap<>();
+        final Map<String, List<Map<String, Object>>> inputSignatures = new ConcurrentHashMap<>();
+        Map<String, String> invocableNames = Map.of();
+        boolean invocableStale = true;
+        /** Which /actions/custom/flow response shape this org returns; null until known. */
+        Boolean invocableListShape;
+        String watermark;
+        Instant checkedAt;
+        Instant fullLoadedAt;
+    }
+
+    // -------------------------------------------------------------------------
+    // Reads
+    // -------------------------------------------------------------------------
+
+    /** Active flow definitions (Id, Label, ApiName, ProcessType, TriggerType, ActiveVersionId, ...). */
+    public List<Map<String, Object>> getActiveDefinitions(OrgConnection org) {
+        Catalog catalog = refresh(org);
+        synchronized (catalog) {
+            List<Map<String, Object>> active = new ArrayList<>();
+            for (Map<String, Object> def : catalog.definitions.values()) {
+                if (Boolean.TRUE.equals(def.get("IsActive"))) active.add(def);
+            }
+            return active;
+        }
+    }
+
+    /** Short name → full invocable name (see {@link #addInvocableName}). */
+    public Map<String, String> getInvocableNames(OrgConnection org) {
+        Catalog catalog = refresh(org);
+        synchronized (catalog) {
+            if (catalog.invocableStale) {
+                catalog.invocableNames = fetchInvocableFlowNames(org, catalog);
+                catalog.invocableStale = false;
+            }
+            return catalog.invocableNames;
+        }
+    }
+
+    /** Input-variable signature of an invocable flow, loaded once until the flow changes. */
+    public List<Map<String, Object>> getInputVariables(OrgConnection org, String invocableApiName,
+                                                       Supplier<List<Map<String, Object>>> loader) {
+        Catalog catalog = refresh(org);
+        List<Map<String, Object>> cached = catalog.inputSignatures.get(invocableApiName);
+        if (cached != null) return cached;
+        List<Map<String, Object>> loaded = loader.get();
+        catalog.inputSignatures.put(invocableApiName, loaded);
+        return loaded;
+    }
+
+    /** Forces a full reload on next access. */
+    public void invalidate(String orgId) {
+        catalogs.remove(orgId);
+    }
+
+    // -------------------------------------------------------------------------
+    // Refresh
+    // -------------------------------------------------------------------------
+
+    private Catalog refresh(OrgConnection org) {
+        Catalog catalog = catalogs.computeIfAbsent(org.getOrgId(), k -> new Catalog());
+        synchronized (catalog) {
+            Instant now = Instant.now();
+            if (catalog.checkedAt != null && catalog.checkedAt.plusSeconds(refreshSeconds).isAfter(now)) {
+                return catalog;
+            }
+            boolean full = catalog.watermark == null || catalog.fullLoadedAt == null
+                    || catalog.fullLoadedAt.plus(fullRefreshMinutes, ChronoUnit.MINUTES).isBefore(now);
+            if (!full) {
+                try {
+                    List<Map<String, Object>> changed = queryAll(org, SELECT + " WHERE LastModifiedDate >= "
+                            + catalog.watermark + " ORDER BY LastModifiedDate");
+                    apply(catalog, changed);
+                    catalog.checkedAt = now;
+                    return catalog;
+                } catch (Exception e) {
+                    log.warn("Incremental flow catalogue refresh failed for org {}, reloading: {}",
+                            org.getOrgId(), e.getMessage());
+                }
+            }
+
+            List<Map<String, Object>> all = queryAll(org, SELECT);
+            catalog.definitions.clear();
+            catalog.inputSignatures.clear();
+            catalog.watermark = null;
+            apply(catalog, all);
+            catalog.invocableStale = true;
+            catalog.checkedAt = now;
+            catalog.fullLoadedAt = now;
+            log.info("Loaded flow catalogue for org {}: {} definitions", org.getOrgId(), catalog.definitions.size());
+            return catalog;
+        }
+    }
+
+    /** Upserts changed definitions, drops their signatures and advances the watermark. */
+    private void apply(Catalog catalog, List<Map<String, Object>> records) {
+        OffsetDateTime newest = null;
+        for (Map<String, Object> def : records) {
+            Object id = def.get("Id");
+            if (id == null) continue;
+            Map<String, Object> previous = catalog.definitions.put(id.toString(), def);
+            if (previous != null && !Objects.equals(previous.get("LastModifiedDate"), def.get("LastModifiedDate"))
+                    || previous == null && catalog.fullLoadedAt != null) {
+                forgetSignatures(catalog, def.get("ApiName"));
+                catalog.invocableStale = true;
+            }
+            OffsetDateTime modified = SalesforceDates.parse(def.get("LastModifiedDate"));
+            if (modified != null && (newest == null || modified.isAfter(newest))) newest = modified;
+        }
+        if (newest != null) {
+            String literal = SalesforceDates.soqlLiteral(newest);
+            if (catalog.watermark == null || literal.compareTo(catalog.watermark) > 0) catalog.watermark = literal;
+        }
+    }
+
+    private void forgetSignatures(Catalog catalog, Object apiName) {
+        if (apiName == null) return;
+        String name = apiName.toString();
+        catalog.inputSignatures.keySet().removeIf(k -> k.equals(name) || k.endsWith("__" + name));
+    }
+
+    /** Runs a query and follows nextRecordsUrl until done. */
+    @SuppressWarnings("unchecked")
+    private List<Map<String, Object>> queryAll(OrgConnection org, String soql) {
+        List<Map<String, Object>> records = new ArrayList<>();
+        Map<?, ?> page = restApiClient.query(org, soql);
+        while (page != null) {
+            if (page.get("records") instanceof List<?> list) {
+                for (Object rec : list) {
+                    if (rec instanceof Map<?, ?> m) records.add((Map<String, Object>) m);
+                }
+            }
+            Object next = page.get("nextRecordsUrl");
+            if (Boolean.TRUE.equals(page.get("done")) || next == null) break;
+            page = restApiClient.queryMore(org, next.toString());
+        }
+        return records;
+    }
+
+    // -------------------------------------------------------------------------
+    // Invocable names
+    // -------------------------------------------------------------------------
+
+    /**
+     * Registers a flow action name into the map:
+     *  key   = short name without namespace (e.g. "CreateSalesPA")
+     *  value = full name as Salesforce expects for invocation (e.g. "sales_sfa_flows__CreateSalesPA")
+     * FlowDefinitionView.ApiName returns the short form, so we key by short name
+     * but invoke using the full namespaced name.
+     */
+    private void addInvocableName(Map<String, String> map, Object raw) {
+        if (raw == null) return;
+        String fullName = raw.toString();
+        map.put(fullName, fullName); // also allow matching by full name
+        int nsIdx = fullName.indexOf("__");
+        if (nsIdx > 0) {
+            String shortName = fullName.substring(nsIdx + 2);
+            map.put(shortName, fullName); // short name → full name for invocation
+        }
+    }
+
+    /**
+     * Returns a map of shortName → fullInvocableName from GET /actions/custom/flow.
+     * The response is either an array or a map depending on the org; the shape that
+     * worked is remembered so later refreshes make a single call.
+     */
+    private Map<String, String> fetchInvocableFlowNames(OrgConnection org, Catalog catalog) {
+        String url = org.getInstanceUrl()
+                + "/services/data/v" + org.getApiVersion()
+                + "/actions/custom/flow";
+        Map<String, String> nameMap = new HashMap<>();
+
+        // Try array format first: [...] where each item has a "name" field
+        if (!Boolean.FALSE.equals(catalog.invocableListShape)) {
+            try {
+                List<?> list = restApiClient.getList(org, url);
+                if (list != null) {
+                    for (Object item : list) {
+                        if (item instanceof Map<?, ?> m) {
+                            addInvocableName(nameMap, m.get("name"));
+                        }
+                    }
+                    catalog.invocableListShape = true;
+                    log.info("Invocable flows (array format): {} entries for org {}", nameMap.size(), org.getOrgId());
+                    return nameMap;
+                }
+            } catch (Exception arrayEx) {
+                log.debug("Array format failed for invocable flows: {}", arrayEx.getMessage());
+            }
+        }
+
+        // Map format: {"actions": [...]} or {"FlowApiName": {...}, ...}
+        try {
+            Map<?, ?> result = restApiClient.get(org, url);
+            if (result != null) {
+                Object actions = result.get("actions");
+                if (actions instanceof List<?> actionList) {
+                    for (Object item : actionList) {
+                        if (item instanceof Map<?, ?> m) {
+                            addInvocableName(nameMap, m.get("name"));
+                        }
+                    }
+                } else {
+                    result.keySet().forEach(k -> addInvocableName(nameMap, k));
+                }
+                catalog.invocableListShape = false;
+                log.info("Invocable flows (map format): {} entries for org {}", nameMap.size(), org.getOrgId());
+            }
+        } catch (Exception mapEx) {
+            log.warn("Could not fetch invocable flow list for org {}: {}", org.getOrgId(), mapEx.getMessage());
+        }
+
+        return nameMap;
+    }
+}
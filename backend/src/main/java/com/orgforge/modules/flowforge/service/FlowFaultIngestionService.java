@@ -0,0 +1,253 @@
+package com.orgforge.modules.flowforge.service;
+
+import com.orgforge.core.config.WorkerPools;
+import com.orgforge.core.org.OrgConnection;
+import com.orgforge.core.org.OrgConnectionRepository;
+import com.orgforge.core.salesforce.RestApiClient;
+import com.orgforge.core.salesforce.SalesforceDates;
+import com.orgforge.modules.flowforge.model.FlowError;
+import com.orgforge.modules.flowforge.model.FlowIngestCursor;
+import com.orgforge.modules.flowforge.model.FlowRun;
+import com.orgforge.modules.flowforge.repository.FlowIngestCursorRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpStatusCodeException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Pulls flow runs that happened inside each org into {@code flow_runs}/{@code flow_errors}:
+ * failed interviews from {@code FlowInterview} (InterviewStatus = 'Error') and finished
+ * interviews from {@code FlowInterviewLog} (orgs with flow logging on).
+ *
+ * <p>Every source keeps a {@link FlowIngestCursor} per org; a poll asks for records
+ * modified at or after its watermark, writes them in batches of {@value #BATCH_SIZE}
+ * through {@link FlowRunRecorder#recordIngested} (which skips Salesforce Ids already
+ * stored) and advances the watermark after each batch. Orgs are polled on a fixed pool
+ * of {@code app.flow-forge.ingest.parallelism} threads, never two polls of one org at once.
+ */
+@Slf4j
+@Service
+public class FlowFaultIngestionService {
+
+    static final int BATCH_SIZE = 500;
+
+    private static final String INTERVIEW_SOQL =
+            "SELECT Id, Name, InterviewLabel, InterviewStatus, CurrentElement, CreatedDate, LastModifiedDate "
+                    + "FROM FlowInterview WHERE InterviewStatus = 'Error' AND LastModifiedDate >= %s "
+                    + "ORDER BY LastModifiedDate, Id";
+    private static final String INTERVIEW_LOG_SOQL =
+            "SELECT Id, FlowDeveloperName, FlowLabel, FlowNamespace, InterviewStatus, InterviewStartTimestamp, "
+                    + "InterviewEndTimestamp, CreatedDate, LastModifiedDate "
+                    + "FROM FlowInterviewLog WHERE LastModifiedDate >= %s ORDER BY LastModifiedDate, Id";
+
+    private final FlowIngestCursorRepository flowIngestCursorRepository;
+    private final FlowRunRecorder flowRunRecorder;
+    private final OrgConnectionRepository orgConnectionRepository;
+    private final RestApiClient restApiClient;
+    private final CacheManager cacheManager;
+    private final ExecutorService pool;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    @Value("${app.flow-forge.ingest.enabled:true}")
+    private boolean enabled;
+
+    /** How far back the first poll of a new org reaches. */
+    @Value("${app.flow-forge.ingest.initial-lookback-hours:24}")
+    private long initialLookbackHours;
+
+    /** Records read per source per poll; the rest wait for the next poll. */
+    @Value("${app.flow-forge.ingest.max-records:10000}")
+    private int maxRecords;
+
+    public FlowFaultIngestionService(FlowIngestCursorRepository flowIngestCursorRepository,
+                                     FlowRunRecorder flowRunRecorder,
+                                     OrgConnectionRepository orgConnectionRepository,
+                                     RestApiClient restApiClient,
+                                     CacheManager cacheManager,
+                                     WorkerPools workerPools,
+                                     @Value("${app.flow-forge.ingest.parallelism:4}") int parallelism) {
+        this.flowIngestCursorRepository = flowIngestCursorRepository;
+        this.flowRunRecorder = flowRunRecorder;
+        this.orgConnectionRepository = orgConnectionRepository;
+        this.restApiClient = restApiClient;
+        this.cacheManager = cacheManager;
+        this.pool = workerPools.fixed("OrgForge-FlowIngest", parallelism);
+    }
+
+    @Scheduled(fixedDelayString = "${app.flow-forge.ingest.interval-ms:300000}",
+               initialDelayString = "${app.flow-forge.ingest.initial-delay-ms:60000}")
+    public void ingestAll() {
+        if (!enabled) return;
+        for (OrgConnection org : orgConnectionRepository.findByIsActiveTrue()) {
+            submit(org);
+        }
+    }
+
+    /** Queues a poll of one org; false if one is already queued or running. */
+    public boolean submit(OrgConnection org) {
+        if (!inFlight.add(org.getOrgId())) return false;
+        pool.submit(() -> {
+            try {
+                ingestOrg(org);
+            } catch (Exception e) {
+                log.error("Flow ingestion failed for org {}: {}", org.getOrgId(), e.getMessage(), e);
+            } finally {
+                inFlight.remove(org.getOrgId());
+            }
+        });
+        return true;
+    }
+
+    public boolean submit(String orgId) {
+        OrgConnection org = orgConnectionRepository.findByOrgId(orgId)
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "No active OrgConnection found for orgId: " + orgId));
+        return submit(org);
+    }
+
+    public List<FlowIngestCursor> getCursors(String orgId) {
+        return flowIngestCursorRepository.findByOrgId(orgId);
+    }
+
+    // -------------------------------------------------------------------------
+    // Polling
+    // -------------------------------------------------------------------------
+
+    private void ingestOrg(OrgConnection org) {
+        int added = ingestSource(org, FlowIngestCursor.INTERVIEW, INTERVIEW_SOQL)
+                + ingestSource(org, FlowIngestCursor.INTERVIEW_LOG, INTERVIEW_LOG_SOQL);
+        if (added > 0) {
+            var stats = cacheManager.getCache("flowStats");
+            if (stats != null) stats.evict(org.getOrgId());
+            log.info("Ingested {} flow runs for org {}", added, org.getOrgId());
+        }
+    }
+
+    private int ingestSource(OrgConnection org, String source, String soqlTemplate) {
+        FlowIngestCursor cursor = flowIngestCursorRepository.findByOrgIdAndSource(org.getOrgId(), source)
+                .orElseGet(() -> FlowIngestCursor.builder()
+                        .orgId(org.getOrgId())
+                        .source(source)
+                        .watermark(SalesforceDates.soqlLiteral(LocalDateTime.now().minusHours(initialLookbackHours)))
+                        .build());
+        int added = 0;
+        int read = 0;
+        try {
+            // >= re-reads records sharing the watermark second; they are dropped as duplicates
+            Map<?, ?> page = restApiClient.query(org, String.format(soqlTemplate, cursor.getWatermark()));
+            List<FlowRun> batch = new ArrayList<>();
+            OffsetDateTime batchWatermark = null;
+            while (page != null && read < maxRecords) {
+                if (page.get("records") instanceof List<?> records) {
+                    for (Object rec : records) {
+                        if (!(rec instanceof Map<?, ?> r)) continue;
+                        read++;
+                        OffsetDateTime modified = SalesforceDates.parse(r.get("LastModifiedDate"));
+                        if (modified != null) batchWatermark = modified;
+                        FlowRun run = FlowIngestCursor.INTERVIEW.equals(source)
+                                ? fromInterview(org.getOrgId(), r) : fromInterviewLog(org.getOrgId(), r);
+                        if (run != null) batch.add(run);
+                        if (batch.size() >= BATCH_SIZE) {
+                            added += flush(cursor, batch, batchWatermark);
+                            batch.clear();
+                        }
+                    }
+                }
+                Object next = page.get("nextRecordsUrl");
+                if (Boolean.TRUE.equals(page.get("done")) || next == null) break;
+                page = restApiClient.queryMore(org, next.toString());
+            }
+            added += flush(cursor, batch, batchWatermark);
+            cursor.setLastError(null);
+        } catch (HttpStatusCodeException e) {
+            // INVALID_TYPE: the object is not available in this org (e.g. flow logging is off)
+            cursor.setLastError(e.getStatusCode() + ": " + e.getResponseBodyAsString());
+            log.debug("Could not poll {} for org {}: {}", source, org.getOrgId(), e.getResponseBodyAsString());
+        } catch (Exception e) {
+            cursor.setLastError(e.getMessage());
+            log.warn("Could not poll {} for org {}: {}", source, org.getOrgId(), e.getMessage());
+        }
+        cursor.setLastPolledAt(LocalDateTime.now());
+        flowIngestCursorRepository.save(cursor);
+        return added;
+    }
+
+    /** Writes one batch and moves the cursor past it. */
+    private int flush(FlowIngestCursor cursor, List<FlowRun> batch, OffsetDateTime watermark) {
+        int added = batch.isEmpty() ? 0 : flowRunRecorder.recordIngested(cursor.getOrgId(), batch).size();
+        cursor.setIngestedRuns(cursor.getIngestedRuns() + added);
+        if (watermark != null) cursor.setWatermark(SalesforceDates.soqlLiteral(watermark));
+        flowIngestCursorRepository.save(cursor);
+        return added;
+    }
+
+    // -------------------------------------------------------------------------
+    // Mapping
+    // -------------------------------------------------------------------------
+
+    /** A failed (InterviewStatus = 'Error') interview, with the element it stopped at. */
+    private FlowRun fromInterview(String orgId, Map<?, ?> r) {
+        String label = str(r.get("InterviewLabel"), str(r.get("Name"), "(unknown)"));
+        String element = str(r.get("CurrentElement"), null);
+        FlowRun run = FlowRun.builder()
+                .orgId(orgId)
+                .sfId(str(r.get("Id"), null))
+                .flowName(label)
+                .flowType("FlowInterview")
+                .status("Fault")
+                .errorMessage(element != null ? "Interview failed at element " + element : "Interview failed")
+                .startedAt(SalesforceDates.toLocal(r.get("CreatedDate")))
+                .triggeredBy("Salesforce")
+                .createdAt(SalesforceDates.toLocal(r.get("CreatedDate")))
+                .build();
+        run.getErrors().add(FlowError.builder()
+                .errorType("FlowInterview")
+                .errorMessage(run.getErrorMessage())
+                .elementApiName(element)
+                .build());
+        return run;
+    }
+
+    /** A finished interview from flow logging; interviews still running are skipped until they end. */
+    private FlowRun fromInterviewLog(String orgId, Map<?, ?> r) {
+        String status = str(r.get("InterviewStatus"), "");
+        String runStatus = switch (status) {
+            case "Completed", "Finished" -> "Success";
+            case "Error" -> "Fault";
+            default -> null;
+        };
+        if (runStatus == null) return null;
+
+        String apiName = str(r.get("FlowDeveloperName"), null);
+        String namespace = str(r.get("FlowNamespace"), null);
+        LocalDateTime start = SalesforceDates.toLocal(r.get("InterviewStartTimestamp"));
+        LocalDateTime end = SalesforceDates.toLocal(r.get("InterviewEndTimestamp"));
+        LocalDateTime created = SalesforceDates.toLocal(r.get("CreatedDate"));
+        return FlowRun.builder()
+                .orgId(orgId)
+                .sfId(str(r.get("Id"), null))
+                .flowName(str(r.get("FlowLabel"), apiName))
+                .flowType("FlowInterviewLog")
+                .flowId(apiName != null && namespace != null ? namespace + "__" + apiName : apiName)
+                .status(runStatus)
+                .errorMessage("Fault".equals(runStatus) ? "Interview ended with status Error" : null)
+                .startedAt(start)
+                .durationMs(start != null && end != null ? Math.max(0, Duration.between(start, end).toMillis()) : null)
+                .triggeredBy("Salesforce")
+                .createdAt(start != null ? start : created)
+                .build();
+    }
+
+    private static String str(Object value, String fallback) {
+        return value != null ? value.toString() : fallback;
+    }
+}
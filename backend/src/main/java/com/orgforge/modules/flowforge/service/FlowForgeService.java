@@ -6,8 +6,12 @@ import com.orgforge.core.salesforce.RestApiClient;
 import com.orgforge.core.salesforce.ToolingApiClient;
 import com.orgforge.modules.flowforge.model.FlowOverlap;
 import com.orgforge.modules.flowforge.model.FlowRun;
+import com.orgforge.modules.flowforge.model.FlowRunCounter;
+import com.orgforge.modules.flowforge.model.FlowRunRollup;
+import com.orgforge.modules.flowforge.repository.FlowDurationBinRepository;
 import com.orgforge.modules.flowforge.repository.FlowOverlapRepository;
 import com.orgforge.modules.flowforge.repository.FlowRunRepository;
+import com.orgforge.modules.flowforge.repository.FlowRunRollupRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
@@ -16,12 +20,16 @@ import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.time.LocalDate;
+import java.time.DayOfWeek;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -30,9 +38,15 @@ public class FlowForgeService {
 
     private final FlowRunRepository flowRunRepository;
     private final FlowOverlapRepository flowOverlapRepository;
+    private final FlowRunRecorder flowRunRecorder;
+    private final FlowRunRollupRepository flowRunRollupRepository;
+    private final FlowDurationBinRepository flowDurationBinRepository;
     private final OrgConnectionRepository orgConnectionRepository;
+    private final FlowCatalogService flowCatalogService;
+    private final FlowOverlapDetector flowOverlapDetector;
     private final ToolingApiClient toolingApiClient;
     private final RestApiClient restApiClient;
+    private final PlatformTransactionManager transactionManager;
 
     // -------------------------------------------------------------------------
     // Dashboard stats
@@ -42,32 +56,27 @@ public class FlowForgeService {
     public Map<String, Object> getDashboardStats(String orgId) {
         OrgConnection org = resolveOrg(orgId);
 
-        long errorCount = flowRunRepository.countByOrgIdAndStatus(orgId, "Error")
-                + flowRunRepository.countByOrgIdAndStatus(orgId, "Fault");
-
-        long totalRuns = flowRunRepository.findByOrgIdOrderByCreatedAtDesc(orgId, Pageable.unpaged()).getTotalElements();
+        FlowRunCounter counter = flowRunRecorder.getCounter(orgId);
+        long totalRuns = counter.getTotalRuns();
+        long errorCount = counter.getErrorRuns() + counter.getFaultRuns();
 
         double faultRate = totalRuns > 0
                 ? Math.round((errorCount * 100.0 / totalRuns) * 100.0) / 100.0
                 : 0.0;
 
-        long overlapsDetected = flowOverlapRepository.findByOrgIdOrderByDetectedAtDesc(orgId).size();
+        long overlapsDetected = flowOverlapRepository.countByOrgId(orgId);
 
-        // Fetch total active flows — use FlowDefinition (API v57+)
+        // Total active flows from the catalogue
         long totalFlows = 0;
         try {
-            Map<?, ?> result = restApiClient.query(org,
-                    "SELECT COUNT() FROM FlowDefinitionView WHERE IsActive = true");
-            if (result != null && result.get("totalSize") instanceof Number n) {
-                totalFlows = n.longValue();
-            }
-            log.info("FlowDefinition COUNT for org {}: {}", orgId, totalFlows);
+            totalFlows = flowCatalogService.getActiveDefinitions(org).size();
         } catch (Exception e) {
             log.warn("Could not fetch flow count for org {}: {}", orgId, e.getMessage());
         }
 
         Map<String, Object> stats = new HashMap<>();
         stats.put("totalFlows", totalFlows);
+        stats.put("totalRuns", totalRuns);
         stats.put("errorCount", errorCount);
         stats.put("faultRate", faultRate);
         stats.put("overlapsDetected", overlapsDetected);
@@ -99,73 +108,21 @@ public class FlowForgeService {
     // Overlap detection
     // -------------------------------------------------------------------------
 
-    @Transactional
     @Caching(
         evict = @CacheEvict(value = "flowStats", key = "#orgId"),
         cacheable = @Cacheable(value = "overlaps", key = "#orgId")
     )
     public List<FlowOverlap> detectOverlaps(String orgId) {
         OrgConnection org = resolveOrg(orgId);
-
-        Map<?, ?> result = restApiClient.query(org,
-                "SELECT Id, Label, TriggerType FROM FlowDefinitionView WHERE IsActive = true");
-
-        List<?> records = result != null ? (List<?>) result.get("records") : Collections.emptyList();
-
-        // Group flows by ProcessType to detect multiple flows of the same type
-        Map<String, List<String>> grouped = new LinkedHashMap<>();
-        if (records != null) {
-            for (Object rec : records) {
-                if (!(rec instanceof Map<?, ?> flow)) continue;
-                Object rawProcessType = flow.get("TriggerType");
-                Object rawLabel = flow.get("Label");
-                String processType = rawProcessType != null ? String.valueOf(rawProcessType) : "";
-                String apiName = rawLabel != null ? String.valueOf(rawLabel) : "";
-
-                if (processType.isBlank() || "null".equals(processType)) {
-                    continue;
-                }
-
-                grouped.computeIfAbsent(processType, k -> new ArrayList<>()).add(apiName);
-            }
-        }
-
-        // Delete existing overlaps for this org before saving fresh ones
-        List<FlowOverlap> existing = flowOverlapRepository.findByOrgIdOrderByDetectedAtDesc(orgId);
-        flowOverlapRepository.deleteAll(existing);
-
-        List<FlowOverlap> overlaps = new ArrayList<>();
-        LocalDateTime now = LocalDateTime.now();
-
-        for (Map.Entry<String, List<String>> entry : grouped.entrySet()) {
-            List<String> flows = entry.getValue();
-            if (flows.size() <= 1) continue;
-
-            String objectName = entry.getKey();
-            String triggerEvent = entry.getKey();
-
-            String riskLevel;
-            if (flows.size() > 3) {
-                riskLevel = "HIGH";
-            } else if (flows.size() >= 2) {
-                riskLevel = "MEDIUM";
-            } else {
-                riskLevel = "LOW";
-            }
-
-            FlowOverlap overlap = FlowOverlap.builder()
-                    .orgId(orgId)
-                    .objectName(objectName)
-                    .triggerEvent(triggerEvent)
-                    .flowNames(String.join(", ", flows))
-                    .riskLevel(riskLevel)
-                    .detectedAt(now)
-                    .build();
-
-            overlaps.add(flowOverlapRepository.save(overlap));
-        }
-
-        return overlaps;
+        // Tooling API calls first, so no connection is held while they run
+        List<FlowOverlap> overlaps = flowOverlapDetector.detect(org);
+
+        // Replace this org's overlaps in one delete and one batch insert
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            flowOverlapRepository.deleteByOrgId(orgId);
+            flowOverlapRepository.batchInsert(overlaps);
+            return flowOverlapRepository.findByOrgIdOrderByDetectedAtDescIdAsc(orgId);
+        });
     }
 
     // -------------------------------------------------------------------------
@@ -174,6 +131,11 @@ public class FlowForgeService {
 
     public List<Map<String, Object>> getFlowInputVariables(String orgId, String invocableApiName) {
         OrgConnection org = resolveOrg(orgId);
+        return flowCatalogService.getInputVariables(org, invocableApiName,
+                () -> fetchFlowInputVariables(org, invocableApiName));
+    }
+
+    private List<Map<String, Object>> fetchFlowInputVariables(OrgConnection org, String invocableApiName) {
         String url = org.getInstanceUrl() + "/services/data/v" + org.getApiVersion()
                 + "/actions/custom/flow/" + invocableApiName;
         try {
@@ -303,11 +265,11 @@ public class FlowForgeService {
                 .createdAt(LocalDateTime.now())
                 .build();
 
-        return flowRunRepository.save(run);
+        return flowRunRecorder.record(run);
     }
 
     public List<FlowOverlap> getOverlaps(String orgId) {
-        return flowOverlapRepository.findByOrgIdOrderByDetectedAtDesc(orgId);
+        return flowOverlapRepository.findByOrgIdOrderByDetectedAtDescIdAsc(orgId);
     }
 
     // -------------------------------------------------------------------------
@@ -315,75 +277,130 @@ public class FlowForgeService {
     // -------------------------------------------------------------------------
 
     public List<Map<String, Object>> getFlowAnalytics(String orgId, int days) {
-        LocalDateTime since = LocalDateTime.now().minusDays(days);
-        List<FlowRun> runs = flowRunRepository
-                .findByOrgIdOrderByCreatedAtDesc(orgId, Pageable.unpaged())
-                .stream()
-                .filter(r -> r.getCreatedAt() != null && r.getCreatedAt().isAfter(since))
-                .collect(Collectors.toList());
-
-        // Group by date (yyyy-MM-dd)
-        Map<LocalDate, long[]> byDate = new TreeMap<>();
-        for (FlowRun run : runs) {
-            LocalDate date = run.getCreatedAt().toLocalDate();
-            long[] counts = byDate.computeIfAbsent(date, k -> new long[]{0, 0});
-            String status = run.getStatus();
-            if ("Error".equalsIgnoreCase(status) || "Fault".equalsIgnoreCase(status)) {
-                counts[1]++;
-            } else {
-                counts[0]++;
-            }
+        LocalDateTime to = LocalDateTime.now();
+        return getFlowAnalytics(orgId, to.minusDays(days), to, "DAY", null);
+    }
+
+    /**
+     * Success/error counts and duration stats per bucket over [from, to), read from the
+     * rollup table. HOUR and DAY come straight from stored buckets; WEEK and MONTH are
+     * merged from DAY buckets. The first bucket is the one containing {@code from}.
+     */
+    public List<Map<String, Object>> getFlowAnalytics(String orgId, LocalDateTime from, LocalDateTime to,
+                                                      String granularity, String flowName) {
+        String gran = granularity != null ? granularity.toUpperCase() : "DAY";
+        if (!List.of("HOUR", "DAY", "WEEK", "MONTH").contains(gran)) {
+            throw new IllegalArgumentException("Unsupported granularity: " + granularity);
+        }
+        String stored = "HOUR".equals(gran) ? FlowRunRollup.HOUR : FlowRunRollup.DAY;
+        LocalDateTime start = "HOUR".equals(gran) ? from.truncatedTo(ChronoUnit.HOURS) : from.truncatedTo(ChronoUnit.DAYS);
+
+        // bucket → [success, error, durationCount, durationSum, min, max]
+        Map<LocalDateTime, long[]> buckets = new TreeMap<>();
+        for (var row : flowRunRollupRepository.sumByBucket(orgId, stored, start, to,
+                flowName != null && !flowName.isBlank() ? flowName : null)) {
+            LocalDateTime key = switch (gran) {
+                case "WEEK" -> row.getBucketStart().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case "MONTH" -> row.getBucketStart().withDayOfMonth(1);
+                default -> row.getBucketStart();
+            };
+            long[] b = buckets.computeIfAbsent(key, k -> new long[]{0, 0, 0, 0, Long.MAX_VALUE, Long.MIN_VALUE});
+            b[0] += nz(row.getSuccessCount());
+            b[1] += nz(row.getErrorCount());
+            b[2] += nz(row.getDurationCount());
+            b[3] += nz(row.getDurationSumMs());
+            if (row.getDurationMinMs() != null) b[4] = Math.min(b[4], row.getDurationMinMs());
+            if (row.getDurationMaxMs() != null) b[5] = Math.max(b[5], row.getDurationMaxMs());
         }
 
         List<Map<String, Object>> analytics = new ArrayList<>();
-        for (Map.Entry<LocalDate, long[]> entry : byDate.entrySet()) {
+        for (Map.Entry<LocalDateTime, long[]> entry : buckets.entrySet()) {
+            long[] b = entry.getValue();
             Map<String, Object> point = new LinkedHashMap<>();
-            point.put("date", entry.getKey().toString());
-            point.put("success", entry.getValue()[0]);
-            point.put("error", entry.getValue()[1]);
+            point.put("date", "HOUR".equals(gran) ? entry.getKey().toString() : entry.getKey().toLocalDate().toString());
+            point.put("success", b[0]);
+            point.put("error", b[1]);
+            if (b[2] > 0) {
+                point.put("avgDurationMs", b[3] / b[2]);
+                point.put("minDurationMs", b[4]);
+                point.put("maxDurationMs", b[5]);
+            }
             analytics.add(point);
         }
         return analytics;
     }
 
+    /**
+     * p50/p95/p99/max duration per flow over [from, to), from the merged duration
+     * histograms; slowest (by p95) first. Windows of two days or more merge DAY
+     * buckets, shorter ones HOUR buckets. Percentiles are bin upper bounds, capped
+     * at the exact recorded maximum.
+     */
+    public List<Map<String, Object>> getDurationPercentiles(String orgId, LocalDateTime from, LocalDateTime to,
+                                                            String flowName) {
+        String granularity = Duration.between(from, to).toDays() >= 2 ? FlowRunRollup.DAY : FlowRunRollup.HOUR;
+        LocalDateTime start = FlowRunRollup.DAY.equals(granularity)
+                ? from.truncatedTo(ChronoUnit.DAYS) : from.truncatedTo(ChronoUnit.HOURS);
+        String flow = flowName != null && !flowName.isBlank() ? flowName : null;
+
+        Map<String, DurationHistogram> histograms = new HashMap<>();
+        for (var row : flowDurationBinRepository.sumByFlowAndBin(orgId, granularity, start, to, flow)) {
+            histograms.computeIfAbsent(row.getFlowName(), k -> new DurationHistogram())
+                    .add(row.getBin(), nz(row.getCount()));
+        }
+        Map<String, Long> exactMax = new HashMap<>();
+        for (var row : flowRunRollupRepository.maxDurationByFlow(orgId, granularity, start, to, flow)) {
+            if (row.getMaxMs() != null) exactMax.put(row.getFlowName(), row.getMaxMs());
+        }
+
+        List<Map<String, Object>> result = new ArrayList<>();
+        histograms.forEach((name, h) -> {
+            long max = exactMax.getOrDefault(name, h.max());
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("flowName", name);
+            item.put("runs", h.getTotalCount());
+            item.put("p50Ms", Math.min(h.percentile(50), max));
+            item.put("p95Ms", Math.min(h.percentile(95), max));
+            item.put("p99Ms", Math.min(h.percentile(99), max));
+            item.put("maxMs", max);
+            result.add(item);
+        });
+        result.sort(Comparator.comparingLong((Map<String, Object> m) -> (Long) m.get("p95Ms")).reversed());
+        return result;
+    }
+
+    private static long nz(Long value) {
+        return value != null ? value : 0L;
+    }
+
     // -------------------------------------------------------------------------
     // Flows list (live from Salesforce)
     // -------------------------------------------------------------------------
 
     public List<Map<String, Object>> getFlows(String orgId) {
         OrgConnection org = resolveOrg(orgId);
-        // FlowDefinition has one record per unique flow (API v57+).
-        // ActiveVersionId != null means the flow has an active version.
-        String soql = "SELECT Id, Label, ApiName, ProcessType, TriggerType FROM FlowDefinitionView WHERE IsActive = true LIMIT 500";
-        log.info("Fetching flows for org {} via FlowDefinitionView", orgId);
         try {
-            Map<?, ?> result = restApiClient.query(org, soql);
-            log.info("FlowDefinitionView query result: totalSize={}", result != null ? result.get("totalSize") : "null");
-
-            // Fetch shortName→fullName map from Salesforce invocable actions API
-            Map<String, String> invocableMap = fetchInvocableFlowNames(org);
+            List<Map<String, Object>> records = flowCatalogService.getActiveDefinitions(org);
+            // shortName→fullName map from the Salesforce invocable actions API
+            Map<String, String> invocableMap = flowCatalogService.getInvocableNames(org);
 
-            List<?> records = result != null ? (List<?>) result.get("records") : Collections.emptyList();
             List<Map<String, Object>> flows = new ArrayList<>();
-            if (records != null) {
-                for (Object rec : records) {
-                    if (!(rec instanceof Map<?, ?> r)) continue;
-                    String apiName = r.get("ApiName") != null ? String.valueOf(r.get("ApiName")) : null;
-                    Map<String, Object> flow = new LinkedHashMap<>();
-                    flow.put("id", r.get("Id"));
-                    flow.put("label", r.get("Label"));
-                    flow.put("apiName", apiName);
-                    flow.put("processType", r.get("ProcessType"));
-                    flow.put("triggerType", r.get("TriggerType"));
-                    flow.put("status", "Active");
-                    String invocableApiName = apiName != null ? invocableMap.get(apiName) : null;
-                    flow.put("invocable", invocableApiName != null);
-                    flow.put("invocableApiName", invocableApiName); // full namespaced name for POST
-                    flows.add(flow);
-                }
+            for (Map<String, Object> r : records) {
+                String apiName = r.get("ApiName") != null ? String.valueOf(r.get("ApiName")) : null;
+                Map<String, Object> flow = new LinkedHashMap<>();
+                flow.put("id", r.get("Id"));
+                flow.put("label", r.get("Label"));
+                flow.put("apiName", apiName);
+                flow.put("processType", r.get("ProcessType"));
+                flow.put("triggerType", r.get("TriggerType"));
+                flow.put("status", "Active");
+                String invocableApiName = apiName != null ? invocableMap.get(apiName) : null;
+                flow.put("invocable", invocableApiName != null);
+                flow.put("invocableApiName", invocableApiName); // full namespaced name for POST
+                flows.add(flow);
             }
             long actualInvocable = flows.stream().filter(f -> Boolean.TRUE.equals(f.get("invocable"))).count();
-            log.info("Returning {} flows ({} invocable) for org {}", flows.size(), actualInvocable, orgId);
+            log.debug("Returning {} flows ({} invocable) for org {}", flows.size(), actualInvocable, orgId);
             return flows;
         } catch (Exception e) {
             log.error("Failed to fetch flows for org {}: {}", orgId, e.getMessage(), e);
@@ -391,129 +408,19 @@ public class FlowForgeService {
         }
     }
 
-    // -------------------------------------------------------------------------
-    // Helper
-    // -------------------------------------------------------------------------
-
-    /**
-     * Registers a flow action name into the map:
-     *  key   = short name without namespace (e.g. "CreateSalesPA")
-     *  value = full name as Salesforce expects for invocation (e.g. "sales_sfa_flows__CreateSalesPA")
-     * FlowDefinitionView.ApiName returns the short form, so we key by short name
-     * but invoke using the full namespaced name.
-     */
-    private void addInvocableName(Map<String, String> map, Object raw) {
-        if (raw == null) return;
-        String fullName = raw.toString();
-        map.put(fullName, fullName); // also allow matching by full name
-        int nsIdx = fullName.indexOf("__");
-        if (nsIdx > 0) {
-            String shortName = fullName.substring(nsIdx + 2);
-            map.put(shortName, fullName); // short name → full name for invocation
-        }
-    }
-
-    /**
-     * Returns a map of shortName → fullInvocableName from GET /actions/custom/flow.
-     * FlowDefinitionView.ApiName (short) is used as the key;
-     * the full namespaced name is the value to use in the POST invocation URL.
-     */
-    private Map<String, String> fetchInvocableFlowNames(OrgConnection org) {
-        String url = org.getInstanceUrl()
-                + "/services/data/v" + org.getApiVersion()
-                + "/actions/custom/flow";
-        Map<String, String> nameMap = new HashMap<>();
-
-        // Try array format first: [...] where each item has a "name" field
-        try {
-            List<?> list = restApiClient.getList(org, url);
-            if (list != null) {
-                for (Object item : list) {
-                    if (item instanceof Map<?, ?> m) {
-                        addInvocableName(nameMap, m.get("name"));
-                    }
-                }
-                log.info("Invocable flows (array format): {} entries for org {}", nameMap.size(), org.getOrgId());
-                return nameMap;
-            }
-        } catch (Exception arrayEx) {
-            log.debug("Array format failed for invocable flows: {}", arrayEx.getMessage());
-        }
-
-        // Try map format: {"actions": [...]} or {"FlowApiName": {...}, ...}
-        try {
-            Map<?, ?> result = restApiClient.get(org, url);
-            if (result != null) {
-                Object actions = result.get("actions");
-                if (actions instanceof List<?> actionList) {
-                    for (Object item : actionList) {
-                        if (item instanceof Map<?, ?> m) {
-                            addInvocableName(nameMap, m.get("name"));
-                        }
-                    }
-                } else {
-                    result.keySet().forEach(k -> addInvocableName(nameMap, k));
-                }
-                log.info("Invocable flows (map format): {} entries for org {}", nameMap.size(), org.getOrgId());
-            }
-        } catch (Exception mapEx) {
-            log.warn("Could not fetch invocable flow list for org {}: {}", org.getOrgId(), mapEx.getMessage());
-        }
-
-        return nameMap;
+    /** Drops the org's cached flow catalogue so the next read reloads it from Salesforce. */
+    @Caching(evict = {
+        @CacheEvict(value = "flowStats", key = "#orgId"),
+        @CacheEvict(value = "overlaps", key = "#orgId")
+    })
+    public void refreshCatalog(String orgId) {
+        flowCatalogService.invalidate(orgId);
     }
 
     // -------------------------------------------------------------------------
-    // Record lookup (for REFERENCE-type flow inputs)
+    // Helper
     // -------------------------------------------------------------------------
 
-    /**
-     * Searches Salesforce records of {@code sobjectType} matching {@code q}.
-     * Smart detection:
-     *  - If q looks like a Salesforce ID (15 or 18 alphanumeric chars) → search by Id
-     *  - Otherwise → search by Name LIKE '%q%'
-     * Returns up to 10 results as [{id, name}].
-     */
-    public List<Map<String, Object>> lookupRecords(String orgId, String sobjectType, String q) {
-        if (sobjectType == null || sobjectType.isBlank() || q == null || q.isBlank()) {
-            return Collections.emptyList();
-        }
-        // Validate sobjectType — only letters, digits, underscores (no injection)
-        if (!sobjectType.matches("[a-zA-Z][a-zA-Z0-9_]*")) {
-            throw new IllegalArgumentException("Invalid sobjectType: " + sobjectType);
-        }
-        OrgConnection org = resolveOrg(orgId);
-
-        // Escape single quotes to prevent SOQL injection
-        String safe = q.replace("'", "\\'");
-        String soql;
-        if (q.matches("[a-zA-Z0-9]{15}|[a-zA-Z0-9]{18}")) {
-            // Looks like an SF record ID — search by Id
-            soql = "SELECT Id, Name FROM " + sobjectType + " WHERE Id = '" + safe + "' LIMIT 1";
-        } else {
-            soql = "SELECT Id, Name FROM " + sobjectType + " WHERE Name LIKE '%" + safe + "%' LIMIT 10";
-        }
-
-        try {
-            Map<?, ?> result = restApiClient.query(org, soql);
-            List<?> records = result != null ? (List<?>) result.get("records") : null;
-            if (records == null) return Collections.emptyList();
-            List<Map<String, Object>> out = new ArrayList<>();
-            for (Object rec : records) {
-                if (!(rec instanceof Map<?, ?> r)) continue;
-                Map<String, Object> item = new LinkedHashMap<>();
-                item.put("id", r.get("Id"));
-                item.put("name", r.get("Name") != null ? r.get("Name") : r.get("Id"));
-                out.add(item);
-            }
-            return out;
-        } catch (Exception e) {
-            log.warn("Lookup failed for {} q='{}': {}", sobjectType, q, e.getMessage());
-            // Surface a readable message rather than a 500
-            throw new RuntimeException("Lookup failed: " + e.getMessage(), e);
-        }
-    }
-
     private String parseSfErrorMessage(String responseBody) {
         try {
             int idx = responseBody.indexOf("\"message\":\"");
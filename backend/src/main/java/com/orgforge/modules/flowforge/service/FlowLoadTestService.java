@@ -0,0 +1,479 @@
+package com.orgforge.modules.flowforge.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orgforge.core.config.WorkerPools;
+import com.orgforge.core.org.OrgConnection;
+import com.orgforge.core.org.OrgConnectionRepository;
+import com.orgforge.core.salesforce.ApiUsageTracker;
+import com.orgforge.core.salesforce.RestApiClient;
+import com.orgforge.core.websocket.WebSocketBroker;
+import com.orgforge.modules.flowforge.dto.LoadTestProgressDTO;
+import com.orgforge.modules.flowforge.model.FlowLoadTest;
+import com.orgforge.modules.flowforge.model.FlowRun;
+import com.orgforge.modules.flowforge.repository.FlowLoadTestRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpStatusCodeException;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load tests an autolaunched flow through {@code /actions/custom/flow/{name}}, one input
+ * per call, for a fixed duration:
+ * <ul>
+ *   <li>RATE starts calls on a fixed schedule (open model); a call that is due while every
+ *       caller is busy is counted as skipped rather than queued, so latency is not hidden
+ *       behind a backlog.</li>
+ *   <li>CONCURRENCY keeps N callers busy back to back (closed model).</li>
+ * </ul>
+ * Callers come from one pool of {@code app.flow-forge.load-test.max-concurrency} threads
+ * shared by all tests, admitted through one service-wide semaphore with a permit per
+ * thread, so no call ever waits in the pool's queue. A CONCURRENCY test reserves its N
+ * callers for its whole run and is refused when they are not free; a RATE call holds a
+ * permit while it runs and is skipped when none is free. A test never makes more calls than its budget:
+ * {@code max-api-share} of the org's daily API allowance, and never more than remain once
+ * the calls still reserved by the org's other running tests are taken off.
+ *
+ * <p>Every call is stored as a {@link FlowRun} (batched through
+ * {@link FlowRunRecorder#recordBatch}) and recorded in a {@link DurationHistogram} for the
+ * summary; progress is broadcast on {@code flow-load.<orgId>}.
+ */
+@Slf4j
+@Service
+public class FlowLoadTestService {
+
+    /** How often the coordinator drains results and publishes progress. */
+    private static final long TICK_MS = 200;
+    private static final int WRITE_BATCH = 200;
+
+    private final FlowLoadTestRepository flowLoadTestRepository;
+    private final FlowRunRecorder flowRunRecorder;
+    private final OrgConnectionRepository orgConnectionRepository;
+    private final RestApiClient restApiClient;
+    private final ApiUsageTracker apiUsageTracker;
+    private final WebSocketBroker webSocketBroker;
+    private final CacheManager cacheManager;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService callers;
+    private final int maxConcurrency;
+    /** One permit per caller thread, shared by every running test. */
+    private final Semaphore callerSlots;
+    private final Map<Long, AtomicBoolean> stopFlags = new ConcurrentHashMap<>();
+    /** Held while a test's budget is sized and saved, so two new tests cannot claim the same calls. */
+    private final Object budgetLock = new Object();
+
+    /** Share (0-1) of the org's daily API request allowance one test may use. */
+    @Value("${app.flow-forge.load-test.max-api-share:0.05}")
+    private double maxApiShare;
+
+    @Value("${app.flow-forge.load-test.max-duration-seconds:600}")
+    private int maxDurationSeconds;
+
+    @Value("${app.flow-forge.load-test.max-rate:50}")
+    private double maxRate;
+
+    public FlowLoadTestService(FlowLoadTestRepository flowLoadTestRepository,
+                               FlowRunRecorder flowRunRecorder,
+                               OrgConnectionRepository orgConnectionRepository,
+                               RestApiClient restApiClient,
+                               ApiUsageTracker apiUsageTracker,
+                               WebSocketBroker webSocketBroker,
+                               CacheManager cacheManager,
+                               ObjectMapper objectMapper,
+                               WorkerPools workerPools,
+                               @Value("${app.flow-forge.load-test.max-concurrency:20}") int maxConcurrency) {
+        this.flowLoadTestRepository = flowLoadTestRepository;
+        this.flowRunRecorder = flowRunRecorder;
+        this.orgConnectionRepository = orgConnectionRepository;
+        this.restApiClient = restApiClient;
+        this.apiUsageTracker = apiUsageTracker;
+        this.webSocketBroker = webSocketBroker;
+        this.cacheManager = cacheManager;
+        this.objectMapper = objectMapper;
+        this.maxConcurrency = maxConcurrency;
+        this.callerSlots = new Semaphore(maxConcurrency);
+        this.callers = workerPools.fixed("OrgForge-FlowLoad", maxConcurrency);
+    }
+
+    // -------------------------------------------------------------------------
+    // Setup
+    // -------------------------------------------------------------------------
+
+    /**
+     * Validates the request and sizes the call budget from the org's limits.
+     * Body: { apiName, label, mode: RATE|CONCURRENCY, rate, concurrency, durationSeconds, inputs: {...}, createdBy }
+     */
+    public FlowLoadTest createTest(String orgId, Map<String, Object> body) {
+        String apiName = (String) body.get("apiName");
+        if (apiName == null || apiName.isBlank()) throw new IllegalArgumentException("apiName is required");
+        String mode = String.valueOf(body.getOrDefault("mode", FlowLoadTest.CONCURRENCY)).toUpperCase();
+        int duration = intValue(body.get("durationSeconds"), 60);
+        if (duration < 1 || duration > maxDurationSeconds) {
+            throw new IllegalArgumentException("durationSeconds must be between 1 and " + maxDurationSeconds);
+        }
+
+        Double rate = null;
+        Integer concurrency = null;
+        if (FlowLoadTest.RATE.equals(mode)) {
+            rate = body.get("rate") instanceof Number n ? n.doubleValue() : null;
+            if (rate == null || rate <= 0 || rate > maxRate) {
+                throw new IllegalArgumentException("rate must be between 0 and " + maxRate + " calls per second");
+            }
+        } else if (FlowLoadTest.CONCURRENCY.equals(mode)) {
+            concurrency = intValue(body.get("concurrency"), 1);
+            if (concurrency < 1 || concurrency > maxConcurrency) {
+                throw new IllegalArgumentException("concurrency must be between 1 and " + maxConcurrency);
+            }
+            if (concurrency > callerSlots.availablePermits()) {
+                throw new IllegalArgumentException(busyMessage(concurrency));
+            }
+        } else {
+            throw new IllegalArgumentException("mode must be RATE or CONCURRENCY");
+        }
+
+        Object inputs = body.getOrDefault("inputs", Map.of());
+        if (!(inputs instanceof Map<?, ?>)) throw new IllegalArgumentException("inputs must be an object");
+        String template;
+        try {
+            template = objectMapper.writeValueAsString(inputs);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("inputs could not be serialised: " + e.getMessage(), e);
+        }
+
+        OrgConnection org = resolveOrg(orgId);
+        String label = (String) body.get("label");
+        synchronized (budgetLock) {
+            long budget = callBudget(org);
+            if (budget < 1) throw new IllegalArgumentException("No API allowance left for a load test in this org");
+
+            FlowLoadTest test = FlowLoadTest.builder()
+                    .orgId(orgId)
+                    .flowApiName(apiName)
+                    .flowName(label != null && !label.isBlank() ? label : apiName)
+                    .mode(mode)
+                    .targetRate(rate)
+                    .concurrency(concurrency)
+                    .durationSeconds(duration)
+                    .inputTemplateJson(template)
+                    .status("PENDING")
+                    .callBudget(budget)
+                    .createdBy((String) body.getOrDefault("createdBy", "user"))
+                    .createdAt(LocalDateTime.now())
+                    .build();
+            return flowLoadTestRepository.save(test);
+        }
+    }
+
+    /**
+     * min(max-api-share × daily maximum, remaining − reserved), from a fresh Sforce-Limit-Info
+     * reading when there is one, else from /limits DailyApiRequests. Reserved is what the
+     * org's pending and running tests may still call; calls they already made are in the
+     * reading. Tests older than the longest allowed run are left out, so one orphaned by a
+     * restart stops reserving.
+     */
+    private long callBudget(OrgConnection org) {
+        long reserved = flowLoadTestRepository.reservedCalls(org.getOrgId(),
+                LocalDateTime.now().minusSeconds(maxDurationSeconds));
+        Optional<ApiUsageTracker.ApiUsage> live = apiUsageTracker.fresh(org.getOrgId());
+        if (live.isPresent() && live.get().max() > 0) {
+            long remaining = Math.max(0, live.get().max() - live.get().used() - reserved);
+            return Math.min((long) Math.floor(live.get().max() * maxApiShare), remaining);
+        }
+        Map<?, ?> limits = restApiClient.getLimits(org);
+        if (limits == null || !(limits.get("DailyApiRequests") instanceof Map<?, ?> daily)
+                || !(daily.get("Max") instanceof Number max) || !(daily.get("Remaining") instanceof Number remaining)) {
+            throw new IllegalStateException("Could not read DailyApiRequests for org " + org.getOrgId());
+        }
+        return Math.min((long) Math.floor(max.longValue() * maxApiShare), Math.max(0, remaining.longValue() - reserved));
+    }
+
+    // -------------------------------------------------------------------------
+    // Run
+    // -------------------------------------------------------------------------
+
+    @Async("taskExecutor")
+    public void runTest(Long testId) {
+        FlowLoadTest test = flowLoadTestRepository.findById(testId)
+                .orElseThrow(() -> new IllegalArgumentException("FlowLoadTest not found: " + testId));
+        AtomicBoolean stop = new AtomicBoolean();
+        stopFlags.put(testId, stop);
+        DurationHistogram histogram = new DurationHistogram();
+        long[] latencySum = new long[1];
+        long startNanos = System.nanoTime();
+        try {
+            OrgConnection org = resolveOrg(test.getOrgId());
+            Map<String, Object> template = objectMapper.readValue(test.getInputTemplateJson(),
+                    new TypeReference<Map<String, Object>>() {});
+            test.setStatus("RUNNING");
+            test.setStartedAt(LocalDateTime.now());
+            flowLoadTestRepository.save(test);
+
+            long deadline = startNanos + test.getDurationSeconds() * 1_000_000_000L;
+            AtomicLong issued = new AtomicLong();
+            Queue<FlowRun> results = new ConcurrentLinkedQueue<>();
+            List<FlowRun> pending = new ArrayList<>();
+            boolean rateMode = FlowLoadTest.RATE.equals(test.getMode());
+            AtomicInteger rateInFlight = new AtomicInteger();
+            List<Future<?>> workers = new ArrayList<>();
+
+            if (!rateMode) {
+                // Another test may have taken the callers since this one was created
+                if (!callerSlots.tryAcquire(test.getConcurrency())) {
+                    throw new IllegalStateException(busyMessage(test.getConcurrency()));
+                }
+                int started = 0;
+                try {
+                    for (; started < test.getConcurrency(); started++) {
+                        workers.add(callers.submit(() -> {
+                            try {
+                                long n;
+                                while (!stop.get() && System.nanoTime() < deadline
+                                        && (n = issued.incrementAndGet()) <= test.getCallBudget()) {
+                                    results.add(call(org, test, template, n));
+                                }
+                            } finally {
+                                callerSlots.release();
+                            }
+                        }));
+                    }
+                } finally {
+                    callerSlots.release(test.getConcurrency() - started);
+                }
+            }
+
+            long dispatched = 0;
+            long lastPublish = 0;
+            while (true) {
+                long now = System.nanoTime();
+                boolean running = !stop.get() && now < deadline && issued.get() < test.getCallBudget();
+                if (rateMode && running) {
+                    long due = (long) ((now - startNanos) / 1e9 * test.getTargetRate()) + 1;
+                    for (; dispatched < due && issued.get() < test.getCallBudget(); dispatched++) {
+                        if (!callerSlots.tryAcquire()) {
+                            test.setSkippedCalls(test.getSkippedCalls() + 1);
+                            continue;
+                        }
+                        long n = issued.incrementAndGet();
+                        rateInFlight.incrementAndGet();
+                        try {
+                            callers.submit(() -> {
+                                try {
+                                    results.add(call(org, test, template, n));
+                                } finally {
+                                    rateInFlight.decrementAndGet();
+                                    callerSlots.release();
+                                }
+                            });
+                        } catch (RejectedExecutionException e) {
+                            rateInFlight.decrementAndGet();
+                            callerSlots.release();
+                            throw e;
+                        }
+                    }
+                }
+
+                drain(results, pending, test, histogram, latencySum);
+                if (pending.size() >= WRITE_BATCH || now - lastPublish >= 1_000_000_000L) {
+                    flowRunRecorder.recordBatch(pending);
+                    pending.clear();
+                    summarise(test, histogram, latencySum[0], startNanos);
+                    flowLoadTestRepository.save(test);
+                    publish(test, startNanos);
+                    lastPublish = now;
+                }
+
+                boolean inFlight = rateMode ? rateInFlight.get() > 0
+                        : workers.stream().anyMatch(f -> !f.isDone());
+                if (!running && !inFlight && results.isEmpty()) break;
+                Thread.sleep(TICK_MS);
+            }
+            drain(results, pending, test, histogram, latencySum);
+            flowRunRecorder.recordBatch(pending);
+
+            if (stop.get()) {
+                test.setStatus("STOPPED");
+                test.setStopReason("Stopped by user");
+            } else {
+                test.setStatus("COMPLETED");
+                if (issued.get() >= test.getCallBudget()) test.setStopReason("API call budget reached");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            test.setStatus("FAILED");
+            test.setStopReason("Interrupted");
+        } catch (Exception e) {
+            log.error("Load test {} failed: {}", testId, e.getMessage(), e);
+            test.setStatus("FAILED");
+            test.setStopReason(e.getMessage());
+        } finally {
+            // Ends this test's workers if the coordinator failed; they release their permits
+            stop.set(true);
+            stopFlags.remove(testId);
+        }
+
+        summarise(test, histogram, latencySum[0], startNanos);
+        test.setLatencyHistogramJson(histogramJson(histogram));
+        test.setCompletedAt(LocalDateTime.now());
+        flowLoadTestRepository.save(test);
+        publish(test, startNanos);
+        var stats = cacheManager.getCache("flowStats");
+        if (stats != null) stats.evict(test.getOrgId());
+        log.info("Load test {} of {} finished: {} calls, {} errors, p95 {} ms",
+                testId, test.getFlowApiName(), test.getTotalCalls(), test.getErrorCount(), test.getP95Ms());
+    }
+
+    private String busyMessage(int concurrency) {
+        return "Not enough free load-test callers: " + concurrency + " requested, "
+                + callerSlots.availablePermits() + " of " + maxConcurrency + " free";
+    }
+
+    /** Stops a running test after its in-flight calls return; false if it is not running. */
+    public boolean stop(Long testId) {
+        AtomicBoolean flag = stopFlags.get(testId);
+        if (flag == null) return false;
+        flag.set(true);
+        return true;
+    }
+
+    /** One timed Actions API call with a single input. */
+    private FlowRun call(OrgConnection org, FlowLoadTest test, Map<String, Object> template, long n) {
+        Map<String, Object> input = render(template, n);
+        LocalDateTime startedAt = LocalDateTime.now();
+        long t0 = System.nanoTime();
+        String status;
+        String errorMessage = null;
+        try {
+            List<?> results = restApiClient.postCollection(org,
+                    "/actions/custom/flow/" + test.getFlowApiName(), Map.of("inputs", List.of(input)));
+            Map<?, ?> r = results != null && !results.isEmpty() && results.get(0) instanceof Map<?, ?> m ? m : null;
+            if (r != null && Boolean.TRUE.equals(r.get("isSuccess"))) {
+                status = "Success";
+            } else {
+                status = "Error";
+                errorMessage = r != null && r.get("errors") instanceof List<?> errs && !errs.isEmpty()
+                        && errs.get(0) instanceof Map<?, ?> err ? String.valueOf(err.get("message")) : "Flow invocation failed";
+            }
+        } catch (HttpStatusCodeException e) {
+            status = "Error";
+            errorMessage = e.getStatusCode() + ": " + e.getResponseBodyAsString();
+        } catch (Exception e) {
+            status = "Error";
+            errorMessage = e.getMessage();
+        }
+        return FlowRun.builder()
+                .orgId(test.getOrgId())
+                .flowName(test.getFlowName())
+                .flowType("AutoLaunchedFlow")
+                .flowId(test.getFlowApiName())
+                .status(status)
+                .errorMessage(errorMessage)
+                .startedAt(startedAt)
+                .durationMs((System.nanoTime() - t0) / 1_000_000)
+                .triggeredBy("OrgForge load test #" + test.getId())
+                .loadTestId(test.getId())
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    /** Copies the template, replacing "{{n}}" in string values with the call number. */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> render(Map<String, Object> template, long n) {
+        Map<String, Object> input = new LinkedHashMap<>();
+        template.forEach((k, v) -> {
+            if (v instanceof String s) input.put(k, s.replace("{{n}}", Long.toString(n)));
+            else if (v instanceof Map<?, ?> m) input.put(k, render((Map<String, Object>) m, n));
+            else input.put(k, v);
+        });
+        return input;
+    }
+
+    private static void drain(Queue<FlowRun> results, List<FlowRun> pending, FlowLoadTest test,
+                              DurationHistogram histogram, long[] latencySum) {
+        FlowRun run;
+        while ((run = results.poll()) != null) {
+            pending.add(run);
+            histogram.record(run.getDurationMs());
+            latencySum[0] += run.getDurationMs();
+            test.setTotalCalls(test.getTotalCalls() + 1);
+            if ("Success".equals(run.getStatus())) test.setSuccessCount(test.getSuccessCount() + 1);
+            else test.setErrorCount(test.getErrorCount() + 1);
+        }
+    }
+
+    private static void summarise(FlowLoadTest test, DurationHistogram histogram, long latencySum, long startNanos) {
+        double elapsed = Math.max(0.001, (System.nanoTime() - startNanos) / 1e9);
+        long total = test.getTotalCalls();
+        test.setThroughputPerSec(Math.round(total / elapsed * 100.0) / 100.0);
+        test.setErrorRate(total > 0 ? Math.round(test.getErrorCount() * 10000.0 / total) / 100.0 : 0.0);
+        if (total > 0) {
+            long max = histogram.max();
+            test.setAvgMs(latencySum / total);
+            test.setP50Ms(histogram.percentile(50));
+            test.setP90Ms(histogram.percentile(90));
+            test.setP95Ms(histogram.percentile(95));
+            test.setP99Ms(histogram.percentile(99));
+            test.setMaxMs(max);
+        }
+    }
+
+    private String histogramJson(DurationHistogram histogram) {
+        List<Map<String, Object>> bins = new ArrayList<>();
+        histogram.getCounts().forEach((bin, count) -> {
+            Map<String, Object> b = new LinkedHashMap<>();
+            b.put("fromMs", DurationHistogram.lowerBound(bin));
+            b.put("toMs", DurationHistogram.upperBound(bin));
+            b.put("count", count);
+            bins.add(b);
+        });
+        try {
+            return objectMapper.writeValueAsString(bins);
+        } catch (JsonProcessingException e) {
+            return "[]";
+        }
+    }
+
+    private void publish(FlowLoadTest test, long startNanos) {
+        webSocketBroker.broadcast("flow-load." + test.getOrgId(), new LoadTestProgressDTO(
+                test.getId(), test.getFlowApiName(), test.getStatus(),
+                (System.nanoTime() - startNanos) / 1_000_000_000L, test.getDurationSeconds(),
+                test.getTotalCalls(), test.getErrorCount(),
+                test.getThroughputPerSec() != null ? test.getThroughputPerSec() : 0.0,
+                test.getP95Ms() != null ? test.getP95Ms() : 0L));
+    }
+
+    // -------------------------------------------------------------------------
+    // Reads
+    // -------------------------------------------------------------------------
+
+    public List<FlowLoadTest> getTests(String orgId, int page) {
+        return flowLoadTestRepository.findByOrgIdOrderByCreatedAtDesc(orgId, PageRequest.of(page, 20));
+    }
+
+    public FlowLoadTest getTest(Long id) {
+        return flowLoadTestRepository.findById(id)
+                .orElseThrow(() -> new NoSuchElementException("FlowLoadTest not found: " + id));
+    }
+
+    private static int intValue(Object value, int fallback) {
+        if (value instanceof Number n) return n.intValue();
+        if (value instanceof String s && !s.isBlank()) return Integer.parseInt(s.trim());
+        return fallback;
+    }
+
+    private OrgConnection resolveOrg(String orgId) {
+        return orgConnectionRepository.findByOrgId(orgId)
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "No active OrgConnection found for orgId: " + orgId));
+    }
+}
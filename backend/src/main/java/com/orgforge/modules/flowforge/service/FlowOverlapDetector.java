@@ -0,0 +1,285 @@
+package com.orgforge.modules.flowforge.service;
+
+import com.orgforge.core.config.WorkerPools;
+import com.orgforge.core.org.OrgConnection;
+import com.orgforge.core.salesforce.ToolingApiClient;
+import com.orgforge.modules.flowforge.model.FlowOverlap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Finds record-triggered (and platform-event) flows that fire on the same
+ * (object, event, timing). Each active flow version's {@code start} element is read
+ * from the Tooling API in parallel on a pool of {@code app.flow-forge.overlaps.parallelism}
+ * threads; versions are immutable, so a parsed start element is fetched only once.
+ *
+ * <p>Within a key, two flows whose entry conditions are AND-ed and require different
+ * values of the same field under {@code EqualTo} can never run for the same record and
+ * are not reported; every other pair is.
+ */
+@Slf4j
+@Service
+public class FlowOverlapDetector {
+
+    /** FlowDefinitionView.TriggerType values whose flows have an object and event. */
+    private static final Set<String> TRIGGERED = Set.of(
+            "RecordBeforeSave", "RecordAfterSave", "RecordBeforeDelete", "PlatformEvent");
+
+    /** Upper bound on cached start elements; the cache is dropped wholesale past it. */
+    private static final int MAX_CACHED_VERSIONS = 20_000;
+
+    private final FlowCatalogService flowCatalogService;
+    private final ToolingApiClient toolingApiClient;
+    private final ExecutorService pool;
+    private final Map<String, Optional<FlowTrigger>> triggersByVersion = new ConcurrentHashMap<>();
+
+    record Condition(String field, String operator, String value) {
+        @Override
+        public String toString() {
+            return field + " " + operator + " " + value;
+        }
+    }
+
+    record FlowTrigger(String label, String object, List<String> events, String timing,
+                       String filterLogic, List<Condition> conditions, String filterFormula) {
+
+        boolean unconditional() {
+            return conditions.isEmpty() && (filterFormula == null || filterFormula.isBlank());
+        }
+
+        /** Conditions are a plain AND of the filter rows (no custom logic or formula). */
+        boolean andOnly() {
+            return (filterFormula == null || filterFormula.isBlank())
+                    && (filterLogic == null || "and".equalsIgnoreCase(filterLogic));
+        }
+
+        String describeConditions() {
+            if (filterFormula != null && !filterFormula.isBlank()) return filterFormula;
+            if (conditions.isEmpty()) return "(none)";
+            String joiner = filterLogic == null || "and".equalsIgnoreCase(filterLogic) ? " AND "
+                    : "or".equalsIgnoreCase(filterLogic) ? " OR " : ", ";
+            StringJoiner sj = new StringJoiner(joiner);
+            conditions.forEach(c -> sj.add(c.toString()));
+            String text = sj.toString();
+            return joiner.equals(", ") ? text + " [" + filterLogic + "]" : text;
+        }
+    }
+
+    public FlowOverlapDetector(FlowCatalogService flowCatalogService,
+                               ToolingApiClient toolingApiClient,
+                               WorkerPools workerPools,
+                               @Value("${app.flow-forge.overlaps.parallelism:8}") int parallelism) {
+        this.flowCatalogService = flowCatalogService;
+        this.toolingApiClient = toolingApiClient;
+        this.pool = workerPools.fixed("OrgForge-FlowMetadata", parallelism);
+    }
+
+    /** Overlaps among the org's active flows, highest risk first; not persisted. */
+    public List<FlowOverlap> detect(OrgConnection org) {
+        List<FlowTrigger> triggers = fetchTriggers(org);
+
+        // (object, event, timing) → flows firing there
+        Map<List<String>, List<FlowTrigger>> index = new TreeMap<>(
+                Comparator.comparing((List<String> k) -> k.get(0))
+                        .thenComparing(k -> k.get(1))
+                        .thenComparing(k -> k.get(2)));
+        for (FlowTrigger t : triggers) {
+            for (String event : t.events()) {
+                index.computeIfAbsent(List.of(t.object(), event, t.timing()), k -> new ArrayList<>()).add(t);
+            }
+        }
+
+        List<FlowOverlap> overlaps = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        index.forEach((key, flows) -> {
+            if (flows.size() < 2) return;
+            List<FlowTrigger> colliding = new ArrayList<>();
+            for (int i = 0; i < flows.size(); i++) {
+                for (int j = 0; j < flows.size(); j++) {
+                    if (i != j && !disjoint(flows.get(i), flows.get(j))) {
+                        colliding.add(flows.get(i));
+                        break;
+                    }
+                }
+            }
+            if (colliding.size() < 2) return;
+            colliding.sort(Comparator.comparing(FlowTrigger::label, String.CASE_INSENSITIVE_ORDER));
+
+            StringJoiner names = new StringJoiner(", ");
+            StringJoiner conditions = new StringJoiner("\n");
+            for (FlowTrigger t : colliding) {
+                names.add(t.label());
+                conditions.add(t.label() + ": " + t.describeConditions());
+            }
+            overlaps.add(FlowOverlap.builder()
+                    .orgId(org.getOrgId())
+                    .objectName(key.get(0))
+                    .triggerEvent(key.get(1))
+                    .triggerTiming(key.get(2))
+                    .flowNames(names.toString())
+                    .entryConditions(conditions.toString())
+                    .riskLevel(riskLevel(colliding))
+                    .detectedAt(now)
+                    .build());
+        });
+        overlaps.sort(Comparator.comparingInt((FlowOverlap o) -> riskRank(o.getRiskLevel())));
+        log.info("Detected {} flow overlaps among {} triggered flows for org {}",
+                overlaps.size(), triggers.size(), org.getOrgId());
+        return overlaps;
+    }
+
+    /**
+     * HIGH: more than three flows, or two or more without entry conditions.
+     * MEDIUM: one flow without entry conditions. LOW: every flow has conditions
+     * that may still match the same record.
+     */
+    private static String riskLevel(List<FlowTrigger> flows) {
+        long unconditional = flows.stream().filter(FlowTrigger::unconditional).count();
+        if (flows.size() > 3 || unconditional >= 2) return "HIGH";
+        if (unconditional == 1) return "MEDIUM";
+        return "LOW";
+    }
+
+    private static int riskRank(String risk) {
+        return switch (risk) {
+            case "HIGH" -> 0;
+            case "MEDIUM" -> 1;
+            default -> 2;
+        };
+    }
+
+    /** True when both flows AND their filters and require different values of one field. */
+    static boolean disjoint(FlowTrigger a, FlowTrigger b) {
+        if (!a.andOnly() || !b.andOnly()) return false;
+        for (Condition ca : a.conditions()) {
+            if (!"EqualTo".equals(ca.operator())) continue;
+            for (Condition cb : b.conditions()) {
+                if ("EqualTo".equals(cb.operator()) && ca.field().equalsIgnoreCase(cb.field())
+                        && !Objects.equals(ca.value(), cb.value())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // -------------------------------------------------------------------------
+    // Metadata fetch
+    // -------------------------------------------------------------------------
+
+    private List<FlowTrigger> fetchTriggers(OrgConnection org) {
+        List<Map<String, Object>> definitions = new ArrayList<>();
+        for (Map<String, Object> def : flowCatalogService.getActiveDefinitions(org)) {
+            if (def.get("ActiveVersionId") != null && TRIGGERED.contains(String.valueOf(def.get("TriggerType")))) {
+                definitions.add(def);
+            }
+        }
+        if (triggersByVersion.size() > MAX_CACHED_VERSIONS) triggersByVersion.clear();
+
+        CompletionService<Void> completion = new ExecutorCompletionService<>(pool);
+        int submitted = 0;
+        for (Map<String, Object> def : definitions) {
+            String versionId = def.get("ActiveVersionId").toString();
+            if (triggersByVersion.containsKey(versionId)) continue;
+            completion.submit(() -> {
+                triggersByVersion.put(versionId, fetchTrigger(org, versionId, String.valueOf(def.get("Label"))));
+                return null;
+            });
+            submitted++;
+        }
+        int failed = 0;
+        for (int i = 0; i < submitted; i++) {
+            try {
+                completion.take().get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while reading flow metadata", e);
+            } catch (ExecutionException e) {
+                failed++;
+                log.warn("Could not read flow metadata for org {}: {}", org.getOrgId(), e.getCause().getMessage());
+            }
+        }
+        if (submitted > 0) {
+            log.info("Read metadata of {} flow versions for org {} ({} failed)", submitted, org.getOrgId(), failed);
+        }
+
+        List<FlowTrigger> triggers = new ArrayList<>();
+        for (Map<String, Object> def : definitions) {
+            Optional<FlowTrigger> trigger = triggersByVersion.get(def.get("ActiveVersionId").toString());
+            if (trigger != null && trigger.isPresent()) {
+                // Label from the catalogue, which follows renames
+                FlowTrigger t = trigger.get();
+                triggers.add(new FlowTrigger(String.valueOf(def.get("Label")), t.object(), t.events(), t.timing(),
+                        t.filterLogic(), t.conditions(), t.filterFormula()));
+            }
+        }
+        return triggers;
+    }
+
+    /** Parses the {@code start} element of one flow version; empty when it has no trigger object. */
+    private Optional<FlowTrigger> fetchTrigger(OrgConnection org, String versionId, String label) {
+        if (!versionId.matches("[a-zA-Z0-9]{15,18}")) return Optional.empty();
+        Map<?, ?> result = toolingApiClient.query(org,
+                "SELECT Id, Metadata FROM Flow WHERE Id = '" + versionId + "'");
+        if (result == null || !(result.get("records") instanceof List<?> records) || records.isEmpty()
+                || !(records.get(0) instanceof Map<?, ?> rec)
+                || !(rec.get("Metadata") instanceof Map<?, ?> metadata)
+                || !(metadata.get("start") instanceof Map<?, ?> start)) {
+            return Optional.empty();
+        }
+        Object object = start.get("object");
+        String triggerType = start.get("triggerType") != null ? start.get("triggerType").toString() : null;
+        if (object == null || triggerType == null) return Optional.empty();
+
+        String timing;
+        List<String> events;
+        String recordTriggerType = start.get("recordTriggerType") != null
+                ? start.get("recordTriggerType").toString() : null;
+        switch (triggerType) {
+            case "RecordBeforeSave" -> timing = "Before Save";
+            case "RecordAfterSave" -> timing = "After Save";
+            case "RecordBeforeDelete" -> timing = "Before Delete";
+            case "PlatformEvent" -> timing = "After Publish";
+            default -> { return Optional.empty(); }
+        }
+        if ("PlatformEvent".equals(triggerType)) {
+            events = List.of("Publish");
+        } else if ("CreateAndUpdate".equals(recordTriggerType)) {
+            events = List.of("Create", "Update");
+        } else if (recordTriggerType != null) {
+            events = List.of(recordTriggerType);
+        } else {
+            events = List.of("RecordBeforeDelete".equals(triggerType) ? "Delete" : "Update");
+        }
+
+        List<Condition> conditions = new ArrayList<>();
+        if (start.get("filters") instanceof List<?> filters) {
+            for (Object f : filters) {
+                if (f instanceof Map<?, ?> filter && filter.get("field") != null) {
+                    conditions.add(new Condition(filter.get("field").toString(),
+                            String.valueOf(filter.get("operator")), filterValue(filter.get("value"))));
+                }
+            }
+        }
+        return Optional.of(new FlowTrigger(label, object.toString(), events, timing,
+                start.get("filterLogic") != null ? start.get("filterLogic").toString() : null,
+                conditions,
+                start.get("filterFormula") != null ? start.get("filterFormula").toString() : null));
+    }
+
+    /** Flow metadata values are typed wrappers, e.g. {"stringValue": "Closed"}; returns the one that is set. */
+    private static String filterValue(Object value) {
+        if (value instanceof Map<?, ?> m) {
+            for (Object v : m.values()) {
+                if (v != null) return v.toString();
+            }
+            return null;
+        }
+        return value != null ? value.toString() : null;
+    }
+}
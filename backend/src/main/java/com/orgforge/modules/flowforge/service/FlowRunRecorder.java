@@ -0,0 +1,224 @@
+package com.orgforge.modules.flowforge.service;
+
+import com.orgforge.modules.flowforge.model.FlowDurationBin;
+import com.orgforge.modules.flowforge.model.FlowError;
+import com.orgforge.modules.flowforge.model.FlowRun;
+import com.orgforge.modules.flowforge.model.FlowRunCounter;
+import com.orgforge.modules.flowforge.model.FlowRunRollup;
+import com.orgforge.modules.flowforge.repository.FlowDurationBinRepository;
+import com.orgforge.modules.flowforge.repository.FlowRunCounterRepository;
+import com.orgforge.modules.flowforge.repository.FlowRunRepository;
+import com.orgforge.modules.flowforge.repository.FlowRunRollupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Single write path for {@link FlowRun} rows. Every run saved here also bumps the
+ * org's {@link FlowRunCounter}, its hourly and daily {@link FlowRunRollup} buckets and
+ * the matching duration histogram bins in the same transaction, so dashboard totals,
+ * analytics and percentiles never scan the run table.
+ *
+ * <p>Counter rows are created lazily from one grouped COUNT over the org's runs
+ * ({@link #getCounter}); until then increments are skipped, as the seeding count
+ * includes those runs. Seeding and any increment that finds no row both take the org's
+ * row lock in {@code org_connections}: the COUNT then waits for writers that skipped,
+ * and a writer that raced the seeding retries its increment once the row has committed.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FlowRunRecorder {
+
+    private final FlowRunRepository flowRunRepository;
+    private final FlowRunCounterRepository flowRunCounterRepository;
+    private final FlowRunRollupRepository flowRunRollupRepository;
+    private final FlowDurationBinRepository flowDurationBinRepository;
+
+    @Transactional
+    public FlowRun record(FlowRun run) {
+        FlowRun saved = flowRunRepository.save(run);
+        increment(List.of(saved));
+        return saved;
+    }
+
+    @Transactional
+    public List<FlowRun> recordAll(List<FlowRun> runs) {
+        if (runs.isEmpty()) return runs;
+        List<FlowRun> saved = flowRunRepository.saveAll(runs);
+        increment(saved);
+        return saved;
+    }
+
+    /** Writes runs with one JDBC batch insert, then updates counters and rollups. */
+    @Transactional
+    public void recordBatch(List<FlowRun> runs) {
+        if (runs.isEmpty()) return;
+        flowRunRepository.batchInsert(runs);
+        increment(runs);
+    }
+
+    /**
+     * Writes runs ingested from Salesforce for one org, skipping any whose {@code sfId}
+     * is already stored or repeated in the batch, then batch-inserts their errors.
+     * Returns the runs that were new.
+     */
+    @Transactional
+    public List<FlowRun> recordIngested(String orgId, List<FlowRun> runs) {
+        Map<String, FlowRun> bySfId = new LinkedHashMap<>();
+        for (FlowRun run : runs) {
+            if (run.getSfId() != null) bySfId.putIfAbsent(run.getSfId(), run);
+        }
+        if (bySfId.isEmpty()) return List.of();
+        flowRunRepository.findSfIds(orgId, bySfId.keySet()).forEach(bySfId::remove);
+        if (bySfId.isEmpty()) return List.of();
+
+        List<FlowRun> fresh = new ArrayList<>(bySfId.values());
+        flowRunRepository.batchInsert(fresh);
+
+        List<FlowError> errors = new ArrayList<>();
+        if (fresh.stream().anyMatch(r -> !r.getErrors().isEmpty())) {
+            for (var ref : flowRunRepository.findIdsBySfId(orgId, bySfId.keySet())) {
+                FlowRun run = bySfId.get(ref.getSfId());
+                run.setId(ref.getId());
+                for (FlowError error : run.getErrors()) {
+                    error.setFlowRun(run);
+                    errors.add(error);
+                }
+            }
+        }
+        flowRunRepository.batchInsertErrors(errors);
+        increment(fresh);
+        return fresh;
+    }
+
+    /** Adds already-persisted runs (e.g. written by a JDBC batch) to the counters and rollups. */
+    @Transactional
+    public void increment(Collection<FlowRun> runs) {
+        Map<String, long[]> deltas = new HashMap<>();
+        for (FlowRun run : runs) {
+            long[] d = deltas.computeIfAbsent(run.getOrgId(), k -> new long[4]);
+            d[0]++;
+            int slot = statusSlot(run.getStatus());
+            if (slot > 0) d[slot]++;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        deltas.forEach((orgId, d) -> {
+            if (flowRunCounterRepository.increment(orgId, d[0], d[1], d[2], d[3], now) == 0) {
+                // No row yet: wait out a seeding COUNT that may have missed these runs, then retry
+                flowRunCounterRepository.lockOrg(orgId);
+                flowRunCounterRepository.increment(orgId, d[0], d[1], d[2], d[3], now);
+            }
+        });
+
+        flowRunRollupRepository.addAll(rollupDeltas(runs));
+        flowDurationBinRepository.addAll(binDeltas(runs));
+    }
+
+    /** Histogram bin increments per (org, granularity, bucket, flow, bin) for runs with a duration. */
+    private Collection<FlowDurationBin> binDeltas(Collection<FlowRun> runs) {
+        Map<List<Object>, FlowDurationBin> bins = new HashMap<>();
+        for (FlowRun run : runs) {
+            if (run.getDurationMs() == null) continue;
+            LocalDateTime at = run.getCreatedAt() != null ? run.getCreatedAt() : LocalDateTime.now();
+            String flow = flowKey(run);
+            int bin = DurationHistogram.binOf(run.getDurationMs());
+            for (String granularity : List.of(FlowRunRollup.HOUR, FlowRunRollup.DAY)) {
+                LocalDateTime bucket = bucketStart(at, granularity);
+                FlowDurationBin b = bins.computeIfAbsent(List.of(run.getOrgId(), granularity, bucket, flow, bin),
+                        k -> FlowDurationBin.builder()
+                                .orgId(run.getOrgId())
+                                .granularity(granularity)
+                                .bucketStart(bucket)
+                                .flowName(flow)
+                                .bin(bin)
+                                .build());
+                b.setRunCount(b.getRunCount() + 1);
+            }
+        }
+        return bins.values();
+    }
+
+    /** One delta row per (org, granularity, bucket, flow) touched by these runs. */
+    private Collection<FlowRunRollup> rollupDeltas(Collection<FlowRun> runs) {
+        Map<List<Object>, FlowRunRollup> rollups = new HashMap<>();
+        for (FlowRun run : runs) {
+            LocalDateTime at = run.getCreatedAt() != null ? run.getCreatedAt() : LocalDateTime.now();
+            String flow = flowKey(run);
+            boolean failed = statusSlot(run.getStatus()) >= 2;
+            Long duration = run.getDurationMs();
+
+            for (String granularity : List.of(FlowRunRollup.HOUR, FlowRunRollup.DAY)) {
+                LocalDateTime bucket = bucketStart(at, granularity);
+                FlowRunRollup r = rollups.computeIfAbsent(List.of(run.getOrgId(), granularity, bucket, flow),
+                        k -> FlowRunRollup.builder()
+                                .orgId(run.getOrgId())
+                                .granularity(granularity)
+                                .bucketStart(bucket)
+                                .flowName(flow)
+                                .build());
+                if (failed) r.setErrorCount(r.getErrorCount() + 1); else r.setSuccessCount(r.getSuccessCount() + 1);
+                if (duration != null) {
+                    r.setDurationCount(r.getDurationCount() + 1);
+                    r.setDurationSumMs(r.getDurationSumMs() + duration);
+                    r.setDurationMinMs(r.getDurationMinMs() == null ? duration : Math.min(r.getDurationMinMs(), duration));
+                    r.setDurationMaxMs(r.getDurationMaxMs() == null ? duration : Math.max(r.getDurationMaxMs(), duration));
+                }
+            }
+        }
+        return rollups.values();
+    }
+
+    /** The org's counter row, seeded from a grouped COUNT over flow_runs on first use. */
+    @Transactional
+    public FlowRunCounter getCounter(String orgId) {
+        Optional<FlowRunCounter> existing = flowRunCounterRepository.findById(orgId);
+        if (existing.isPresent()) return existing.get();
+
+        // Waits for writers that skipped their increment, and for a concurrent seeding
+        boolean locked = !flowRunCounterRepository.lockOrg(orgId).isEmpty();
+        existing = flowRunCounterRepository.findById(orgId);
+        if (existing.isPresent()) return existing.get();
+
+        long[] counts = new long[4];
+        for (var row : flowRunRepository.countByStatus(orgId)) {
+            counts[0] += row.getCount();
+            int slot = statusSlot(row.getStatus());
+            if (slot > 0) counts[slot] += row.getCount();
+        }
+        FlowRunCounter counter = FlowRunCounter.builder()
+                .orgId(orgId)
+                .totalRuns(counts[0])
+                .successRuns(counts[1])
+                .errorRuns(counts[2])
+                .faultRuns(counts[3])
+                .updatedAt(LocalDateTime.now())
+                .build();
+        // Without a connection row there is nothing to lock against, so the count is not kept
+        return locked ? flowRunCounterRepository.save(counter) : counter;
+    }
+
+    private static String flowKey(FlowRun run) {
+        return run.getFlowName() != null ? run.getFlowName()
+                : run.getFlowId() != null ? run.getFlowId() : "(unknown)";
+    }
+
+    private static LocalDateTime bucketStart(LocalDateTime at, String granularity) {
+        return FlowRunRollup.HOUR.equals(granularity)
+                ? at.truncatedTo(ChronoUnit.HOURS)
+                : at.truncatedTo(ChronoUnit.DAYS);
+    }
+
+    /** Index into the counter deltas: 1 success, 2 error, 3 fault, 0 anything else (total only). */
+    private static int statusSlot(String status) {
+        if ("Success".equalsIgnoreCase(status)) return 1;
+        if ("Error".equalsIgnoreCase(status)) return 2;
+        if ("Fault".equalsIgnoreCase(status)) return 3;
+        return 0;
+    }
+}
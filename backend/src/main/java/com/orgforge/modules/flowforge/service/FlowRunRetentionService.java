@@ -0,0 +1,144 @@
+package com.orgforge.modules.flowforge.service;
+
+import com.orgforge.core.config.DatabaseDialect;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maintains the monthly partitions of {@code flow_runs} and {@code flow_errors} (Postgres
+ * only, see V19): keeps partitions created {@code months-ahead} months in advance so new
+ * rows never land in the default partition, and drops whole months older than
+ * {@code retention-months} instead of deleting rows.
+ *
+ * <p>Dropping a month is the only way {@code flow_errors} rows are removed: V19 dropped
+ * their foreign key to {@code flow_runs} and its ON DELETE CASCADE, so nothing cascades.
+ * Both tables share the partition bounds, and an error carries its run's
+ * {@code created_at}, so a run and its errors always go in the same drop.
+ *
+ * <p>Before a month is dropped its runs are subtracted from {@code flow_run_counters},
+ * so dashboard totals keep matching the stored history. Hourly/daily rollups and
+ * duration bins are kept, so analytics still cover dropped months.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FlowRunRetentionService {
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final Pattern PARTITION = Pattern.compile("flow_(?:runs|errors)_p(\\d{4})_(\\d{2})");
+    private static final String PARTITIONS =
+            "SELECT c.relname FROM pg_inherits i "
+                    + "JOIN pg_class c ON c.oid = i.inhrelid "
+                    + "JOIN pg_class p ON p.oid = i.inhparent "
+                    + "WHERE p.relname IN ('flow_runs', 'flow_errors')";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabaseDialect databaseDialect;
+    private final PlatformTransactionManager transactionManager;
+    private final CacheManager cacheManager;
+
+    /** Months of runs to keep, counting the current one; 0 keeps everything. */
+    @Value("${app.flow-forge.retention.months:13}")
+    private int retentionMonths;
+
+    @Value("${app.flow-forge.retention.months-ahead:3}")
+    private int monthsAhead;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        if (databaseDialect.isPostgres()) createAhead();
+    }
+
+    @Scheduled(cron = "${app.flow-forge.retention.cron:0 30 3 * * *}")
+    public void maintain() {
+        if (!databaseDialect.isPostgres()) return;
+        createAhead();
+        if (retentionMonths > 0) dropExpired();
+    }
+
+    private void createAhead() {
+        YearMonth month = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++, month = month.plusMonths(1)) {
+            for (String table : List.of("flow_runs", "flow_errors")) {
+                String sql = String.format(
+                        "CREATE TABLE IF NOT EXISTS %s_p%s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')",
+                        table, month.format(SUFFIX), table, month.atDay(1), month.plusMonths(1).atDay(1));
+                try {
+                    jdbcTemplate.execute(sql);
+                } catch (Exception e) {
+                    // Fails when the default partition already holds rows for that month
+                    log.warn("Could not create partition {}_p{}: {}", table, month.format(SUFFIX), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void dropExpired() {
+        YearMonth cutoff = YearMonth.now().minusMonths(retentionMonths - 1L);
+        TreeSet<YearMonth> expired = new TreeSet<>();
+        for (String name : jdbcTemplate.queryForList(PARTITIONS, String.class)) {
+            Matcher m = PARTITION.matcher(name);
+            if (!m.matches()) continue;
+            YearMonth month = YearMonth.of(Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2)));
+            if (month.isBefore(cutoff)) expired.add(month);
+        }
+        if (expired.isEmpty()) return;
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        for (YearMonth month : expired) {
+            String suffix = month.format(SUFFIX);
+            tx.executeWithoutResult(status -> dropMonth(suffix));
+            log.info("Dropped flow run partitions for {}", month);
+        }
+        var stats = cacheManager.getCache("flowStats");
+        if (stats != null) stats.clear();
+    }
+
+    /** Takes one month's runs out of the counters, then drops its error and run partitions. */
+    private void dropMonth(String suffix) {
+        String runs = "flow_runs_p" + suffix;
+        if (exists(runs)) {
+            List<Map<String, Object>> totals = jdbcTemplate.queryForList(
+                    "SELECT org_id, COUNT(*) AS total, "
+                            + "COUNT(*) FILTER (WHERE lower(status) = 'success') AS success, "
+                            + "COUNT(*) FILTER (WHERE lower(status) = 'error') AS error, "
+                            + "COUNT(*) FILTER (WHERE lower(status) = 'fault') AS fault "
+                            + "FROM " + runs + " GROUP BY org_id");
+            LocalDateTime now = LocalDateTime.now();
+            for (Map<String, Object> t : totals) {
+                jdbcTemplate.update("UPDATE flow_run_counters SET "
+                                + "total_runs = GREATEST(total_runs - ?, 0), "
+                                + "success_runs = GREATEST(success_runs - ?, 0), "
+                                + "error_runs = GREATEST(error_runs - ?, 0), "
+                                + "fault_runs = GREATEST(fault_runs - ?, 0), "
+                                + "updated_at = ? WHERE org_id = ?",
+                        t.get("total"), t.get("success"), t.get("error"), t.get("fault"), now, t.get("org_id"));
+            }
+        }
+        jdbcTemplate.execute("DROP TABLE IF EXISTS flow_errors_p" + suffix);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + runs);
+    }
+
+    private boolean exists(String table) {
+        Boolean found = jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, table);
+        return Boolean.TRUE.equals(found);
+    }
+}
@@ -0,0 +1,226 @@
+package com.orgforge.modules.flowforge.service;
+
+import com.orgforge.core.org.OrgConnection;
+import com.orgforge.core.org.OrgConnectionRepository;
+import com.orgforge.core.salesforce.RestApiClient;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Typeahead record search for REFERENCE-type flow inputs.
+ *
+ * <p>Terms of two or more characters go to SOSL ({@code FIND {term*} IN NAME FIELDS}),
+ * which uses the search index instead of a non-selective {@code LIKE '%q%'} scan; a
+ * single character is a {@code Name LIKE 'q%'} prefix query. Results are kept in a bounded
+ * LRU keyed by (org, object, term). When a cached SOSL result for a shorter prefix held
+ * every match, a longer term is answered by filtering it locally.
+ *
+ * <p>The client debounces keystrokes itself; requests carrying a client key are also
+ * dropped when a newer one from the same client (same org and object) supersedes them
+ * before or while they call Salesforce, and identical concurrent searches share one call.
+ */
+@Slf4j
+@Service
+public class RecordLookupService {
+
+    static final int RESULT_LIMIT = 10;
+    /** Rows fetched per search; a result with fewer is complete and can answer longer prefixes. */
+    static final int FETCH_LIMIT = 50;
+
+    private static final String SOSL_RESERVED = "?&|!{}[]()^~*:\\\"'+-";
+
+    private final RestApiClient restApiClient;
+    private final OrgConnectionRepository orgConnectionRepository;
+    private final Map<CacheKey, CachedResult> cache;
+    private final Map<CacheKey, CompletableFuture<CachedResult>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    @Value("${app.flow-forge.lookup.cache-ttl-seconds:120}")
+    private long cacheTtlSeconds;
+
+    record CacheKey(String orgId, String sobjectType, String term) {}
+
+    record CachedResult(List<Map<String, Object>> records, boolean complete, long fetchedAtMs) {}
+
+    public RecordLookupService(RestApiClient restApiClient,
+                               OrgConnectionRepository orgConnectionRepository,
+                               @Value("${app.flow-forge.lookup.cache-size:1000}") int cacheSize) {
+        this.restApiClient = restApiClient;
+        this.orgConnectionRepository = orgConnectionRepository;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CacheKey, CachedResult> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    /**
+     * Searches records of {@code sobjectType} matching {@code q}; a 15/18-character id is
+     * looked up by Id. Returns up to {@value #RESULT_LIMIT} results as [{id, name}], or
+     * null when a newer request from the same {@code client} superseded this one.
+     */
+    public List<Map<String, Object>> lookup(String orgId, String sobjectType, String q, String client) {
+        if (sobjectType == null || sobjectType.isBlank() || q == null || q.isBlank()) {
+            return Collections.emptyList();
+        }
+        // Validate sobjectType — only letters, digits, underscores (no injection)
+        if (!sobjectType.matches("[a-zA-Z][a-zA-Z0-9_]*")) {
+            throw new IllegalArgumentException("Invalid sobjectType: " + sobjectType);
+        }
+        OrgConnection org = resolveOrg(orgId);
+        String query = q.trim();
+        if (query.matches("[a-zA-Z0-9]{15}|[a-zA-Z0-9]{18}")) {
+            return toResults(queryRecords(org, "SELECT Id, Name FROM " + sobjectType
+                    + " WHERE Id = '" + query + "' LIMIT 1"));
+        }
+
+        String term = query.toLowerCase(Locale.ROOT);
+        List<Map<String, Object>> local = fromCache(orgId, sobjectType, term);
+        if (local != null) return local;
+
+        String generationKey = client != null && !client.isBlank() ? client + "|" + orgId + "|" + sobjectType : null;
+        long generation = 0;
+        if (generationKey != null) {
+            generation = generations.computeIfAbsent(generationKey, k -> new AtomicLong()).incrementAndGet();
+        }
+
+        CacheKey key = new CacheKey(orgId, sobjectType, term);
+        try {
+            CachedResult result = fetchShared(key, () -> fetch(org, sobjectType, query));
+            if (generationKey != null && superseded(generationKey, generation)) return null;
+            return filter(result.records(), term);
+        } catch (Exception e) {
+            log.warn("Lookup failed for {} q='{}': {}", sobjectType, q, e.getMessage());
+            // Surface a readable message rather than a 500
+            throw new RuntimeException("Lookup failed: " + e.getMessage(), e);
+        } finally {
+            if (generationKey != null) {
+                long mine = generation;
+                generations.computeIfPresent(generationKey, (k, v) -> v.get() == mine ? null : v);
+            }
+        }
+    }
+
+    private boolean superseded(String generationKey, long generation) {
+        AtomicLong current = generations.get(generationKey);
+        return current != null && current.get() != generation;
+    }
+
+    /** Exact cached term, or the longest cached complete prefix filtered locally; null on a miss. */
+    private List<Map<String, Object>> fromCache(String orgId, String sobjectType, String term) {
+        long now = System.currentTimeMillis();
+        for (int len = term.length(); len >= 1; len--) {
+            CachedResult cached = cache.get(new CacheKey(orgId, sobjectType, term.substring(0, len)));
+            if (cached == null || now - cached.fetchedAtMs() > cacheTtlSeconds * 1000) continue;
+            if (len == term.length() || cached.complete()) return filter(cached.records(), term);
+        }
+        return null;
+    }
+
+    /** Runs the fetch once for identical concurrent searches and caches the result. */
+    private CachedResult fetchShared(CacheKey key, Supplier<CachedResult> fetch) {
+        CompletableFuture<CachedResult> mine = new CompletableFuture<>();
+        CompletableFuture<CachedResult> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException re ? re : e;
+            }
+        }
+        try {
+            CachedResult result = fetch.get();
+            cache.put(key, result);
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private CachedResult fetch(OrgConnection org, String sobjectType, String query) {
+        List<Map<String, Object>> records;
+        boolean complete;
+        if (query.length() >= 2) {
+            String sosl = "FIND {" + escapeSosl(query) + "*} IN NAME FIELDS RETURNING "
+                    + sobjectType + "(Id, Name ORDER BY Name LIMIT " + (FETCH_LIMIT + 1) + ")";
+            Map<?, ?> result = restApiClient.search(org, sosl);
+            records = toResults(result != null && result.get("searchRecords") instanceof List<?> list ? list : List.of());
+            complete = records.size() <= FETCH_LIMIT;
+        } else {
+            // SOSL needs two characters; a Name prefix can still use the index
+            String safe = query.replace("\\", "\\\\").replace("'", "\\'");
+            records = toResults(queryRecords(org, "SELECT Id, Name FROM " + sobjectType
+                    + " WHERE Name LIKE '" + safe + "%' ORDER BY Name LIMIT " + FETCH_LIMIT));
+            // Name-prefix semantics differ from SOSL word matching, so never refine from it
+            complete = false;
+        }
+        if (records.size() > FETCH_LIMIT) records = records.subList(0, FETCH_LIMIT);
+        return new CachedResult(List.copyOf(records), complete, System.currentTimeMillis());
+    }
+
+    /** Keeps records where every query word starts some word of the name, as SOSL matches. */
+    private static List<Map<String, Object>> filter(List<Map<String, Object>> records, String term) {
+        String[] wanted = term.split("[^\\p{L}\\p{N}]+");
+        List<Map<String, Object>> out = new ArrayList<>();
+        for (Map<String, Object> r : records) {
+            String name = String.valueOf(r.get("name")).toLowerCase(Locale.ROOT);
+            String[] words = name.split("[^\\p{L}\\p{N}]+");
+            boolean match = true;
+            for (String w : wanted) {
+                if (w.isEmpty()) continue;
+                if (Arrays.stream(words).noneMatch(word -> word.startsWith(w))) {
+                    match = false;
+                    break;
+                }
+            }
+            if (match) out.add(r);
+            if (out.size() == RESULT_LIMIT) break;
+        }
+        return out;
+    }
+
+    private List<?> queryRecords(OrgConnection org, String soql) {
+        Map<?, ?> result = restApiClient.query(org, soql);
+        return result != null && result.get("records") instanceof List<?> list ? list : List.of();
+    }
+
+    private static List<Map<String, Object>> toResults(List<?> records) {
+        List<Map<String, Object>> out = new ArrayList<>();
+        for (Object rec : records) {
+            if (!(rec instanceof Map<?, ?> r)) continue;
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("id", r.get("Id"));
+            item.put("name", r.get("Name") != null ? r.get("Name") : r.get("Id"));
+            out.add(item);
+        }
+        return out;
+    }
+
+    private static String escapeSosl(String term) {
+        StringBuilder sb = new StringBuilder(term.length() + 8);
+        for (char c : term.toCharArray()) {
+            if (SOSL_RESERVED.indexOf(c) >= 0) sb.append('\\');
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    private OrgConnection resolveOrg(String orgId) {
+        return orgConnectionRepository.findByOrgId(orgId)
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "No active OrgConnection found for orgId: " + orgId));
+    }
+}
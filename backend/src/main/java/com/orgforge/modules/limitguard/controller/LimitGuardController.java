@@ -1,15 +1,33 @@
 package com.orgforge.modules.limitguard.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orgforge.core.salesforce.ApiUsageTracker;
+import com.orgforge.modules.limitguard.dto.ApiConsumerDTO;
+import com.orgforge.modules.limitguard.dto.CollectorStatusDTO;
 import com.orgforge.modules.limitguard.dto.LimitDataDTO;
+import com.orgforge.modules.limitguard.dto.LimitHistoryPointDTO;
+import com.orgforge.modules.limitguard.model.EventLogCursor;
 import com.orgforge.modules.limitguard.model.LimitAlert;
-import com.orgforge.modules.limitguard.model.LimitSnapshot;
+import com.orgforge.modules.limitguard.model.LimitAlertEvent;
+import com.orgforge.modules.limitguard.model.LimitAnomaly;
+import com.orgforge.modules.limitguard.service.EventLogIngestionService;
+import com.orgforge.modules.limitguard.service.LimitAlertEngine;
+import com.orgforge.modules.limitguard.service.LimitAnomalyDetector;
+import com.orgforge.modules.limitguard.service.LimitCollectorService;
+import com.orgforge.modules.limitguard.service.LimitFleetService;
 import com.orgforge.modules.limitguard.service.LimitGuardService;
+import com.orgforge.modules.limitguard.service.LimitHistoryService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @RestController
@@ -18,28 +36,76 @@ import java.util.List;
 public class LimitGuardController {
 
     private final LimitGuardService service;
+    private final LimitCollectorService collector;
+    private final LimitHistoryService historyService;
+    private final LimitAlertEngine alertEngine;
+    private final LimitAnomalyDetector anomalyDetector;
+    private final ApiUsageTracker apiUsageTracker;
+    private final LimitFleetService fleetService;
+    private final EventLogIngestionService eventLogService;
+    private final ObjectMapper objectMapper;
 
     /**
      * GET /api/limit-guard?orgId=...
-     * Returns current Salesforce org limits with usage percentages and forecasts.
+     * Returns current Salesforce org limits with usage percentages and forecasts;
+     * DailyApiRequests comes from the latest API response header when it is fresh.
      */
     @GetMapping
     public ResponseEntity<List<LimitDataDTO>> getLimits(@RequestParam String orgId) {
         log.debug("Fetching limits for org: {}", orgId);
-        return ResponseEntity.ok(service.getLimits(orgId));
+        return ResponseEntity.ok(service.withLiveApiUsage(orgId, service.getLimits(orgId)));
     }
 
     /**
-     * GET /api/limit-guard/history?orgId=...&limitName=...&days=7
-     * Returns historical snapshots for a specific limit over the last N days.
+     * GET /api/limit-guard/api-usage?orgId=...
+     * Returns the org's latest Sforce-Limit-Info reading (used/max daily API requests),
+     * or 404 when no call has been made to the org since startup.
+     */
+    @GetMapping("/api-usage")
+    public ResponseEntity<ApiUsageTracker.ApiUsage> getApiUsage(@RequestParam String orgId) {
+        return ResponseEntity.of(apiUsageTracker.get(orgId));
+    }
+
+    /**
+     * GET /api/limit-guard/fleet?top=5&status=CRITICAL,WARNING&sort=percentage
+     * Streams every active org's top-N limits from the latest collected snapshots as
+     * newline-delimited JSON, one org per line, each line flushed as soon as it is read.
+     * sort is percentage (default), name or staleness; status filters on the org's worst limit.
+     */
+    @GetMapping("/fleet")
+    public void getFleet(
+            @RequestParam(required = false) Integer top,
+            @RequestParam(required = false) List<String> status,
+            @RequestParam(required = false) String sort,
+            HttpServletResponse response) throws IOException {
+        LimitFleetService.Query query = fleetService.query(top, status, sort);
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        OutputStream out = response.getOutputStream();
+        fleetService.stream(query, org -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(org));
+                out.write('\n');
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * GET /api/limit-guard/history?orgId=...&limitName=...&days=7&points=500
+     * Returns a specific limit's usage over the last N days, oldest first, from the finest
+     * stored tier covering the range and downsampled to at most {@code points} points.
      */
     @GetMapping("/history")
-    public ResponseEntity<List<LimitSnapshot>> getHistory(
+    public ResponseEntity<List<LimitHistoryPointDTO>> getHistory(
             @RequestParam String orgId,
             @RequestParam String limitName,
-            @RequestParam(defaultValue = "7") int days) {
+            @RequestParam(defaultValue = "7") int days,
+            @RequestParam(required = false) Integer points) {
         log.debug("Fetching history for org: {}, limit: {}, days: {}", orgId, limitName, days);
-        return ResponseEntity.ok(service.getHistory(orgId, limitName, days));
+        return ResponseEntity.ok(historyService.getHistory(orgId, limitName, days, points));
     }
 
     /**
@@ -63,6 +129,80 @@ public class LimitGuardController {
         return ResponseEntity.ok().build();
     }
 
+    /**
+     * GET /api/limit-guard/alerts/events?orgId=...&limit=50
+     * Returns the most recent alert state transitions (OK ↔ FIRING), newest first.
+     */
+    @GetMapping("/alerts/events")
+    public ResponseEntity<List<LimitAlertEvent>> getAlertEvents(
+            @RequestParam String orgId,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(alertEngine.getEvents(orgId, limit));
+    }
+
+    /**
+     * GET /api/limit-guard/anomalies?orgId=...&limitName=...&days=7
+     * Returns sudden usage rises found by the anomaly detector, oldest first, for
+     * annotating the history chart; all limits when limitName is omitted.
+     */
+    @GetMapping("/anomalies")
+    public ResponseEntity<List<LimitAnomaly>> getAnomalies(
+            @RequestParam String orgId,
+            @RequestParam(required = false) String limitName,
+            @RequestParam(defaultValue = "7") int days) {
+        return ResponseEntity.ok(anomalyDetector.getAnomalies(orgId, limitName, days));
+    }
+
+    /**
+     * GET /api/limit-guard/collector?orgId=...
+     * Returns background collection state (due time, lag, failures); every org when orgId is omitted.
+     */
+    @GetMapping("/collector")
+    public ResponseEntity<List<CollectorStatusDTO>> getCollectorStatus(@RequestParam(required = false) String orgId) {
+        return ResponseEntity.ok(collector.getStatus(orgId));
+    }
+
+    /**
+     * POST /api/limit-guard/collector/run?orgId=...
+     * Samples the org's limits now instead of waiting for its next due time.
+     */
+    @PostMapping("/collector/run")
+    public ResponseEntity<Map<String, Object>> collectNow(@RequestParam String orgId) {
+        return ResponseEntity.accepted().body(Map.of("queued", collector.collectNow(orgId)));
+    }
+
+    /**
+     * GET /api/limit-guard/api-consumers?orgId=...&hours=24&by=user&limit=20
+     * Returns who spent the org's API calls (by user, client or uri), heaviest first,
+     * from ingested EventLogFile data.
+     */
+    @GetMapping("/api-consumers")
+    public ResponseEntity<List<ApiConsumerDTO>> getApiConsumers(
+            @RequestParam String orgId,
+            @RequestParam(defaultValue = "24") int hours,
+            @RequestParam(defaultValue = "user") String by,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(eventLogService.getTopConsumers(orgId, hours, by, limit));
+    }
+
+    /**
+     * GET /api/limit-guard/event-logs?orgId=...
+     * Returns the org's EventLogFile ingestion cursor (watermark, files and rows ingested, last error).
+     */
+    @GetMapping("/event-logs")
+    public ResponseEntity<EventLogCursor> getEventLogCursor(@RequestParam String orgId) {
+        return ResponseEntity.of(eventLogService.getCursor(orgId));
+    }
+
+    /**
+     * POST /api/limit-guard/event-logs/run?orgId=...
+     * Polls the org's new EventLogFile records now instead of waiting for the schedule.
+     */
+    @PostMapping("/event-logs/run")
+    public ResponseEntity<Map<String, Object>> ingestEventLogs(@RequestParam String orgId) {
+        return ResponseEntity.accepted().body(Map.of("queued", eventLogService.submit(orgId)));
+    }
+
     public record AlertConfigRequest(
             String limitName,
             double thresholdPct,
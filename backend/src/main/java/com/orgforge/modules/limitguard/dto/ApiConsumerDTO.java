@@ -0,0 +1,15 @@
+package com.orgforge.modules.limitguard.dto;
+
+/**
+ * API calls attributed to one user, client or URI over a time window, from EventLogFile rollups.
+ *
+ * @param key        user id, client (connected app id or client name) or URI; empty when the log had none
+ * @param sharePct   this key's share of the window's calls counted against DailyApiRequests
+ */
+public record ApiConsumerDTO(
+        String key,
+        long calls,
+        long countedCalls,
+        long errorCalls,
+        double sharePct
+) {}
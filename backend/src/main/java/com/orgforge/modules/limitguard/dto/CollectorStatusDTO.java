@@ -0,0 +1,22 @@
+package com.orgforge.modules.limitguard.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Background limit collection state of one org.
+ *
+ * @param stalenessSeconds seconds since the last successful sample (null before the first)
+ * @param startLagMs       how late the last sample started after it was due
+ */
+public record CollectorStatusDTO(
+        String orgId,
+        LocalDateTime nextDueAt,
+        LocalDateTime lastAttemptAt,
+        LocalDateTime lastSuccessAt,
+        Long stalenessSeconds,
+        long startLagMs,
+        long durationMs,
+        int consecutiveFailures,
+        long samples,
+        String lastError
+) {}
@@ -0,0 +1,20 @@
+package com.orgforge.modules.limitguard.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One org in the fleet overview: its most used limits from the latest collected snapshots.
+ *
+ * @param status        status of the org's most used limit
+ * @param maxPercentage highest usage across all of the org's limits
+ * @param sampledAt     the org's newest snapshot
+ */
+public record FleetOrgDTO(
+        String orgId,
+        String orgName,
+        String status,
+        double maxPercentage,
+        LocalDateTime sampledAt,
+        List<LimitDataDTO> limits
+) {}
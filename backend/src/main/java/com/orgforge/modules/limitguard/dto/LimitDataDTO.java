@@ -9,7 +9,14 @@ public record LimitDataDTO(
         long total,
         double percentage,
         String status,
-        LocalDateTime forecastedExhaustionAt
+        LocalDateTime forecastedExhaustionAt,
+        // 90% band around the exhaustion time, and expected usage 24 hours ahead with its band;
+        // null until a day of samples has been seen
+        LocalDateTime exhaustionEarliestAt,
+        LocalDateTime exhaustionLatestAt,
+        Double forecastPct24h,
+        Double forecastPct24hLow,
+        Double forecastPct24hHigh
 ) {
     public static String resolveStatus(double percentage) {
         if (percentage >= 90) return "CRITICAL";
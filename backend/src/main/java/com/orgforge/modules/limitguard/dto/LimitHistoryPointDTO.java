@@ -0,0 +1,16 @@
+package com.orgforge.modules.limitguard.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One point of a limit's history. Raw samples leave min/max null; rollup points carry
+ * the bucket's average as {@code percentage} and its range as min/max.
+ */
+public record LimitHistoryPointDTO(
+        LocalDateTime snapshotAt,
+        long used,
+        long total,
+        double percentage,
+        Double minPercentage,
+        Double maxPercentage
+) {}
@@ -0,0 +1,48 @@
+package com.orgforge.modules.limitguard.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * API calls of one org in one hour by one user through one client (connected app id,
+ * else client name) against one URI, counted from EventLogFile rows. Record Ids in the
+ * URI are replaced with {@code {id}}; empty strings stand for values the log lacked.
+ */
+@Entity
+@Table(name = "api_usage_rollups", uniqueConstraints = @UniqueConstraint(
+        name = "uq_api_usage_rollups", columnNames = {"org_id", "hour_start", "user_id", "client", "uri"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ApiUsageRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String orgId;
+
+    @Column(nullable = false)
+    private LocalDateTime hourStart;
+
+    @Column(nullable = false, length = 18)
+    private String userId;
+
+    @Column(nullable = false)
+    private String client;
+
+    @Column(nullable = false)
+    private String uri;
+
+    private long calls;
+
+    /** Calls the log marks as counting against DailyApiRequests (all calls when it does not say). */
+    private long countedCalls;
+
+    /** Calls answered with an HTTP status of 400 or above. */
+    private long errorCalls;
+}
@@ -0,0 +1,39 @@
+package com.orgforge.modules.limitguard.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * High-water mark of an org's EventLogFile polling: the next poll lists only files
+ * created at or after {@link #watermark}.
+ */
+@Entity
+@Table(name = "event_log_cursors")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EventLogCursor {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true)
+    private String orgId;
+
+    /** SOQL datetime literal (UTC), e.g. 2024-05-01T12:00:00Z. */
+    @Column(length = 30)
+    private String watermark;
+
+    private long filesIngested;
+
+    private long rowsIngested;
+
+    private LocalDateTime lastPolledAt;
+
+    @Column(columnDefinition = "TEXT")
+    private String lastError;
+}
@@ -0,0 +1,37 @@
+package com.orgforge.modules.limitguard.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/** An EventLogFile whose rows have been added to {@link ApiUsageRollup}; never counted twice. */
+@Entity
+@Table(name = "ingested_log_files", uniqueConstraints = @UniqueConstraint(columnNames = {"org_id", "log_file_id"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IngestedLogFile {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String orgId;
+
+    @Column(nullable = false, length = 18)
+    private String logFileId;
+
+    @Column(nullable = false, length = 100)
+    private String eventType;
+
+    private LocalDateTime logDate;
+
+    private long rowCount;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private LocalDateTime ingestedAt = LocalDateTime.now();
+}
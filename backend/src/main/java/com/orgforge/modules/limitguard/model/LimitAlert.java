@@ -17,6 +17,9 @@ import java.time.LocalDateTime;
 @Builder
 public class LimitAlert {
 
+    public static final String OK = "OK";
+    public static final String FIRING = "FIRING";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -39,4 +42,13 @@ public class LimitAlert {
     @Column(nullable = false)
     @Builder.Default
     private LocalDateTime createdAt = LocalDateTime.now();
+
+    /** {@link #OK} or {@link #FIRING}, maintained by LimitAlertEngine. */
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private String state = OK;
+
+    private LocalDateTime stateChangedAt;
+
+    private LocalDateTime lastNotifiedAt;
 }
@@ -0,0 +1,46 @@
+package com.orgforge.modules.limitguard.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/** One state transition of a {@link LimitAlert}, with the sample that caused it. */
+@Entity
+@Table(name = "limit_alert_events")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LimitAlertEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long alertId;
+
+    @Column(nullable = false)
+    private String orgId;
+
+    @Column(nullable = false)
+    private String limitName;
+
+    @Column(nullable = false, length = 20)
+    private String fromState;
+
+    @Column(nullable = false, length = 20)
+    private String toState;
+
+    private double percentage;
+
+    private double thresholdPct;
+
+    /** False when the transition fell inside the cool-down and no notification went out. */
+    private boolean notified;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private LocalDateTime occurredAt = LocalDateTime.now();
+}
@@ -0,0 +1,49 @@
+package com.orgforge.modules.limitguard.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A sample whose rise in usage was far outside the limit's usual rate of change,
+ * as scored by LimitAnomalyDetector.
+ */
+@Entity
+@Table(name = "limit_anomalies")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LimitAnomaly {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String orgId;
+
+    @Column(nullable = false)
+    private String limitName;
+
+    /** Time of the anomalous sample. */
+    @Column(nullable = false)
+    private LocalDateTime detectedAt;
+
+    private double percentage;
+
+    private double previousPercentage;
+
+    /** Observed change in percentage points per hour since the previous sample. */
+    private double ratePerHour;
+
+    /** The limit's usual change per hour before this sample. */
+    private double expectedRate;
+
+    /** Robust deviations above the usual rate. */
+    private double score;
+
+    @Column(nullable = false, length = 20)
+    private String severity;
+}
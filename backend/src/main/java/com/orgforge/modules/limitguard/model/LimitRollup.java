@@ -0,0 +1,55 @@
+package com.orgforge.modules.limitguard.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Usage of one limit over a fixed bucket (5 minutes or 1 hour), rolled up from raw
+ * snapshots (or from 5-minute buckets for hourly ones) by LimitRollupService.
+ */
+@Entity
+@Table(
+    name = "limit_rollups",
+    uniqueConstraints = @UniqueConstraint(columnNames = {"org_id", "limit_name", "resolution_seconds", "bucket_start"})
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LimitRollup {
+
+    public static final int FIVE_MINUTES = 300;
+    public static final int HOUR = 3600;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String orgId;
+
+    @Column(nullable = false)
+    private String limitName;
+
+    @Column(nullable = false)
+    private int resolutionSeconds;
+
+    @Column(nullable = false)
+    private LocalDateTime bucketStart;
+
+    private double minPct;
+
+    private double maxPct;
+
+    private double avgPct;
+
+    private double lastPct;
+
+    private long lastUsed;
+
+    private long lastTotal;
+
+    private int sampleCount;
+}
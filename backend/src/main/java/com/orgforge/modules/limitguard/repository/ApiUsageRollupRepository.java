@@ -0,0 +1,20 @@
+package com.orgforge.modules.limitguard.repository;
+
+import com.orgforge.modules.limitguard.model.ApiUsageRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ApiUsageRollupRepository extends JpaRepository<ApiUsageRollup, Long>, ApiUsageRollupRepositoryCustom {
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ApiUsageRollup r WHERE r.hourStart < :before")
+    int deleteOlderThan(@Param("before") LocalDateTime before);
+}
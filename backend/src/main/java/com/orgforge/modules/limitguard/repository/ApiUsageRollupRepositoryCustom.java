@@ -0,0 +1,20 @@
+package com.orgforge.modules.limitguard.repository;
+
+import com.orgforge.modules.limitguard.dto.ApiConsumerDTO;
+import com.orgforge.modules.limitguard.model.ApiUsageRollup;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ApiUsageRollupRepositoryCustom {
+
+    /** What API calls are attributed to. */
+    enum Dimension { USER, CLIENT, URI }
+
+    /** Adds each delta's counts to its (org, hour, user, client, uri) row, creating missing rows. */
+    void addAll(Collection<ApiUsageRollup> deltas);
+
+    /** The org's {@code limit} heaviest consumers along {@code dimension} since {@code since}, by counted calls. */
+    List<ApiConsumerDTO> findTopConsumers(String orgId, LocalDateTime since, Dimension dimension, int limit);
+}
@@ -0,0 +1,107 @@
+package com.orgforge.modules.limitguard.repository;
+
+import com.orgforge.core.config.DatabaseDialect;
+import com.orgforge.modules.limitguard.dto.ApiConsumerDTO;
+import com.orgforge.modules.limitguard.model.ApiUsageRollup;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+@RequiredArgsConstructor
+public class ApiUsageRollupRepositoryImpl implements ApiUsageRollupRepositoryCustom {
+
+    private static final String INSERT =
+            "INSERT INTO api_usage_rollups (org_id, hour_start, user_id, client, uri, calls, counted_calls, error_calls) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPSERT_POSTGRES = INSERT
+            + " ON CONFLICT (org_id, hour_start, user_id, client, uri) DO UPDATE SET "
+            + "calls = api_usage_rollups.calls + EXCLUDED.calls, "
+            + "counted_calls = api_usage_rollups.counted_calls + EXCLUDED.counted_calls, "
+            + "error_calls = api_usage_rollups.error_calls + EXCLUDED.error_calls";
+
+    private static final String UPDATE =
+            "UPDATE api_usage_rollups SET calls = calls + ?, counted_calls = counted_calls + ?, error_calls = error_calls + ? "
+            + "WHERE org_id = ? AND hour_start = ? AND user_id = ? AND client = ? AND uri = ?";
+
+    private static final Map<Dimension, String> COLUMN = Map.of(
+            Dimension.USER, "user_id",
+            Dimension.CLIENT, "client",
+            Dimension.URI, "uri");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabaseDialect databaseDialect;
+
+    @Override
+    public void addAll(Collection<ApiUsageRollup> deltas) {
+        if (deltas.isEmpty()) return;
+        // Fixed key order so concurrent writers lock rows in the same sequence
+        List<ApiUsageRollup> sorted = new ArrayList<>(deltas);
+        sorted.sort(Comparator.comparing(ApiUsageRollup::getOrgId)
+                .thenComparing(ApiUsageRollup::getHourStart)
+                .thenComparing(ApiUsageRollup::getUserId)
+                .thenComparing(ApiUsageRollup::getClient)
+                .thenComparing(ApiUsageRollup::getUri));
+
+        if (databaseDialect.isPostgres()) {
+            jdbcTemplate.batchUpdate(UPSERT_POSTGRES, sorted, sorted.size(), this::bindInsert);
+            return;
+        }
+
+        // Portable path: update in place, insert the rows that did not exist yet
+        int[][] updated = jdbcTemplate.batchUpdate(UPDATE, sorted, sorted.size(), (ps, d) -> {
+            ps.setLong(1, d.getCalls());
+            ps.setLong(2, d.getCountedCalls());
+            ps.setLong(3, d.getErrorCalls());
+            ps.setString(4, d.getOrgId());
+            ps.setTimestamp(5, Timestamp.valueOf(d.getHourStart()));
+            ps.setString(6, d.getUserId());
+            ps.setString(7, d.getClient());
+            ps.setString(8, d.getUri());
+        });
+        List<ApiUsageRollup> missing = new ArrayList<>();
+        int i = 0;
+        for (int[] batch : updated) {
+            for (int count : batch) {
+                if (count == 0) missing.add(sorted.get(i));
+                i++;
+            }
+        }
+        if (!missing.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT, missing, missing.size(), this::bindInsert);
+        }
+    }
+
+    @Override
+    public List<ApiConsumerDTO> findTopConsumers(String orgId, LocalDateTime since, Dimension dimension, int limit) {
+        String column = COLUMN.get(dimension);
+        Long total = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(counted_calls), 0) FROM api_usage_rollups WHERE org_id = ? AND hour_start >= ?",
+                Long.class, orgId, Timestamp.valueOf(since));
+        long counted = total != null ? total : 0;
+        return jdbcTemplate.query(
+                "SELECT " + column + " AS k, SUM(calls) AS calls, SUM(counted_calls) AS counted, SUM(error_calls) AS errors "
+                        + "FROM api_usage_rollups WHERE org_id = ? AND hour_start >= ? "
+                        + "GROUP BY " + column + " ORDER BY counted DESC, calls DESC LIMIT ?",
+                (rs, n) -> new ApiConsumerDTO(rs.getString("k"), rs.getLong("calls"), rs.getLong("counted"),
+                        rs.getLong("errors"),
+                        counted > 0 ? Math.round(rs.getLong("counted") * 10000.0 / counted) / 100.0 : 0),
+                orgId, Timestamp.valueOf(since), limit);
+    }
+
+    private void bindInsert(PreparedStatement ps, ApiUsageRollup d) throws SQLException {
+        ps.setString(1, d.getOrgId());
+        ps.setTimestamp(2, Timestamp.valueOf(d.getHourStart()));
+        ps.setString(3, d.getUserId());
+        ps.setString(4, d.getClient());
+        ps.setString(5, d.getUri());
+        ps.setLong(6, d.getCalls());
+        ps.setLong(7, d.getCountedCalls());
+        ps.setLong(8, d.getErrorCalls());
+    }
+}
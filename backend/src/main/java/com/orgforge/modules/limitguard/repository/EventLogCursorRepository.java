@@ -0,0 +1,13 @@
+package com.orgforge.modules.limitguard.repository;
+
+import com.orgforge.modules.limitguard.model.EventLogCursor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface EventLogCursorRepository extends JpaRepository<EventLogCursor, Long> {
+
+    Optional<EventLogCursor> findByOrgId(String orgId);
+}
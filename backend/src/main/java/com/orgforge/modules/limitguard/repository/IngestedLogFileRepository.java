@@ -0,0 +1,22 @@
+package com.orgforge.modules.limitguard.repository;
+
+import com.orgforge.modules.limitguard.model.IngestedLogFile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IngestedLogFileRepository extends JpaRepository<IngestedLogFile, Long> {
+
+    boolean existsByOrgIdAndLogFileId(String orgId, String logFileId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IngestedLogFile f WHERE f.ingestedAt < :before")
+    int deleteOlderThan(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,14 @@
+package com.orgforge.modules.limitguard.repository;
+
+import com.orgforge.modules.limitguard.model.LimitAlertEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface LimitAlertEventRepository extends JpaRepository<LimitAlertEvent, Long> {
+
+    List<LimitAlertEvent> findByOrgIdOrderByOccurredAtDesc(String orgId, Pageable pageable);
+}
@@ -2,8 +2,13 @@ package com.orgforge.modules.limitguard.repository;
 
 import com.orgforge.modules.limitguard.model.LimitAlert;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,4 +18,13 @@ public interface LimitAlertRepository extends JpaRepository<LimitAlert, Long> {
     List<LimitAlert> findByOrgIdAndIsActiveTrue(String orgId);
 
     Optional<LimitAlert> findByOrgIdAndLimitName(String orgId, String limitName);
+
+    /** Sets the evaluated state; null timestamps leave the stored ones unchanged. */
+    @Modifying
+    @Transactional
+    @Query("UPDATE LimitAlert a SET a.state = :state, "
+            + "a.stateChangedAt = COALESCE(:changedAt, a.stateChangedAt), "
+            + "a.lastNotifiedAt = COALESCE(:notifiedAt, a.lastNotifiedAt) WHERE a.id = :id")
+    int updateState(@Param("id") Long id, @Param("state") String state,
+                    @Param("changedAt") LocalDateTime changedAt, @Param("notifiedAt") LocalDateTime notifiedAt);
 }
@@ -0,0 +1,17 @@
+package com.orgforge.modules.limitguard.repository;
+
+import com.orgforge.modules.limitguard.model.LimitAnomaly;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface LimitAnomalyRepository extends JpaRepository<LimitAnomaly, Long> {
+
+    List<LimitAnomaly> findByOrgIdAndDetectedAtAfterOrderByDetectedAt(String orgId, LocalDateTime since);
+
+    List<LimitAnomaly> findByOrgIdAndLimitNameAndDetectedAtAfterOrderByDetectedAt(
+            String orgId, String limitName, LocalDateTime since);
+}
@@ -0,0 +1,30 @@
+package com.orgforge.modules.limitguard.repository;
+
+import com.orgforge.modules.limitguard.model.LimitRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface LimitRollupRepository extends JpaRepository<LimitRollup, Long>, LimitRollupRepositoryCustom {
+
+    List<LimitRollup> findByOrgIdAndLimitNameAndResolutionSecondsAndBucketStartGreaterThanEqualOrderByBucketStart(
+            String orgId, String limitName, int resolutionSeconds, LocalDateTime since);
+
+    List<LimitRollup> findByOrgIdAndResolutionSecondsAndBucketStartGreaterThanEqualOrderByLimitNameAscBucketStartAsc(
+            String orgId, int resolutionSeconds, LocalDateTime since);
+
+    @Query("SELECT MAX(r.bucketStart) FROM LimitRollup r WHERE r.resolutionSeconds = :resolution")
+    LocalDateTime findLatestBucket(@Param("resolution") int resolutionSeconds);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM LimitRollup r WHERE r.resolutionSeconds = :resolution AND r.bucketStart < :before")
+    int deleteOlderThan(@Param("resolution") int resolutionSeconds, @Param("before") LocalDateTime before);
+}
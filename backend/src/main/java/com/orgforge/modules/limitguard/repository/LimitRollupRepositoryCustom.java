@@ -0,0 +1,11 @@
+package com.orgforge.modules.limitguard.repository;
+
+import com.orgforge.modules.limitguard.model.LimitRollup;
+
+import java.util.List;
+
+public interface LimitRollupRepositoryCustom {
+
+    /** Inserts all rollups in a single JDBC batch (IDENTITY ids disable Hibernate batching). */
+    void batchInsert(List<LimitRollup> rollups);
+}
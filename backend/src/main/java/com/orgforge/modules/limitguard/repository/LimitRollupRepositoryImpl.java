@@ -0,0 +1,35 @@
+package com.orgforge.modules.limitguard.repository;
+
+import com.orgforge.modules.limitguard.model.LimitRollup;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class LimitRollupRepositoryImpl implements LimitRollupRepositoryCustom {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void batchInsert(List<LimitRollup> rollups) {
+        if (rollups.isEmpty()) return;
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO limit_rollups (org_id, limit_name, resolution_seconds, bucket_start, min_pct, max_pct, "
+                        + "avg_pct, last_pct, last_used, last_total, sample_count) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                rollups, rollups.size(), (ps, r) -> {
+                    ps.setString(1, r.getOrgId());
+                    ps.setString(2, r.getLimitName());
+                    ps.setInt(3, r.getResolutionSeconds());
+                    ps.setTimestamp(4, Timestamp.valueOf(r.getBucketStart()));
+                    ps.setDouble(5, r.getMinPct());
+                    ps.setDouble(6, r.getMaxPct());
+                    ps.setDouble(7, r.getAvgPct());
+                    ps.setDouble(8, r.getLastPct());
+                    ps.setLong(9, r.getLastUsed());
+                    ps.setLong(10, r.getLastTotal());
+                    ps.setInt(11, r.getSampleCount());
+                });
+    }
+}
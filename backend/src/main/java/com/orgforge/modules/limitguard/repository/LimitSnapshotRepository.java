@@ -9,13 +9,18 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface LimitSnapshotRepository extends JpaRepository<LimitSnapshot, Long> {
+public interface LimitSnapshotRepository extends JpaRepository<LimitSnapshot, Long>, LimitSnapshotRepositoryCustom {
 
     List<LimitSnapshot> findByOrgId(String orgId);
 
     List<LimitSnapshot> findByOrgIdAndSnapshotAtAfterOrderBySnapshotAtDesc(String orgId, LocalDateTime since);
 
+    List<LimitSnapshot> findByOrgIdAndLimitNameAndSnapshotAtAfterOrderBySnapshotAt(
+            String orgId, String limitName, LocalDateTime since);
+
     Optional<LimitSnapshot> findFirstByOrgIdAndLimitNameOrderBySnapshotAtDesc(String orgId, String limitName);
 
-    List<LimitSnapshot> findTop5ByOrgIdAndLimitNameOrderBySnapshotAtDesc(String orgId, String limitName);
+    /** The limit's value carried into a window starting at {@code before}. */
+    Optional<LimitSnapshot> findFirstByOrgIdAndLimitNameAndSnapshotAtBeforeOrderBySnapshotAtDesc(
+            String orgId, String limitName, LocalDateTime before);
 }
@@ -0,0 +1,34 @@
+package com.orgforge.modules.limitguard.repository;
+
+import com.orgforge.modules.limitguard.model.LimitSnapshot;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface LimitSnapshotRepositoryCustom {
+
+    /** Inserts all snapshots in a single JDBC batch (IDENTITY ids disable Hibernate batching). */
+    void batchInsert(List<LimitSnapshot> snapshots);
+
+    /** The newest {@code perLimit} snapshots of each of the org's limits, oldest first per limit. */
+    List<LimitSnapshot> findRecent(String orgId, int perLimit);
+
+    /** Org order for {@link #streamFleetTop}. */
+    enum FleetOrder { PERCENTAGE, NAME, STALENESS }
+
+    /**
+     * One of an org's most used limits.
+     *
+     * @param orgMaxPercentage highest usage across all of the org's limits
+     * @param orgSampledAt     the org's newest snapshot
+     */
+    record FleetRow(String orgName, double orgMaxPercentage, LocalDateTime orgSampledAt, LimitSnapshot snapshot) {}
+
+    /**
+     * Streams the {@code perOrg} most used limits of every active org, from each limit's
+     * newest snapshot since {@code since}, in one query. An org's rows are adjacent and
+     * most used first; orgs come in {@code order}.
+     */
+    void streamFleetTop(LocalDateTime since, int perOrg, FleetOrder order, Consumer<FleetRow> sink);
+}
@@ -0,0 +1,100 @@
+package com.orgforge.modules.limitguard.repository;
+
+import com.orgforge.modules.limitguard.model.LimitSnapshot;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+@RequiredArgsConstructor
+public class LimitSnapshotRepositoryImpl implements LimitSnapshotRepositoryCustom {
+
+    private static final int FLEET_FETCH_SIZE = 500;
+
+    private static final Map<FleetOrder, String> FLEET_ORDER = Map.of(
+            FleetOrder.PERCENTAGE, "t.org_max DESC",
+            FleetOrder.NAME, "LOWER(COALESCE(t.org_name, t.org_id))",
+            FleetOrder.STALENESS, "t.org_sampled_at");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void batchInsert(List<LimitSnapshot> snapshots) {
+        if (snapshots.isEmpty()) return;
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO limit_snapshots (org_id, limit_name, limit_type, used, total, percentage, "
+                        + "forecasted_exhaustion_at, snapshot_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                snapshots, snapshots.size(), (ps, s) -> {
+                    ps.setString(1, s.getOrgId());
+                    ps.setString(2, s.getLimitName());
+                    ps.setString(3, s.getLimitType());
+                    ps.setLong(4, s.getUsed());
+                    ps.setLong(5, s.getTotal());
+                    ps.setBigDecimal(6, s.getPercentage());
+                    ps.setTimestamp(7, s.getForecastedExhaustionAt() != null
+                            ? Timestamp.valueOf(s.getForecastedExhaustionAt()) : null);
+                    ps.setTimestamp(8, Timestamp.valueOf(s.getSnapshotAt() != null ? s.getSnapshotAt() : LocalDateTime.now()));
+                });
+    }
+
+    @Override
+    public List<LimitSnapshot> findRecent(String orgId, int perLimit) {
+        return jdbcTemplate.query(
+                "SELECT id, org_id, limit_name, limit_type, used, total, percentage, forecasted_exhaustion_at, snapshot_at "
+                        + "FROM (SELECT s.*, ROW_NUMBER() OVER (PARTITION BY limit_name ORDER BY snapshot_at DESC) AS rn "
+                        + "FROM limit_snapshots s WHERE org_id = ?) ranked "
+                        + "WHERE rn <= ? ORDER BY limit_name, snapshot_at",
+                (rs, i) -> toSnapshot(rs),
+                orgId, perLimit);
+    }
+
+    // Read-only transaction so Postgres honours the fetch size and streams the rows
+    @Override
+    @Transactional(readOnly = true)
+    public void streamFleetTop(LocalDateTime since, int perOrg, FleetOrder order, Consumer<FleetRow> sink) {
+        String sql = "SELECT t.* FROM ("
+                + "SELECT l.*, "
+                + "ROW_NUMBER() OVER (PARTITION BY l.org_id ORDER BY l.percentage DESC, l.limit_name) AS org_rank, "
+                + "MAX(l.percentage) OVER (PARTITION BY l.org_id) AS org_max, "
+                + "MAX(l.snapshot_at) OVER (PARTITION BY l.org_id) AS org_sampled_at "
+                + "FROM (SELECT s.*, o.org_name, "
+                + "ROW_NUMBER() OVER (PARTITION BY s.org_id, s.limit_name ORDER BY s.snapshot_at DESC) AS rn "
+                + "FROM limit_snapshots s JOIN org_connections o ON o.org_id = s.org_id AND o.is_active = true "
+                + "WHERE s.snapshot_at >= ?) l "
+                + "WHERE l.rn = 1) t "
+                + "WHERE t.org_rank <= ? "
+                + "ORDER BY " + FLEET_ORDER.get(order) + ", t.org_id, t.org_rank";
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            ps.setFetchSize(FLEET_FETCH_SIZE);
+            ps.setTimestamp(1, Timestamp.valueOf(since));
+            ps.setInt(2, perOrg);
+            return ps;
+        }, (RowCallbackHandler) rs -> sink.accept(new FleetRow(rs.getString("org_name"), rs.getDouble("org_max"),
+                rs.getTimestamp("org_sampled_at").toLocalDateTime(), toSnapshot(rs))));
+    }
+
+    private static LimitSnapshot toSnapshot(ResultSet rs) throws SQLException {
+        Timestamp forecast = rs.getTimestamp("forecasted_exhaustion_at");
+        return LimitSnapshot.builder()
+                .id(rs.getLong("id"))
+                .orgId(rs.getString("org_id"))
+                .limitName(rs.getString("limit_name"))
+                .limitType(rs.getString("limit_type"))
+                .used(rs.getLong("used"))
+                .total(rs.getLong("total"))
+                .percentage(rs.getBigDecimal("percentage"))
+                .forecastedExhaustionAt(forecast != null ? forecast.toLocalDateTime() : null)
+                .snapshotAt(rs.getTimestamp("snapshot_at").toLocalDateTime())
+                .build();
+    }
+}
@@ -0,0 +1,183 @@
+package com.orgforge.modules.limitguard.service;
+
+import com.orgforge.core.util.CsvReader;
+import com.orgforge.modules.limitguard.model.ApiUsageRollup;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.*;
+
+/**
+ * Reads one EventLogFile CSV row by row and counts its API calls per hour, user, client
+ * and URI. Columns are looked up by header name, so API, RestApi, BulkApi and
+ * ApiTotalUsage logs all work; a column a log lacks counts as empty. Counts are kept per
+ * key until {@link #deltas()} hands them over, so memory depends on the number of
+ * distinct keys (record Ids in URIs collapse to one), never on the size of the log.
+ *
+ * <p>Not thread-safe; one instance per file.
+ */
+final class EventLogAggregator {
+
+    private static final int MAX_LENGTH = 255;
+
+    private final String orgId;
+    private final Map<Key, long[]> counts = new HashMap<>();
+    /** Hour prefix of the raw timestamp to its local hour; a daily log has 24. */
+    private final Map<String, LocalDateTime> hours = new HashMap<>();
+
+    private int timestampDerived = -1, timestamp = -1, userId = -1, connectedAppId = -1, clientName = -1,
+            uri = -1, apiResource = -1, methodName = -1, countsAgainstLimit = -1, statusCode = -1;
+    private long rows;
+
+    private record Key(LocalDateTime hour, String userId, String client, String uri) {}
+
+    EventLogAggregator(String orgId) {
+        this.orgId = orgId;
+    }
+
+    /** Reads the whole log; returns the rows counted. */
+    long read(Reader reader) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.next();
+        if (header == null) return 0;
+        columns(header);
+        List<String> row;
+        while ((row = csv.next()) != null) {
+            add(row);
+        }
+        return rows;
+    }
+
+    /** One rollup delta per distinct key counted so far. */
+    List<ApiUsageRollup> deltas() {
+        List<ApiUsageRollup> deltas = new ArrayList<>(counts.size());
+        counts.forEach((k, c) -> deltas.add(ApiUsageRollup.builder()
+                .orgId(orgId)
+                .hourStart(k.hour())
+                .userId(k.userId())
+                .client(k.client())
+                .uri(k.uri())
+                .calls(c[0])
+                .countedCalls(c[1])
+                .errorCalls(c[2])
+                .build()));
+        return deltas;
+    }
+
+    // -------------------------------------------------------------------------
+    // Private helpers
+    // -------------------------------------------------------------------------
+
+    private void columns(List<String> header) {
+        for (int i = 0; i < header.size(); i++) {
+            switch (header.get(i).trim().toUpperCase()) {
+                case "TIMESTAMP_DERIVED" -> timestampDerived = i;
+                case "TIMESTAMP" -> timestamp = i;
+                case "USER_ID" -> userId = i;
+                case "CONNECTED_APP_ID" -> connectedAppId = i;
+                case "CLIENT_NAME" -> clientName = i;
+                case "URI" -> uri = i;
+                case "API_RESOURCE" -> apiResource = i;
+                case "METHOD_NAME" -> methodName = i;
+                case "COUNTS_AGAINST_API_LIMIT" -> countsAgainstLimit = i;
+                case "STATUS_CODE" -> statusCode = i;
+                default -> { }
+            }
+        }
+    }
+
+    private void add(List<String> row) {
+        LocalDateTime hour = hour(row);
+        if (hour == null) return;
+        rows++;
+        String client = field(row, connectedAppId);
+        if (client.isEmpty()) client = field(row, clientName);
+        String path = field(row, uri);
+        if (path.isEmpty()) path = field(row, apiResource);
+        if (path.isEmpty()) path = field(row, methodName);
+
+        long[] c = counts.computeIfAbsent(
+                new Key(hour, truncate(field(row, userId), 18), truncate(client, MAX_LENGTH), normalize(path)),
+                k -> new long[3]);
+        c[0]++;
+        String counted = field(row, countsAgainstLimit);
+        if (counted.isEmpty() || counted.equalsIgnoreCase("true") || counted.equals("1")) c[1]++;
+        if (isError(field(row, statusCode))) c[2]++;
+    }
+
+    /**
+     * The row's hour in server-local time, from TIMESTAMP_DERIVED (2024-05-01T12:34:56.789Z)
+     * or else TIMESTAMP (20240501123456.789, UTC); null when neither parses.
+     */
+    private LocalDateTime hour(List<String> row) {
+        String derived = field(row, timestampDerived);
+        if (derived.length() >= 13) {
+            return hours.computeIfAbsent(derived.substring(0, 13), p -> parse(p + ":00:00Z"));
+        }
+        String raw = field(row, timestamp);
+        if (raw.length() >= 10) {
+            String p = raw.substring(0, 10);
+            return hours.computeIfAbsent(p, k -> parse(k.substring(0, 4) + "-" + k.substring(4, 6) + "-"
+                    + k.substring(6, 8) + "T" + k.substring(8, 10) + ":00:00Z"));
+        }
+        return null;
+    }
+
+    private static LocalDateTime parse(String iso) {
+        try {
+            return OffsetDateTime.parse(iso).withOffsetSameInstant(ZoneOffset.UTC)
+                    .atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * The path without its query string and with every 15 or 18 character alphanumeric
+     * segment that contains a digit (a record Id) replaced by {@code {id}}.
+     */
+    static String normalize(String path) {
+        int query = path.indexOf('?');
+        if (query >= 0) path = path.substring(0, query);
+        StringBuilder out = new StringBuilder(Math.min(path.length(), MAX_LENGTH));
+        int start = 0;
+        while (start <= path.length()) {
+            int end = path.indexOf('/', start);
+            if (end < 0) end = path.length();
+            if (start > 0) out.append('/');
+            out.append(isRecordId(path, start, end) ? "{id}" : path.substring(start, end));
+            start = end + 1;
+        }
+        return truncate(out.toString(), MAX_LENGTH);
+    }
+
+    private static boolean isRecordId(String s, int from, int to) {
+        int length = to - from;
+        if (length != 15 && length != 18) return false;
+        boolean digit = false;
+        for (int i = from; i < to; i++) {
+            char ch = s.charAt(i);
+            if (Character.isDigit(ch)) digit = true;
+            else if (!Character.isLetter(ch) || ch > 'z') return false;
+        }
+        return digit;
+    }
+
+    private static boolean isError(String status) {
+        if (status.length() != 3) return false;
+        char first = status.charAt(0);
+        return first == '4' || first == '5';
+    }
+
+    private static String field(List<String> row, int index) {
+        return index >= 0 && index < row.size() ? row.get(index).trim() : "";
+    }
+
+    private static String truncate(String s, int max) {
+        return s.length() <= max ? s : s.substring(0, max);
+    }
+}
@@ -0,0 +1,236 @@
+package com.orgforge.modules.limitguard.service;
+
+import com.orgforge.core.config.WorkerPools;
+import com.orgforge.core.org.OrgConnection;
+import com.orgforge.core.org.OrgConnectionRepository;
+import com.orgforge.core.salesforce.RestApiClient;
+import com.orgforge.core.salesforce.SalesforceDates;
+import com.orgforge.modules.limitguard.dto.ApiConsumerDTO;
+import com.orgforge.modules.limitguard.model.ApiUsageRollup;
+import com.orgforge.modules.limitguard.model.EventLogCursor;
+import com.orgforge.modules.limitguard.model.IngestedLogFile;
+import com.orgforge.modules.limitguard.repository.ApiUsageRollupRepository;
+import com.orgforge.modules.limitguard.repository.ApiUsageRollupRepositoryCustom.Dimension;
+import com.orgforge.modules.limitguard.repository.EventLogCursorRepository;
+import com.orgforge.modules.limitguard.repository.IngestedLogFileRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.HttpStatusCodeException;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+
+/**
+ * Attributes API consumption to users, clients and URIs from each org's EventLogFile
+ * records (by default the ApiTotalUsage log, which every org gets with a day's retention).
+ *
+ * <p>Every org keeps an {@link EventLogCursor}; a poll lists files created at or after
+ * its watermark, oldest first, and streams each {@code LogFile} body straight into an
+ * {@link EventLogAggregator}, which parses it row by row into hourly counts. Only once
+ * the download has finished are the counts added to {@code api_usage_rollups}, together
+ * with the file's {@link IngestedLogFile} marker in one short transaction, so a file is
+ * counted exactly once, a failed one is retried whole, and no connection is held while
+ * a log of several GB downloads. The watermark advances past each file as it completes.
+ * Orgs are polled on a fixed pool of {@code parallelism} threads, never two polls of one
+ * org at once.
+ */
+@Slf4j
+@Service
+public class EventLogIngestionService {
+
+    private static final String FILES_SOQL =
+            "SELECT Id, EventType, LogDate, LogFileLength, CreatedDate FROM EventLogFile "
+                    + "WHERE EventType IN (%s) AND Interval = '%s' AND CreatedDate >= %s ORDER BY CreatedDate, Id";
+
+    private final EventLogCursorRepository cursorRepo;
+    private final IngestedLogFileRepository ingestedRepo;
+    private final ApiUsageRollupRepository usageRepo;
+    private final OrgConnectionRepository orgRepo;
+    private final RestApiClient restApiClient;
+    private final TransactionTemplate tx;
+    private final ExecutorService pool;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    @Value("${app.limit-guard.event-logs.enabled:true}")
+    private boolean enabled;
+
+    /** Comma-separated EventLogFile event types to count; each call should appear in only one. */
+    @Value("${app.limit-guard.event-logs.event-types:ApiTotalUsage}")
+    private String eventTypes;
+
+    /** Daily or Hourly; orgs with hourly logs have both, and counting both would double calls. */
+    @Value("${app.limit-guard.event-logs.interval:Daily}")
+    private String interval;
+
+    /** How far back the first poll of a new org reaches. */
+    @Value("${app.limit-guard.event-logs.initial-lookback-days:2}")
+    private long initialLookbackDays;
+
+    /** Files ingested per org per poll; the rest wait for the next poll. */
+    @Value("${app.limit-guard.event-logs.max-files:50}")
+    private int maxFiles;
+
+    /** Days of rollups kept; 0 keeps them forever. */
+    @Value("${app.limit-guard.event-logs.retention-days:90}")
+    private long retentionDays;
+
+    public EventLogIngestionService(EventLogCursorRepository cursorRepo,
+                                    IngestedLogFileRepository ingestedRepo,
+                                    ApiUsageRollupRepository usageRepo,
+                                    OrgConnectionRepository orgRepo,
+                                    RestApiClient restApiClient,
+                                    PlatformTransactionManager transactionManager,
+                                    WorkerPools workerPools,
+                                    @Value("${app.limit-guard.event-logs.parallelism:2}") int parallelism) {
+        this.cursorRepo = cursorRepo;
+        this.ingestedRepo = ingestedRepo;
+        this.usageRepo = usageRepo;
+        this.orgRepo = orgRepo;
+        this.restApiClient = restApiClient;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.pool = workerPools.fixed("OrgForge-EventLogs", parallelism);
+    }
+
+    @Scheduled(fixedDelayString = "${app.limit-guard.event-logs.interval-ms:3600000}",
+               initialDelayString = "${app.limit-guard.event-logs.initial-delay-ms:180000}")
+    public void ingestAll() {
+        if (!enabled) return;
+        for (OrgConnection org : orgRepo.findByIsActiveTrue()) {
+            submit(org);
+        }
+        if (retentionDays > 0) {
+            LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+            int rollups = usageRepo.deleteOlderThan(cutoff);
+            ingestedRepo.deleteOlderThan(cutoff);
+            if (rollups > 0) log.debug("Pruned {} API usage rollups before {}", rollups, cutoff);
+        }
+    }
+
+    /** Queues a poll of one org; false if one is already queued or running. */
+    public boolean submit(OrgConnection org) {
+        if (!inFlight.add(org.getOrgId())) return false;
+        pool.submit(() -> {
+            try {
+                ingestOrg(org);
+            } catch (Exception e) {
+                log.error("EventLogFile ingestion failed for org {}: {}", org.getOrgId(), e.getMessage(), e);
+            } finally {
+                inFlight.remove(org.getOrgId());
+            }
+        });
+        return true;
+    }
+
+    public boolean submit(String orgId) {
+        OrgConnection org = orgRepo.findByOrgId(orgId)
+                .orElseThrow(() -> new IllegalArgumentException("Org not found: " + orgId));
+        return submit(org);
+    }
+
+    public Optional<EventLogCursor> getCursor(String orgId) {
+        return cursorRepo.findByOrgId(orgId);
+    }
+
+    /** The org's heaviest API consumers over the last {@code hours}, by calls counted against the daily limit. */
+    public List<ApiConsumerDTO> getTopConsumers(String orgId, int hours, String by, int limit) {
+        if (hours <= 0) throw new IllegalArgumentException("hours must be positive: " + hours);
+        Dimension dimension;
+        try {
+            dimension = Dimension.valueOf(by.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown dimension: " + by);
+        }
+        return usageRepo.findTopConsumers(orgId, LocalDateTime.now().minusHours(hours), dimension,
+                Math.max(1, Math.min(limit, 500)));
+    }
+
+    // -------------------------------------------------------------------------
+    // Polling
+    // -------------------------------------------------------------------------
+
+    private void ingestOrg(OrgConnection org) {
+        EventLogCursor cursor = cursorRepo.findByOrgId(org.getOrgId())
+                .orElseGet(() -> EventLogCursor.builder()
+                        .orgId(org.getOrgId())
+                        .watermark(SalesforceDates.soqlLiteral(LocalDateTime.now().minusDays(initialLookbackDays)))
+                        .build());
+        int files = 0;
+        long rows = 0;
+        try {
+            String types = Arrays.stream(eventTypes.split(",")).map(String::trim).filter(t -> !t.isEmpty())
+                    .map(t -> "'" + t.replace("'", "") + "'").collect(Collectors.joining(","));
+            Map<?, ?> page = restApiClient.query(org,
+                    String.format(FILES_SOQL, types, interval.replace("'", ""), cursor.getWatermark()));
+            outer:
+            while (page != null) {
+                if (page.get("records") instanceof List<?> records) {
+                    for (Object rec : records) {
+                        if (!(rec instanceof Map<?, ?> file)) continue;
+                        if (files >= maxFiles) break outer;
+                        long read = ingestFile(org, cursor, file);
+                        if (read >= 0) {
+                            files++;
+                            rows += read;
+                        }
+                        OffsetDateTime created = SalesforceDates.parse(file.get("CreatedDate"));
+                        if (created != null) cursor.setWatermark(SalesforceDates.soqlLiteral(created));
+                        cursorRepo.save(cursor);
+                    }
+                }
+                Object next = page.get("nextRecordsUrl");
+                if (Boolean.TRUE.equals(page.get("done")) || next == null) break;
+                page = restApiClient.queryMore(org, next.toString());
+            }
+            cursor.setLastError(null);
+        } catch (HttpStatusCodeException e) {
+            // INVALID_TYPE: the org has no API access to EventLogFile
+            cursor.setLastError(e.getStatusCode() + ": " + e.getResponseBodyAsString());
+            log.debug("Could not poll EventLogFile for org {}: {}", org.getOrgId(), e.getResponseBodyAsString());
+        } catch (Exception e) {
+            cursor.setLastError(e.getMessage());
+            log.warn("Could not poll EventLogFile for org {}: {}", org.getOrgId(), e.getMessage());
+        }
+        cursor.setLastPolledAt(LocalDateTime.now());
+        cursorRepo.save(cursor);
+        if (files > 0) log.info("Ingested {} event log file(s), {} rows, for org {}", files, rows, org.getOrgId());
+    }
+
+    /** Streams one log into the rollups; returns its rows, -1 if it was already counted. */
+    private long ingestFile(OrgConnection org, EventLogCursor cursor, Map<?, ?> file) {
+        String id = String.valueOf(file.get("Id"));
+        if (ingestedRepo.existsByOrgIdAndLogFileId(org.getOrgId(), id)) return -1;
+        String eventType = String.valueOf(file.get("EventType"));
+
+        EventLogAggregator aggregator = new EventLogAggregator(org.getOrgId());
+        Long rows = restApiClient.download(org, "/sobjects/EventLogFile/" + id + "/LogFile", response ->
+                aggregator.read(new BufferedReader(
+                        new InputStreamReader(response.getBody(), StandardCharsets.UTF_8), 1 << 16)));
+        long read = rows != null ? rows : 0;
+        List<ApiUsageRollup> deltas = aggregator.deltas();
+        tx.executeWithoutResult(status -> {
+            usageRepo.addAll(deltas);
+            ingestedRepo.save(IngestedLogFile.builder()
+                    .orgId(org.getOrgId())
+                    .logFileId(id)
+                    .eventType(eventType)
+                    .logDate(SalesforceDates.toLocal(file.get("LogDate")))
+                    .rowCount(read)
+                    .build());
+        });
+        cursor.setFilesIngested(cursor.getFilesIngested() + 1);
+        cursor.setRowsIngested(cursor.getRowsIngested() + read);
+        log.debug("Ingested {} log {} ({} rows) for org {}", eventType, id, read, org.getOrgId());
+        return read;
+    }
+}
@@ -0,0 +1,175 @@
+package com.orgforge.modules.limitguard.service;
+
+import com.orgforge.core.notification.NotificationService;
+import com.orgforge.core.org.OrgConnection;
+import com.orgforge.modules.limitguard.model.LimitAlert;
+import com.orgforge.modules.limitguard.model.LimitAlertEvent;
+import com.orgforge.modules.limitguard.model.LimitSnapshot;
+import com.orgforge.modules.limitguard.repository.LimitAlertEventRepository;
+import com.orgforge.modules.limitguard.repository.LimitAlertRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Evaluates every stored limit sample against the org's active {@link LimitAlert}s.
+ *
+ * <p>Alerts are indexed in memory by org, then limit name, loaded with one query the
+ * first time an org is evaluated and dropped when its alerts change; an org without
+ * alerts costs one map lookup per sample. An alert fires when usage reaches its
+ * threshold and clears only once usage drops {@code hysteresis-pct} points below it.
+ * Firing is announced through {@link NotificationService#notifyAlert} at most once per
+ * {@code cooldown-minutes}; a firing alert silenced by the cool-down is announced
+ * when it ends if the alert is still firing. Every transition is stored as a
+ * {@link LimitAlertEvent}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LimitAlertEngine {
+
+    private static final String MODULE = "LimitGuard";
+
+    private final LimitAlertRepository alertRepo;
+    private final LimitAlertEventRepository eventRepo;
+    private final NotificationService notificationService;
+    private final Map<String, Map<String, Rule>> rulesByOrg = new ConcurrentHashMap<>();
+
+    /** Points below the threshold usage must fall before a firing alert clears. */
+    @Value("${app.limit-guard.alerts.hysteresis-pct:5}")
+    private double hysteresisPct;
+
+    @Value("${app.limit-guard.alerts.cooldown-minutes:30}")
+    private long cooldownMinutes;
+
+    /** In-memory copy of one alert's configuration and state. */
+    private static final class Rule {
+        final long alertId;
+        final double threshold;
+        String state;
+        LocalDateTime lastNotifiedAt;
+        /** The current FIRING state has been notified (or there is nothing to announce). */
+        boolean announced;
+
+        Rule(LimitAlert alert) {
+            this.alertId = alert.getId();
+            this.threshold = alert.getThresholdPct().doubleValue();
+            this.state = alert.getState() != null ? alert.getState() : LimitAlert.OK;
+            this.lastNotifiedAt = alert.getLastNotifiedAt();
+            this.announced = !LimitAlert.FIRING.equals(state) || (lastNotifiedAt != null
+                    && (alert.getStateChangedAt() == null || !lastNotifiedAt.isBefore(alert.getStateChangedAt())));
+        }
+    }
+
+    /** What one sample did to one rule. */
+    private record Outcome(Rule rule, LimitSnapshot sample, String from, String to, boolean announce) {}
+
+    public void evaluate(OrgConnection org, List<LimitSnapshot> samples) {
+        Map<String, Rule> rules = rulesByOrg.computeIfAbsent(org.getOrgId(), this::load);
+        if (rules.isEmpty()) return;
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Outcome> outcomes = new ArrayList<>();
+        for (LimitSnapshot sample : samples) {
+            Rule rule = rules.get(sample.getLimitName());
+            if (rule == null) continue;
+            Outcome outcome = apply(rule, sample, now);
+            if (outcome != null) outcomes.add(outcome);
+        }
+        if (outcomes.isEmpty()) return;
+
+        List<LimitAlertEvent> events = new ArrayList<>();
+        for (Outcome o : outcomes) {
+            if (!o.from().equals(o.to())) {
+                events.add(LimitAlertEvent.builder()
+                        .alertId(o.rule().alertId)
+                        .orgId(org.getOrgId())
+                        .limitName(o.sample().getLimitName())
+                        .fromState(o.from())
+                        .toState(o.to())
+                        .percentage(o.sample().getPercentage().doubleValue())
+                        .thresholdPct(o.rule().threshold)
+                        .notified(o.announce())
+                        .occurredAt(now)
+                        .build());
+            }
+            alertRepo.updateState(o.rule().alertId, o.to(), o.from().equals(o.to()) ? null : now,
+                    o.announce() ? now : null);
+            if (o.announce()) announce(org, o);
+        }
+        eventRepo.saveAll(events);
+    }
+
+    /** Drops the org's cached alerts; the next sample reloads them. */
+    public void invalidate(String orgId) {
+        rulesByOrg.remove(orgId);
+    }
+
+    public List<LimitAlertEvent> getEvents(String orgId, int limit) {
+        return eventRepo.findByOrgIdOrderByOccurredAtDesc(orgId, PageRequest.of(0, Math.max(1, Math.min(limit, 500))));
+    }
+
+    // -------------------------------------------------------------------------
+    // Private helpers
+    // -------------------------------------------------------------------------
+
+    /** Moves the rule for one sample; null when nothing changed and nothing is due. */
+    private Outcome apply(Rule rule, LimitSnapshot sample, LocalDateTime now) {
+        double pct = sample.getPercentage().doubleValue();
+        synchronized (rule) {
+            String from = rule.state;
+            if (LimitAlert.OK.equals(from) && pct >= rule.threshold) {
+                rule.state = LimitAlert.FIRING;
+                rule.announced = false;
+            } else if (LimitAlert.FIRING.equals(from) && pct < rule.threshold - hysteresisPct) {
+                rule.state = LimitAlert.OK;
+            }
+            boolean notify;
+            if (LimitAlert.FIRING.equals(rule.state)) {
+                notify = !rule.announced && cooledDown(rule, now);
+                if (notify) rule.announced = true;
+            } else {
+                // Announce a recovery only when the firing was announced
+                notify = LimitAlert.FIRING.equals(from) && rule.announced;
+                rule.announced = true;
+            }
+            if (notify) rule.lastNotifiedAt = now;
+            if (from.equals(rule.state) && !notify) return null;
+            return new Outcome(rule, sample, from, rule.state, notify);
+        }
+    }
+
+    private boolean cooledDown(Rule rule, LocalDateTime now) {
+        return rule.lastNotifiedAt == null || !rule.lastNotifiedAt.plusMinutes(cooldownMinutes).isAfter(now);
+    }
+
+    private void announce(OrgConnection org, Outcome o) {
+        double pct = o.sample().getPercentage().doubleValue();
+        if (LimitAlert.FIRING.equals(o.to())) {
+            notificationService.notifyAlert(org.getId(), MODULE, "LIMIT_THRESHOLD",
+                    pct >= 90 ? "CRITICAL" : "WARNING",
+                    String.format("%s is at %.1f%% (alert threshold %.0f%%)",
+                            o.sample().getLimitName(), pct, o.rule().threshold));
+        } else {
+            notificationService.notifyAlert(org.getId(), MODULE, "LIMIT_RECOVERED", "INFO",
+                    String.format("%s is back to %.1f%% (alert threshold %.0f%%)",
+                            o.sample().getLimitName(), pct, o.rule().threshold));
+        }
+        log.info("Limit alert {} -> {} for org {}: {} at {}%",
+                o.from(), o.to(), org.getOrgId(), o.sample().getLimitName(), pct);
+    }
+
+    private Map<String, Rule> load(String orgId) {
+        Map<String, Rule> rules = new HashMap<>();
+        for (LimitAlert alert : alertRepo.findByOrgIdAndIsActiveTrue(orgId)) {
+            if (alert.getThresholdPct() != null) rules.put(alert.getLimitName(), new Rule(alert));
+        }
+        return rules.isEmpty() ? Map.of() : rules;
+    }
+}
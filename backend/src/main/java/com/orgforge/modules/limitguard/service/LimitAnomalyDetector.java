@@ -0,0 +1,175 @@
+package com.orgforge.modules.limitguard.service;
+
+import com.orgforge.core.notification.NotificationService;
+import com.orgforge.core.org.OrgConnection;
+import com.orgforge.modules.limitguard.model.LimitAnomaly;
+import com.orgforge.modules.limitguard.model.LimitSnapshot;
+import com.orgforge.modules.limitguard.repository.LimitAnomalyRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Online detector for sudden rises in limit usage, run on every sample as it is collected.
+ *
+ * <p>Each (org, limit) keeps a handful of numbers: its previous sample, an exponentially
+ * weighted mean of the change per hour and an exponentially weighted mean absolute
+ * deviation around it, a robust stand-in for the standard deviation. A sample scores
+ * {@code (rate - mean) / (1.25 × deviation)}; it is an anomaly when the score reaches
+ * {@code threshold} and usage rose by at least {@code min-change-pct} points. Weights
+ * are per hour of elapsed time, so irregular sampling is handled, and anomalous rates
+ * are clipped to the threshold before they update the baseline so one spike does not
+ * mask the next. Only rises are flagged; falls (resets, freed storage) are learned
+ * from but never reported.
+ *
+ * <p>Anomalies are stored as {@link LimitAnomaly} rows, which the history chart shows
+ * as annotations, and announced on the org's alerts topic, at most once per limit per
+ * {@code cooldown-minutes}. State lives in memory only and is relearnt after a restart.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LimitAnomalyDetector {
+
+    private static final String MODULE = "LimitGuard";
+    /** Mean absolute deviation to standard deviation, for normally distributed changes. */
+    private static final double MAD_TO_SIGMA = 1.25;
+    /** Smallest deviation used, in points per hour, so a perfectly flat limit cannot divide by zero. */
+    private static final double MIN_DEVIATION = 0.01;
+
+    private final LimitAnomalyRepository anomalyRepo;
+    private final NotificationService notificationService;
+    private final Map<String, Map<String, State>> byOrg = new ConcurrentHashMap<>();
+
+    @Value("${app.limit-guard.anomalies.enabled:true}")
+    private boolean enabled;
+
+    /** Robust deviations above the usual rate that make an anomaly. */
+    @Value("${app.limit-guard.anomalies.threshold:4}")
+    private double threshold;
+
+    /** Smallest rise, in percentage points, reported at all. */
+    @Value("${app.limit-guard.anomalies.min-change-pct:1}")
+    private double minChangePct;
+
+    /** Baseline weight per hour of elapsed time. */
+    @Value("${app.limit-guard.anomalies.alpha-per-hour:0.2}")
+    private double alphaPerHour;
+
+    /** Samples seen before a limit is scored. */
+    @Value("${app.limit-guard.anomalies.warmup-samples:12}")
+    private int warmupSamples;
+
+    @Value("${app.limit-guard.anomalies.cooldown-minutes:30}")
+    private long cooldownMinutes;
+
+    /** One limit's baseline. */
+    private static final class State {
+        long lastEpoch = Long.MIN_VALUE;
+        double lastPct;
+        int samples;
+        double mean;
+        double deviation;
+        long lastAnomalyEpoch = Long.MIN_VALUE;
+    }
+
+    public void observe(OrgConnection org, List<LimitSnapshot> samples) {
+        if (!enabled || samples.isEmpty()) return;
+        Map<String, State> states = byOrg.computeIfAbsent(org.getOrgId(), k -> new ConcurrentHashMap<>());
+        List<LimitAnomaly> found = new ArrayList<>();
+        for (LimitSnapshot sample : samples) {
+            State state = states.computeIfAbsent(sample.getLimitName(), k -> new State());
+            LimitAnomaly anomaly = score(state, sample);
+            if (anomaly != null) found.add(anomaly);
+        }
+        if (found.isEmpty()) return;
+
+        anomalyRepo.saveAll(found);
+        for (LimitAnomaly a : found) {
+            notificationService.notifyAlert(org.getId(), MODULE, "LIMIT_ANOMALY", a.getSeverity(),
+                    String.format("%s jumped from %.1f%% to %.1f%% (%.1f points/hour, usually %.1f)",
+                            a.getLimitName(), a.getPreviousPercentage(), a.getPercentage(),
+                            a.getRatePerHour(), a.getExpectedRate()));
+            log.info("Limit anomaly for org {}: {} {}% -> {}% (score {})", org.getOrgId(), a.getLimitName(),
+                    a.getPreviousPercentage(), a.getPercentage(), Math.round(a.getScore() * 10) / 10.0);
+        }
+    }
+
+    /** Anomalies of the org (one limit, when given) over the last {@code days}, oldest first. */
+    public List<LimitAnomaly> getAnomalies(String orgId, String limitName, int days) {
+        if (days <= 0) throw new IllegalArgumentException("days must be positive: " + days);
+        LocalDateTime since = LocalDateTime.now().minusDays(days);
+        return limitName == null || limitName.isBlank()
+                ? anomalyRepo.findByOrgIdAndDetectedAtAfterOrderByDetectedAt(orgId, since)
+                : anomalyRepo.findByOrgIdAndLimitNameAndDetectedAtAfterOrderByDetectedAt(orgId, limitName, since);
+    }
+
+    /** Drops an org's baselines, e.g. when it is disconnected. */
+    public void evict(String orgId) {
+        byOrg.remove(orgId);
+    }
+
+    // -------------------------------------------------------------------------
+    // Private helpers
+    // -------------------------------------------------------------------------
+
+    /** Scores one sample and folds it into the baseline; returns the anomaly, if any. */
+    private LimitAnomaly score(State state, LimitSnapshot sample) {
+        long epoch = sample.getSnapshotAt().toEpochSecond(ZoneOffset.UTC);
+        double pct = sample.getPercentage().doubleValue();
+        synchronized (state) {
+            if (state.lastEpoch == Long.MIN_VALUE) {
+                state.lastEpoch = epoch;
+                state.lastPct = pct;
+                return null;
+            }
+            if (epoch <= state.lastEpoch) return null;
+            double hours = (epoch - state.lastEpoch) / 3600.0;
+            double previous = state.lastPct;
+            double rate = (pct - previous) / hours;
+
+            double scale = MAD_TO_SIGMA * Math.max(state.deviation, MIN_DEVIATION);
+            double score = (rate - state.mean) / scale;
+            boolean anomalous = state.samples >= warmupSamples && score >= threshold && pct - previous >= minChangePct;
+            LimitAnomaly anomaly = null;
+            if (anomalous && (state.lastAnomalyEpoch == Long.MIN_VALUE
+                    || epoch - state.lastAnomalyEpoch >= cooldownMinutes * 60)) {
+                state.lastAnomalyEpoch = epoch;
+                anomaly = LimitAnomaly.builder()
+                        .orgId(sample.getOrgId())
+                        .limitName(sample.getLimitName())
+                        .detectedAt(sample.getSnapshotAt())
+                        .percentage(pct)
+                        .previousPercentage(previous)
+                        .ratePerHour(round(rate))
+                        .expectedRate(round(state.mean))
+                        .score(score)
+                        .severity(pct >= 90 || score >= 2 * threshold ? "CRITICAL" : "WARNING")
+                        .build();
+            }
+
+            // Clip anomalous rates so a spike barely moves the baseline
+            double learned = anomalous ? state.mean + threshold * scale : rate;
+            double weight = 1 - Math.pow(1 - alphaPerHour, hours);
+            double error = learned - state.mean;
+            state.mean += weight * error;
+            state.deviation += weight * (Math.abs(error) - state.deviation);
+            state.samples++;
+            state.lastEpoch = epoch;
+            state.lastPct = pct;
+            return anomaly;
+        }
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
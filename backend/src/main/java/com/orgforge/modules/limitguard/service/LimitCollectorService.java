@@ -0,0 +1,244 @@
+package com.orgforge.modules.limitguard.service;
+
+import com.orgforge.core.config.WorkerPools;
+import com.orgforge.core.org.OrgConnection;
+import com.orgforge.core.org.OrgConnectionRepository;
+import com.orgforge.modules.limitguard.dto.CollectorStatusDTO;
+import com.orgforge.modules.limitguard.dto.LimitDataDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples /limits of every active org in the background, so limit history and
+ * forecasts no longer depend on someone opening LimitGuard with a cold cache.
+ *
+ * <p>Each org gets its own due time. A new org's first sample lands at a random point
+ * within one interval and every later one is spread by {@code jitter} of the interval,
+ * so orgs connected together do not sample together. A scheduler tick hands due orgs
+ * to a fixed pool of {@code app.limit-guard.collector.parallelism} threads, never two
+ * samples of one org at once. After a failure an org backs off exponentially (with
+ * jitter) up to {@code backoff-max-ms}; a success resets it.
+ *
+ * <p>Collection lag is published as {@code limitguard.collector.*} meters and per org
+ * through {@link #getStatus}.
+ */
+@Slf4j
+@Service
+public class LimitCollectorService {
+
+    private final LimitGuardService limitGuardService;
+    private final LimitSeriesStore seriesStore;
+    private final LimitAlertEngine alertEngine;
+    private final LimitAnomalyDetector anomalyDetector;
+    private final OrgConnectionRepository orgConnectionRepository;
+    private final CacheManager cacheManager;
+    private final ExecutorService pool;
+    private final Map<String, OrgSchedule> schedules = new ConcurrentHashMap<>();
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final Timer startLag;
+    private final Timer duration;
+
+    @Value("${app.limit-guard.collector.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.limit-guard.collector.interval-ms:300000}")
+    private long intervalMs;
+
+    /** Fraction of the interval each due time is moved by, either way. */
+    @Value("${app.limit-guard.collector.jitter:0.1}")
+    private double jitter;
+
+    @Value("${app.limit-guard.collector.backoff-base-ms:60000}")
+    private long backoffBaseMs;
+
+    @Value("${app.limit-guard.collector.backoff-max-ms:3600000}")
+    private long backoffMaxMs;
+
+    /** Mutable per-org state; written only by the org's own sample or the tick. */
+    private static class OrgSchedule {
+        volatile long nextDueMs;
+        volatile long lastAttemptMs;
+        volatile long lastSuccessMs;
+        volatile long startLagMs;
+        volatile long durationMs;
+        volatile int failures;
+        volatile long samples;
+        volatile String lastError;
+
+        OrgSchedule(long nextDueMs) {
+            this.nextDueMs = nextDueMs;
+        }
+    }
+
+    public LimitCollectorService(LimitGuardService limitGuardService,
+                                 LimitSeriesStore seriesStore,
+                                 LimitAlertEngine alertEngine,
+                                 LimitAnomalyDetector anomalyDetector,
+                                 OrgConnectionRepository orgConnectionRepository,
+                                 CacheManager cacheManager,
+                                 MeterRegistry meterRegistry,
+                                 WorkerPools workerPools,
+                                 @Value("${app.limit-guard.collector.parallelism:4}") int parallelism) {
+        this.limitGuardService = limitGuardService;
+        this.seriesStore = seriesStore;
+        this.alertEngine = alertEngine;
+        this.anomalyDetector = anomalyDetector;
+        this.orgConnectionRepository = orgConnectionRepository;
+        this.cacheManager = cacheManager;
+        this.pool = workerPools.fixed("OrgForge-LimitCollector", parallelism);
+        this.startLag = Timer.builder("limitguard.collector.start.lag")
+                .description("Delay between a sample's due time and its start")
+                .register(meterRegistry);
+        this.duration = Timer.builder("limitguard.collector.duration")
+                .description("Time to read and store one org's limits")
+                .register(meterRegistry);
+        Gauge.builder("limitguard.collector.staleness.max", this, LimitCollectorService::maxStalenessSeconds)
+                .description("Seconds since the least recently sampled org was last sampled")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("limitguard.collector.failing", schedules,
+                        s -> s.values().stream().filter(o -> o.failures > 0).count())
+                .description("Orgs whose last sample failed")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.limit-guard.collector.tick-ms:15000}",
+               initialDelayString = "${app.limit-guard.collector.initial-delay-ms:30000}")
+    public void tick() {
+        if (!enabled) return;
+        long now = System.currentTimeMillis();
+        Set<String> active = new HashSet<>();
+        for (OrgConnection org : orgConnectionRepository.findByIsActiveTrue()) {
+            active.add(org.getOrgId());
+            OrgSchedule schedule = schedules.computeIfAbsent(org.getOrgId(),
+                    k -> new OrgSchedule(now + ThreadLocalRandom.current().nextLong(Math.max(intervalMs, 1))));
+            if (now >= schedule.nextDueMs) submit(org, schedule);
+        }
+        for (String orgId : List.copyOf(schedules.keySet())) {
+            if (!active.contains(orgId)) {
+                schedules.remove(orgId);
+                seriesStore.evict(orgId);
+                alertEngine.invalidate(orgId);
+                anomalyDetector.evict(orgId);
+            }
+        }
+    }
+
+    /** Samples one org as soon as a worker is free; false if a sample is already queued or running. */
+    public boolean collectNow(String orgId) {
+        OrgConnection org = orgConnectionRepository.findByOrgId(orgId)
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "No active OrgConnection found for orgId: " + orgId));
+        long now = System.currentTimeMillis();
+        OrgSchedule schedule = schedules.computeIfAbsent(orgId, k -> new OrgSchedule(now));
+        schedule.nextDueMs = now;
+        return submit(org, schedule);
+    }
+
+    /** Collection state of one org, or of every collected org when orgId is null. */
+    public List<CollectorStatusDTO> getStatus(String orgId) {
+        long now = System.currentTimeMillis();
+        List<CollectorStatusDTO> out = new ArrayList<>();
+        schedules.forEach((id, s) -> {
+            if (orgId == null || orgId.equals(id)) out.add(toStatus(id, s, now));
+        });
+        out.sort(Comparator.comparing(CollectorStatusDTO::orgId));
+        return out;
+    }
+
+    // -------------------------------------------------------------------------
+    // Sampling
+    // -------------------------------------------------------------------------
+
+    private boolean submit(OrgConnection org, OrgSchedule schedule) {
+        if (!inFlight.add(org.getOrgId())) return false;
+        long dueMs = schedule.nextDueMs;
+        pool.submit(() -> {
+            try {
+                collect(org, schedule, dueMs);
+            } finally {
+                inFlight.remove(org.getOrgId());
+            }
+        });
+        return true;
+    }
+
+    private void collect(OrgConnection org, OrgSchedule schedule, long dueMs) {
+        long started = System.currentTimeMillis();
+        schedule.lastAttemptMs = started;
+        schedule.startLagMs = Math.max(started - dueMs, 0);
+        startLag.record(schedule.startLagMs, TimeUnit.MILLISECONDS);
+        try {
+            List<LimitDataDTO> limits = limitGuardService.sample(org);
+            var cache = cacheManager.getCache("limits");
+            if (cache != null) cache.put(org.getOrgId(), limits);
+
+            long finished = System.currentTimeMillis();
+            schedule.durationMs = finished - started;
+            duration.record(schedule.durationMs, TimeUnit.MILLISECONDS);
+            schedule.lastSuccessMs = finished;
+            schedule.samples++;
+            schedule.failures = 0;
+            schedule.lastError = null;
+            schedule.nextDueMs = finished + jittered(intervalMs);
+        } catch (Exception e) {
+            int failures = ++schedule.failures;
+            long backoff = Math.min(backoffMaxMs, backoffBaseMs << Math.min(failures - 1, 20));
+            // Full jitter over the upper half keeps failing orgs from retrying in step
+            long delay = backoff / 2 + ThreadLocalRandom.current().nextLong(Math.max(backoff / 2, 1));
+            schedule.durationMs = System.currentTimeMillis() - started;
+            schedule.lastError = e.getMessage();
+            schedule.nextDueMs = System.currentTimeMillis() + delay;
+            log.warn("Limit sample failed for org {} (failure {}, retry in {}s): {}",
+                    org.getOrgId(), failures, delay / 1000, e.getMessage());
+        }
+    }
+
+    private long jittered(long interval) {
+        long spread = (long) (interval * jitter);
+        if (spread <= 0) return interval;
+        return interval - spread + ThreadLocalRandom.current().nextLong(2 * spread + 1);
+    }
+
+    private double maxStalenessSeconds() {
+        long now = System.currentTimeMillis();
+        long oldest = 0;
+        for (OrgSchedule s : schedules.values()) {
+            if (s.lastSuccessMs > 0) oldest = Math.max(oldest, now - s.lastSuccessMs);
+        }
+        return oldest / 1000.0;
+    }
+
+    private static CollectorStatusDTO toStatus(String orgId, OrgSchedule s, long now) {
+        return new CollectorStatusDTO(
+                orgId,
+                toLocal(s.nextDueMs),
+                toLocal(s.lastAttemptMs),
+                toLocal(s.lastSuccessMs),
+                s.lastSuccessMs > 0 ? (now - s.lastSuccessMs) / 1000 : null,
+                s.startLagMs,
+                s.durationMs,
+                s.failures,
+                s.samples,
+                s.lastError);
+    }
+
+    private static LocalDateTime toLocal(long epochMs) {
+        return epochMs > 0 ? LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMs), ZoneId.systemDefault()) : null;
+    }
+}
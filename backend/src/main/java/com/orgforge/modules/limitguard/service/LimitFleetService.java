@@ -0,0 +1,120 @@
+package com.orgforge.modules.limitguard.service;
+
+import com.orgforge.modules.limitguard.dto.FleetOrgDTO;
+import com.orgforge.modules.limitguard.dto.LimitDataDTO;
+import com.orgforge.modules.limitguard.model.LimitSnapshot;
+import com.orgforge.modules.limitguard.repository.LimitSnapshotRepository;
+import com.orgforge.modules.limitguard.repository.LimitSnapshotRepositoryCustom.FleetOrder;
+import com.orgforge.modules.limitguard.repository.LimitSnapshotRepositoryCustom.FleetRow;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Fleet overview: the most used limits of every active org, read from the latest
+ * collected snapshots with one query and no Salesforce calls. Orgs are handed out one
+ * at a time as their rows arrive, so a large fleet can be streamed to the client.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LimitFleetService {
+
+    private static final Set<String> STATUSES = Set.of("CRITICAL", "WARNING", "HEALTHY");
+
+    private final LimitSnapshotRepository snapshotRepo;
+
+    /** Snapshots older than this are not considered; orgs without newer ones are left out. */
+    @Value("${app.limit-guard.fleet.lookback-hours:24}")
+    private int lookbackHours;
+
+    @Value("${app.limit-guard.fleet.default-top:5}")
+    private int defaultTop;
+
+    @Value("${app.limit-guard.fleet.max-top:50}")
+    private int maxTop;
+
+    /** Validated fleet request; built before a response starts streaming. */
+    public record Query(int top, Set<String> statuses, FleetOrder order) {}
+
+    /**
+     * @param statuses org statuses to keep (CRITICAL, WARNING, HEALTHY); all when empty
+     * @param sort     percentage (most used first), name or staleness (oldest sample first)
+     */
+    public Query query(Integer top, Collection<String> statuses, String sort) {
+        int n = top != null ? top : defaultTop;
+        if (n < 1 || n > maxTop) {
+            throw new IllegalArgumentException("top must be between 1 and " + maxTop);
+        }
+        Set<String> keep = new HashSet<>();
+        if (statuses != null) {
+            for (String status : statuses) {
+                String s = status.trim().toUpperCase();
+                if (s.isEmpty()) continue;
+                if (!STATUSES.contains(s)) throw new IllegalArgumentException("Unknown status: " + status);
+                keep.add(s);
+            }
+        }
+        FleetOrder order;
+        try {
+            order = sort == null || sort.isBlank() ? FleetOrder.PERCENTAGE : FleetOrder.valueOf(sort.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown sort: " + sort);
+        }
+        return new Query(n, keep, order);
+    }
+
+    /** Hands each matching org to {@code sink} in the query's order. */
+    public void stream(Query query, Consumer<FleetOrgDTO> sink) {
+        OrgAccumulator acc = new OrgAccumulator(query.statuses(), sink);
+        snapshotRepo.streamFleetTop(LocalDateTime.now().minusHours(lookbackHours), query.top(), query.order(), acc);
+        acc.flush();
+        log.debug("Fleet overview streamed {} org(s)", acc.emitted);
+    }
+
+    // -------------------------------------------------------------------------
+    // Private helpers
+    // -------------------------------------------------------------------------
+
+    /** Groups adjacent rows by org and emits each org once its last row has been read. */
+    private static final class OrgAccumulator implements Consumer<FleetRow> {
+        private final Set<String> statuses;
+        private final Consumer<FleetOrgDTO> sink;
+        private FleetRow first;
+        private List<LimitDataDTO> limits = new ArrayList<>();
+        private int emitted;
+
+        OrgAccumulator(Set<String> statuses, Consumer<FleetOrgDTO> sink) {
+            this.statuses = statuses;
+            this.sink = sink;
+        }
+
+        @Override
+        public void accept(FleetRow row) {
+            if (first != null && !first.snapshot().getOrgId().equals(row.snapshot().getOrgId())) flush();
+            if (first == null) first = row;
+            LimitSnapshot s = row.snapshot();
+            double pct = s.getPercentage().doubleValue();
+            limits.add(new LimitDataDTO(s.getLimitName(), s.getLimitType(), s.getUsed(), s.getTotal(), pct,
+                    LimitDataDTO.resolveStatus(pct), s.getForecastedExhaustionAt(),
+                    null, null, null, null, null));
+        }
+
+        void flush() {
+            if (first == null) return;
+            String status = LimitDataDTO.resolveStatus(first.orgMaxPercentage());
+            if (statuses.isEmpty() || statuses.contains(status)) {
+                sink.accept(new FleetOrgDTO(first.snapshot().getOrgId(), first.orgName(), status,
+                        first.orgMaxPercentage(), first.orgSampledAt(), limits));
+                emitted++;
+            }
+            first = null;
+            limits = new ArrayList<>();
+        }
+    }
+}
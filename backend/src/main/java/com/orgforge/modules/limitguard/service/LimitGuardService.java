@@ -2,6 +2,7 @@ package com.orgforge.modules.limitguard.service;
 
 import com.orgforge.core.org.OrgConnection;
 import com.orgforge.core.org.OrgConnectionRepository;
+import com.orgforge.core.salesforce.ApiUsageTracker;
 import com.orgforge.core.salesforce.RestApiClient;
 import com.orgforge.modules.limitguard.dto.LimitDataDTO;
 import com.orgforge.modules.limitguard.model.LimitAlert;
@@ -18,23 +19,37 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class LimitGuardService {
 
+    private static final String DAILY_API_REQUESTS = "DailyApiRequests";
+
     private final RestApiClient restApi;
     private final LimitSnapshotRepository snapshotRepo;
     private final LimitAlertRepository alertRepo;
     private final OrgConnectionRepository orgRepo;
+    private final LimitSeriesStore seriesStore;
+    private final LimitAlertEngine alertEngine;
+    private final LimitAnomalyDetector anomalyDetector;
+    private final ApiUsageTracker apiUsageTracker;
 
     @Cacheable(value = "limits", key = "#orgId")
     public List<LimitDataDTO> getLimits(String orgId) {
         OrgConnection org = orgRepo.findByOrgId(orgId)
                 .orElseThrow(() -> new IllegalArgumentException("Org not found: " + orgId));
+        return sample(org);
+    }
 
+    /**
+     * Reads the org's /limits, stores a snapshot for each limit that changed since its last
+     * stored one (or is due a heartbeat) and returns the limits, most used first. Not
+     * cached; {@link LimitCollectorService} calls it on a schedule.
+     */
+    public List<LimitDataDTO> sample(OrgConnection org) {
+        String orgId = org.getOrgId();
         String limitsUrl = org.getInstanceUrl()
                 + "/services/data/v" + org.getApiVersion() + "/limits/";
 
@@ -44,6 +59,7 @@ public class LimitGuardService {
         }
 
         List<LimitDataDTO> results = new ArrayList<>();
+        List<LimitSnapshot> snapshots = new ArrayList<>();
         LocalDateTime now = LocalDateTime.now();
 
         for (Map.Entry<?, ?> entry : rawLimits.entrySet()) {
@@ -75,10 +91,10 @@ public class LimitGuardService {
             String limitType = classifyLimitType(limitName);
             String status = LimitDataDTO.resolveStatus(pctRounded);
 
-            // Forecast exhaustion using last 5 snapshots
-            LocalDateTime forecastedExhaustionAt = forecastExhaustion(orgId, limitName, pctRounded, now);
+            // Forecast exhaustion from the in-memory series (seasonal model, else recent trend)
+            LimitSeriesStore.Forecast forecast = seriesStore.forecast(orgId, limitName, pctRounded, now);
+            LocalDateTime forecastedExhaustionAt = forecast.exhaustionAt();
 
-            // Save snapshot
             LimitSnapshot snapshot = LimitSnapshot.builder()
                     .orgId(orgId)
                     .limitName(limitName)
@@ -89,7 +105,7 @@ public class LimitGuardService {
                     .forecastedExhaustionAt(forecastedExhaustionAt)
                     .snapshotAt(now)
                     .build();
-            snapshotRepo.save(snapshot);
+            snapshots.add(snapshot);
 
             results.add(new LimitDataDTO(
                     limitName,
@@ -98,10 +114,51 @@ public class LimitGuardService {
                     max,
                     pctRounded,
                     status,
-                    forecastedExhaustionAt
+                    forecastedExhaustionAt,
+                    forecast.exhaustionEarliestAt(),
+                    forecast.exhaustionLatestAt(),
+                    forecast.pct24h(),
+                    forecast.pct24hLow(),
+                    forecast.pct24hHigh()
             ));
         }
 
+        // Only changed limits (and heartbeats) are written; memory still sees every sample
+        List<LimitSnapshot> changed = snapshots.stream().filter(seriesStore::needsStoring).toList();
+        snapshotRepo.batchInsert(changed);
+        changed.forEach(seriesStore::stored);
+        snapshots.forEach(seriesStore::record);
+        log.debug("Stored {} of {} limit samples for org {}", changed.size(), snapshots.size(), orgId);
+        alertEngine.evaluate(org, snapshots);
+        anomalyDetector.observe(org, snapshots);
+
+        results.sort(Comparator.comparingDouble(LimitDataDTO::percentage).reversed());
+        return results;
+    }
+
+    /**
+     * Replaces DailyApiRequests in {@code limits} with the org's fresh Sforce-Limit-Info
+     * reading. The /limits call behind a cached sample also produced a reading, so a fresh
+     * one is never older than the sample; forecasts are kept from the sample.
+     */
+    public List<LimitDataDTO> withLiveApiUsage(String orgId, List<LimitDataDTO> limits) {
+        Optional<ApiUsageTracker.ApiUsage> live = apiUsageTracker.fresh(orgId);
+        if (live.isEmpty() || live.get().max() <= 0) return limits;
+        ApiUsageTracker.ApiUsage usage = live.get();
+
+        List<LimitDataDTO> results = new ArrayList<>(limits.size());
+        boolean replaced = false;
+        for (LimitDataDTO l : limits) {
+            if (DAILY_API_REQUESTS.equals(l.limitName())) {
+                l = new LimitDataDTO(l.limitName(), l.limitType(), usage.used(), usage.max(),
+                        usage.percentage(), LimitDataDTO.resolveStatus(usage.percentage()),
+                        l.forecastedExhaustionAt(), l.exhaustionEarliestAt(), l.exhaustionLatestAt(),
+                        l.forecastPct24h(), l.forecastPct24hLow(), l.forecastPct24hHigh());
+                replaced = true;
+            }
+            results.add(l);
+        }
+        if (!replaced) return limits;
         results.sort(Comparator.comparingDouble(LimitDataDTO::percentage).reversed());
         return results;
     }
@@ -119,63 +176,17 @@ public class LimitGuardService {
         alert.setNotifyEmail(notifyEmail);
         alert.setActive(true);
         alertRepo.save(alert);
+        alertEngine.invalidate(orgId);
     }
 
     public List<LimitAlert> getAlerts(String orgId) {
         return alertRepo.findByOrgIdAndIsActiveTrue(orgId);
     }
 
-    public List<LimitSnapshot> getHistory(String orgId, String limitName, int days) {
-        LocalDateTime since = LocalDateTime.now().minusDays(days);
-        return snapshotRepo.findByOrgIdAndSnapshotAtAfterOrderBySnapshotAtDesc(orgId, since)
-                .stream()
-                .filter(s -> s.getLimitName().equals(limitName))
-                .collect(Collectors.toList());
-    }
-
     // -----------------------------------------------------------------------
     // Private helpers
     // -----------------------------------------------------------------------
 
-    private LocalDateTime forecastExhaustion(String orgId, String limitName, double currentPct, LocalDateTime now) {
-        if (currentPct <= 0) return null;
-        if (currentPct >= 100) return now;
-
-        List<LimitSnapshot> history = snapshotRepo.findTop5ByOrgIdAndLimitNameOrderBySnapshotAtDesc(orgId, limitName);
-        if (history.size() < 2) return null;
-
-        // Simple linear regression: x = epochSeconds, y = percentage
-        int n = history.size();
-        double sumX = 0, sumY = 0, sumXY = 0, sumX2 = 0;
-        for (LimitSnapshot s : history) {
-            double x = s.getSnapshotAt().toEpochSecond(java.time.ZoneOffset.UTC);
-            double y = s.getPercentage().doubleValue();
-            sumX += x;
-            sumY += y;
-            sumXY += x * y;
-            sumX2 += x * x;
-        }
-
-        double denominator = (n * sumX2 - sumX * sumX);
-        if (Math.abs(denominator) < 1e-9) return null;
-
-        double slope = (n * sumXY - sumX * sumY) / denominator;
-        if (slope <= 0) return null; // usage is stable or decreasing
-
-        double intercept = (sumY - slope * sumX) / n;
-        double nowEpoch = now.toEpochSecond(java.time.ZoneOffset.UTC);
-
-        // Solve for x when y = 100
-        double exhaustionEpoch = (100.0 - intercept) / slope;
-        if (exhaustionEpoch <= nowEpoch) return null;
-
-        long secondsUntilExhaustion = (long) (exhaustionEpoch - nowEpoch);
-        // Cap at 1 year to avoid absurd forecasts
-        if (secondsUntilExhaustion > 365L * 24 * 3600) return null;
-
-        return now.plusSeconds(secondsUntilExhaustion);
-    }
-
     private String classifyLimitType(String limitName) {
         String upper = limitName.toUpperCase();
         if (upper.contains("API") || upper.contains("CALLOUT")) return "API";
@@ -0,0 +1,544 @@
+package com.orgforge.modules.limitguard.service;
+
+import com.orgforge.modules.limitguard.dto.LimitHistoryPointDTO;
+import com.orgforge.modules.limitguard.model.LimitRollup;
+import com.orgforge.modules.limitguard.model.LimitSnapshot;
+import com.orgforge.modules.limitguard.repository.LimitRollupRepository;
+import com.orgforge.modules.limitguard.repository.LimitSnapshotRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * Tiered limit history: raw {@code limit_snapshots} for {@code raw-hours}, then
+ * 5-minute rollups for {@code five-minute-days}, then hourly rollups for
+ * {@code hourly-days}. Closed buckets are rolled up on a schedule (5-minute from raw,
+ * hourly from 5-minute), streaming the source rows in time order so memory stays flat;
+ * a tier is pruned only once the next tier covers it.
+ *
+ * <p>A tier resumes after its newest bucket, across all orgs and limits, so each source
+ * chunk is written in one transaction: a crash or failed write leaves no chunk half
+ * rolled up for the next run to skip, and pruning only runs after every chunk committed.
+ *
+ * <p>Raw rows are change points: a limit is stored only when it changes or once per
+ * {@code heartbeat-minutes}, so each row's value holds until the limit's next row, or
+ * for at most two heartbeats. 5-minute buckets are time-weighted over that step
+ * function and filled for quiet stretches; raw reads seed the window with the value
+ * carried into it and draw each change as a step.
+ *
+ * <p>A history read uses the finest tier that still covers the requested range, fills
+ * the time after the newest rollup with raw samples and reduces the series to at most
+ * the requested number of points with Largest-Triangle-Three-Buckets.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LimitHistoryService {
+
+    private static final int WRITE_BATCH = 1000;
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private static final String RAW_SOURCE =
+            "SELECT org_id, limit_name, snapshot_at, percentage, used, total "
+                    + "FROM limit_snapshots WHERE snapshot_at >= ? AND snapshot_at < ? "
+                    + "ORDER BY org_id, limit_name, snapshot_at";
+    /** Each limit's newest row in [?, ?): the value carried into a chunk. */
+    private static final String RAW_CARRY_IN =
+            "SELECT org_id, limit_name, snapshot_at, percentage, used, total FROM ("
+                    + "SELECT s.*, ROW_NUMBER() OVER (PARTITION BY org_id, limit_name ORDER BY snapshot_at DESC) AS rn "
+                    + "FROM limit_snapshots s WHERE snapshot_at >= ? AND snapshot_at < ?) carried WHERE rn = 1";
+    private static final String RAW_FIRST = "SELECT MIN(snapshot_at) FROM limit_snapshots WHERE snapshot_at >= ?";
+
+    // 5-minute buckets are equally wide, so each weighs the same in its hour
+    private static final String FIVE_MINUTE_SOURCE =
+            "SELECT org_id, limit_name, bucket_start AS at, min_pct, max_pct, avg_pct AS sum_pct, "
+                    + "1 AS n, sample_count AS samples, last_pct, last_used AS used, last_total AS total "
+                    + "FROM limit_rollups WHERE resolution_seconds = " + LimitRollup.FIVE_MINUTES
+                    + " AND bucket_start >= ? AND bucket_start < ? ORDER BY org_id, limit_name, bucket_start";
+    private static final String FIVE_MINUTE_FIRST = "SELECT MIN(bucket_start) FROM limit_rollups "
+            + "WHERE resolution_seconds = " + LimitRollup.FIVE_MINUTES + " AND bucket_start >= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LimitSnapshotRepository snapshotRepo;
+    private final LimitRollupRepository rollupRepo;
+    private final PlatformTransactionManager transactionManager;
+
+    /** Tier retention; 0 keeps the tier forever. */
+    @Value("${app.limit-guard.history.raw-hours:48}")
+    private long rawHours;
+
+    @Value("${app.limit-guard.history.five-minute-days:30}")
+    private long fiveMinuteDays;
+
+    @Value("${app.limit-guard.history.hourly-days:400}")
+    private long hourlyDays;
+
+    /** A bucket is rolled up only this long after it closes, so in-flight samples land first. */
+    @Value("${app.limit-guard.history.settle-seconds:60}")
+    private long settleSeconds;
+
+    /** Source window read per query while catching up. */
+    @Value("${app.limit-guard.history.chunk-minutes:60}")
+    private long chunkMinutes;
+
+    @Value("${app.limit-guard.history.max-points:500}")
+    private int defaultMaxPoints;
+
+    @Value("${app.limit-guard.snapshots.heartbeat-minutes:60}")
+    private long heartbeatMinutes;
+
+    /** One bucket being accumulated from time-ordered source rows. */
+    private static final class Bucket {
+        String orgId;
+        String limitName;
+        LocalDateTime start;
+        double min = Double.MAX_VALUE;
+        double max = -Double.MAX_VALUE;
+        double sum;
+        int count;
+        int samples;
+        double lastPct;
+        long lastUsed;
+        long lastTotal;
+
+        boolean holds(String orgId, String limitName, LocalDateTime start) {
+            return Objects.equals(this.orgId, orgId) && Objects.equals(this.limitName, limitName)
+                    && Objects.equals(this.start, start);
+        }
+
+        LimitRollup toRollup(int resolution) {
+            return LimitRollup.builder()
+                    .orgId(orgId)
+                    .limitName(limitName)
+                    .resolutionSeconds(resolution)
+                    .bucketStart(start)
+                    .minPct(min)
+                    .maxPct(max)
+                    .avgPct(count > 0 ? sum / count : 0)
+                    .lastPct(lastPct)
+                    .lastUsed(lastUsed)
+                    .lastTotal(lastTotal)
+                    .sampleCount(samples)
+                    .build();
+        }
+    }
+
+    /**
+     * Step function of one limit across a raw chunk, cut into 5-minute buckets: each value
+     * holds from its row until the next one or until it expires, and a bucket's average
+     * is weighted by how long each value held in it. Buckets no value reaches are skipped.
+     */
+    private static final class StepSeries {
+        final String orgId;
+        final String limitName;
+        final long expireSeconds;
+        final Consumer<LimitRollup> sink;
+        long cursor;
+        long bucketStart;
+        // Current value
+        boolean hasValue;
+        long validUntil;
+        double pct;
+        long used;
+        long total;
+        // Open bucket
+        double weighted;
+        long covered;
+        double min = Double.MAX_VALUE;
+        double max = -Double.MAX_VALUE;
+        int samples;
+
+        StepSeries(String orgId, String limitName, long from, long expireSeconds, Consumer<LimitRollup> sink) {
+            this.orgId = orgId;
+            this.limitName = limitName;
+            this.cursor = from;
+            this.bucketStart = from;
+            this.expireSeconds = expireSeconds;
+            this.sink = sink;
+        }
+
+        /** A row older than the chunk, carried into it. */
+        void carryIn(long at, double pct, long used, long total) {
+            set(at, pct, used, total);
+        }
+
+        void sample(long at, double pct, long used, long total) {
+            advance(at);
+            set(at, pct, used, total);
+            samples++;
+            min = Math.min(min, pct);
+            max = Math.max(max, pct);
+        }
+
+        /** Integrates the current value up to {@code to}, closing every bucket passed. */
+        void advance(long to) {
+            while (cursor < to) {
+                long bucketEnd = bucketStart + LimitRollup.FIVE_MINUTES;
+                long until = Math.min(to, bucketEnd);
+                if (hasValue && validUntil > cursor) {
+                    long held = Math.min(until, validUntil) - cursor;
+                    weighted += pct * held;
+                    covered += held;
+                    min = Math.min(min, pct);
+                    max = Math.max(max, pct);
+                }
+                cursor = until;
+                if (cursor == bucketEnd) {
+                    close();
+                    // Nothing can reach the buckets before an expired value's next row
+                    if (!hasValue || validUntil <= cursor) {
+                        long skip = to - Math.floorMod(to - bucketStart, (long) LimitRollup.FIVE_MINUTES);
+                        if (skip > bucketStart) {
+                            bucketStart = skip;
+                            cursor = skip;
+                        }
+                    }
+                }
+            }
+        }
+
+        private void set(long at, double pct, long used, long total) {
+            this.hasValue = true;
+            this.validUntil = at + expireSeconds;
+            this.pct = pct;
+            this.used = used;
+            this.total = total;
+        }
+
+        private void close() {
+            if (covered > 0 || samples > 0) {
+                sink.accept(LimitRollup.builder()
+                        .orgId(orgId)
+                        .limitName(limitName)
+                        .resolutionSeconds(LimitRollup.FIVE_MINUTES)
+                        .bucketStart(LocalDateTime.ofEpochSecond(bucketStart, 0, ZoneOffset.UTC))
+                        .minPct(min)
+                        .maxPct(max)
+                        .avgPct(covered > 0 ? weighted / covered : pct)
+                        .lastPct(pct)
+                        .lastUsed(used)
+                        .lastTotal(total)
+                        .sampleCount(samples)
+                        .build());
+            }
+            bucketStart += LimitRollup.FIVE_MINUTES;
+            weighted = 0;
+            covered = 0;
+            min = Double.MAX_VALUE;
+            max = -Double.MAX_VALUE;
+            samples = 0;
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Reads
+    // -------------------------------------------------------------------------
+
+    /** The limit's history over the last {@code days}, oldest first, at most {@code maxPoints} points. */
+    public List<LimitHistoryPointDTO> getHistory(String orgId, String limitName, int days, Integer maxPoints) {
+        if (days <= 0) throw new IllegalArgumentException("days must be positive: " + days);
+        int target = maxPoints != null ? maxPoints : defaultMaxPoints;
+        if (target < 3) throw new IllegalArgumentException("points must be at least 3: " + target);
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime since = now.minusDays(days);
+        List<LimitHistoryPointDTO> points = new ArrayList<>();
+        LocalDateTime rawFrom = since;
+
+        if (rawHours > 0 && since.isBefore(now.minusHours(rawHours))) {
+            int tier = fiveMinuteDays == 0 || !since.isBefore(now.minusDays(fiveMinuteDays))
+                    ? LimitRollup.FIVE_MINUTES : LimitRollup.HOUR;
+            List<LimitRollup> rollups = rollupRepo
+                    .findByOrgIdAndLimitNameAndResolutionSecondsAndBucketStartGreaterThanEqualOrderByBucketStart(
+                            orgId, limitName, tier, since);
+            for (LimitRollup r : rollups) {
+                points.add(new LimitHistoryPointDTO(r.getBucketStart(), r.getLastUsed(), r.getLastTotal(),
+                        round(r.getAvgPct()), round(r.getMinPct()), round(r.getMaxPct())));
+            }
+            // Raw samples cover the buckets not rolled up yet
+            if (!rollups.isEmpty()) {
+                rawFrom = rollups.get(rollups.size() - 1).getBucketStart().plusSeconds(tier);
+            }
+        }
+        long expire = expireSeconds();
+        LocalDateTime windowStart = rawFrom;
+        LimitSnapshot previous = snapshotRepo
+                .findFirstByOrgIdAndLimitNameAndSnapshotAtBeforeOrderBySnapshotAtDesc(orgId, limitName, windowStart)
+                .filter(s -> s.getSnapshotAt().plusSeconds(expire).isAfter(windowStart))
+                .orElse(null);
+        if (previous != null) points.add(point(previous, windowStart));
+        for (LimitSnapshot s : snapshotRepo.findByOrgIdAndLimitNameAndSnapshotAtAfterOrderBySnapshotAt(
+                orgId, limitName, windowStart.minusNanos(1))) {
+            // The previous value held right up to this change
+            if (previous != null && s.getSnapshotAt().isAfter(previous.getSnapshotAt())
+                    && !previous.getSnapshotAt().plusSeconds(expire).isBefore(s.getSnapshotAt())
+                    && previous.getPercentage().compareTo(s.getPercentage()) != 0) {
+                points.add(point(previous, s.getSnapshotAt()));
+            }
+            points.add(point(s, s.getSnapshotAt()));
+            previous = s;
+        }
+        // ...and the newest value holds until now, unless it has expired
+        if (previous != null) {
+            LocalDateTime heldUntil = earlier(now, previous.getSnapshotAt().plusSeconds(expire));
+            if (heldUntil.isAfter(previous.getSnapshotAt())) points.add(point(previous, heldUntil));
+        }
+        return downsample(points, target);
+    }
+
+    // -------------------------------------------------------------------------
+    // Rollup and retention
+    // -------------------------------------------------------------------------
+
+    @Scheduled(fixedDelayString = "${app.limit-guard.history.rollup-interval-ms:300000}",
+               initialDelayString = "${app.limit-guard.history.rollup-initial-delay-ms:120000}")
+    public void rollUp() {
+        LocalDateTime settled = LocalDateTime.now().minusSeconds(settleSeconds);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        int fiveMinute = rollTier(tx, LimitRollup.FIVE_MINUTES, RAW_FIRST, expireSeconds(), settled,
+                this::rollRawChunk);
+        int hourly = rollTier(tx, LimitRollup.HOUR, FIVE_MINUTE_FIRST, 0, settled,
+                (from, to) -> rollChunk(LimitRollup.HOUR, FIVE_MINUTE_SOURCE, from, to));
+        if (fiveMinute + hourly > 0) {
+            log.info("Rolled up {} 5-minute and {} hourly limit buckets", fiveMinute, hourly);
+        }
+        // Not reached when a chunk failed, so raw rows are never pruned ahead of their rollup
+        prune();
+    }
+
+    /**
+     * Rolls every closed bucket after the tier's newest one; returns the buckets written.
+     * Source rows up to {@code carrySeconds} before a stretch can still fill it, so empty
+     * stretches are skipped only past that. Each chunk commits on its own, all or nothing,
+     * since the next run resumes after the newest bucket written.
+     */
+    private int rollTier(TransactionTemplate tx, int resolution, String firstSql, long carrySeconds, LocalDateTime settled,
+                         BiFunction<LocalDateTime, LocalDateTime, Integer> rollChunk) {
+        LocalDateTime end = truncate(settled, resolution);
+        LocalDateTime latest = rollupRepo.findLatestBucket(resolution);
+        LocalDateTime from = latest != null ? latest.plusSeconds(resolution) : EPOCH;
+        long chunkSeconds = Math.max(chunkMinutes * 60 / resolution, 1) * resolution;
+        int written = 0;
+        while (from.isBefore(end)) {
+            // Skip empty stretches instead of scanning them chunk by chunk
+            Timestamp first = jdbcTemplate.queryForObject(firstSql, Timestamp.class,
+                    Timestamp.valueOf(from.minusSeconds(carrySeconds)));
+            if (first == null) break;
+            LocalDateTime firstBucket = truncate(first.toLocalDateTime(), resolution);
+            if (firstBucket.isAfter(from)) from = firstBucket;
+            if (!from.isBefore(end)) break;
+            LocalDateTime to = from.plusSeconds(chunkSeconds);
+            if (to.isAfter(end)) to = end;
+            LocalDateTime chunkFrom = from;
+            LocalDateTime chunkTo = to;
+            written += tx.execute(status -> rollChunk.apply(chunkFrom, chunkTo));
+            from = to;
+        }
+        return written;
+    }
+
+    /** 5-minute buckets of [from, to) from the raw change points, with values carried in from before it. */
+    private int rollRawChunk(LocalDateTime from, LocalDateTime to) {
+        long fromEpoch = from.toEpochSecond(ZoneOffset.UTC);
+        long expire = expireSeconds();
+        List<LimitRollup> batch = new ArrayList<>();
+        int[] written = {0};
+        Consumer<LimitRollup> sink = r -> {
+            batch.add(r);
+            if (batch.size() >= WRITE_BATCH) {
+                rollupRepo.batchInsert(batch);
+                written[0] += batch.size();
+                batch.clear();
+            }
+        };
+
+        // At most one row per (org, limit), so this stays small next to the chunk itself
+        Map<String, StepSeries> carried = new HashMap<>();
+        jdbcTemplate.query(RAW_CARRY_IN, rs -> {
+            StepSeries series = new StepSeries(rs.getString("org_id"), rs.getString("limit_name"), fromEpoch, expire, sink);
+            series.carryIn(rs.getTimestamp("snapshot_at").toLocalDateTime().toEpochSecond(ZoneOffset.UTC),
+                    rs.getDouble("percentage"), rs.getLong("used"), rs.getLong("total"));
+            carried.put(key(series.orgId, series.limitName), series);
+        }, Timestamp.valueOf(from.minusSeconds(expire)), Timestamp.valueOf(from));
+
+        long toEpoch = to.toEpochSecond(ZoneOffset.UTC);
+        StepSeries[] open = {null};
+        jdbcTemplate.query(RAW_SOURCE, rs -> {
+            String orgId = rs.getString("org_id");
+            String limitName = rs.getString("limit_name");
+            StepSeries series = open[0];
+            if (series == null || !series.orgId.equals(orgId) || !series.limitName.equals(limitName)) {
+                if (series != null) series.advance(toEpoch);
+                series = carried.remove(key(orgId, limitName));
+                if (series == null) series = new StepSeries(orgId, limitName, fromEpoch, expire, sink);
+                open[0] = series;
+            }
+            series.sample(rs.getTimestamp("snapshot_at").toLocalDateTime().toEpochSecond(ZoneOffset.UTC),
+                    rs.getDouble("percentage"), rs.getLong("used"), rs.getLong("total"));
+        }, Timestamp.valueOf(from), Timestamp.valueOf(to));
+        if (open[0] != null) open[0].advance(toEpoch);
+        // Limits without a row in the chunk only carry their earlier value
+        for (StepSeries series : carried.values()) series.advance(toEpoch);
+
+        rollupRepo.batchInsert(batch);
+        return written[0] + batch.size();
+    }
+
+    private int rollChunk(int resolution, String sourceSql, LocalDateTime from, LocalDateTime to) {
+        List<LimitRollup> batch = new ArrayList<>();
+        Bucket[] open = {null};
+        int[] written = {0};
+        jdbcTemplate.query(sourceSql, rs -> {
+            String orgId = rs.getString("org_id");
+            String limitName = rs.getString("limit_name");
+            LocalDateTime start = truncate(rs.getTimestamp("at").toLocalDateTime(), resolution);
+            Bucket b = open[0];
+            if (b == null || !b.holds(orgId, limitName, start)) {
+                if (b != null) batch.add(b.toRollup(resolution));
+                if (batch.size() >= WRITE_BATCH) {
+                    rollupRepo.batchInsert(batch);
+                    written[0] += batch.size();
+                    batch.clear();
+                }
+                b = new Bucket();
+                b.orgId = orgId;
+                b.limitName = limitName;
+                b.start = start;
+                open[0] = b;
+            }
+            b.min = Math.min(b.min, rs.getDouble("min_pct"));
+            b.max = Math.max(b.max, rs.getDouble("max_pct"));
+            b.sum += rs.getDouble("sum_pct");
+            b.count += rs.getInt("n");
+            b.samples += rs.getInt("samples");
+            b.lastPct = rs.getDouble("last_pct");
+            b.lastUsed = rs.getLong("used");
+            b.lastTotal = rs.getLong("total");
+        }, Timestamp.valueOf(from), Timestamp.valueOf(to));
+        if (open[0] != null) batch.add(open[0].toRollup(resolution));
+        rollupRepo.batchInsert(batch);
+        return written[0] + batch.size();
+    }
+
+    /** Drops each tier past its retention, but never data the next tier does not cover yet. */
+    private void prune() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime fiveMinuteLatest = rollupRepo.findLatestBucket(LimitRollup.FIVE_MINUTES);
+        if (rawHours > 0 && fiveMinuteLatest != null) {
+            LocalDateTime cutoff = earlier(now.minusHours(rawHours), fiveMinuteLatest.plusSeconds(LimitRollup.FIVE_MINUTES));
+            int deleted = jdbcTemplate.update("DELETE FROM limit_snapshots WHERE snapshot_at < ?", Timestamp.valueOf(cutoff));
+            if (deleted > 0) log.debug("Pruned {} raw limit snapshots before {}", deleted, cutoff);
+        }
+        LocalDateTime hourLatest = rollupRepo.findLatestBucket(LimitRollup.HOUR);
+        if (fiveMinuteDays > 0 && hourLatest != null) {
+            rollupRepo.deleteOlderThan(LimitRollup.FIVE_MINUTES,
+                    earlier(now.minusDays(fiveMinuteDays), hourLatest.plusSeconds(LimitRollup.HOUR)));
+        }
+        if (hourlyDays > 0) {
+            rollupRepo.deleteOlderThan(LimitRollup.HOUR, now.minusDays(hourlyDays));
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Downsampling
+    // -------------------------------------------------------------------------
+
+    /**
+     * Largest-Triangle-Three-Buckets: keeps the first and last point and, from each of
+     * {@code target - 2} equal buckets in between, the point forming the largest triangle
+     * with the previously kept point and the next bucket's average. Peaks survive, unlike
+     * with plain averaging or striding.
+     */
+    static List<LimitHistoryPointDTO> downsample(List<LimitHistoryPointDTO> points, int target) {
+        int n = points.size();
+        if (n <= target) return points;
+
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = points.get(i).snapshotAt().toEpochSecond(ZoneOffset.UTC);
+            y[i] = points.get(i).percentage();
+        }
+
+        List<LimitHistoryPointDTO> out = new ArrayList<>(target);
+        out.add(points.get(0));
+        double every = (double) (n - 2) / (target - 2);
+        int kept = 0;
+        for (int b = 0; b < target - 2; b++) {
+            int start = (int) Math.floor(b * every) + 1;
+            int end = Math.min((int) Math.floor((b + 1) * every) + 1, n - 1);
+
+            // Average of the next bucket (the last point for the final bucket)
+            int nextStart = end;
+            int nextEnd = Math.min((int) Math.floor((b + 2) * every) + 1, n);
+            double avgX = 0, avgY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                avgX += x[i];
+                avgY += y[i];
+            }
+            int span = Math.max(nextEnd - nextStart, 1);
+            avgX /= span;
+            avgY /= span;
+
+            double maxArea = -1;
+            int chosen = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs((x[kept] - avgX) * (y[i] - y[kept]) - (x[kept] - x[i]) * (avgY - y[kept]));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = i;
+                }
+            }
+            out.add(points.get(chosen));
+            kept = chosen;
+        }
+        out.add(points.get(n - 1));
+        return out;
+    }
+
+    // -------------------------------------------------------------------------
+    // Private helpers
+    // -------------------------------------------------------------------------
+
+    /** How long a raw row's value holds without a newer row: two heartbeats. */
+    private long expireSeconds() {
+        return 2 * heartbeatMinutes * 60;
+    }
+
+    private static LimitHistoryPointDTO point(LimitSnapshot s, LocalDateTime at) {
+        return new LimitHistoryPointDTO(at, s.getUsed(), s.getTotal(), s.getPercentage().doubleValue(), null, null);
+    }
+
+    private static String key(String orgId, String limitName) {
+        return orgId + '\0' + limitName;
+    }
+
+    private static LocalDateTime truncate(LocalDateTime at, int resolution) {
+        long epoch = at.toEpochSecond(ZoneOffset.UTC);
+        return LocalDateTime.ofEpochSecond(epoch - Math.floorMod(epoch, resolution), 0, ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime earlier(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static double round(double pct) {
+        return Math.round(pct * 100.0) / 100.0;
+    }
+}
@@ -0,0 +1,257 @@
+package com.orgforge.modules.limitguard.service;
+
+import com.orgforge.modules.limitguard.model.LimitRollup;
+import com.orgforge.modules.limitguard.model.LimitSnapshot;
+import com.orgforge.modules.limitguard.repository.LimitRollupRepository;
+import com.orgforge.modules.limitguard.repository.LimitSnapshotRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Recent limit samples per (org, limit), held in fixed-size ring buffers of primitive
+ * arrays, each with a {@link SeasonalForecast} updated on the same samples. An org's
+ * buffers are filled from {@code limit_snapshots} with one query the first time the org
+ * is used, and its seasonal models are replayed from {@code warm-days} of hourly rollups
+ * first, so daily and weekly cycles survive a restart. Both are then appended to as
+ * snapshots are written, so forecasting needs no database reads.
+ *
+ * <p>Forecasts come from the seasonal model once it has seen a day of data; before that
+ * a least-squares line through the newest samples is used, without confidence bands.
+ *
+ * <p>Each series also remembers the last snapshot written to the table, so a sample is
+ * stored only when its used/total changed or {@code heartbeat-minutes} have passed
+ * (see {@link #needsStoring}); the buffers and models still see every sample.
+ */
+@Slf4j
+@Service
+public class LimitSeriesStore {
+
+    private final LimitSnapshotRepository snapshotRepo;
+    private final LimitRollupRepository rollupRepo;
+    private final int capacity;
+    private final Map<String, Map<String, Series>> byOrg = new ConcurrentHashMap<>();
+
+    /** Newest samples the exhaustion forecast is fitted to. */
+    @Value("${app.limit-guard.series.forecast-points:5}")
+    private int forecastPoints;
+
+    /** Days of hourly rollups replayed into the seasonal models when an org is warmed. */
+    @Value("${app.limit-guard.forecast.warm-days:14}")
+    private int warmDays;
+
+    /** How far ahead the seasonal model looks for exhaustion. */
+    @Value("${app.limit-guard.forecast.horizon-hours:168}")
+    private int horizonHours;
+
+    /** An unchanged limit is still stored this often, so readers can tell it was sampled. */
+    @Value("${app.limit-guard.snapshots.heartbeat-minutes:60}")
+    private long heartbeatMinutes;
+
+    /**
+     * Forecast for one limit. The earliest/latest exhaustion times and the 24-hour band
+     * bound a 90% interval; they are null while only the linear fallback is available.
+     */
+    public record Forecast(LocalDateTime exhaustionAt, LocalDateTime exhaustionEarliestAt,
+                           LocalDateTime exhaustionLatestAt, Double pct24h, Double pct24hLow, Double pct24hHigh) {
+
+        static final Forecast NONE = new Forecast(null, null, null, null, null, null);
+    }
+
+    /** One limit's samples: epoch seconds and percentages, oldest overwritten first. */
+    static final class Series {
+        private final long[] at;
+        private final double[] pct;
+        private final SeasonalForecast seasonal = new SeasonalForecast();
+        private int next;
+        private int size;
+        private long storedAt = Long.MIN_VALUE;
+        private long storedUsed;
+        private long storedTotal;
+
+        Series(int capacity) {
+            this.at = new long[capacity];
+            this.pct = new double[capacity];
+        }
+
+        synchronized void add(long epochSecond, double percentage) {
+            addToBuffer(epochSecond, percentage);
+            seasonal.update(epochSecond, percentage);
+        }
+
+        /** Buffers a sample the seasonal model has already seen through a rollup. */
+        synchronized void addToBuffer(long epochSecond, double percentage) {
+            at[next] = epochSecond;
+            pct[next] = percentage;
+            next = (next + 1) % at.length;
+            if (size < at.length) size++;
+        }
+
+        synchronized boolean needsStoring(long epochSecond, long used, long total, long heartbeatSeconds) {
+            return storedAt == Long.MIN_VALUE || used != storedUsed || total != storedTotal
+                    || epochSecond - storedAt >= heartbeatSeconds;
+        }
+
+        synchronized void stored(long epochSecond, long used, long total) {
+            if (epochSecond < storedAt) return;
+            storedAt = epochSecond;
+            storedUsed = used;
+            storedTotal = total;
+        }
+
+        /** Feeds the seasonal model only, for history older than the buffer. */
+        synchronized void learn(long epochSecond, double percentage) {
+            seasonal.update(epochSecond, percentage);
+        }
+
+        synchronized Forecast seasonalForecast(int horizonHours, LocalDateTime now) {
+            if (!seasonal.ready()) return null;
+            long nowEpoch = now.toEpochSecond(ZoneOffset.UTC);
+            SeasonalForecast.Exhaustion ex = seasonal.exhaustion(horizonHours);
+            SeasonalForecast.Band day = seasonal.at((nowEpoch - seasonal.lastEpoch()) / 3600.0 + 24);
+            return new Forecast(toTime(ex.expected(), now), toTime(ex.earliest(), now), toTime(ex.latest(), now),
+                    day.expected(), day.low(), day.high());
+        }
+
+        /** Epoch second to a time, never earlier than now. */
+        private static LocalDateTime toTime(Long epochSecond, LocalDateTime now) {
+            if (epochSecond == null) return null;
+            LocalDateTime at = LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+            return at.isBefore(now) ? now : at;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        /**
+         * Least-squares line through the newest {@code points} samples, solved for 100%;
+         * null when usage is flat or falling or there are fewer than two samples.
+         */
+        synchronized Double secondsToFull(int points, long nowEpoch) {
+            int n = Math.min(points, size);
+            if (n < 2) return null;
+            // Centre x on now so epoch-second squares keep their precision
+            double sumX = 0, sumY = 0, sumXY = 0, sumX2 = 0;
+            for (int k = 1; k <= n; k++) {
+                int i = Math.floorMod(next - k, at.length);
+                double x = at[i] - nowEpoch;
+                double y = pct[i];
+                sumX += x;
+                sumY += y;
+                sumXY += x * y;
+                sumX2 += x * x;
+            }
+            double denominator = n * sumX2 - sumX * sumX;
+            if (Math.abs(denominator) < 1e-9) return null;
+
+            double slope = (n * sumXY - sumX * sumY) / denominator;
+            if (slope <= 0) return null; // usage is stable or decreasing
+
+            double intercept = (sumY - slope * sumX) / n;
+            return (100.0 - intercept) / slope;
+        }
+    }
+
+    public LimitSeriesStore(LimitSnapshotRepository snapshotRepo,
+                            LimitRollupRepository rollupRepo,
+                            @Value("${app.limit-guard.series.capacity:64}") int capacity) {
+        this.snapshotRepo = snapshotRepo;
+        this.rollupRepo = rollupRepo;
+        this.capacity = capacity;
+    }
+
+    /** Appends one stored snapshot to its limit's buffer. */
+    public void record(LimitSnapshot snapshot) {
+        series(snapshot.getOrgId(), snapshot.getLimitName())
+                .add(snapshot.getSnapshotAt().toEpochSecond(ZoneOffset.UTC), snapshot.getPercentage().doubleValue());
+    }
+
+    /** Whether the snapshot differs from the last one stored for its limit, or that one is a heartbeat old. */
+    public boolean needsStoring(LimitSnapshot snapshot) {
+        return series(snapshot.getOrgId(), snapshot.getLimitName()).needsStoring(
+                snapshot.getSnapshotAt().toEpochSecond(ZoneOffset.UTC), snapshot.getUsed(), snapshot.getTotal(),
+                heartbeatMinutes * 60);
+    }
+
+    /** Notes that the snapshot was written to {@code limit_snapshots}. */
+    public void stored(LimitSnapshot snapshot) {
+        series(snapshot.getOrgId(), snapshot.getLimitName()).stored(
+                snapshot.getSnapshotAt().toEpochSecond(ZoneOffset.UTC), snapshot.getUsed(), snapshot.getTotal());
+    }
+
+    /** Exhaustion forecast and 24-hour outlook for one limit, from memory only. */
+    public Forecast forecast(String orgId, String limitName, double currentPct, LocalDateTime now) {
+        if (currentPct >= 100) return new Forecast(now, now, now, 100.0, 100.0, 100.0);
+        Series series = series(orgId, limitName);
+
+        Forecast seasonal = series.seasonalForecast(horizonHours, now);
+        if (seasonal != null) return seasonal;
+
+        if (currentPct <= 0) return Forecast.NONE;
+        Double secondsUntilExhaustion = series.secondsToFull(forecastPoints, now.toEpochSecond(ZoneOffset.UTC));
+        if (secondsUntilExhaustion == null || secondsUntilExhaustion <= 0) return Forecast.NONE;
+        // Cap at 1 year to avoid absurd forecasts
+        if (secondsUntilExhaustion > 365.0 * 24 * 3600) return Forecast.NONE;
+
+        return new Forecast(now.plusSeconds(secondsUntilExhaustion.longValue()), null, null, null, null, null);
+    }
+
+    /** Drops an org's buffers, e.g. when it is disconnected. */
+    public void evict(String orgId) {
+        byOrg.remove(orgId);
+    }
+
+    // -------------------------------------------------------------------------
+    // Private helpers
+    // -------------------------------------------------------------------------
+
+    private Series series(String orgId, String limitName) {
+        Map<String, Series> series = byOrg.get(orgId);
+        if (series == null) {
+            // Loaded outside the map so the queries never block other orgs' bins; a
+            // concurrent first use may warm twice, and the first one stored is kept
+            Map<String, Series> warmed = warm(orgId);
+            series = byOrg.putIfAbsent(orgId, warmed);
+            if (series == null) series = warmed;
+        }
+        return series.computeIfAbsent(limitName, k -> new Series(capacity));
+    }
+
+    private Map<String, Series> warm(String orgId) {
+        Map<String, Series> series = new ConcurrentHashMap<>();
+        // Hourly averages first (plotted mid-bucket), then raw samples after the last bucket
+        List<LimitRollup> hourly = warmDays > 0
+                ? rollupRepo.findByOrgIdAndResolutionSecondsAndBucketStartGreaterThanEqualOrderByLimitNameAscBucketStartAsc(
+                        orgId, LimitRollup.HOUR, LocalDateTime.now().minusDays(warmDays))
+                : List.of();
+        Map<String, Long> learnedUntil = new HashMap<>();
+        for (LimitRollup r : hourly) {
+            long start = r.getBucketStart().toEpochSecond(ZoneOffset.UTC);
+            series.computeIfAbsent(r.getLimitName(), k -> new Series(capacity))
+                    .learn(start + LimitRollup.HOUR / 2, r.getAvgPct());
+            learnedUntil.put(r.getLimitName(), start + LimitRollup.HOUR);
+        }
+        List<LimitSnapshot> recent = snapshotRepo.findRecent(orgId, capacity);
+        for (LimitSnapshot s : recent) {
+            Series limit = series.computeIfAbsent(s.getLimitName(), k -> new Series(capacity));
+            long at = s.getSnapshotAt().toEpochSecond(ZoneOffset.UTC);
+            limit.stored(at, s.getUsed(), s.getTotal());
+            if (at < learnedUntil.getOrDefault(s.getLimitName(), Long.MIN_VALUE)) {
+                limit.addToBuffer(at, s.getPercentage().doubleValue());
+            } else {
+                limit.add(at, s.getPercentage().doubleValue());
+            }
+        }
+        log.debug("Warmed {} limit series ({} hourly, {} raw samples) for org {}",
+                series.size(), hourly.size(), recent.size(), orgId);
+        return series;
+    }
+}
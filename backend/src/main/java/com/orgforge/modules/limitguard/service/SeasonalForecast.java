@@ -0,0 +1,167 @@
+package com.orgforge.modules.limitguard.service;
+
+/**
+ * Additive Holt-Winters model of one limit's usage percentage: a level with a damped
+ * per-hour trend, plus an hour-of-day and a day-of-week seasonal offset. Damping keeps
+ * a small drift from being extrapolated in a straight line over a week-long horizon.
+ *
+ * <p>Samples arrive irregularly (collector cadence, on-demand reads, hourly rollups
+ * while warming), so every smoothing weight is scaled by the time since the previous
+ * sample: a weight {@code w} per hour becomes {@code 1 - (1 - w)^Δh}. Each update and
+ * the stored state are O(1). Bands use the variance of one-step errors widened with
+ * the damped-trend h-step factor {@code 1 + Σ(α + β·Σφ^i)²} over hourly steps, an
+ * approximation that ignores the seasonal terms.
+ *
+ * <p>Not thread-safe; callers synchronise.
+ */
+final class SeasonalForecast {
+
+    /** Smoothing weights per hour of elapsed time. */
+    private static final double LEVEL = 0.1;
+    private static final double TREND = 0.02;
+    private static final double DAILY = 0.3;
+    private static final double WEEKLY = 0.1;
+    private static final double ERROR = 0.05;
+    /** Share of the trend kept per hour. */
+    private static final double DAMPING = 0.995;
+
+    /** 1.645 standard deviations: a two-sided 90% band. */
+    private static final double Z = 1.645;
+
+    /** widening(h) = 1 + Σ_{j=1}^{h-1} (α + β·damped(j))², precomputed for a month of hours. */
+    private static final double[] WIDENING = wideningTable(24 * 31);
+
+    /** Hours observed before seasonal forecasts are trusted. */
+    static final double MIN_HOURS = 24;
+
+    private double level;
+    private double trend;
+    private final double[] daily = new double[24];
+    private final double[] weekly = new double[7];
+    private double variance;
+    private long lastEpoch = Long.MIN_VALUE;
+    private double hoursObserved;
+
+    /** Point forecast and 90% band, in percent, {@code hours} after the last sample. */
+    record Band(double expected, double low, double high) {}
+
+    /**
+     * Exhaustion estimates in epoch seconds (null past the horizon): {@code earliest}
+     * from the upper band, {@code latest} from the lower one.
+     */
+    record Exhaustion(Long expected, Long earliest, Long latest) {}
+
+    void update(long epochSecond, double pct) {
+        if (lastEpoch == Long.MIN_VALUE) {
+            level = pct;
+            lastEpoch = epochSecond;
+            return;
+        }
+        if (epochSecond <= lastEpoch) return;
+        double dh = (epochSecond - lastEpoch) / 3600.0;
+        int h = hourOfDay(epochSecond);
+        int d = dayOfWeek(epochSecond);
+
+        double predictedLevel = level + trend * damped(dh);
+        double error = pct - (predictedLevel + daily[h] + weekly[d]);
+
+        double newLevel = predictedLevel + weight(LEVEL, dh) * (pct - daily[h] - weekly[d] - predictedLevel);
+        double carried = trend * Math.pow(DAMPING, dh);
+        trend = carried + weight(TREND, dh) * ((newLevel - level) / dh - carried);
+        level = newLevel;
+        daily[h] += weight(DAILY, dh) * (pct - level - weekly[d] - daily[h]);
+        weekly[d] += weight(WEEKLY, dh) * (pct - level - daily[h] - weekly[d]);
+        variance += weight(ERROR, dh) * (error * error - variance);
+
+        lastEpoch = epochSecond;
+        hoursObserved += dh;
+    }
+
+    boolean ready() {
+        return hoursObserved >= MIN_HOURS;
+    }
+
+    long lastEpoch() {
+        return lastEpoch;
+    }
+
+    /** Expected usage {@code hours} after the last sample, clamped to 0–100%. */
+    Band at(double hours) {
+        double expected = expected(hours);
+        double spread = Z * Math.sqrt(variance * widening(hours));
+        return new Band(clamp(expected), clamp(expected - spread), clamp(expected + spread));
+    }
+
+    /** Steps hour by hour up to {@code horizonHours}, interpolating the crossing of 100%. */
+    Exhaustion exhaustion(int horizonHours) {
+        Long point = null, earliest = null, latest = null;
+        double prevExpected = expected(0), prevHigh = prevExpected, prevLow = prevExpected;
+        for (int k = 1; k <= horizonHours && latest == null; k++) {
+            double e = expected(k);
+            double spread = Z * Math.sqrt(variance * widening(k));
+            if (point == null && e >= 100) point = crossing(k, prevExpected, e);
+            if (earliest == null && e + spread >= 100) earliest = crossing(k, prevHigh, e + spread);
+            if (e - spread >= 100) latest = crossing(k, prevLow, e - spread);
+            prevExpected = e;
+            prevHigh = e + spread;
+            prevLow = e - spread;
+        }
+        return new Exhaustion(point, earliest, latest);
+    }
+
+    // -------------------------------------------------------------------------
+    // Private helpers
+    // -------------------------------------------------------------------------
+
+    private double expected(double hours) {
+        long at = lastEpoch + (long) (hours * 3600);
+        return level + trend * damped(hours) + daily[hourOfDay(at)] + weekly[dayOfWeek(at)];
+    }
+
+    /** h-step variance factor for whole hours; past the table it grows by the last step. */
+    private static double widening(double hours) {
+        int h = (int) Math.ceil(Math.max(hours, 1));
+        if (h < WIDENING.length) return WIDENING[h];
+        double lastStep = WIDENING[WIDENING.length - 1] - WIDENING[WIDENING.length - 2];
+        return WIDENING[WIDENING.length - 1] + lastStep * (h - WIDENING.length + 1);
+    }
+
+    private static double[] wideningTable(int maxHours) {
+        double[] table = new double[maxHours + 1];
+        table[0] = 1;
+        table[1] = 1;
+        for (int h = 2; h <= maxHours; h++) {
+            double c = LEVEL + TREND * damped(h - 1);
+            table[h] = table[h - 1] + c * c;
+        }
+        return table;
+    }
+
+    /** Trend multiplier over {@code hours}: the sum of DAMPING^i for i in (0, hours]. */
+    private static double damped(double hours) {
+        return DAMPING * (1 - Math.pow(DAMPING, hours)) / (1 - DAMPING);
+    }
+
+    /** Epoch second at which a value moving from {@code before} (hour k-1) to {@code after} (hour k) hits 100. */
+    private long crossing(int k, double before, double after) {
+        double fraction = after > before ? Math.min(Math.max((100 - before) / (after - before), 0), 1) : 1;
+        return lastEpoch + (long) ((k - 1 + fraction) * 3600);
+    }
+
+    private static double weight(double perHour, double hours) {
+        return 1 - Math.pow(1 - perHour, hours);
+    }
+
+    private static int hourOfDay(long epochSecond) {
+        return (int) Math.floorMod(epochSecond / 3600, 24L);
+    }
+
+    /** 0 = Monday (1970-01-01 was a Thursday). */
+    private static int dayOfWeek(long epochSecond) {
+        return (int) Math.floorMod(Math.floorDiv(epochSecond, 86400L) + 3, 7L);
+    }
+
+    private static double clamp(double pct) {
+        return Math.round(Math.min(Math.max(pct, 0), 100) * 100.0) / 100.0;
+    }
+}
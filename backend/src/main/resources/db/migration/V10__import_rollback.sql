@@ -0,0 +1,25 @@
+-- ============================================================
+-- V10: Data Forge — per-job record log for rollback
+-- ============================================================
+
+ALTER TABLE import_jobs ADD COLUMN IF NOT EXISTS external_id_field   VARCHAR(255);
+ALTER TABLE import_jobs ADD COLUMN IF NOT EXISTS rollback_of_job_id  BIGINT;
+ALTER TABLE import_jobs ADD COLUMN IF NOT EXISTS unrevertible_records INT NOT NULL DEFAULT 0;
+
+CREATE TABLE IF NOT EXISTS import_job_records (
+    id              BIGSERIAL PRIMARY KEY,
+    import_job_id   BIGINT      NOT NULL REFERENCES import_jobs(id) ON DELETE CASCADE,
+    row_number      INT         NOT NULL,
+    record_id       VARCHAR(18) NOT NULL,
+    action          VARCHAR(10) NOT NULL,
+    previous_values TEXT
+);
+
+CREATE INDEX idx_import_job_records_job ON import_job_records (import_job_id, action, id);
+
+-- At most one unfinished rollback per import: two concurrent rollback requests must
+-- not both create a job, while finished (or failed) rollbacks drop out of the index
+-- so a retry stays possible.
+CREATE UNIQUE INDEX IF NOT EXISTS uq_import_jobs_unfinished_rollback
+    ON import_jobs (rollback_of_job_id)
+    WHERE status IN ('PENDING', 'PROCESSING');
@@ -0,0 +1,12 @@
+-- ============================================================
+-- V11: Data Forge — directory ingestion (file patterns, checksums)
+-- ============================================================
+
+ALTER TABLE field_mappings ADD COLUMN IF NOT EXISTS file_pattern      VARCHAR(255);
+ALTER TABLE field_mappings ADD COLUMN IF NOT EXISTS operation         VARCHAR(50);
+ALTER TABLE field_mappings ADD COLUMN IF NOT EXISTS external_id_field VARCHAR(255);
+
+ALTER TABLE import_jobs ADD COLUMN IF NOT EXISTS source_checksum VARCHAR(64);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_import_jobs_org_checksum
+    ON import_jobs (org_id, source_checksum) WHERE source_checksum IS NOT NULL;
@@ -0,0 +1,26 @@
+-- ============================================================
+-- V12: Per-org Flow run counters for the FlowForge dashboard
+-- ============================================================
+
+CREATE TABLE IF NOT EXISTS flow_run_counters (
+    org_id       VARCHAR(255) PRIMARY KEY,
+    total_runs   BIGINT       NOT NULL DEFAULT 0,
+    success_runs BIGINT       NOT NULL DEFAULT 0,
+    error_runs   BIGINT       NOT NULL DEFAULT 0,
+    fault_runs   BIGINT       NOT NULL DEFAULT 0,
+    updated_at   TIMESTAMP    NOT NULL DEFAULT now()
+);
+
+-- Seed from existing history
+INSERT INTO flow_run_counters (org_id, total_runs, success_runs, error_runs, fault_runs, updated_at)
+SELECT org_id,
+       COUNT(*),
+       COUNT(*) FILTER (WHERE status = 'Success'),
+       COUNT(*) FILTER (WHERE status = 'Error'),
+       COUNT(*) FILTER (WHERE status = 'Fault'),
+       now()
+FROM flow_runs
+GROUP BY org_id
+ON CONFLICT (org_id) DO NOTHING;
+
+CREATE INDEX IF NOT EXISTS idx_flow_runs_org_status ON flow_runs (org_id, status);
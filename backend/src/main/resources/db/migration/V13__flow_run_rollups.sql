@@ -0,0 +1,36 @@
+-- ============================================================
+-- V13: Hourly and daily Flow run rollups for FlowForge analytics
+-- ============================================================
+
+CREATE TABLE IF NOT EXISTS flow_run_rollups (
+    id              BIGSERIAL PRIMARY KEY,
+    org_id          VARCHAR(255) NOT NULL,
+    flow_name       VARCHAR(500) NOT NULL,
+    granularity     VARCHAR(10)  NOT NULL,
+    bucket_start    TIMESTAMP    NOT NULL,
+    success_count   BIGINT       NOT NULL DEFAULT 0,
+    error_count     BIGINT       NOT NULL DEFAULT 0,
+    duration_count  BIGINT       NOT NULL DEFAULT 0,
+    duration_sum_ms BIGINT       NOT NULL DEFAULT 0,
+    duration_min_ms BIGINT,
+    duration_max_ms BIGINT,
+    CONSTRAINT uq_flow_run_rollups UNIQUE (org_id, granularity, bucket_start, flow_name)
+);
+
+-- Seed from existing history
+INSERT INTO flow_run_rollups (org_id, flow_name, granularity, bucket_start, success_count, error_count,
+                              duration_count, duration_sum_ms, duration_min_ms, duration_max_ms)
+SELECT org_id,
+       COALESCE(flow_name, flow_id, '(unknown)'),
+       g.granularity,
+       date_trunc(lower(g.granularity), created_at),
+       COUNT(*) FILTER (WHERE status IS NULL OR status NOT IN ('Error', 'Fault')),
+       COUNT(*) FILTER (WHERE status IN ('Error', 'Fault')),
+       COUNT(duration_ms),
+       COALESCE(SUM(duration_ms), 0),
+       MIN(duration_ms),
+       MAX(duration_ms)
+FROM flow_runs
+CROSS JOIN (VALUES ('HOUR'), ('DAY')) AS g(granularity)
+GROUP BY org_id, COALESCE(flow_name, flow_id, '(unknown)'), g.granularity, date_trunc(lower(g.granularity), created_at)
+ON CONFLICT (org_id, granularity, bucket_start, flow_name) DO NOTHING;
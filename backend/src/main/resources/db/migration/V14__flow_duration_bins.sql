@@ -0,0 +1,36 @@
+-- ============================================================
+-- V14: Flow duration histograms (log-linear bins, see DurationHistogram)
+-- ============================================================
+
+CREATE TABLE IF NOT EXISTS flow_duration_bins (
+    id           BIGSERIAL PRIMARY KEY,
+    org_id       VARCHAR(255) NOT NULL,
+    flow_name    VARCHAR(500) NOT NULL,
+    granularity  VARCHAR(10)  NOT NULL,
+    bucket_start TIMESTAMP    NOT NULL,
+    bin          INT          NOT NULL,
+    run_count    BIGINT       NOT NULL DEFAULT 0,
+    CONSTRAINT uq_flow_duration_bins UNIQUE (org_id, granularity, bucket_start, flow_name, bin)
+);
+
+-- Seed from existing history: bin = d for d < 64, else (k-5)*32 + (d >> (k-5)) with k = floor(log2 d)
+INSERT INTO flow_duration_bins (org_id, flow_name, granularity, bucket_start, bin, run_count)
+SELECT org_id, flow, g.granularity, date_trunc(lower(g.granularity), created_at), bin, COUNT(*)
+FROM (
+    SELECT org_id,
+           COALESCE(flow_name, flow_id, '(unknown)') AS flow,
+           created_at,
+           CASE WHEN d < 64 THEN d::int
+                ELSE ((k - 5) * 32 + (d >> (k - 5)))::int
+           END AS bin
+    FROM (
+        SELECT org_id, flow_name, flow_id, created_at,
+               GREATEST(duration_ms, 0) AS d,
+               floor(log(2, GREATEST(duration_ms, 1)::numeric))::int AS k
+        FROM flow_runs
+        WHERE duration_ms IS NOT NULL
+    ) runs
+) binned
+CROSS JOIN (VALUES ('HOUR'), ('DAY')) AS g(granularity)
+GROUP BY org_id, flow, g.granularity, date_trunc(lower(g.granularity), created_at), bin
+ON CONFLICT (org_id, granularity, bucket_start, flow_name, bin) DO NOTHING;
@@ -0,0 +1,25 @@
+-- ============================================================
+-- V15: Bulk flow invocation jobs
+-- ============================================================
+
+CREATE TABLE IF NOT EXISTS flow_bulk_jobs (
+    id               BIGSERIAL PRIMARY KEY,
+    org_id           VARCHAR(255) NOT NULL,
+    flow_api_name    VARCHAR(255) NOT NULL,
+    flow_name        VARCHAR(500),
+    source_name      VARCHAR(255),
+    status           VARCHAR(50),
+    total_inputs     INT          NOT NULL DEFAULT 0,
+    processed_inputs INT          NOT NULL DEFAULT 0,
+    success_count    INT          NOT NULL DEFAULT 0,
+    error_count      INT          NOT NULL DEFAULT 0,
+    api_calls        INT          NOT NULL DEFAULT 0,
+    created_by       VARCHAR(255),
+    created_at       TIMESTAMP    NOT NULL DEFAULT now(),
+    completed_at     TIMESTAMP
+);
+
+CREATE INDEX idx_flow_bulk_jobs_org ON flow_bulk_jobs (org_id, created_at);
+
+ALTER TABLE flow_runs ADD COLUMN IF NOT EXISTS bulk_job_id BIGINT;
+CREATE INDEX idx_flow_runs_bulk_job ON flow_runs (bulk_job_id, status) WHERE bulk_job_id IS NOT NULL;
@@ -0,0 +1,17 @@
+-- ============================================================
+-- V16: Flow interview / fault ingestion from Salesforce
+-- ============================================================
+
+ALTER TABLE flow_runs ADD COLUMN IF NOT EXISTS sf_id VARCHAR(18);
+CREATE UNIQUE INDEX IF NOT EXISTS uq_flow_runs_org_sf_id ON flow_runs (org_id, sf_id) WHERE sf_id IS NOT NULL;
+
+CREATE TABLE IF NOT EXISTS flow_ingest_cursors (
+    id             BIGSERIAL PRIMARY KEY,
+    org_id         VARCHAR(255) NOT NULL,
+    source         VARCHAR(50)  NOT NULL,
+    watermark      VARCHAR(30),
+    ingested_runs  BIGINT       NOT NULL DEFAULT 0,
+    last_polled_at TIMESTAMP,
+    last_error     TEXT,
+    UNIQUE (org_id, source)
+);
@@ -0,0 +1,9 @@
+-- ============================================================
+-- V17: Flow overlaps keyed by object, record event and timing
+-- ============================================================
+
+ALTER TABLE flow_overlaps ADD COLUMN IF NOT EXISTS trigger_timing   VARCHAR(50);
+ALTER TABLE flow_overlaps ADD COLUMN IF NOT EXISTS entry_conditions TEXT;
+
+-- Rows from the old TriggerType-only grouping are not real collisions
+DELETE FROM flow_overlaps;
@@ -0,0 +1,40 @@
+-- ============================================================
+-- V18: Flow load tests
+-- ============================================================
+
+CREATE TABLE IF NOT EXISTS flow_load_tests (
+    id                     BIGSERIAL PRIMARY KEY,
+    org_id                 VARCHAR(255) NOT NULL,
+    flow_api_name          VARCHAR(255) NOT NULL,
+    flow_name              VARCHAR(500),
+    mode                   VARCHAR(20),
+    target_rate            DOUBLE PRECISION,
+    concurrency            INT,
+    duration_seconds       INT          NOT NULL,
+    input_template_json    TEXT,
+    status                 VARCHAR(50),
+    stop_reason            VARCHAR(255),
+    call_budget            BIGINT       NOT NULL DEFAULT 0,
+    total_calls            BIGINT       NOT NULL DEFAULT 0,
+    success_count          BIGINT       NOT NULL DEFAULT 0,
+    error_count            BIGINT       NOT NULL DEFAULT 0,
+    skipped_calls          BIGINT       NOT NULL DEFAULT 0,
+    throughput_per_sec     DOUBLE PRECISION,
+    error_rate             DOUBLE PRECISION,
+    avg_ms                 BIGINT,
+    p50_ms                 BIGINT,
+    p90_ms                 BIGINT,
+    p95_ms                 BIGINT,
+    p99_ms                 BIGINT,
+    max_ms                 BIGINT,
+    latency_histogram_json TEXT,
+    created_by             VARCHAR(255),
+    created_at             TIMESTAMP    NOT NULL DEFAULT now(),
+    started_at             TIMESTAMP,
+    completed_at           TIMESTAMP
+);
+
+CREATE INDEX idx_flow_load_tests_org ON flow_load_tests (org_id, created_at);
+
+ALTER TABLE flow_runs ADD COLUMN IF NOT EXISTS load_test_id BIGINT;
+CREATE INDEX idx_flow_runs_load_test ON flow_runs (load_test_id) WHERE load_test_id IS NOT NULL;
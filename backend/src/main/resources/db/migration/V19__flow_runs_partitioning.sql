@@ -0,0 +1,93 @@
+-- ============================================================
+-- V19: Monthly range partitions for flow_runs and flow_errors
+-- ============================================================
+-- Both tables are partitioned by created_at (flow_errors carries its run's
+-- created_at) so retention drops a month of runs and errors as whole tables.
+-- Primary keys include the partition key; ids keep coming from the existing
+-- sequences. The flow_errors → flow_runs foreign key cannot span partitioned
+-- tables cheaply and is dropped; errors are written with their run.
+
+ALTER TABLE flow_errors RENAME TO flow_errors_legacy;
+ALTER TABLE flow_runs   RENAME TO flow_runs_legacy;
+
+CREATE TABLE flow_runs (
+    id            BIGINT       NOT NULL DEFAULT nextval('flow_runs_id_seq'),
+    org_id        VARCHAR(255) NOT NULL,
+    flow_name     VARCHAR(500),
+    flow_type     VARCHAR(100),
+    flow_id       VARCHAR(255),
+    status        VARCHAR(50),
+    error_message TEXT,
+    started_at    TIMESTAMP,
+    duration_ms   BIGINT,
+    record_id     VARCHAR(255),
+    triggered_by  VARCHAR(500),
+    bulk_job_id   BIGINT,
+    load_test_id  BIGINT,
+    sf_id         VARCHAR(18),
+    created_at    TIMESTAMP    NOT NULL DEFAULT now(),
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE flow_errors (
+    id               BIGINT       NOT NULL DEFAULT nextval('flow_errors_id_seq'),
+    flow_run_id      BIGINT       NOT NULL,
+    error_type       VARCHAR(200),
+    error_message    TEXT,
+    stack_trace      TEXT,
+    element_label    VARCHAR(500),
+    element_api_name VARCHAR(500),
+    created_at       TIMESTAMP    NOT NULL DEFAULT now(),
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+ALTER SEQUENCE flow_runs_id_seq   OWNED BY flow_runs.id;
+ALTER SEQUENCE flow_errors_id_seq OWNED BY flow_errors.id;
+
+-- Rows outside every monthly partition land here; the retention job keeps
+-- monthly partitions created ahead of time so this stays (nearly) empty.
+CREATE TABLE flow_runs_default   PARTITION OF flow_runs   DEFAULT;
+CREATE TABLE flow_errors_default PARTITION OF flow_errors DEFAULT;
+
+-- One partition per month from the oldest run through three months ahead
+DO $$
+DECLARE
+    m    DATE := date_trunc('month', COALESCE((SELECT min(created_at) FROM flow_runs_legacy), now()))::date;
+    stop DATE := (date_trunc('month', now()) + INTERVAL '4 months')::date;
+BEGIN
+    WHILE m < stop LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF flow_runs FOR VALUES FROM (%L) TO (%L)',
+                       'flow_runs_p' || to_char(m, 'YYYY_MM'), m, (m + INTERVAL '1 month')::date);
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF flow_errors FOR VALUES FROM (%L) TO (%L)',
+                       'flow_errors_p' || to_char(m, 'YYYY_MM'), m, (m + INTERVAL '1 month')::date);
+        m := (m + INTERVAL '1 month')::date;
+    END LOOP;
+END $$;
+
+INSERT INTO flow_runs (id, org_id, flow_name, flow_type, flow_id, status, error_message, started_at,
+                       duration_ms, record_id, triggered_by, bulk_job_id, load_test_id, sf_id, created_at)
+SELECT id, org_id, flow_name, flow_type, flow_id, status, error_message, started_at,
+       duration_ms, record_id, triggered_by, bulk_job_id, load_test_id, sf_id, created_at
+FROM flow_runs_legacy;
+
+INSERT INTO flow_errors (id, flow_run_id, error_type, error_message, stack_trace, element_label,
+                         element_api_name, created_at)
+SELECT e.id, e.flow_run_id, e.error_type, e.error_message, e.stack_trace, e.element_label,
+       e.element_api_name, r.created_at
+FROM flow_errors_legacy e
+JOIN flow_runs_legacy r ON r.id = e.flow_run_id;
+
+DROP TABLE flow_errors_legacy;
+DROP TABLE flow_runs_legacy;
+
+-- Every run query is by org, optionally status, newest first
+CREATE INDEX idx_flow_runs_org_created        ON flow_runs (org_id, created_at DESC);
+CREATE INDEX idx_flow_runs_org_status_created ON flow_runs (org_id, status, created_at);
+CREATE INDEX idx_flow_runs_bulk_job           ON flow_runs (bulk_job_id, status) WHERE bulk_job_id IS NOT NULL;
+CREATE INDEX idx_flow_runs_load_test          ON flow_runs (load_test_id) WHERE load_test_id IS NOT NULL;
+-- Unique indexes on a partitioned table must include the partition key; an
+-- ingested run's created_at is fixed by its Salesforce record, so this still
+-- rejects a second copy of the same record.
+CREATE UNIQUE INDEX uq_flow_runs_org_sf_id    ON flow_runs (org_id, sf_id, created_at) WHERE sf_id IS NOT NULL;
+
+CREATE INDEX idx_flow_errors_run ON flow_errors (flow_run_id);
@@ -0,0 +1,8 @@
+-- ============================================================
+-- V20: Per-limit series index on limit_snapshots
+-- ============================================================
+-- LimitSeriesStore warms its ring buffers with the newest N samples of every
+-- limit of an org; the history endpoint reads one limit over a time range.
+
+CREATE INDEX IF NOT EXISTS idx_limit_snapshots_org_limit_at
+    ON limit_snapshots (org_id, limit_name, snapshot_at DESC);
@@ -0,0 +1,24 @@
+-- ============================================================
+-- V21: Limit history rollups (5-minute and hourly tiers)
+-- ============================================================
+-- Raw limit_snapshots are kept for a short window; older history lives here
+-- as min/max/avg/last per bucket. Each bucket is written once, after it closes.
+
+CREATE TABLE IF NOT EXISTS limit_rollups (
+    id                 BIGSERIAL PRIMARY KEY,
+    org_id             VARCHAR(255)     NOT NULL,
+    limit_name         VARCHAR(255)     NOT NULL,
+    resolution_seconds INT              NOT NULL,
+    bucket_start       TIMESTAMP        NOT NULL,
+    min_pct            DOUBLE PRECISION NOT NULL DEFAULT 0,
+    max_pct            DOUBLE PRECISION NOT NULL DEFAULT 0,
+    avg_pct            DOUBLE PRECISION NOT NULL DEFAULT 0,
+    last_pct           DOUBLE PRECISION NOT NULL DEFAULT 0,
+    last_used          BIGINT           NOT NULL DEFAULT 0,
+    last_total         BIGINT           NOT NULL DEFAULT 0,
+    sample_count       INT              NOT NULL DEFAULT 0,
+    UNIQUE (org_id, limit_name, resolution_seconds, bucket_start)
+);
+
+-- Pruning and the rollup watermark scan by tier and time
+CREATE INDEX idx_limit_rollups_tier_bucket ON limit_rollups (resolution_seconds, bucket_start);
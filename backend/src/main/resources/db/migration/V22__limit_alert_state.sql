@@ -0,0 +1,22 @@
+-- ============================================================
+-- V22: Limit alert evaluation state and transitions
+-- ============================================================
+
+ALTER TABLE limit_alerts ADD COLUMN IF NOT EXISTS state            VARCHAR(20) NOT NULL DEFAULT 'OK';
+ALTER TABLE limit_alerts ADD COLUMN IF NOT EXISTS state_changed_at TIMESTAMP;
+ALTER TABLE limit_alerts ADD COLUMN IF NOT EXISTS last_notified_at TIMESTAMP;
+
+CREATE TABLE IF NOT EXISTS limit_alert_events (
+    id            BIGSERIAL PRIMARY KEY,
+    alert_id      BIGINT           NOT NULL REFERENCES limit_alerts(id) ON DELETE CASCADE,
+    org_id        VARCHAR(255)     NOT NULL,
+    limit_name    VARCHAR(255)     NOT NULL,
+    from_state    VARCHAR(20)      NOT NULL,
+    to_state      VARCHAR(20)      NOT NULL,
+    percentage    DOUBLE PRECISION NOT NULL DEFAULT 0,
+    threshold_pct DOUBLE PRECISION NOT NULL DEFAULT 0,
+    notified      BOOLEAN          NOT NULL DEFAULT false,
+    occurred_at   TIMESTAMP        NOT NULL DEFAULT now()
+);
+
+CREATE INDEX idx_limit_alert_events_org_at ON limit_alert_events (org_id, occurred_at DESC);
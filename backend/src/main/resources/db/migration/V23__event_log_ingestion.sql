@@ -0,0 +1,42 @@
+-- ============================================================
+-- V23: EventLogFile ingestion and API consumption rollups
+-- ============================================================
+-- Each org's EventLogFile records are polled by CreatedDate; every log body is
+-- streamed once and only its hourly per-user/client/URI call counts are kept.
+
+CREATE TABLE IF NOT EXISTS event_log_cursors (
+    id             BIGSERIAL PRIMARY KEY,
+    org_id         VARCHAR(255) NOT NULL UNIQUE,
+    watermark      VARCHAR(30),
+    files_ingested BIGINT       NOT NULL DEFAULT 0,
+    rows_ingested  BIGINT       NOT NULL DEFAULT 0,
+    last_polled_at TIMESTAMP,
+    last_error     TEXT
+);
+
+-- Files already counted; the watermark query re-reads files sharing its second
+CREATE TABLE IF NOT EXISTS ingested_log_files (
+    id          BIGSERIAL PRIMARY KEY,
+    org_id      VARCHAR(255) NOT NULL,
+    log_file_id VARCHAR(18)  NOT NULL,
+    event_type  VARCHAR(100) NOT NULL,
+    log_date    TIMESTAMP,
+    row_count   BIGINT       NOT NULL DEFAULT 0,
+    ingested_at TIMESTAMP    NOT NULL DEFAULT now(),
+    UNIQUE (org_id, log_file_id)
+);
+
+CREATE TABLE IF NOT EXISTS api_usage_rollups (
+    id            BIGSERIAL PRIMARY KEY,
+    org_id        VARCHAR(255) NOT NULL,
+    hour_start    TIMESTAMP    NOT NULL,
+    user_id       VARCHAR(18)  NOT NULL DEFAULT '',
+    client        VARCHAR(255) NOT NULL DEFAULT '',
+    uri           VARCHAR(255) NOT NULL DEFAULT '',
+    calls         BIGINT       NOT NULL DEFAULT 0,
+    counted_calls BIGINT       NOT NULL DEFAULT 0,
+    error_calls   BIGINT       NOT NULL DEFAULT 0,
+    CONSTRAINT uq_api_usage_rollups UNIQUE (org_id, hour_start, user_id, client, uri)
+);
+
+CREATE INDEX idx_api_usage_rollups_org_hour ON api_usage_rollups (org_id, hour_start);
@@ -0,0 +1,20 @@
+-- ============================================================
+-- V24: Limit usage anomalies
+-- ============================================================
+-- Sudden rises in a limit's usage found by the streaming detector; read back as
+-- annotations on the history chart.
+
+CREATE TABLE IF NOT EXISTS limit_anomalies (
+    id                  BIGSERIAL PRIMARY KEY,
+    org_id              VARCHAR(255)     NOT NULL,
+    limit_name          VARCHAR(255)     NOT NULL,
+    detected_at         TIMESTAMP        NOT NULL,
+    percentage          DOUBLE PRECISION NOT NULL DEFAULT 0,
+    previous_percentage DOUBLE PRECISION NOT NULL DEFAULT 0,
+    rate_per_hour       DOUBLE PRECISION NOT NULL DEFAULT 0,
+    expected_rate       DOUBLE PRECISION NOT NULL DEFAULT 0,
+    score               DOUBLE PRECISION NOT NULL DEFAULT 0,
+    severity            VARCHAR(20)      NOT NULL
+);
+
+CREATE INDEX idx_limit_anomalies_org_limit_at ON limit_anomalies (org_id, limit_name, detected_at);
@@ -52,3 +52,28 @@ export function getMappings(orgId, objectName) {
 export function saveMapping(payload) {
   return apiClient.post('/data-forge/mappings', payload)
 }
+
+/**
+ * Dry-run an import: validation counts, projected API calls and duration.
+ * @param {{ orgId: string, objectName: string, operation: string, externalIdField?: string, records: object[] }} payload
+ */
+export function estimateJob(payload) {
+  return apiClient.post('/data-forge/jobs/estimate', payload)
+}
+
+/**
+ * Start a rollback job that reverts the records written by an import job.
+ * @param {number|string} id  import job id
+ * @param {string} createdBy
+ */
+export function rollbackJob(id, createdBy = 'user') {
+  return apiClient.post(`/data-forge/jobs/${id}/rollback`, { createdBy })
+}
+
+/**
+ * Start a TREE import: parent/child records inserted together through the sObject Tree API.
+ * @param {{ orgId: string, objectName: string, records: object[], keyField?: string, children?: object[], fileName?: string, createdBy?: string }} payload
+ */
+export function createTreeJob(payload) {
+  return apiClient.post('/data-forge/jobs/tree', payload)
+}
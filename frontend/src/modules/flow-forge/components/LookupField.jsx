@@ -17,6 +17,9 @@ export default function LookupField({ orgId, sobjectType, value, onChange, requi
   const [searchError, setSearchError] = useState(null)
   const debounceRef = useRef(null)
   const containerRef = useRef(null)
+  const abortRef = useRef(null)
+  // Lets the backend drop this field's superseded searches before they reach Salesforce
+  const clientRef = useRef(Math.random().toString(36).slice(2))
 
   // Close on outside click
   useEffect(() => {
@@ -36,24 +39,34 @@ export default function LookupField({ orgId, sobjectType, value, onChange, requi
       setResults([])
       setOpen(false)
       clearTimeout(debounceRef.current)
+      abortRef.current?.abort()
       return
     }
     clearTimeout(debounceRef.current)
     debounceRef.current = setTimeout(async () => {
       if (!sobjectType) return
+      // Cancel the previous search still in flight
+      abortRef.current?.abort()
+      const controller = new AbortController()
+      abortRef.current = controller
       setSearching(true)
       try {
-        const { data } = await lookupRecords(orgId, sobjectType, query)
+        const { status, data } = await lookupRecords(orgId, sobjectType, query, {
+          client: clientRef.current,
+          signal: controller.signal,
+        })
+        if (status === 204) return // superseded by a newer search
         setResults(Array.isArray(data) ? data : [])
         setOpen(true)
       } catch (err) {
+        if (err.code === 'ERR_CANCELED') return
         setSearchError(err.response?.data?.error || 'Search failed')
         setResults([])
         setOpen(true) // still open to show the "create new" option
       } finally {
-        setSearching(false)
+        if (abortRef.current === controller) setSearching(false)
       }
-    }, 350)
+    }, 200)
     return () => clearTimeout(debounceRef.current)
   }, [query, orgId, sobjectType])
 
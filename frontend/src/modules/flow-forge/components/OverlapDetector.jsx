@@ -75,12 +75,23 @@ export default function OverlapDetector({ overlaps, onDetect, detecting }) {
               <div className="space-y-1.5 text-xs">
                 <div className="flex gap-2">
                   <span className="text-slate-500 w-24 shrink-0">Trigger Event</span>
-                  <span className="text-slate-300">{overlap.triggerEvent || '--'}</span>
+                  <span className="text-slate-300">
+                    {overlap.triggerEvent || '--'}
+                    {overlap.triggerTiming ? ` (${overlap.triggerTiming})` : ''}
+                  </span>
                 </div>
                 <div className="flex gap-2">
                   <span className="text-slate-500 w-24 shrink-0">Flows</span>
                   <span className="text-slate-300 leading-relaxed">{overlap.flowNames}</span>
                 </div>
+                {overlap.entryConditions && (
+                  <div className="flex gap-2">
+                    <span className="text-slate-500 w-24 shrink-0">Conditions</span>
+                    <span className="text-slate-400 leading-relaxed whitespace-pre-line">
+                      {overlap.entryConditions}
+                    </span>
+                  </div>
+                )}
                 {overlap.detectedAt && (
                   <div className="flex gap-2">
                     <span className="text-slate-500 w-24 shrink-0">Detected</span>
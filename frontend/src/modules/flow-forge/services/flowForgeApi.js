@@ -26,10 +26,22 @@ export function getFlowAnalytics(orgId, days = 30) {
   return apiClient.get(`/flow-forge/analytics?orgId=${orgId}&days=${days}`)
 }
 
+export function getFlowAnalyticsRange(orgId, { from, to, granularity = 'DAY', flowName } = {}) {
+  const params = new URLSearchParams({ orgId, granularity })
+  if (from) params.set('from', from)
+  if (to) params.set('to', to)
+  if (flowName) params.set('flowName', flowName)
+  return apiClient.get(`/flow-forge/analytics?${params.toString()}`)
+}
+
 export function getFlows(orgId) {
   return apiClient.get(`/flow-forge/flows?orgId=${orgId}`)
 }
 
+export function refreshFlows(orgId) {
+  return apiClient.post(`/flow-forge/flows/refresh?orgId=${orgId}`)
+}
+
 export function getFlowInputs(orgId, apiName) {
   return apiClient.get(`/flow-forge/flows/inputs?orgId=${orgId}&apiName=${encodeURIComponent(apiName)}`)
 }
@@ -38,6 +50,58 @@ export function invokeFlow(orgId, apiName, label, inputs = {}) {
   return apiClient.post(`/flow-forge/flows/invoke?orgId=${orgId}`, { apiName, label, inputs })
 }
 
-export function lookupRecords(orgId, sobjectType, q) {
-  return apiClient.get(`/flow-forge/flows/lookup?orgId=${orgId}&sobjectType=${encodeURIComponent(sobjectType)}&q=${encodeURIComponent(q)}`)
+export function lookupRecords(orgId, sobjectType, q, { client, signal } = {}) {
+  const clientParam = client ? `&client=${encodeURIComponent(client)}` : ''
+  return apiClient.get(
+    `/flow-forge/flows/lookup?orgId=${orgId}&sobjectType=${encodeURIComponent(sobjectType)}&q=${encodeURIComponent(q)}${clientParam}`,
+    { signal }
+  )
+}
+
+export function getFlowDurationPercentiles(orgId, { days = 7, from, to, flowName } = {}) {
+  const params = new URLSearchParams({ orgId, days })
+  if (from) params.set('from', from)
+  if (to) params.set('to', to)
+  if (flowName) params.set('flowName', flowName)
+  return apiClient.get(`/flow-forge/analytics/durations?${params.toString()}`)
+}
+
+/**
+ * Start a bulk invoke job. payload: { apiName, label, inputs: [...] } or { apiName, label, csv: '...' }.
+ * Progress arrives on /topic/flow-bulk.{orgId}.
+ */
+export function bulkInvokeFlow(orgId, payload) {
+  return apiClient.post(`/flow-forge/flows/bulk-invoke?orgId=${orgId}`, payload)
+}
+
+export function getBulkJobs(orgId, page = 0) {
+  return apiClient.get(`/flow-forge/bulk-jobs?orgId=${orgId}&page=${page}`)
+}
+
+export function getBulkJob(id, page = 0) {
+  return apiClient.get(`/flow-forge/bulk-jobs/${id}?page=${page}`)
+}
+
+export function ingestFlowRuns(orgId) {
+  return apiClient.post(`/flow-forge/ingest?orgId=${orgId}`)
+}
+
+export function getIngestCursors(orgId) {
+  return apiClient.get(`/flow-forge/ingest/cursors?orgId=${orgId}`)
+}
+
+export function startLoadTest(orgId, body) {
+  return apiClient.post(`/flow-forge/flows/load-test?orgId=${orgId}`, body)
+}
+
+export function getLoadTests(orgId, page = 0) {
+  return apiClient.get(`/flow-forge/load-tests?orgId=${orgId}&page=${page}`)
+}
+
+export function getLoadTest(id) {
+  return apiClient.get(`/flow-forge/load-tests/${id}`)
+}
+
+export function stopLoadTest(id) {
+  return apiClient.post(`/flow-forge/load-tests/${id}/stop`)
 }
@@ -2,9 +2,11 @@ import { AlertTriangle, Clock, CheckCircle } from 'lucide-react'
 
 /**
  * PredictionCard — shows forecasted exhaustion date for a limit.
- * Props: { forecastedExhaustionAt: string|null, limitName: string, percentage: number }
+ * Props: { forecastedExhaustionAt: string|null, limitName: string, percentage: number,
+ *          forecast?: { exhaustionEarliestAt, exhaustionLatestAt, forecastPct24h, forecastPct24hLow, forecastPct24hHigh } }
+ * The optional forecast fields (90% bands) are present once the seasonal model has a day of samples.
  */
-export default function PredictionCard({ forecastedExhaustionAt, limitName, percentage }) {
+export default function PredictionCard({ forecastedExhaustionAt, limitName, percentage, forecast }) {
   const safePercent = Number(percentage) || 0
 
   const isCritical = safePercent >= 90
@@ -66,6 +68,19 @@ export default function PredictionCard({ forecastedExhaustionAt, limitName, perc
                 {timeUntilExhaustion && (
                   <p className="text-xs text-slate-500 mt-0.5">{timeUntilExhaustion}</p>
                 )}
+                {forecast?.exhaustionEarliestAt && (
+                  <p className="text-xs text-slate-500 mt-0.5">
+                    90% range: {formatShort(forecast.exhaustionEarliestAt)} – {forecast.exhaustionLatestAt ? formatShort(forecast.exhaustionLatestAt) : 'beyond 7 days'}
+                  </p>
+                )}
+              </div>
+            ) : forecast?.exhaustionEarliestAt ? (
+              <div>
+                <p className="text-xs text-slate-500 uppercase tracking-wide font-medium mb-0.5">
+                  Possible Exhaustion
+                </p>
+                <p className={`text-sm font-semibold ${iconColor}`}>From {formatShort(forecast.exhaustionEarliestAt)}</p>
+                <p className="text-xs text-slate-500 mt-0.5">Not expected, but within the 90% range</p>
               </div>
             ) : (
               <div className="flex items-center gap-2">
@@ -77,6 +92,12 @@ export default function PredictionCard({ forecastedExhaustionAt, limitName, perc
                 </p>
               </div>
             )}
+            {forecast?.forecastPct24h != null && (
+              <p className="text-xs text-slate-500 mt-2">
+                Next 24h: ~{forecast.forecastPct24h.toFixed(1)}%
+                {' '}({forecast.forecastPct24hLow.toFixed(1)}–{forecast.forecastPct24hHigh.toFixed(1)}%)
+              </p>
+            )}
           </div>
         </div>
       </div>
@@ -84,6 +105,12 @@ export default function PredictionCard({ forecastedExhaustionAt, limitName, perc
   )
 }
 
+function formatShort(iso) {
+  return new Date(iso).toLocaleString(undefined, {
+    month: 'short', day: 'numeric', hour: '2-digit', minute: '2-digit',
+  })
+}
+
 function formatLimitName(name) {
   return name?.replace(/([A-Z])/g, ' $1').replace(/^[\s_]+/, '').trim() ?? name
 }
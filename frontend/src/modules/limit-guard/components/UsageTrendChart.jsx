@@ -7,13 +7,16 @@ import {
   Tooltip,
   ResponsiveContainer,
   ReferenceLine,
+  ReferenceDot,
 } from 'recharts'
 
 /**
  * UsageTrendChart — displays historical usage percentage over time.
- * Props: { data: LimitSnapshot[], limitName: string }
+ * Props: { data: LimitHistoryPoint[], anomalies?: LimitAnomaly[], limitName: string }
+ * Rollup points (older ranges) carry minPercentage / maxPercentage for the bucket.
+ * Anomalies are marked on the nearest plotted point.
  */
-export default function UsageTrendChart({ data = [], limitName }) {
+export default function UsageTrendChart({ data = [], anomalies = [], limitName }) {
   if (!data || data.length === 0) {
     return (
       <div className="flex items-center justify-center h-48 bg-slate-800/50 rounded-xl border border-slate-700">
@@ -30,8 +33,23 @@ export default function UsageTrendChart({ data = [], limitName }) {
       percentage: Number(s.percentage ?? 0),
       used: s.used,
       total: s.total,
+      min: s.minPercentage,
+      max: s.maxPercentage,
     }))
 
+  // The x axis is categorical, so each anomaly snaps to the closest sample time
+  const sortedTimes = [...data]
+    .map((s) => new Date(s.snapshotAt).getTime())
+    .sort((a, b) => a - b)
+  const markers = (anomalies ?? []).map((a) => {
+    const at = new Date(a.detectedAt).getTime()
+    let nearest = 0
+    sortedTimes.forEach((t, i) => {
+      if (Math.abs(t - at) < Math.abs(sortedTimes[nearest] - at)) nearest = i
+    })
+    return { ...a, point: chartData[nearest] }
+  })
+
   const maxPct = Math.max(...chartData.map((d) => d.percentage), 0)
   const lineColor =
     maxPct >= 90 ? '#ef4444' :
@@ -45,6 +63,9 @@ export default function UsageTrendChart({ data = [], limitName }) {
       <div className="bg-slate-900 border border-slate-700 rounded-lg px-3 py-2 shadow-xl text-xs">
         <p className="text-slate-400 mb-1">{label}</p>
         <p className="text-white font-semibold">{d.percentage.toFixed(1)}% used</p>
+        {d.min != null && d.max != null && (
+          <p className="text-slate-400">range {d.min.toFixed(1)}–{d.max.toFixed(1)}%</p>
+        )}
         <p className="text-slate-400">{fmt(d.used)} / {fmt(d.total)}</p>
       </div>
     )
@@ -80,9 +101,23 @@ export default function UsageTrendChart({ data = [], limitName }) {
             dataKey="percentage"
             stroke={lineColor}
             strokeWidth={2}
-            dot={{ r: 3, fill: lineColor, strokeWidth: 0 }}
+            dot={chartData.length <= 60 ? { r: 3, fill: lineColor, strokeWidth: 0 } : false}
             activeDot={{ r: 5, fill: lineColor, stroke: '#1e293b', strokeWidth: 2 }}
           />
+          {markers.map((m) => (
+            <ReferenceLine key={`line-${m.id}`} x={m.point.time} stroke="#a855f7" strokeDasharray="2 2" strokeOpacity={0.6} />
+          ))}
+          {markers.map((m) => (
+            <ReferenceDot
+              key={`dot-${m.id}`}
+              x={m.point.time}
+              y={m.point.percentage}
+              r={5}
+              fill="#a855f7"
+              stroke="#1e293b"
+              strokeWidth={2}
+            />
+          ))}
         </LineChart>
       </ResponsiveContainer>
       <div className="flex gap-4 mt-2 text-xs text-slate-500">
@@ -92,6 +127,11 @@ export default function UsageTrendChart({ data = [], limitName }) {
         <span className="flex items-center gap-1">
           <span className="inline-block w-3 h-0.5 bg-red-500 rounded" /> 90% critical
         </span>
+        {markers.length > 0 && (
+          <span className="flex items-center gap-1" title={markers.map(anomalyTitle).join('\n')}>
+            <span className="inline-block w-2 h-2 bg-purple-500 rounded-full" /> {markers.length} anomal{markers.length === 1 ? 'y' : 'ies'}
+          </span>
+        )}
       </div>
     </div>
   )
@@ -104,6 +144,11 @@ function formatTime(iso) {
     + ' ' + d.toLocaleTimeString(undefined, { hour: '2-digit', minute: '2-digit' })
 }
 
+function anomalyTitle(a) {
+  return `${formatTime(a.detectedAt)}: ${a.previousPercentage.toFixed(1)}% → ${a.percentage.toFixed(1)}%`
+    + ` (${a.ratePerHour.toFixed(1)} pts/h, usually ${a.expectedRate.toFixed(1)})`
+}
+
 function formatLimitName(name) {
   return name?.replace(/([A-Z])/g, ' $1').replace(/^[\s_]+/, '').trim() ?? name
 }
@@ -6,7 +6,7 @@ import MetricCard from '../../../core/components/MetricCard.jsx'
 import LimitGauge from '../components/LimitGauge.jsx'
 import UsageTrendChart from '../components/UsageTrendChart.jsx'
 import PredictionCard from '../components/PredictionCard.jsx'
-import { getLimits, getHistory, getAlerts, saveAlert } from '../services/limitGuardApi.js'
+import { getLimits, getHistory, getAnomalies, getAlerts, saveAlert } from '../services/limitGuardApi.js'
 
 export default function LimitDashboard() {
   const { activeOrg, activeOrgId } = useOrg()
@@ -20,6 +20,7 @@ export default function LimitDashboard() {
   // Side panel state
   const [selectedLimit, setSelectedLimit]   = useState(null)
   const [trendData, setTrendData]           = useState([])
+  const [anomalies, setAnomalies]           = useState([])
   const [trendLoading, setTrendLoading]     = useState(false)
 
   // Alert form state
@@ -67,10 +68,16 @@ export default function LimitDashboard() {
   const openTrendPanel = async (limit) => {
     setSelectedLimit(limit)
     setTrendData([])
+    setAnomalies([])
     setTrendLoading(true)
     try {
-      const data = await getHistory(activeOrgId, limit.limitName, 7)
+      // Annotations are optional; the chart still renders without them
+      const [data, found] = await Promise.all([
+        getHistory(activeOrgId, limit.limitName, 7),
+        getAnomalies(activeOrgId, limit.limitName, 7).catch(() => []),
+      ])
       setTrendData(data)
+      setAnomalies(found)
     } catch (err) {
       console.error('Failed to load trend data:', err)
     } finally {
@@ -228,6 +235,7 @@ export default function LimitDashboard() {
             forecastedExhaustionAt={mostCritical.forecastedExhaustionAt}
             limitName={mostCritical.limitName}
             percentage={mostCritical.percentage}
+            forecast={mostCritical}
           />
         </div>
       )}
@@ -423,6 +431,7 @@ export default function LimitDashboard() {
         <TrendPanel
           limit={selectedLimit}
           trendData={trendData}
+          anomalies={anomalies}
           trendLoading={trendLoading}
           onClose={() => setSelectedLimit(null)}
         />
@@ -453,14 +462,21 @@ function AlertRow({ alert }) {
           )}
         </div>
       </div>
-      <span className={`flex-shrink-0 ml-3 px-2 py-0.5 rounded-full text-xs font-semibold border ${color}`}>
-        {pct}%
-      </span>
+      <div className="flex items-center gap-2 flex-shrink-0 ml-3">
+        {alert.state === 'FIRING' && (
+          <span className="px-2 py-0.5 rounded-full text-xs font-semibold border text-red-400 bg-red-500/10 border-red-500/30">
+            Firing
+          </span>
+        )}
+        <span className={`px-2 py-0.5 rounded-full text-xs font-semibold border ${color}`}>
+          {pct}%
+        </span>
+      </div>
     </li>
   )
 }
 
-function TrendPanel({ limit, trendData, trendLoading, onClose }) {
+function TrendPanel({ limit, trendData, anomalies, trendLoading, onClose }) {
   return (
     <div className="fixed inset-0 z-50 flex items-end sm:items-center justify-end sm:justify-end pointer-events-none">
       {/* Backdrop */}
@@ -495,6 +511,7 @@ function TrendPanel({ limit, trendData, trendLoading, onClose }) {
             forecastedExhaustionAt={limit.forecastedExhaustionAt}
             limitName={limit.limitName}
             percentage={limit.percentage}
+            forecast={limit}
           />
 
           {/* Trend chart */}
@@ -506,7 +523,7 @@ function TrendPanel({ limit, trendData, trendLoading, onClose }) {
             {trendLoading ? (
               <LoadingSpinner size="sm" />
             ) : (
-              <UsageTrendChart data={trendData} limitName={limit.limitName} />
+              <UsageTrendChart data={trendData} anomalies={anomalies} limitName={limit.limitName} />
             )}
           </div>
 
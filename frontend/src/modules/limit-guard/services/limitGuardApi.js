@@ -3,11 +3,53 @@ import apiClient from '../../../core/services/apiClient.js'
 export const getLimits = (orgId) =>
   apiClient.get('/limit-guard', { params: { orgId } }).then(r => r.data)
 
-export const getHistory = (orgId, limitName, days = 7) =>
-  apiClient.get('/limit-guard/history', { params: { orgId, limitName, days } }).then(r => r.data)
+export const getHistory = (orgId, limitName, days = 7, points) =>
+  apiClient.get('/limit-guard/history', { params: { orgId, limitName, days, points } }).then(r => r.data)
 
 export const getAlerts = (orgId) =>
   apiClient.get('/limit-guard/alerts', { params: { orgId } }).then(r => r.data)
 
 export const saveAlert = (orgId, data) =>
   apiClient.post('/limit-guard/alerts', data, { params: { orgId } }).then(r => r.data)
+
+export const getCollectorStatus = (orgId) =>
+  apiClient.get('/limit-guard/collector', { params: { orgId } }).then(r => r.data)
+
+export const collectNow = (orgId) =>
+  apiClient.post('/limit-guard/collector/run', null, { params: { orgId } }).then(r => r.data)
+
+export const getAlertEvents = (orgId, limit = 50) =>
+  apiClient.get('/limit-guard/alerts/events', { params: { orgId, limit } }).then(r => r.data)
+
+export const getAnomalies = (orgId, limitName, days = 7) =>
+  apiClient.get('/limit-guard/anomalies', { params: { orgId, limitName, days } }).then(r => r.data)
+
+export const getApiUsage = (orgId) =>
+  apiClient.get('/limit-guard/api-usage', { params: { orgId } }).then(r => r.data)
+
+// NDJSON, one org per line; onOrg is called as each line arrives
+export const streamFleet = ({ top, status, sort } = {}, onOrg) => {
+  let seen = 0
+  const emit = (text, done) => {
+    const lines = text.split('\n')
+    const complete = done ? lines.length : lines.length - 1
+    for (; seen < complete; seen++) {
+      if (lines[seen].trim()) onOrg(JSON.parse(lines[seen]))
+    }
+  }
+  return apiClient.get('/limit-guard/fleet', {
+    params: { top, status: status?.join(','), sort },
+    responseType: 'text',
+    transformResponse: (d) => d,
+    onDownloadProgress: (e) => emit(e.event?.target?.responseText ?? '', false),
+  }).then(r => emit(r.data, true))
+}
+
+export const getApiConsumers = (orgId, { hours = 24, by = 'user', limit = 20 } = {}) =>
+  apiClient.get('/limit-guard/api-consumers', { params: { orgId, hours, by, limit } }).then(r => r.data)
+
+export const getEventLogStatus = (orgId) =>
+  apiClient.get('/limit-guard/event-logs', { params: { orgId } }).then(r => r.data)
+
+export const ingestEventLogs = (orgId) =>
+  apiClient.post('/limit-guard/event-logs/run', null, { params: { orgId } }).then(r => r.data)